@@ -22,4 +22,11 @@ public class AcknowledgeImpressionEvent extends ArchitectureFirstEvent {
         crossSells.put("data", data);
         return this;
     }
+
+    @Override
+    public AcknowledgeImpressionEvent copy() {
+        var copy = (AcknowledgeImpressionEvent) super.copy();
+        copy.crossSells = copyOf(crossSells);
+        return copy;
+    }
 }
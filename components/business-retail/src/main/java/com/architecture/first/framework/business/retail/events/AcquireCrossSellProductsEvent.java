@@ -22,4 +22,11 @@ public class AcquireCrossSellProductsEvent extends ArchitectureFirstEvent {
         crossSells.put("data", data);
         return this;
     }
+
+    @Override
+    public AcquireCrossSellProductsEvent copy() {
+        var copy = (AcquireCrossSellProductsEvent) super.copy();
+        copy.crossSells = copyOf(crossSells);
+        return copy;
+    }
 }
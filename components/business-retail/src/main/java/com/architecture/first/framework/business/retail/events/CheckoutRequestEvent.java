@@ -47,6 +47,13 @@ public class CheckoutRequestEvent extends ArchitectureFirstEvent {
         return this;
     }
 
+    @Override
+    public CheckoutRequestEvent copy() {
+        var copy = (CheckoutRequestEvent) super.copy();
+        copy.shoppingCart = copyOf(shoppingCart, ShoppingCart.class);
+        return copy;
+    }
+
     @Override
     public void onVicinityInit() {
         if (this.payload().get("orderNumber") instanceof Double) {
@@ -22,4 +22,11 @@ public class CrossSellsUpdatedEvent extends ArchitectureFirstEvent {
         crossSells.put("data", data);
         return this;
     }
+
+    @Override
+    public CrossSellsUpdatedEvent copy() {
+        var copy = (CrossSellsUpdatedEvent) super.copy();
+        copy.crossSells = copyOf(crossSells);
+        return copy;
+    }
 }
@@ -28,6 +28,13 @@ public class OrderConfirmationEvent extends ArchitectureFirstEvent {
         return this;
     }
 
+    @Override
+    public OrderConfirmationEvent copy() {
+        var copy = (OrderConfirmationEvent) super.copy();
+        copy.orderConfirmation = copyOf(orderConfirmation, OrderConfirmation.class);
+        return copy;
+    }
+
     public static OrderConfirmationEvent fromForReplyWithoutPayload(String from, Object source, ArchitectureFirstEvent originalEvent) {
         OrderConfirmationEvent replyEvent = new OrderConfirmationEvent(source, from, originalEvent.from());
         replyEvent.setOriginalEvent(originalEvent);
@@ -6,7 +6,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class OrderSupplyProductsEvent extends ArchitectureFirstEvent {
-    private final Map<Long, Integer> productsToOrder = new HashMap<>();
+    Map<Long, Integer> productsToOrder = new HashMap<>();
 
     public OrderSupplyProductsEvent(Object source, String from, String to) {
         super(source, from, to);
@@ -20,4 +20,11 @@ public class OrderSupplyProductsEvent extends ArchitectureFirstEvent {
         productsToOrder.put(productId, quantity);
         return this;
     }
+
+    @Override
+    public OrderSupplyProductsEvent copy() {
+        var copy = (OrderSupplyProductsEvent) super.copy();
+        copy.productsToOrder = new HashMap<>(productsToOrder);
+        return copy;
+    }
 }
@@ -7,7 +7,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class RemoveReservationsEvent extends ArchitectureFirstEvent {
-    private final Map<Long, Integer> productReservationsToRemove = new HashMap<>();
+    Map<Long, Integer> productReservationsToRemove = new HashMap<>();
 
     public RemoveReservationsEvent(Object source, String from, String to) {
         super(source, from, to);
@@ -26,4 +26,10 @@ public class RemoveReservationsEvent extends ArchitectureFirstEvent {
         return Collections.unmodifiableMap(productReservationsToRemove);
     }
 
+    @Override
+    public RemoveReservationsEvent copy() {
+        var copy = (RemoveReservationsEvent) super.copy();
+        copy.productReservationsToRemove = new HashMap<>(productReservationsToRemove);
+        return copy;
+    }
 }
@@ -6,7 +6,7 @@ import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
 import java.util.*;
 
 public class SuggestedProductsEvent extends ArchitectureFirstEvent implements AnonymousOkEvent {
-    private final List<InventorySuggestedProductsResult> suggestedProducts = new ArrayList<>();
+    List<InventorySuggestedProductsResult> suggestedProducts = new ArrayList<>();
 
     public SuggestedProductsEvent(Object source, String from, String to) {
         super(source, from, to);
@@ -26,4 +26,10 @@ public class SuggestedProductsEvent extends ArchitectureFirstEvent implements An
         return Collections.unmodifiableList(suggestedProducts);
     }
 
+    @Override
+    public SuggestedProductsEvent copy() {
+        var copy = (SuggestedProductsEvent) super.copy();
+        copy.suggestedProducts = new ArrayList<>(suggestedProducts);
+        return copy;
+    }
 }
@@ -7,7 +7,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class SupplyProductsHaveArrivedEvent extends ArchitectureFirstEvent {
-    private final Map<Long, Integer> productsThatArrived = new HashMap<>();
+    Map<Long, Integer> productsThatArrived = new HashMap<>();
 
     public SupplyProductsHaveArrivedEvent(Object source, String from, String to) {
         super(source, from, to);
@@ -26,4 +26,10 @@ public class SupplyProductsHaveArrivedEvent extends ArchitectureFirstEvent {
         return Collections.unmodifiableMap(productsThatArrived);
     }
 
+    @Override
+    public SupplyProductsHaveArrivedEvent copy() {
+        var copy = (SupplyProductsHaveArrivedEvent) super.copy();
+        copy.productsThatArrived = new HashMap<>(productsThatArrived);
+        return copy;
+    }
 }
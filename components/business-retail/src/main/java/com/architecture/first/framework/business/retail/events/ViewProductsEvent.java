@@ -11,7 +11,7 @@ import java.util.Collections;
 import java.util.List;
 
 public class ViewProductsEvent extends ArchitectureFirstEvent implements AnonymousOkEvent {
-    private final List<Product> products = new ArrayList<>();
+    List<Product> products = new ArrayList<>();
     private ShowProductsCriteria criteria = new ShowProductsCriteria();
 
     public ViewProductsEvent(Object source, String from, String to) {
@@ -41,6 +41,14 @@ public class ViewProductsEvent extends ArchitectureFirstEvent implements Anonymo
         return this;
     }
 
+    @Override
+    public ViewProductsEvent copy() {
+        var copy = (ViewProductsEvent) super.copy();
+        copy.products = new ArrayList<>(products);
+        copy.criteria = (criteria != null) ? new ShowProductsCriteria(criteria.getJsonCriteria()) : null;
+        return copy;
+    }
+
     @Override
     public ViewProductsEvent initFromDefaultEvent(ArchitectureFirstEvent defaultLocalEvent) {
         return (ViewProductsEvent) super.initFromDefaultEvent(defaultLocalEvent);
@@ -1,5 +1,6 @@
 package com.architecture.first.framework.business.retail.model.cashier.model.order.cart;
 
+import com.architecture.first.framework.technical.codegen.WireModel;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -7,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 
 @Data
+@WireModel      // carried in the payload of CheckoutRequestEvent
 public class Order {
     private Long orderNumber;
     private Long userId;
@@ -1,9 +1,15 @@
 package com.architecture.first.framework.business.retail.model.criteria;
 
 import com.architecture.first.framework.business.retail.storefront.model.ICriteria;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.TreeSet;
+
 @Getter
 public class ShowProductsCriteria implements ICriteria {
     private String jsonCriteria = "";
@@ -23,6 +29,42 @@ public class ShowProductsCriteria implements ICriteria {
         return "".equals(jsonCriteria) || "{}".equals(jsonCriteria);
     }
 
+    /**
+     * Returns the criteria with the fields of every object in name order and without whitespace,
+     * so criteria that only differ in their formatting are equal
+     * @return normalized JSON
+     */
+    public String normalized() {
+        if (isEmpty() || StringUtils.isBlank(jsonCriteria)) {
+            return "{}";
+        }
+
+        try {
+            return sorted(new JsonParser().parse(jsonCriteria)).toString();
+        }
+        catch (JsonSyntaxException e) {
+            return jsonCriteria.trim();
+        }
+    }
+
+    private static JsonElement sorted(JsonElement element) {
+        if (element.isJsonArray()) {
+            var array = element.getAsJsonArray();
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, sorted(array.get(i)));
+            }
+            return array;
+        }
+        if (!element.isJsonObject()) {
+            return element;
+        }
+
+        var object = element.getAsJsonObject();
+        var sorted = new JsonObject();
+        new TreeSet<>(object.keySet()).forEach(name -> sorted.add(name, sorted(object.get(name))));
+        return sorted;
+    }
+
     @Override
     public String toString() {
         return StringUtils.isNotEmpty(jsonCriteria) ? jsonCriteria : "{}";
@@ -2,13 +2,13 @@ package com.architecture.first.framework.business.retail.storefront;
 
 import com.architecture.first.framework.business.retail.storefront.model.ICriteria;
 import com.architecture.first.framework.business.retail.storefront.model.IProduct;
-import com.google.gson.Gson;
+import com.architecture.first.framework.technical.util.JsonUtils;
 import com.google.gson.reflect.TypeToken;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -20,7 +20,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Repository
 public class Storefront {
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
 
     public static String STORE_FRONT_NAME = "Storefront";
     public static String STORE_FRONT_CRITERIA_NAME = "Storefront/Criteria";
@@ -38,11 +38,11 @@ public class Storefront {
         });
 
         // update criteria
-        jedis.hset(STORE_FRONT_CRITERIA_NAME, criteria.toString(), new Gson().toJson(productIds));
+        jedis.hset(STORE_FRONT_CRITERIA_NAME, criteria.toString(), JsonUtils.gson().toJson(productIds));
     }
 
     public void addProduct(IProduct p) {
-        jedis.hset(STORE_FRONT_NAME, p.getProductId().toString(), new Gson().toJson(p));
+        jedis.hset(STORE_FRONT_NAME, p.getProductId().toString(), JsonUtils.gson().toJson(p));
     }
 
     public void removeProduct(IProduct p) {
@@ -55,7 +55,7 @@ public class Storefront {
             return Optional.empty();
         }
 
-        return Optional.of(new Gson().fromJson(contents, classType));
+        return Optional.of(JsonUtils.gson().fromJson(contents, classType));
     }
 
     public Optional<List<IProduct>> getProducts(ICriteria criteria, Type classType) {
@@ -65,7 +65,7 @@ public class Storefront {
         }
 
         Type listType = new TypeToken<List<String>>() {}.getType();
-        List<String> productIds = new Gson().fromJson(contents, listType);
+        List<String> productIds = JsonUtils.gson().fromJson(contents, listType);
         List<IProduct> products = new ArrayList<>();
         productIds.forEach(p -> {
             var product = getProduct(Long.valueOf(p), classType);
@@ -0,0 +1,61 @@
+package com.architecture.first.framework.business.retail.events;
+
+import com.architecture.first.framework.business.retail.model.cashier.model.inventory.Product;
+import com.architecture.first.framework.business.retail.model.customer.cart.CartItem;
+import com.architecture.first.framework.business.retail.model.customer.cart.ShoppingCart;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCopyTests {
+
+    @Test
+    void productsAddedToACopyAreNotSeenByTheSender() {
+        var event = new ViewProductsEvent(this, "Customer.1", "Merchant");
+        event.addProduct(new Product());
+
+        var copy = event.copy();
+        copy.addProducts(List.of(new Product(), new Product()));
+        copy.getCriteria().setJsonCriteria("{\"type\":\"Fishing Rod\"}");
+
+        assertEquals(1, event.getProducts().size());
+        assertEquals(3, copy.getProducts().size());
+        assertTrue(event.getCriteria().isEmpty());
+    }
+
+    @Test
+    void aCopyHasAShoppingCartOfItsOwn() {
+        var item = new CartItem();
+        item.setProductId(7L);
+        var cart = new ShoppingCart();
+        cart.setOrderNumber(1001L);
+        cart.addItem(item);
+        var event = new CheckoutRequestEvent(this, "Customer.1", List.of("Merchant", "Cashier"))
+                .setShoppingCart(cart);
+
+        var copy = event.copy();
+        copy.getShoppingCart().addItem(new CartItem());
+        copy.getShoppingCart().getItems().get(0).setProductId(8L);
+
+        assertEquals(1, event.getShoppingCart().getItems().size());
+        assertEquals(7L, event.getShoppingCart().getItems().get(0).getProductId());
+        assertEquals(1001L, copy.getShoppingCart().getOrderNumber());
+        assertEquals(2, copy.getShoppingCart().getItems().size());
+    }
+
+    @Test
+    void addingToTheMapOfACopyLeavesTheSenderUnchanged() {
+        var event = new SupplyProductsHaveArrivedEvent(this, "Vendor.1", "Merchant");
+        event.addProduct(1001L, 5);
+
+        var copy = event.copy();
+        copy.addProduct(1001L, 5);
+        copy.addProduct(1002L, 1);
+
+        assertEquals(Map.of(1001L, 5), event.getProductsThatArrived());
+        assertEquals(Map.of(1001L, 10, 1002L, 1), copy.getProductsThatArrived());
+    }
+}
@@ -0,0 +1,121 @@
+package com.architecture.first.framework.business.retail.events;
+
+import com.architecture.first.framework.business.retail.model.Discount;
+import com.architecture.first.framework.business.retail.model.cashier.model.inventory.Price;
+import com.architecture.first.framework.business.retail.model.cashier.model.inventory.Product;
+import com.architecture.first.framework.business.retail.model.cashier.model.order.cart.Order;
+import com.architecture.first.framework.business.retail.model.cashier.model.order.confirmation.Address;
+import com.architecture.first.framework.business.retail.model.cashier.model.order.confirmation.OrderConfirmation;
+import com.architecture.first.framework.business.retail.model.customer.cart.CartItem;
+import com.architecture.first.framework.business.retail.model.customer.cart.ShoppingCart;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.json.GeneratedTypeAdapter;
+import com.architecture.first.framework.technical.util.JsonUtils;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedAdapterTests {
+    private final Gson reflectiveGson = new Gson();
+
+    @Test
+    void checkoutRequestMatchesGson() {
+        var item = new CartItem();
+        item.setProductId(7L);
+        item.setName("Widget");
+        item.setAttributes(List.of("blue", "large"));
+        item.setQuantity(2);
+        item.setOriginalPrice(new BigDecimal("19.99"));
+        item.setCalculatedPrice(new BigDecimal("17.50"));
+        item.setDiscounts(List.of(new BigDecimal("2.49")));
+        item.setUpdateDate(new Date(1_650_000_000_000L));
+
+        var cart = new ShoppingCart();
+        cart.setOrderNumber(1001L);
+        cart.setBillingAddress(address());
+        cart.setFirstName("Pat");
+        cart.setIsActive(true);
+        cart.addItem(item);
+
+        var order = new Order();
+        order.setOrderNumber(1001L);
+        order.setTotalPrice(new BigDecimal("35.00"));
+
+        var event = new CheckoutRequestEvent(this, "Customer.1", List.of("Cashier"))
+                .setShoppingCart(cart)
+                .setOrderPreview(order)
+                .setCustomerId(42L)
+                .setOrderNumber(1001L);
+
+        assertMatchesGson(event, CheckoutRequestEvent.class);
+    }
+
+    @Test
+    void viewProductsMatchesGson() {
+        var discount = new Discount();
+        discount.setName("spring");
+        discount.setValue(new BigDecimal("1.25"));
+
+        var price = new Price();
+        price.setValue(new BigDecimal("9.99"));
+        price.setType("retail");
+        price.setDiscounts(List.of(discount));
+
+        var product = new Product();
+        product.setProductId(3L);
+        product.setName("Lamp \"deluxe\"");
+        product.setPrice(List.of(price));
+        product.setUnitsAvailable(12);
+
+        var event = new ViewProductsEvent(this, "Merchant.1", "Customer.1");
+        event.addProduct(product);
+
+        assertMatchesGson(event, ViewProductsEvent.class);
+    }
+
+    @Test
+    void orderConfirmationMatchesGson() {
+        var confirmation = new OrderConfirmation();
+        confirmation.setBillingAddress(address());
+        confirmation.setBonusPointsEarned(15);
+        confirmation.setDatePurchased(new Date(1_650_000_000_000L));
+        confirmation.setItems(List.of());
+        confirmation.setShippingCost(BigDecimal.ZERO);
+
+        var event = new OrderConfirmationEvent(this, "Cashier.1", "Customer.1")
+                .setOrderConfirmation(confirmation);
+
+        assertMatchesGson(event, OrderConfirmationEvent.class);
+    }
+
+    private <T extends ArchitectureFirstEvent> void assertMatchesGson(T event, Class<T> type) {
+        assertInstanceOf(GeneratedTypeAdapter.class, JsonUtils.gson().getAdapter(type));
+
+        var json = reflectiveGson.toJson(event);
+        assertEquals(json, JsonUtils.toJson(event));
+
+        // the timestamp of a Spring event has no setter, so a read event keeps the time it was created
+        var expected = reflectiveGson.fromJson(json, type);
+        var actual = JsonUtils.gson().fromJson(json, type);
+        assertEquals(withoutTimestamp(reflectiveGson.toJsonTree(expected)), withoutTimestamp(reflectiveGson.toJsonTree(actual)));
+    }
+
+    private JsonElement withoutTimestamp(JsonElement json) {
+        json.getAsJsonObject().remove("timestamp");
+        return json;
+    }
+
+    private Address address() {
+        var address = new Address();
+        address.setStreet("1 Main St");
+        address.setCity("Springfield");
+        address.setZip("12345");
+        return address;
+    }
+}
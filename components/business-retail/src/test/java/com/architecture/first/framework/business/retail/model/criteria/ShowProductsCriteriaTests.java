@@ -0,0 +1,18 @@
+package com.architecture.first.framework.business.retail.model.criteria;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowProductsCriteriaTests {
+
+    @Test
+    void equivalentCriteriaNormalizeTheSame() {
+        var first = new ShowProductsCriteria("{\"type\": \"shoes\", \"price\": {\"$lt\": 100, \"$gt\": 10}}");
+        var second = new ShowProductsCriteria("{\"price\":{\"$gt\":10,\"$lt\":100},\"type\":\"shoes\"}");
+
+        assertEquals(first.normalized(), second.normalized());
+        assertNotEquals(first.normalized(), new ShowProductsCriteria("{\"type\": \"hats\"}").normalized());
+        assertEquals("{}", new ShowProductsCriteria().normalized());
+    }
+}
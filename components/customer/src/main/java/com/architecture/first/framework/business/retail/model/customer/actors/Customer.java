@@ -23,7 +23,7 @@ import com.architecture.first.framework.security.model.UserToken;
 import com.architecture.first.framework.technical.events.ActorProcessingErrorEvent;
 import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
 import com.architecture.first.framework.technical.events.DefaultLocalEvent;
-import com.architecture.first.framework.technical.util.SimpleModel;
+import com.architecture.first.framework.technical.threading.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
 import org.codehaus.plexus.util.StringUtils;
 import org.springframework.aop.framework.AopContext;
@@ -33,7 +33,9 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
@@ -48,6 +50,7 @@ public class Customer extends Actor {
 
     private final CustomerRepository repository;
     private final ClientCommunication client;
+    private final SingleFlight<String, List<Product>> productQueries = new SingleFlight<>();
 
     @Autowired
     public Customer(CustomerRepository repository, ClientCommunication client) {
@@ -67,62 +70,64 @@ public class Customer extends Actor {
         registerBehavior("OrderConfirmation", Customer.hearOrderConfirmation);
     }
 
+    /**
+     * Asks a Merchant for the products that match the criteria.
+     * Identical requests that arrive while one is waiting for the Merchant share its reply
+     *
+     *      Note:
+     *          The shared request is sent with the Customer's own request id and token, never with those of a caller.
+     *          Each caller receives its own read-only copy of the products.
+     * @param localEvent
+     * @param criteria
+     * @return products
+     */
     @TaskTracking(task = "customer/ViewProducts", defaultParentTask = "customer/ViewProducts")
     public List<Product> viewProducts(ArchitectureFirstEvent localEvent, ShowProductsCriteria criteria) {
-        SimpleModel returnData = new SimpleModel();
+        var products = productQueries.execute(localEvent.project() + "/" + criteria.normalized(),
+                () -> requestProducts(localEvent.project(), criteria));
+        return (products != null) ? Collections.unmodifiableList(new ArrayList<>(products)) : null;
+    }
 
+    private List<Product> requestProducts(String project, ShowProductsCriteria criteria) {
         var event = new ViewProductsEvent(this, name(), "Merchant")
                 .setCriteria(criteria)
-                .setRequestId(localEvent.getRequestId())
-                .setAccessToken(localEvent.getAccessToken())
-                .shouldAwaitResponse(true)
-                .initFromDefaultEvent(localEvent);
-
-        say(event, response -> {
-            if (response instanceof ViewProductsEvent) {
-                var evt = (ViewProductsEvent) response;
-                returnData.put("products", evt.getProducts());
-                log.info("products have arrived");
-                return true;
-            }
-            return false;
-        },
-        exception -> {
-            log.error("Exception: ", exception);
-            return true;
-        });
+                .setAccessToken(SecurityGuard.getAccessToken())
+                .setAsIdempotent(true);    // a read, so a slow Merchant can be hedged
+        if (project != null) {
+            event.setProject(project);
+        }
 
-        log.info("return products");
-        return (List<Product>) returnData.get("products");
+        return ask(event, response -> response instanceof ViewProductsEvent)
+                .thenApply(response -> {
+                    log.info("products have arrived");
+                    return ((ViewProductsEvent) response).getProducts();
+                })
+                .exceptionally(exception -> {
+                    log.error("Exception: ", exception);
+                    return null;
+                })
+                .join();
     }
 
     @TaskTracking(task = "customer/ViewProduct", defaultParentTask = "customer/ViewProduct")
     public CartItem viewProduct(ArchitectureFirstEvent localEvent, Long id) {
-        SimpleModel returnData = new SimpleModel();
-
         var event = new ViewProductEvent(this, name(), "Merchant")
                 .setProductId(id)
                 .setRequestId(localEvent.getRequestId())
                 .setAccessToken(localEvent.getAccessToken())
-                .shouldAwaitResponse(true)
+                .setAsIdempotent(true)     // a read, so a slow Merchant can be hedged
                 .initFromDefaultEvent(localEvent);
 
-        say(event, response -> {
-            if (response instanceof ViewProductEvent) {
-                var evt = (ViewProductEvent) response;
-                returnData.put("product", evt.getProduct());
-                log.info("the product has arrived");
-                return true;
-            }
-            return false;
-            },
-            exception -> {
-                log.error("Exception: ", exception);
-                return true;
-            });
-
-        log.info("return product");
-        return (CartItem) returnData.get("product");
+        return ask(event, response -> response instanceof ViewProductEvent)
+                .thenApply(response -> {
+                    log.info("the product has arrived");
+                    return ((ViewProductEvent) response).getProduct();
+                })
+                .exceptionally(exception -> {
+                    log.error("Exception: ", exception);
+                    return null;
+                })
+                .join();
     }
 
     //C02 - Add Product to Cart
@@ -290,33 +295,25 @@ public class Customer extends Actor {
             throw new ActorException(this, "CART_NOT_AVAILABLE");
         }
 
-        SimpleModel returnData = new SimpleModel();
-
         var cart = optCart.get();
         var event = new CheckoutRequestEvent(this, name(), Arrays.asList("Merchant","Cashier"))
                 .setCustomerId(cart.getUserId())
                 .setOrderNumber(cart.getOrderNumber())
                 .setShoppingCart(cart)
                 .setRequestId(localEvent.getRequestId())
-                .shouldAwaitResponse(true)
                 .setAwaitTimeoutSeconds(60)
                 .initFromDefaultEvent(localEvent);
 
-        say(event, response -> {
-                    if (response instanceof OrderConfirmationEvent) {
-                        var evt = (OrderConfirmationEvent) response;
-                        returnData.put("orderConfirmation", evt.getOrderConfirmation());
-                        log.info("the order has been processed");
-                        return true;
-                    }
-                    return false;
-                },
-                exception -> {
+        return ask(event, response -> response instanceof OrderConfirmationEvent)
+                .thenApply(response -> {
+                    log.info("the order has been processed");
+                    return ((OrderConfirmationEvent) response).getOrderConfirmation();
+                })
+                .exceptionally(exception -> {
                     log.error("Exception: ", exception);
-                    return true;
-                });
-
-        return (OrderConfirmation) returnData.get("orderConfirmation");
+                    return null;
+                })
+                .join();
     }
 
     @TaskTracking(task = "customer/CheckoutAsGuest")
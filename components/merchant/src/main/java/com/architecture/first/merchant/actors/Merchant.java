@@ -2,6 +2,7 @@ package com.architecture.first.merchant.actors;
 
 import com.architecture.first.framework.business.actors.Actor;
 import com.architecture.first.framework.business.retail.events.*;
+import com.architecture.first.framework.business.retail.model.criteria.ShowProductsCriteria;
 import com.architecture.first.framework.business.retail.model.customer.cart.CartItem;
 import com.architecture.first.framework.business.retail.model.merchant.Delivery;
 import com.architecture.first.framework.business.retail.model.results.InventorySuggestedProductsResult;
@@ -15,6 +16,7 @@ import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
 import com.architecture.first.framework.business.actors.exceptions.ActorException;
 
 import com.architecture.first.framework.technical.events.DefaultLocalEvent;
+import com.architecture.first.framework.technical.threading.SingleFlight;
 import com.architecture.first.framework.technical.util.SimpleModel;
 import com.architecture.first.merchant.MerchantApplication;
 import com.architecture.first.framework.business.retail.model.cashier.model.inventory.results.BonusPointAnalysisResult;
@@ -42,6 +44,7 @@ public class Merchant extends Actor {
     public static final int LIMIT_OF_PRODUCTS_FOR_CRITERIA = 100;
     private final InventoryRepository warehouse;
     private final Storefront storefront;
+    private final SingleFlight<String, List<? extends IProduct>> warehouseQueries = new SingleFlight<>();
 
     @Value("${merchant.analysis.minimumAvailableProductThreshold}")
     private Integer minimumAvailableProductThreshold;
@@ -98,7 +101,7 @@ public class Merchant extends Actor {
         var optionalProducts = storefront.getProducts(event.getCriteria(), Product.class);
         var products =  (optionalProducts.isPresent())
                 ? optionalProducts.get()
-                : warehouse.getProducts(event.getCriteria());
+                : findProducts(event.getCriteria());
 
         /* At step 1, the merchant cannot find available products.
             2.1 The merchant notifies the customer.*/
@@ -109,15 +112,34 @@ public class Merchant extends Actor {
                     .setAccessToken(event.getAccessToken()));
             rememberOccurrence("No Products found for criteria", event.getCriteria().getJsonCriteria());
         }
-        else {
-            if (optionalProducts.isEmpty()) {
-                storefront.addProducts(event.getCriteria(), products);
-            }
-        }
 
         return products;
     }
 
+    /**
+     * Gets products from the warehouse and places them in the storefront.
+     * Concurrent storefront misses for the same criteria share one warehouse query,
+     * and each caller receives its own copy of the products it found
+     * @param criteria
+     * @return products
+     */
+    private List<? extends IProduct> findProducts(ShowProductsCriteria criteria) {
+        var found = warehouseQueries.execute(criteria.normalized(), () -> {
+            // a query that finished just before this one may have filled the storefront already
+            var optionalProducts = storefront.getProducts(criteria, Product.class);
+            if (optionalProducts.isPresent()) {
+                return optionalProducts.get();
+            }
+
+            var products = warehouse.getProducts(criteria);
+            if (products.size() > 0) {
+                storefront.addProducts(criteria, products);
+            }
+            return products;
+        });
+        return new ArrayList<>(found);
+    }
+
     // M08-Show-ProductF
     @TaskTracking(task = "merchant/ShowProduct", defaultParentTask = "customer/ViewProduct")
     public CartItem showProduct(ViewProductEvent event) {
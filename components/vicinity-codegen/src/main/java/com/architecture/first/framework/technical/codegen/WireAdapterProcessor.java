@@ -0,0 +1,664 @@
+package com.architecture.first.framework.technical.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Generates a streaming Gson adapter for each class marked with WireModel and the models reachable from its fields.
+ *
+ *      Note:
+ *          The generated adapter writes the fields in the same order and format as Gson's reflective adapter,
+ *          so the JSON on the wire does not change.  Fields are read and written with plain Java, either directly or
+ *          through their getter and setter, including the ones Lombok generates, so a field must be accessible from
+ *          the class's package.  Strings, booleans, ints and longs are written inline; other field types use the Gson
+ *          adapter for the field type, which is looked up once per adapter.
+ *          The fields of a superclass with an adapter of its own are read and written by that adapter.
+ *          Instances are created with a no-argument constructor, or for events with the (source, from, to) constructor.
+ *          A field of a library superclass that only has a getter, such as the timestamp of a Spring event, is written
+ *          but not read, so it keeps the value the constructor gave it.
+ *          Classes that Gson would not handle reflectively, such as maps, collections, generic or abstract classes,
+ *          are skipped and keep using Gson's reflective adapter.  So are classes with a field the adapter cannot reach,
+ *          which are reported as a warning, unless the class is excluded with WireModel(generate = false).
+ *          The adapters are found at runtime by GeneratedTypeAdapterFactory using the ADAPTER_SUFFIX.
+ */
+@SupportedAnnotationTypes(WireAdapterProcessor.WIRE_MODEL)
+public class WireAdapterProcessor extends AbstractProcessor {
+    public static final String WIRE_MODEL = "com.architecture.first.framework.technical.codegen.WireModel";
+    public static final String ADAPTER_SUFFIX = "_GsonAdapter";
+    private static final String BASE_ADAPTER = "com.architecture.first.framework.technical.json.GeneratedTypeAdapter";
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String LOMBOK = "lombok.";
+
+    private final Set<String> generated = new HashSet<>();
+    private final Map<TypeElement, Optional<Plan>> plans = new HashMap<>();
+    private Set<TypeElement> sources = Set.of();
+    private Set<TypeElement> models = Set.of();
+
+    private enum Kind {STRING, BOOLEAN, INTEGER, LONG, OTHER}
+
+    /**
+     * How the adapter reads and writes one field
+     */
+    private static class WireField {
+        private final String name;
+        private final Kind kind;
+        private final TypeMirror type;
+        private final String getter;    // an expression of "value"
+        private final String setter;    // a statement format of "value" and the value read, or null if the field is only written
+
+        private WireField(String name, Kind kind, TypeMirror type, String getter, String setter) {
+            this.name = name;
+            this.kind = kind;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * How the adapter of a class is generated
+     */
+    private static class Plan {
+        private final List<WireField> fields = new ArrayList<>();
+        private String constructor;             // creates an instance in the adapter
+        private TypeElement superAdapterOf;     // the superclass whose adapter handles the remaining fields
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver() || annotations.isEmpty()) {
+            return false;
+        }
+
+        sources = new LinkedHashSet<>();
+        roundEnv.getRootElements().forEach(e -> collectTypes(e, sources));
+
+        // WireModel is inherited, so every subclass of a marked class is included
+        TypeElement marker = processingEnv.getElementUtils().getTypeElement(WIRE_MODEL);
+        Deque<TypeElement> pending = new ArrayDeque<>(ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(marker)));
+
+        // include the models reachable from the fields of the marked classes
+        models = new LinkedHashSet<>();
+        while (!pending.isEmpty()) {
+            var type = pending.poll();
+            if (sources.contains(type) && !isExcluded(type) && models.add(type) && isSupported(type)) {
+                fieldsOf(type).forEach(f -> addReachable(f.asType(), pending));
+            }
+        }
+
+        models.stream()
+                .filter(t -> planFor(t).isPresent())
+                .filter(t -> generated.add(binaryName(t)))
+                .forEach(this::generate);
+
+        return false;
+    }
+
+    /**
+     * Determines if Gson would use its reflective adapter for the type, so a generated adapter can replace it
+     * @param type
+     * @return true if an adapter can be generated
+     */
+    private boolean isSupported(TypeElement type) {
+        var types = processingEnv.getTypeUtils();
+        var elements = processingEnv.getElementUtils();
+
+        if (type.getKind() != ElementKind.CLASS
+                || type.getModifiers().contains(Modifier.ABSTRACT)
+                || type.getModifiers().contains(Modifier.PRIVATE)
+                || !type.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL
+                && (type.getNestingKind() != NestingKind.MEMBER || !type.getModifiers().contains(Modifier.STATIC))) {
+            return false;
+        }
+        for (String container : List.of("java.util.Map", "java.util.Collection")) {
+            var containerType = elements.getTypeElement(container);
+            if (types.isSubtype(types.erasure(type.asType()), types.erasure(containerType.asType()))) {
+                return false;
+            }
+        }
+
+        // fields of a generic superclass would have to be resolved against the type arguments
+        for (TypeElement t = type; t != null; t = superclassOf(t)) {
+            var superclass = t.getSuperclass();
+            if (superclass.getKind() == TypeKind.DECLARED && !((DeclaredType) superclass).getTypeArguments().isEmpty()) {
+                return false;
+            }
+        }
+
+        Set<String> names = new HashSet<>();
+        for (VariableElement field : fieldsOf(type)) {
+            boolean isRenamed = field.getAnnotationMirrors().stream()
+                    .anyMatch(a -> a.getAnnotationType().toString().equals(SERIALIZED_NAME));
+            if (isRenamed || !names.add(field.getSimpleName().toString())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines if the nearest WireModel of a class, its own or inherited, excludes it
+     * @param type
+     * @return true if marked with generate = false
+     */
+    private boolean isExcluded(TypeElement type) {
+        for (TypeElement t = type; t != null; t = superclassOf(t)) {
+            var marker = t.getAnnotationMirrors().stream()
+                    .filter(a -> a.getAnnotationType().toString().equals(WIRE_MODEL))
+                    .findFirst();
+            if (marker.isPresent()) {
+                return marker.get().getElementValues().entrySet().stream()
+                        .anyMatch(e -> e.getKey().getSimpleName().contentEquals("generate")
+                                && Boolean.FALSE.equals(e.getValue().getValue()));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns how to generate the adapter of a type
+     * @param type
+     * @return the plan, or empty if the type keeps Gson's reflective adapter
+     */
+    private Optional<Plan> planFor(TypeElement type) {
+        var plan = plans.get(type);
+        if (plan == null) {
+            plan = (isSupported(type)) ? plan(type) : Optional.empty();
+            plans.put(type, plan);
+        }
+        return plan;
+    }
+
+    private Optional<Plan> plan(TypeElement type) {
+        var plan = new Plan();
+        plan.constructor = constructorOf(type);
+        if (plan.constructor == null) {
+            warn(type, "has no accessible no-argument or (source, from, to) constructor");
+            return Optional.empty();
+        }
+
+        String packageName = packageOf(type);
+        for (TypeElement t = type; t != null; t = superclassOf(t)) {
+            if (t != type && hasAdapter(t)) {
+                plan.superAdapterOf = t;
+                break;
+            }
+
+            for (VariableElement f : declaredFieldsOf(t)) {
+                var field = wireField(f, t, packageName);
+                if (field == null) {
+                    warn(type, "cannot reach " + t.getSimpleName() + "." + f.getSimpleName()
+                            + "; make it or its getter and setter accessible from " + packageName);
+                    return Optional.empty();
+                }
+                plan.fields.add(field);
+            }
+        }
+        return Optional.of(plan);
+    }
+
+    /**
+     * Determines if a superclass has a generated adapter, either from this compilation or an earlier one
+     */
+    private boolean hasAdapter(TypeElement type) {
+        if (models.contains(type)) {
+            return planFor(type).isPresent();
+        }
+        return processingEnv.getElementUtils().getTypeElement(packagePrefix(type) + adapterNameOf(type)) != null;
+    }
+
+    /**
+     * Returns how to read and write a field from code in a package
+     * @param field
+     * @param owner - the class that declares the field
+     * @param packageName - the package of the adapter
+     * @return the field, or null if it cannot be reached
+     */
+    private WireField wireField(VariableElement field, TypeElement owner, String packageName) {
+        String name = field.getSimpleName().toString();
+        var type = field.asType();
+        var kind = kindOf(type);
+        boolean isFinal = field.getModifiers().contains(Modifier.FINAL);
+
+        if (isAccessible(field, owner, packageName)) {
+            return (isFinal) ? null : new WireField(name, kind, type, "value." + name, "value." + name + " = %s;");
+        }
+
+        var getter = getterOf(field, owner, packageName);
+        var setter = (isFinal) ? null : setterOf(field, owner, packageName);
+        if (getter != null && setter != null) {
+            return new WireField(name, kind, type, "value." + getter + "()", "value." + setter + "(%s);");
+        }
+        if (getter != null && !sources.contains(owner)) {
+            return new WireField(name, kind, type, "value." + getter + "()", null);
+        }
+        return null;
+    }
+
+    private boolean isAccessible(Element member, TypeElement owner, String packageName) {
+        var modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && packageOf(owner).equals(packageName);
+    }
+
+    private String getterOf(VariableElement field, TypeElement owner, String packageName) {
+        String name = field.getSimpleName().toString();
+        boolean isBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        var types = processingEnv.getTypeUtils();
+
+        List<String> candidates = (isBoolean)
+                ? List.of(booleanAccessor(name, "is"), "get" + capitalize(name))
+                : List.of("get" + capitalize(name));
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            if (candidates.contains(method.getSimpleName().toString())
+                    && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && types.isSameType(method.getReturnType(), field.asType())
+                    && isAccessible(method, owner, packageName)) {
+                return method.getSimpleName().toString();
+            }
+        }
+        return (isGeneratedByLombok(field, owner, "Getter", packageName)) ? candidates.get(0) : null;
+    }
+
+    private String setterOf(VariableElement field, TypeElement owner, String packageName) {
+        String name = field.getSimpleName().toString();
+        boolean isBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        String setter = (isBoolean) ? booleanAccessor(name, "set") : "set" + capitalize(name);
+        var types = processingEnv.getTypeUtils();
+
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(setter)
+                    && method.getParameters().size() == 1
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && types.isSameType(method.getParameters().get(0).asType(), field.asType())
+                    && isAccessible(method, owner, packageName)) {
+                return setter;
+            }
+        }
+        return (isGeneratedByLombok(field, owner, "Setter", packageName)) ? setter : null;
+    }
+
+    /**
+     * Returns Lombok's accessor name for a boolean field, which drops an "is" prefix
+     */
+    private static String booleanAccessor(String name, String prefix) {
+        boolean hasIsPrefix = name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2));
+        return prefix + ((hasIsPrefix) ? name.substring(2) : capitalize(name));
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Determines if Lombok generates an accessor for a field that code in a package can call
+     * @param field
+     * @param owner
+     * @param accessor - Getter or Setter
+     * @param packageName
+     * @return true if the accessor is generated and accessible
+     */
+    private boolean isGeneratedByLombok(VariableElement field, TypeElement owner, String accessor, String packageName) {
+        var level = lombokAccessLevel(field, accessor);
+        if (level.isEmpty()) {
+            level = lombokAccessLevel(owner, accessor);
+        }
+        if (level.isEmpty() && lombokAnnotation(owner, "Data").isPresent()) {
+            level = Optional.of("PUBLIC");
+        }
+
+        switch (level.orElse("NONE")) {
+            case "PUBLIC":
+                return true;
+            case "PROTECTED":
+            case "PACKAGE":
+                return packageOf(owner).equals(packageName);
+            default:
+                return false;
+        }
+    }
+
+    private Optional<String> lombokAccessLevel(Element element, String accessor) {
+        return lombokAnnotation(element, accessor).map(a -> a.getElementValues().entrySet().stream()
+                .filter(e -> e.getKey().getSimpleName().contentEquals("value"))
+                .map(e -> e.getValue().getValue().toString())
+                .findFirst()
+                .orElse("PUBLIC"));
+    }
+
+    private Optional<? extends AnnotationMirror> lombokAnnotation(Element element, String name) {
+        return element.getAnnotationMirrors().stream()
+                .filter(a -> a.getAnnotationType().toString().equals(LOMBOK + name))
+                .findFirst();
+    }
+
+    /**
+     * Returns the expression that creates an empty instance in the adapter
+     * @param type
+     * @return expression, or null if there is no accessible constructor to use
+     */
+    private String constructorOf(TypeElement type) {
+        String typeName = type.getQualifiedName().toString();
+        String packageName = packageOf(type);
+        var constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+
+        // Lombok adds its constructors after this processor sees the class, and a Lombok constructor
+        // with arguments replaces the default constructor
+        boolean hasNoArgConstructor = constructors.stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && isAccessible(c, type, packageName));
+        boolean hasLombokNoArgConstructor = lombokAnnotation(type, "NoArgsConstructor").isPresent();
+        boolean hasLombokConstructor = hasLombokNoArgConstructor
+                || lombokAnnotation(type, "AllArgsConstructor").isPresent()
+                || lombokAnnotation(type, "RequiredArgsConstructor").isPresent()
+                || lombokAnnotation(type, "Builder").isPresent();
+        boolean hasDefaultConstructor = constructors.stream().allMatch(this::isImplicit) && !hasLombokConstructor;
+        if (hasNoArgConstructor || hasDefaultConstructor || hasLombokNoArgConstructor) {
+            return "new " + typeName + "()";
+        }
+
+        // an event, with the adapter as its source
+        for (String to : List.of("java.lang.String", "java.util.List<java.lang.String>")) {
+            for (ExecutableElement c : constructors) {
+                var parameters = c.getParameters();
+                if (parameters.size() == 3 && isAccessible(c, type, packageName)
+                        && parameters.get(0).asType().toString().equals("java.lang.Object")
+                        && parameters.get(1).asType().toString().equals("java.lang.String")
+                        && parameters.get(2).asType().toString().equals(to)) {
+                    return "new " + typeName + "(this, (java.lang.String) null, (" + to + ") null)";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines if a constructor is the default constructor the compiler adds to a class without constructors
+     */
+    private boolean isImplicit(ExecutableElement constructor) {
+        return processingEnv.getElementUtils().getOrigin(constructor) == Elements.Origin.MANDATED;
+    }
+
+    /**
+     * Returns the fields that Gson serializes, in Gson's order: the class's fields first, then each superclass's
+     * @param type
+     * @return fields
+     */
+    private List<VariableElement> fieldsOf(TypeElement type) {
+        List<VariableElement> fields = new ArrayList<>();
+        for (TypeElement t = type; t != null; t = superclassOf(t)) {
+            fields.addAll(declaredFieldsOf(t));
+        }
+        return fields;
+    }
+
+    private List<VariableElement> declaredFieldsOf(TypeElement type) {
+        List<VariableElement> fields = new ArrayList<>();
+        ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+                .filter(f -> !f.getModifiers().contains(Modifier.STATIC) && !f.getModifiers().contains(Modifier.TRANSIENT))
+                .forEach(fields::add);
+        return fields;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        var superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        var element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private void collectTypes(Element element, Set<TypeElement> types) {
+        if (element instanceof TypeElement) {
+            types.add((TypeElement) element);
+            element.getEnclosedElements().forEach(e -> collectTypes(e, types));
+        }
+    }
+
+    private void addReachable(TypeMirror type, Deque<TypeElement> pending) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            addReachable(((ArrayType) type).getComponentType(), pending);
+        }
+        else if (type.getKind() == TypeKind.DECLARED) {
+            var declared = (DeclaredType) type;
+            pending.add((TypeElement) declared.asElement());
+            declared.getTypeArguments().forEach(a -> addReachable(a, pending));
+        }
+    }
+
+    private void warn(TypeElement type, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "No Gson adapter generated for " + type.getQualifiedName() + ": it " + reason, type);
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private String packageOf(TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    private String packagePrefix(TypeElement type) {
+        String packageName = packageOf(type);
+        return (packageName.isEmpty()) ? "" : packageName + ".";
+    }
+
+    private String adapterNameOf(TypeElement type) {
+        return binaryName(type).substring(packagePrefix(type).length()) + ADAPTER_SUFFIX;
+    }
+
+    private Kind kindOf(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN: return Kind.BOOLEAN;
+            case INT: return Kind.INTEGER;
+            case LONG: return Kind.LONG;
+            case DECLARED:
+                switch (((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString()) {
+                    case "java.lang.String": return Kind.STRING;
+                    case "java.lang.Boolean": return Kind.BOOLEAN;
+                    case "java.lang.Integer": return Kind.INTEGER;
+                    case "java.lang.Long": return Kind.LONG;
+                    default: return Kind.OTHER;
+                }
+            default: return Kind.OTHER;
+        }
+    }
+
+    /**
+     * Returns the source of a reflect Type for a field type
+     */
+    private String typeLiteralOf(TypeMirror type) {
+        var types = processingEnv.getTypeUtils();
+        if (type.getKind().isPrimitive()) {
+            return type + ".class";
+        }
+
+        boolean isGeneric = type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty()
+                || type.getKind() == TypeKind.ARRAY && !types.isSameType(type, types.erasure(type));
+        return (isGeneric)
+                ? "new TypeToken<" + type + ">() {}.getType()"
+                : types.erasure(type) + ".class";
+    }
+
+    /**
+     * Returns the source type a value read by a Gson adapter is cast to
+     */
+    private String castOf(TypeMirror type) {
+        return (type.getKind().isPrimitive())
+                ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString()
+                : type.toString();
+    }
+
+    /**
+     * Writes the adapter source for a type
+     * @param type
+     */
+    private void generate(TypeElement type) {
+        var plan = planFor(type).orElseThrow();
+        String packageName = packageOf(type);
+        String adapterName = adapterNameOf(type);
+        String typeName = type.getQualifiedName().toString();
+        var fields = plan.fields;
+        String superAdapter = (plan.superAdapterOf != null) ? packagePrefix(plan.superAdapterOf) + adapterNameOf(plan.superAdapterOf) : null;
+
+        var src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("import ").append(BASE_ADAPTER).append(";\n")
+                .append("import com.google.gson.Gson;\n")
+                .append("import com.google.gson.TypeAdapter;\n")
+                .append("import com.google.gson.reflect.TypeToken;\n")
+                .append("import com.google.gson.stream.JsonReader;\n")
+                .append("import com.google.gson.stream.JsonWriter;\n\n")
+                .append("import java.io.IOException;\n")
+                .append("import java.lang.reflect.Type;\n\n")
+                .append("/**\n * Streaming Gson adapter for ").append(typeName).append(".\n")
+                .append(" * Generated by ").append(getClass().getSimpleName()).append("; do not edit.\n */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("@SuppressWarnings(\"unchecked\")\n")
+                .append("public final class ").append(adapterName).append(" extends GeneratedTypeAdapter<").append(typeName).append("> {\n");
+
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).kind == Kind.OTHER) {
+                src.append("    private static final Type TYPE_").append(i).append(" = ").append(typeLiteralOf(fields.get(i).type)).append(";\n");
+            }
+        }
+        src.append("\n");
+        if (superAdapter != null) {
+            src.append("    private final ").append(superAdapter).append(" superAdapter;\n");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).kind == Kind.OTHER) {
+                src.append("    private final TypeAdapter<Object> adapter").append(i).append(";\n");
+            }
+        }
+
+        src.append("\n    public ").append(adapterName).append("(Gson gson) {\n")
+                .append("        super(gson);\n");
+        if (superAdapter != null) {
+            src.append("        superAdapter = new ").append(superAdapter).append("(gson);\n");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).kind == Kind.OTHER) {
+                src.append("        adapter").append(i).append(" = adapter(TYPE_").append(i).append(");\n");
+            }
+        }
+        src.append("    }\n\n");
+
+        src.append("    @Override\n")
+                .append("    protected ").append(typeName).append(" newInstance() {\n")
+                .append("        return ").append(plan.constructor).append(";\n")
+                .append("    }\n\n");
+
+        src.append("    @Override\n")
+                .append("    public void writeFields(JsonWriter out, ").append(typeName).append(" value) throws IOException {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            var f = fields.get(i);
+            if (f.kind == Kind.OTHER) {
+                // a field that refers to its own object is skipped, as it is by Gson
+                src.append("        Object value").append(i).append(" = ").append(f.getter).append(";\n")
+                        .append("        if (value").append(i).append(" != value) {\n")
+                        .append("            out.name(\"").append(f.name).append("\");\n")
+                        .append("            write(out, adapter").append(i).append(", TYPE_").append(i).append(", value").append(i).append(");\n")
+                        .append("        }\n");
+            }
+            else {
+                src.append("        out.name(\"").append(f.name).append("\").value(").append(f.getter).append(");\n");
+            }
+        }
+        if (superAdapter != null) {
+            src.append("        superAdapter.writeFields(out, value);\n");
+        }
+        src.append("    }\n\n");
+
+        src.append("    @Override\n")
+                .append("    public boolean readField(String name, JsonReader in, ").append(typeName).append(" value) throws IOException {\n")
+                .append("        switch (name) {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            var f = fields.get(i);
+            if (f.setter == null) {
+                continue;
+            }
+
+            String read;
+            String readType;
+            switch (f.kind) {
+                case STRING: read = "readString(in)"; readType = "String"; break;
+                case BOOLEAN: read = "readBoolean(in)"; readType = "Boolean"; break;
+                case INTEGER: read = "readInteger(in)"; readType = "Integer"; break;
+                case LONG: read = "readLong(in)"; readType = "Long"; break;
+                default: read = "adapter" + i + ".read(in)"; readType = "Object";
+            }
+            src.append("            case \"").append(f.name).append("\":\n");
+            if (f.type.getKind().isPrimitive()) {
+                // a JSON null leaves a primitive field unchanged, as it does with Gson
+                src.append("                ").append(readType).append(" read").append(i).append(" = ").append(read).append(";\n")
+                        .append("                if (read").append(i).append(" != null) {\n")
+                        .append("                    ").append(String.format(f.setter, (f.kind == Kind.OTHER) ? "(" + castOf(f.type) + ") read" + i : "read" + i)).append("\n")
+                        .append("                }\n");
+            }
+            else {
+                String value = (f.kind == Kind.OTHER) ? "(" + castOf(f.type) + ") " + read : read;
+                src.append("                ").append(String.format(f.setter, value)).append("\n");
+            }
+            src.append("                return true;\n");
+        }
+        src.append("            default:\n")
+                .append("                return ").append((superAdapter != null) ? "superAdapter.readField(name, in, value)" : "false").append(";\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String sourceName = packagePrefix(type) + adapterName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(sourceName, type).openWriter()) {
+            writer.write(src.toString());
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to generate " + sourceName + ": " + e.getMessage(), type);
+        }
+    }
+}
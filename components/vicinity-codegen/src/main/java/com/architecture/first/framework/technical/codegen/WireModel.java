@@ -0,0 +1,27 @@
+package com.architecture.first.framework.technical.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a model that travels through the Vicinity so a streaming Gson adapter is generated for it.
+ *
+ *      Note:
+ *          The annotation is inherited, so marking ArchitectureFirstEvent covers every event.
+ *          The models reachable from the fields of a marked class are generated without the annotation;
+ *          it is only needed for models that are carried in an event's payload or header.
+ *          An event that never leaves its process can be excluded with generate = false, which its subclasses inherit.
+ */
+@Inherited
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface WireModel {
+    /**
+     * Determines if an adapter is generated for the class
+     * @return false to keep Gson's reflective adapter without a warning
+     */
+    boolean generate() default true;
+}
@@ -0,0 +1,92 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.business.vicinity.events.*;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.events.EventTypeRegistry;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compares the dispatch step of Actor.hear by behavior name with the dispatch by event class.
+ *
+ *      Note:
+ *          The name dispatch is the one hear() used before: the event name without "Event", two lookups of the name,
+ *          and the callback key built for every event.
+ *          Only the dispatch is measured; the Vicinity calls that hear() makes are the same either way.
+ *          Compiled with the benchmark profile; run the main method from the test classpath.
+ */
+public class BehaviorDispatchBenchmark {
+    private static final int ROUNDS = 5;
+    private static final int EVENTS_PER_ROUND = 20_000_000;
+    private static final Function<ArchitectureFirstEvent, Actor> BEHAVIOR = event -> null;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        var names = List.of("VicinityConnectionBroken", "UnhandledException", "ActorEntered", "ActorResume",
+                "Acknowledgement", "ActorNotFound", "ConversationBroken", "AnonymousOk", "InvalidToken", "DynamicActor");
+        Map<String, Function<ArchitectureFirstEvent, Actor>> functions = new HashMap<>();
+        var table = new BehaviorTable(EventTypeRegistry.instance().types());
+        names.forEach(name -> {
+            functions.put(name, BEHAVIOR);
+            table.register(name, BEHAVIOR);
+        });
+
+        var events = new ArchitectureFirstEvent[] {
+                new ActorEnteredEvent(BehaviorDispatchBenchmark.class, "Merchant.1", "Merchant.2").setRequestId("request-1"),
+                new AcknowledgementEvent(BehaviorDispatchBenchmark.class, "Merchant.1", "Merchant.2").setRequestId("request-2"),
+                new ActorResumeEvent(BehaviorDispatchBenchmark.class, "Merchant.1", "Merchant.2").setRequestId("request-3"),
+                new DynamicActorEvent(BehaviorDispatchBenchmark.class, "Merchant.1", "Merchant.2").setRequestId("request-4"),
+                new ArchitectureFirstEvent(BehaviorDispatchBenchmark.class, "Merchant.1", "Merchant.2").setRequestId("request-5")
+        };
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long byName = time(() -> dispatchByName(functions, events));
+            long byClass = time(() -> dispatchByClass(table, events));
+            System.out.printf("round %d: by name %.1f ns/event (%,.0f events/s), by class %.1f ns/event (%,.0f events/s)%n", round,
+                    (double) byName / EVENTS_PER_ROUND, EVENTS_PER_ROUND * 1e9 / byName,
+                    (double) byClass / EVENTS_PER_ROUND, EVENTS_PER_ROUND * 1e9 / byClass);
+        }
+        System.out.println(sink);
+    }
+
+    private static long time(Runnable run) {
+        long start = System.nanoTime();
+        run.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void dispatchByName(Map<String, Function<ArchitectureFirstEvent, Actor>> functions,
+                                       ArchitectureFirstEvent[] events) {
+        for (int i = 0; i < EVENTS_PER_ROUND; i++) {
+            var event = events[i % events.length];
+            String behaviorKey = event.name().replace("Event", "");
+            if (functions.containsKey(behaviorKey) || event.isPipelineEvent()) {
+                if (functions.containsKey(behaviorKey)) {
+                    functions.get(behaviorKey).apply(event);
+                    sink++;
+                }
+            }
+            String callbackKey = event.getRequestId() + "/" + ((event.hasOriginalEventName()) ? event.originalEventName() : event.name());
+            sink += callbackKey.length();
+        }
+    }
+
+    private static void dispatchByClass(BehaviorTable table, ArchitectureFirstEvent[] events) {
+        for (int i = 0; i < EVENTS_PER_ROUND; i++) {
+            var event = events[i % events.length];
+            var fnBehavior = table.find(event);
+            if (fnBehavior != null || event.isPipelineEvent()) {
+                if (fnBehavior != null) {
+                    fnBehavior.apply(event);
+                    sink++;
+                }
+            }
+            var eventName = CorrelationRegistry.correlatedName(event);
+            sink += eventName.length();
+        }
+    }
+}
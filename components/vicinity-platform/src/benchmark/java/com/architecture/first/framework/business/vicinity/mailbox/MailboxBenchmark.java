@@ -0,0 +1,90 @@
+package com.architecture.first.framework.business.vicinity.mailbox;
+
+import com.architecture.first.framework.business.vicinity.messages.VicinityMessage;
+import com.architecture.first.framework.business.vicinity.transport.VicinityDelivery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of a mailbox striped by requestId with a shared pool that runs letters in any order,
+ * as the Vicinity did before mailboxes.
+ *
+ *      Note:
+ *          Each letter does a fixed amount of CPU work. Letters belong to many requests, so every lane has work.
+ *          Compiled with the benchmark profile; run the main method from the test classpath.
+ */
+public class MailboxBenchmark {
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int LETTERS = 200_000;
+    private static final int REQUESTS = 1_000;
+    private static final long WORK_NANOS = 20_000;
+    private static final int ROUNDS = 3;
+
+    private static volatile long sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        var letters = createLetters();
+        for (int round = 0; round < ROUNDS; round++) {
+            System.out.printf("round %d: shared pool %,.0f letters/s, striped mailbox %,.0f letters/s%n", round,
+                    sharedPool(letters), stripedMailbox(letters));
+        }
+    }
+
+    private static List<Letter> createLetters() {
+        List<Letter> letters = new ArrayList<>(LETTERS);
+        for (int i = 0; i < LETTERS; i++) {
+            var message = new VicinityMessage("Customer.1", "Merchant.1");
+            message.getHeader().setRequestId("request-" + (i % REQUESTS));
+            letters.add(new Letter(message, VicinityDelivery.of(new byte[0]), MailboxPriority.NORMAL));
+        }
+        return letters;
+    }
+
+    private static double sharedPool(List<Letter> letters) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        var done = new CountDownLatch(letters.size());
+
+        long start = System.nanoTime();
+        letters.forEach(l -> executor.execute(() -> {
+            work();
+            done.countDown();
+        }));
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        executor.shutdown();
+        return letters.size() * 1e9 / elapsed;
+    }
+
+    private static double stripedMailbox(List<Letter> letters) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        var done = new CountDownLatch(letters.size());
+        var mailbox = new Mailbox("Merchant.1", letters.size(), THREADS, OverflowPolicy.SHED, 0, executor, null, l -> {
+            work();
+            done.countDown();
+        });
+
+        long start = System.nanoTime();
+        letters.forEach(mailbox::post);
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+        return letters.size() * 1e9 / elapsed;
+    }
+
+    private static void work() {
+        long end = System.nanoTime() + WORK_NANOS;
+        long value = 0;
+        while (System.nanoTime() < end) {
+            value++;
+        }
+        sink = value;
+    }
+}
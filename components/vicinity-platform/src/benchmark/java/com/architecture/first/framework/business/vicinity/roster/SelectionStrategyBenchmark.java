@@ -0,0 +1,100 @@
+package com.architecture.first.framework.business.vicinity.roster;
+
+import com.architecture.first.framework.technical.metrics.LatencyHistogram;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simulates a group of Actors with one slow replica and compares the tail latency of each selection strategy.
+ *
+ *      Note:
+ *          Each replica processes one event at a time in arrival order; service times are exponential.
+ *          Replicas report their load periodically, as Actors do, and the roster is refreshed with the reports.
+ *          Time is simulated, so the results are repeatable and the run takes about a second.
+ *          Compiled with the benchmark profile; run the main method from the test classpath.
+ */
+public class SelectionStrategyBenchmark {
+    private static final int REPLICAS = 4;
+    private static final double FAST_SERVICE_MILLIS = 5;
+    private static final double SLOW_SERVICE_MILLIS = 50;
+    private static final double ARRIVALS_PER_SECOND = 400;
+    private static final double REPORT_INTERVAL_MILLIS = 1000;
+    private static final double DURATION_MILLIS = 120_000;
+
+    private static class Replica {
+        final String name;
+        final double meanServiceMillis;
+        final ArrayDeque<Double> finishTimes = new ArrayDeque<>();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        double freeAt = 0;
+
+        Replica(String name, double meanServiceMillis) {
+            this.name = name;
+            this.meanServiceMillis = meanServiceMillis;
+        }
+
+        int outstandingAt(double now) {
+            while (!finishTimes.isEmpty() && finishTimes.peekFirst() <= now) {
+                finishTimes.pollFirst();
+            }
+            return finishTimes.size();
+        }
+    }
+
+    public static void main(String[] args) {
+        for (var strategy : List.of(SelectionStrategy.ROUND_ROBIN, SelectionStrategy.LEAST_OUTSTANDING,
+                SelectionStrategy.POWER_OF_TWO, SelectionStrategy.LATENCY_WEIGHTED)) {
+            run(strategy);
+        }
+    }
+
+    private static void run(String strategy) {
+        var random = new Random(42);
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < REPLICAS; i++) {
+            replicas.add(new Replica("Merchant.default.1.0.0." + i, (i == 0) ? SLOW_SERVICE_MILLIS : FAST_SERVICE_MILLIS));
+        }
+
+        var group = new RosterGroup("Merchant", SelectionStrategy.from(strategy));
+        group.replace(replicas.stream().map(r -> r.name).toList());
+
+        var latency = new LatencyHistogram();
+        double now = 0;
+        double nextReport = REPORT_INTERVAL_MILLIS;
+        int slowPicks = 0;
+        int requests = 0;
+
+        while (now < DURATION_MILLIS) {
+            now += -Math.log(1 - random.nextDouble()) * 1000 / ARRIVALS_PER_SECOND;
+
+            while (nextReport <= now) {
+                for (var replica : replicas) {
+                    int outstanding = replica.outstandingAt(nextReport);
+                    group.updateLoad(replica.name, Math.min(outstanding, 1), Math.max(outstanding - 1, 0),
+                            replica.serviceTime.percentileMicros(99), String.valueOf(nextReport));
+                    replica.serviceTime.reset();
+                }
+                nextReport += REPORT_INTERVAL_MILLIS;
+            }
+
+            var name = group.pick("default");
+            var replica = replicas.stream().filter(r -> r.name.equals(name)).findFirst().orElseThrow();
+            double service = -Math.log(1 - random.nextDouble()) * replica.meanServiceMillis;
+            double start = Math.max(now, replica.freeAt);
+            replica.freeAt = start + service;
+            replica.finishTimes.addLast(replica.freeAt);
+            replica.serviceTime.recordMicros((long) (service * 1000));
+
+            latency.recordMicros((long) ((replica.freeAt - now) * 1000));
+            slowPicks += (replica == replicas.get(0)) ? 1 : 0;
+            requests++;
+        }
+
+        System.out.printf("%-18s requests=%d to slow replica=%.1f%% p50=%dms p99=%dms max=%dms%n",
+                strategy, requests, 100.0 * slowPicks / requests,
+                latency.percentileMicros(50) / 1000, latency.percentileMicros(99) / 1000, latency.maxMicros() / 1000);
+    }
+}
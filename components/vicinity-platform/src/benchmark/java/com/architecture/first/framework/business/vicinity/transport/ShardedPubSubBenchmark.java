@@ -0,0 +1,121 @@
+package com.architecture.first.framework.business.vicinity.transport;
+
+import com.architecture.first.framework.business.vicinity.Vicinity;
+import com.architecture.first.framework.business.vicinity.threading.VicinityConnections;
+import com.architecture.first.framework.technical.sharding.RedisClusterNodes;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import com.architecture.first.framework.technical.sharding.ShardedPubSubCommand;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the messages per second a Redis Cluster delivers with classic and with sharded pub/sub,
+ * as the number of primaries that carry the channels grows.
+ *
+ *      Note:
+ *          Compiled with the benchmark profile; run the main method from the test classpath against a local cluster,
+ *          for example one created with redis-cli --cluster create on ports 7000-7005.
+ *          The first argument is any node of the cluster, localhost:7000 by default.
+ *          Each primary in use gets its own channels and a publisher that sends to them in pipelines.
+ *          With classic pub/sub every message is broadcast to every node, so adding nodes adds work to all of them;
+ *          with sharded pub/sub a message stays on the node that owns its channel.
+ */
+public class ShardedPubSubBenchmark {
+    private static final int CHANNELS_PER_NODE = 16;
+    private static final int MESSAGES_PER_NODE = 200_000;
+    private static final int PIPELINE = 100;
+    private static final int TIMEOUT = 5000;
+    private static final byte[] MESSAGE = new byte[256];
+
+    public static void main(String[] args) throws Exception {
+        var seed = HostAndPort.from((args.length > 0) ? args[0] : "localhost:7000");
+        var cluster = new RedisClusterNodes(List.of(seed), TIMEOUT);
+        var primaries = cluster.all();
+
+        for (int count = 1; count <= primaries.size(); count++) {
+            var inUse = primaries.subList(0, count);
+            System.out.printf("%d node(s): classic %,.0f messages/s, sharded %,.0f messages/s%n", count,
+                    run(new RedisNodes(List.of(seed)), cluster, inUse, false),
+                    run(cluster, cluster, inUse, true));
+        }
+    }
+
+    /**
+     * Publishes from one thread per node and waits until every message has been received
+     */
+    private static double run(RedisNodes subscriberNodes, RedisClusterNodes cluster, List<HostAndPort> inUse,
+                              boolean isSharded) throws Exception {
+        var channels = channelsOf(cluster, inUse);
+        var received = new CountDownLatch(inUse.size() * MESSAGES_PER_NODE);
+        var connections = new VicinityConnections("a1-vicinity-benchmark", subscriberNodes, TIMEOUT, 1, c -> {});
+        connections.start();
+        channels.values().forEach(list -> list.forEach(channel -> connections.subscribe(channel, m -> received.countDown())));
+        for (var list : channels.values()) {
+            for (var channel : list) {
+                while (!connections.isOk(channel, 1)) {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                }
+            }
+        }
+
+        List<Thread> publishers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (var node : inUse) {
+            var thread = new Thread(() -> publish(node, channels.get(node), isSharded));
+            publishers.add(thread);
+            thread.start();
+        }
+        for (var thread : publishers) {
+            thread.join();
+        }
+        received.await(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+
+        connections.shutdown();
+        return (inUse.size() * MESSAGES_PER_NODE - received.getCount()) * 1e9 / elapsed;
+    }
+
+    private static void publish(HostAndPort node, List<String> channels, boolean isSharded) {
+        try (var jedis = new Jedis(node)) {
+            Pipeline pipeline = jedis.pipelined();
+            for (int i = 0; i < MESSAGES_PER_NODE; i++) {
+                byte[] channel = SafeEncoder.encode(channels.get(i % channels.size()));
+                if (isSharded) {
+                    pipeline.sendCommand(ShardedPubSubCommand.SPUBLISH, channel, MESSAGE);
+                }
+                else {
+                    pipeline.publish(channel, MESSAGE);
+                }
+                if ((i + 1) % PIPELINE == 0) {
+                    pipeline.sync();
+                }
+            }
+            pipeline.sync();
+        }
+    }
+
+    /**
+     * Picks Actor channels whose slots are owned by the nodes in use
+     */
+    private static Map<HostAndPort, List<String>> channelsOf(RedisClusterNodes cluster, List<HostAndPort> inUse) {
+        Map<HostAndPort, List<String>> channels = new HashMap<>();
+        inUse.forEach(node -> channels.put(node, new ArrayList<>()));
+        for (int i = 0; channels.values().stream().anyMatch(list -> list.size() < CHANNELS_PER_NODE); i++) {
+            var channel = Vicinity.shardChannelFor("Merchant." + i);
+            var list = channels.get(cluster.nodeFor(channel));
+            if (list != null && list.size() < CHANNELS_PER_NODE) {
+                list.add(channel);
+            }
+        }
+        return channels;
+    }
+}
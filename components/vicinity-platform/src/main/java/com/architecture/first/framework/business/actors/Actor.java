@@ -2,6 +2,7 @@ package com.architecture.first.framework.business.actors;
 
 import com.architecture.first.framework.business.actors.exceptions.ActorException;
 import com.architecture.first.framework.business.actors.exceptions.ActorNotFoundException;
+import com.architecture.first.framework.business.actors.exceptions.CircuitOpenException;
 import com.architecture.first.framework.business.actors.external.RestCall;
 import com.architecture.first.framework.business.actors.external.behavior.Behavior;
 import com.architecture.first.framework.business.actors.external.behavior.Logic;
@@ -12,7 +13,10 @@ import com.architecture.first.framework.business.vicinity.bulletinboard.Bulletin
 import com.architecture.first.framework.business.vicinity.bulletinboard.BulletinBoardStatus;
 import com.architecture.first.framework.business.vicinity.conversation.Conversation;
 import com.architecture.first.framework.business.vicinity.events.*;
+import com.architecture.first.framework.business.vicinity.heartbeat.Heartbeat;
+import com.architecture.first.framework.business.vicinity.heartbeat.HeartbeatCoordinator;
 import com.architecture.first.framework.business.vicinity.locking.Lock;
+import com.architecture.first.framework.business.vicinity.mailbox.PostOffice;
 import com.architecture.first.framework.business.vicinity.queue.Queue;
 import com.architecture.first.framework.business.vicinity.tasklist.Tasklist;
 import com.architecture.first.framework.business.vicinity.todo.ToDoList;
@@ -22,11 +26,15 @@ import com.architecture.first.framework.security.events.UserTokenReplyEvent;
 import com.architecture.first.framework.security.events.UserTokenRequestEvent;
 import com.architecture.first.framework.security.model.UserToken;
 import com.architecture.first.framework.technical.events.*;
+import com.architecture.first.framework.technical.metrics.LatencyHistogram;
+import com.architecture.first.framework.technical.threading.TimerWheel;
+import com.architecture.first.framework.technical.util.JsonUtils;
 import com.architecture.first.framework.technical.util.RuntimeUtils;
 import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationListener;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -39,10 +47,12 @@ import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -93,10 +103,35 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
     @Autowired
     private Logic logic;
 
-    private final Map<String, Function<ArchitectureFirstEvent, Actor>> functions = new HashMap<>();
-    private final Map<String, Function<ArchitectureFirstEvent, Boolean>> callbacksByRequest = new HashMap<>();
-    private final Map<String, Function<ActorException, Boolean>> errorHandlersByRequest = new HashMap<>();
-    private final Map<String, Semaphore> locksByRequest = new HashMap<>();
+    @Autowired
+    private PostOffice postOffice;
+
+    @Autowired
+    private HeartbeatCoordinator heartbeats;
+
+    @Value("${vicinity.hedge.percentile:95}")
+    private double hedgePercentile;
+
+    @Value("${vicinity.hedge.min-delay-millis:10}")
+    private long hedgeMinDelayMillis;
+
+    @Value("${vicinity.hedge.initial-delay-millis:250}")
+    private long hedgeInitialDelayMillis;
+
+    @Value("${vicinity.breaker.window:20}")
+    private int breakerWindow;
+
+    @Value("${vicinity.breaker.minimum-calls:10}")
+    private int breakerMinimumCalls;
+
+    @Value("${vicinity.breaker.failure-rate-percent:50}")
+    private double breakerFailureRatePercent;
+
+    @Value("${vicinity.breaker.open-millis:30000}")
+    private long breakerOpenMillis;
+
+    private final BehaviorTable behaviors = new BehaviorTable(EventTypeRegistry.instance().types());
+    private final CorrelationRegistry correlations = new CorrelationRegistry(this, TimerWheel.shared(), this::onResponseTimedOut);
     private String actorId;
     private String generation = "1.0.0";
 
@@ -109,6 +144,7 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
     private final boolean isOverriding = false;
     private boolean isTerminating = false;
     private boolean didOnce = false;
+    private volatile Heartbeat heartbeat;   // the heartbeat of the current think, if thinking
 
     private static final String VICINITY_MONITOR = "VicinityMonitor";
     private static final String ACTOR_NOTES = "ActorNotes:";
@@ -122,6 +158,10 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
     private BulletinBoardStatus bulletinBoardStatus;
     private final AtomicInteger minutesIn = new AtomicInteger(0);
     private final AtomicInteger hoursIn = new AtomicInteger(0);
+    private final AtomicInteger eventsInFlight = new AtomicInteger(0);
+    private final LatencyHistogram handlingTime = new LatencyHistogram();
+    private Hedging hedging;
+    private CircuitBreakers breakers;
 
     private ZonedDateTime vicinityHeathCheckStartTime = ZonedDateTime.now(ZoneId.of("GMT"));
     private final int expirationSecondsOnVicintyHealthCheck = 10;
@@ -134,6 +174,8 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
     @PostConstruct
     protected void init() {
         actorId = UUID.randomUUID().toString();
+        hedging = new Hedging(hedgePercentile, hedgeMinDelayMillis, hedgeInitialDelayMillis);
+        breakers = new CircuitBreakers(breakerWindow, breakerMinimumCalls, breakerFailureRatePercent, breakerOpenMillis);
         log.info("actorId: " + name());
 
         MY_VICINITY_STATUS = VICINITY_STATUS + group();
@@ -195,8 +237,8 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
         giveStatus(BulletinBoardStatus.Status.Gone, StringUtils.isNotEmpty(terminationReason) ? terminationReason : "ended normally");
 
         // stop receiving events
-        vicinity.unsubscribe(name());
-        vicinity.unsubscribe(group());
+        vicinity.unsubscribe(this, name());
+        vicinity.unsubscribe(this, group());
     }
 
     /**
@@ -367,6 +409,8 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
     @Scheduled(cron = "0 * * * * *")
     protected void think() {
         try {
+            heartbeat = beat();
+
             int duration = minutesIn.incrementAndGet();
             switch (duration) {
                 case 30:
@@ -402,6 +446,33 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
         catch (Exception e) {
             this.onException(new ActorException(this, e));
         }
+        finally {
+            heartbeat = null;
+        }
+    }
+
+    /**
+     * Sends the periodic Redis work of this Actor as one heartbeat: its status, the environment check,
+     * and the reads needed to find its turn, work to do and events still waiting for acknowledgement
+     * @return the heartbeat, whose results are used while thinking
+     */
+    private Heartbeat beat() {
+        var status = (!isAway) ? BulletinBoardStatus.Status.Active : BulletinBoardStatus.Status.Away;
+        prepareStatus(status, "running");
+
+        var beat = heartbeats.beat()
+                .postStatus(MY_VICINITY_STATUS, name(), status.name(), bulletinBoardStatus.toString(), true)
+                .checkEnvironment()
+                .readToDoList(group());
+        recall(String.class, e -> e.getValue().toString().startsWith("Waiting:")).forEach(e -> {
+            var cleanKey = e.getKey().replace("requiresAck:", "").split("/");
+            beat.readUnacknowledgedEvent(cleanKey[0], e.getValue().toString().split(":")[1]);
+        });
+        beat.send();
+
+        // reported with the next status
+        beat.cost().ifPresent(cost -> bulletinBoardStatus.setHeartbeat(cost.commands(), cost.roundTrips(), cost.micros()));
+        return beat;
     }
 
     /**
@@ -455,7 +526,10 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
      * See if there are unacknowledged tasks to work on
      */
     protected void lookForWork() {
-        var optEvent = todo.acquireAvailableTask(group(), name());
+        var current = heartbeat;
+        var optEvent = (current != null)
+                ? current.acquireAvailableTask(group(), name())
+                : todo.acquireAvailableTask(group(), name());
         if (optEvent.isPresent()) {
             whisper(optEvent.get().setAsToDoTask(true));
         }
@@ -475,7 +549,10 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
                 var eventName = cleanKey[1];
                 var from = cleanKey[2];
                 var to = cleanKey[3];
-                var event = ack.getUnacknowledgedEvent(requestId, index);
+                var current = heartbeat;
+                var event = (current != null)
+                        ? current.getUnacknowledgedEvent(requestId, index)
+                        : ack.getUnacknowledgedEvent(requestId, index);
 
                 if (event != null) {
                     onUnacknowledgedEvent(event); // potentially resend
@@ -541,26 +618,56 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
                                       Function<ArchitectureFirstEvent, Boolean> fnReplyHandler,
                                       Function<ActorException, Boolean> fnErrorHandler) {
 
+        // register before sending so that a fast reply is not missed
+        var await = (event.awaitResponse() && !event.isReply() && !event.isPropagatedFromVicinity()) // don't block on reply or to do events
+                ? CorrelationRegistry.Await.BLOCKING : CorrelationRegistry.Await.NONE;
+        return say(event, fnReplyHandler, fnErrorHandler, await, Duration.ofSeconds(event.awaitTimeoutSeconds()));
+    }
+
+    /**
+     * Send a message to one Actor
+     * @param event
+     * @param fnReplyHandler
+     * @param fnErrorHandler
+     * @param await - how the caller waits for the response
+     * @param timeout - how long the handlers are kept
+     * @return
+     */
+    private ArchitectureFirstEvent say(ArchitectureFirstEvent event,
+                                       Function<ArchitectureFirstEvent, Boolean> fnReplyHandler,
+                                       Function<ActorException, Boolean> fnErrorHandler,
+                                       CorrelationRegistry.Await await, Duration timeout) {
         // Add RequestID if not the security guard
         setRequestInfo(event);
         if (SecurityGuard.needsAnAccessToken(event) && !event.hasAccessToken()) {
             throw new ActorException(this, "jwtToken is null");
         }
 
-        var callbackKey = getCallbackKey(event);
-        if (fnReplyHandler != null) {
-            callbacksByRequest.put(callbackKey, fnReplyHandler);
-        }
-        if (fnErrorHandler != null) {
-            errorHandlersByRequest.put(callbackKey, fnErrorHandler);
-        }
+        var correlation = (fnReplyHandler != null || fnErrorHandler != null || await == CorrelationRegistry.Await.BLOCKING)
+                ? correlations.register(event, fnReplyHandler, fnErrorHandler, await, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                : null;
 
         AtomicBoolean anEventWasSent = new AtomicBoolean(false);
+        AtomicReference<CircuitOpenException> rejection = new AtomicReference<>();
 
+        // resolve every target first, so the event is published once to all of them
+        List<String> targets = new ArrayList<>();
         var toList = event.to().stream().toList();
         toList.forEach(to -> {
+            var group = (!event.isLocal() && !event.isReply()) ? groupOf(to) : null;
+            if (group != null && !breakers.breakerFor(group, event.project()).tryAcquire()) {
+                log.warn("Circuit open for group: " + group);   // fail fast and don't add a to do task to a struggling group
+                var exception = new CircuitOpenException(this, group).setEvent(event);
+                rejection.set(exception);
+                if (correlation != null && correlation.errorHandler() != null && correlation.errorHandler().apply(exception)) {
+                    correlations.complete(correlation);
+                }
+                return;
+            }
+
+            String target = to;
             if (event.isLocal()) {
-                event.setTo(name());
+                target = name();
             }
                 // Find an actor by name to send to (a.k.a. a connection)
             else if (!to.contains(".") && !to.equalsIgnoreCase(ArchitectureFirstEvent.EVENT_ALL_PARTICIPANTS)) {  // Don't do this if there is already an actor name there
@@ -570,16 +677,15 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
                     announce(new ActorNotFoundEvent(this, name(), VICINITY_MONITOR, event).setParticipant(to));
 
                     if (event.shouldProcessLaterIfNoActorFound()) {
-                        recordEventToDo(event);
+                        recordEventToDo(event.copy().setTo(to));
                     }
-                    if (errorHandlersByRequest.containsKey(callbackKey)) {
-                        Function<? super ActorException, Boolean> fnCustom = errorHandlersByRequest.get(callbackKey);
-                        var results = fnCustom.apply(new ActorNotFoundException("ACTOR_NOT_FOUND: " + to).setEvent(event));
-                        errorHandlersByRequest.remove(callbackKey);
+                    if (correlation != null && correlation.errorHandler() != null
+                            && correlation.errorHandler().apply(new ActorNotFoundException("ACTOR_NOT_FOUND: " + to).setEvent(event))) {
+                        correlations.complete(correlation);
                     }
                     return;
                 }
-                event.setTo(actorName);
+                target = actorName;
 
             } else {                                  // Verify that desired actor is available or choose another
                 if (!to.equalsIgnoreCase(ArchitectureFirstEvent.EVENT_ALL_PARTICIPANTS) &&
@@ -590,49 +696,53 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
                         announce(new ActorNotFoundEvent(this, name(), VICINITY_MONITOR, event).setParticipant(actorName));
                         return;
                     }
+                    target = actorName;
                 }
             }
+            if (targets.contains(target)) {
+                return;
+            }
 
-            var convoEntry = convo.record(event,
+            var convoEntry = convo.record(event, target,
                     !event.isReply() ? Conversation.Status.Starting : Conversation.Status.Replying);
 
             if (!convoEntry.startsWith("ERROR") && !convoEntry.startsWith("WARNING")) {
                 if (event.requiresAcknowledgement()) {
-                    String requestKey = generateAckRequestKey(event, event.name());
+                    String requestKey = generateAckRequestKey(event.getRequestId(), event.name(), event.from(), target);
                     remember(requestKey, String.format("Waiting:%s", event.index()), String.class);
                 }
             }
+            targets.add(target);
+        });
+
+        if (!targets.isEmpty() && (!event.isLocal() || !event.wasHandled())) {
+            event.setTo(targets);
+            publishEvent(event);
+            anEventWasSent.set(true);
+        }
 
-            if (!event.isLocal() || (event.isLocal() && !event.wasHandled())) {
-                publishEvent(event);
-                anEventWasSent.set(true);
+        if (rejection.get() != null && (correlation == null || correlation.errorHandler() == null)) {
+            if (correlation != null) {
+                correlations.complete(correlation);
             }
-        });
+            throw rejection.get();
+        }
 
-        if (anEventWasSent.get()) {
-            if (!event.isReply()) { // don't block on reply or to do events
-                if (event.awaitResponse() && !event.isPropagatedFromVicinity()) {
-                    var lock = new Semaphore(0);
-                    locksByRequest.put(callbackKey, lock);
-                    try {
-                        log.info("await for: " + callbackKey);
-                        if (!lock.tryAcquire(event.awaitTimeoutSeconds(), TimeUnit.SECONDS)) {
-
-                            convo.record(event, Conversation.Status.ErrorAfterReceivedByActor);
-                            if (errorHandlersByRequest.containsKey(callbackKey)) {
-                                Function<ActorException, Boolean> fnCustom = errorHandlersByRequest.get(callbackKey);
-                                var results = fnCustom.apply(new ActorException(this, "AWAIT_TIMED_OUT"));
-                                errorHandlersByRequest.remove(callbackKey);
-                            }
-                            if (event.shouldProcessLaterIfNoActorFound() && !event.isToDoTask()) {
-                                recordEventToDo(event);
-                            }
-                        }
-                    } catch (Exception e) {
-                        log.error("Interrupted thread: ", e);
-                        throw new ActorException(this, e);
+        if (correlation != null && await == CorrelationRegistry.Await.BLOCKING) {
+            try {
+                if (!anEventWasSent.get()) {
+                    correlations.complete(correlation);     // no response will arrive
+                }
+                else {
+                    log.info("await for: " + event.getRequestId() + "/" + event.name());
+                    // the timer wheel expires the correlation at its deadline; this is only a backstop
+                    if (!correlation.await(event.awaitTimeoutSeconds() + 1, TimeUnit.SECONDS)) {
+                        correlations.expire(correlation);
                     }
                 }
+            } catch (Exception e) {
+                log.error("Interrupted thread: ", e);
+                throw new ActorException(this, e);
             }
         }
 
@@ -668,6 +778,154 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
         return say(event, null, null);
     }
 
+    /**
+     * Send an event to another Actor and return its response without blocking
+     * @param event
+     * @return a future completed with the first response
+     */
+    public CompletableFuture<ArchitectureFirstEvent> ask(ArchitectureFirstEvent event) {
+        return ask(event, response -> true);
+    }
+
+    /**
+     * Send an event to another Actor and return its response without blocking.
+     * The future fails with an ActorException if an error is returned or no response arrives within the await timeout.
+     *
+     *      Note:
+     *          No thread waits for the response; the future is completed by the thread that hears it
+     *          and the timeout is run by the timer wheel of the correlation registry.
+     * @param event
+     * @param isResponse - determines which of the events heard for the request is the response
+     * @return a future completed with the response
+     */
+    public CompletableFuture<ArchitectureFirstEvent> ask(ArchitectureFirstEvent event, Predicate<ArchitectureFirstEvent> isResponse) {
+        var group = (event.to().size() == 1 && !event.toFirst().contains(".")
+                && !event.toFirst().equalsIgnoreCase(ArchitectureFirstEvent.EVENT_ALL_PARTICIPANTS) && !event.isLocal())
+                ? event.toFirst() : null;
+        long start = System.nanoTime();
+        var response = new CompletableFuture<ArchitectureFirstEvent>();
+        Function<ArchitectureFirstEvent, Boolean> fnReplyHandler = reply -> isResponse.test(reply) && response.complete(reply);
+        Function<ActorException, Boolean> fnErrorHandler = response::completeExceptionally;
+
+        try {
+            say(event, fnReplyHandler, fnErrorHandler, CorrelationRegistry.Await.ASYNC, Duration.ofSeconds(event.awaitTimeoutSeconds()));
+        } catch (ActorException e) {
+            response.completeExceptionally(e);
+        }
+
+        if (group != null && !response.isDone()) {
+            if (event.isIdempotent()) {
+                hedge(event, group, response);
+            }
+            response.thenAccept(reply -> hedging.recordResponse(group, System.nanoTime() - start));
+        }
+        return response;
+    }
+
+    /**
+     * Sends an idempotent event to a second Actor of the group if the first has not replied in time.
+     * The first reply completes the response; the later one no longer finds its correlation and is discarded
+     *
+     *      Note:
+     *          The hedge is a copy of the event, so the caller's event is not changed from the hedging thread.
+     * @param event - already sent to one Actor of the group
+     * @param group
+     * @param response
+     */
+    private void hedge(ArchitectureFirstEvent event, String group, CompletableFuture<ArchitectureFirstEvent> response) {
+        var first = event.toFirst();
+        var second = new AtomicReference<String>();
+        hedging.recordRequest();
+
+        var timeout = TimerWheel.shared().schedule(() -> CompletableFuture.runAsync(() -> {   // off the timer thread
+            if (response.isDone()) {
+                return;
+            }
+
+            var others = vicinity.findActors(group, event.project()).stream().filter(name -> !name.equals(first)).toList();
+            if (others.isEmpty()) {
+                return;
+            }
+
+            second.set(others.get(ThreadLocalRandom.current().nextInt(others.size())));
+            hedging.recordHedge();
+            log.info("hedging " + event.getRequestId() + "/" + event.name() + " to " + second.get());
+            try {
+                publishEvent(event.copy().setTo(second.get()));   // the request is already recorded and correlated
+            } catch (Exception e) {
+                log.warn("Unable to hedge " + event.name() + ": " + e.getMessage());
+            }
+        }), hedging.delayMillis(group), TimeUnit.MILLISECONDS);
+
+        response.whenComplete((reply, e) -> {
+            timeout.cancel();
+            if (reply != null && reply.from().equals(second.get())) {
+                hedging.recordHedgeWin();
+            }
+        });
+    }
+
+    /**
+     * Returns the hedging statistics of this Actor
+     * @return hedging
+     */
+    public Hedging hedging() {
+        return hedging;
+    }
+
+    /**
+     * Determines if this Actor is awaiting a response for a request, so its letters must not wait behind the caller
+     * @param requestId
+     * @return true if a response is awaited
+     */
+    public boolean isAwaitingResponse(String requestId) {
+        return correlations.isAwaiting(requestId);
+    }
+
+    /**
+     * Send an event to each of its targets and gather their replies without blocking.
+     * Each group in the targets is sent to one of its Actors.
+     * @param event
+     * @param quorum - the number of replies that is enough, or 0 to wait for all targets
+     * @param deadline - when to stop waiting and return the replies that have arrived
+     * @return a future completed with the gathered replies
+     */
+    public CompletableFuture<Gathering> gather(ArchitectureFirstEvent event, int quorum, Duration deadline) {
+        var gathering = new Gathering(event.to().size(), quorum);
+        Function<ActorException, Boolean> fnErrorHandler = e ->
+                (e.getErrorEvent() != null || e instanceof ActorNotFoundException) ? gathering.addError(e) : gathering.timeOut();
+
+        try {
+            say(event, gathering::addReply, fnErrorHandler, CorrelationRegistry.Await.NONE, deadline);
+        } catch (ActorException e) {
+            gathering.fail(e);
+        }
+
+        return gathering.result().whenComplete((g, e) -> {
+            if (g != null && !g.isComplete()) {
+                log.warn(String.format("Partial replies for %s/%s: %d of %d replied, %d errors%s", event.getRequestId(), event.name(),
+                        g.replies().size(), g.expected(), g.errors().size(), (g.isTimedOut()) ? ", deadline passed" : ""));
+            }
+        });
+    }
+
+    /**
+     * Send an event to every active Actor of a group and gather their replies without blocking
+     * @param event
+     * @param group - such as Merchant
+     * @param quorum - the number of replies that is enough, or 0 to wait for all Actors
+     * @param deadline - when to stop waiting and return the replies that have arrived
+     * @return a future completed with the gathered replies
+     */
+    public CompletableFuture<Gathering> gatherFromGroup(ArchitectureFirstEvent event, String group, int quorum, Duration deadline) {
+        var members = vicinity.findActors(group, event.project());
+        if (members.isEmpty()) {
+            return CompletableFuture.failedFuture(new ActorNotFoundException("ACTOR_NOT_FOUND: " + group).setEvent(event));
+        }
+
+        return gather(event.setTo(members), quorum, deadline);
+    }
+
 
     /**
      * Send an event only inside this process and not to the Vicinity.
@@ -711,7 +969,8 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
         event.setAsAnnouncement(true);
 
         if (fnReplyHandler != null) {
-            callbacksByRequest.put(getCallbackKey(event), fnReplyHandler);
+            correlations.register(event, fnReplyHandler, null, CorrelationRegistry.Await.NONE,
+                    event.awaitTimeoutSeconds(), TimeUnit.SECONDS);
         }
         publishEvent(event);
 
@@ -760,7 +1019,8 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
         var replyEvent = ArchitectureFirstEvent.fromForReply(this, name(), event);
 
         if (fnReplyHandler != null) {
-            callbacksByRequest.put(getCallbackKey(event), fnReplyHandler);
+            correlations.register(event, fnReplyHandler, null, CorrelationRegistry.Await.NONE,
+                    event.awaitTimeoutSeconds(), TimeUnit.SECONDS);
         }
 
         return say(replyEvent);
@@ -790,14 +1050,16 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
      * @return this Actor
      */
     protected Actor hear(ArchitectureFirstEvent event) {
+        eventsInFlight.incrementAndGet();
+        long start = System.nanoTime();
         try {
             event.setTargetActor(this);
             convo.record(event, Conversation.Status.ReceivedByActor);
             event.onVicinityInit(); // perform marshalling that Vicinity would
 
-            String behaviorKey = event.name().replace("Event", "");
+            var fnBehavior = behaviors.find(event);
             // Perform internal processing first
-            if (functions.containsKey(behaviorKey) || event.isPipelineEvent()) {
+            if (fnBehavior != null || event.isPipelineEvent()) {
                 event.setAsHandled(true);
                 if (event.isToDoTask()) {
                     todo.completeTask(event);
@@ -805,8 +1067,8 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
                     ack.recordAcknowledgement(event);
                 }
                 convo.record(event, Conversation.Status.AcknowledgedByActor);
-                if (functions.containsKey(behaviorKey)) {
-                    functions.get(behaviorKey).apply(event);
+                if (fnBehavior != null) {
+                    fnBehavior.apply(event);
                 }
             } else {
                 var reply =
@@ -820,35 +1082,18 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
 
             if (!(event instanceof AcknowledgementEvent)) {
                 // Perform one time processing
-                String callbackKey = getCallbackKey(event);
-
-                boolean responseIsComplete = false;
-                if (!(event instanceof ErrorEvent)) {
-                    if (callbacksByRequest.containsKey(callbackKey)) {
-                        Function<ArchitectureFirstEvent, Boolean> fnCustom = callbacksByRequest.get(callbackKey);
-                        responseIsComplete = fnCustom.apply(event);
-                        if (responseIsComplete) {
-                            callbacksByRequest.remove(callbackKey);
-                        }
-                    }
-                } else {
-                    if (errorHandlersByRequest.containsKey(callbackKey)) {
-                        Function<ActorException, Boolean> fnCustom = errorHandlersByRequest.get(callbackKey);
-                        responseIsComplete = fnCustom.apply(new ActorException(this, event));
-                        if (responseIsComplete) {
-                            errorHandlersByRequest.remove(callbackKey);
-                        }
-                    }
-                    if (event.isToDoTask()) {
-                        todo.failTask(event);
+                var correlation = correlations.find(event);
+                if (correlation != null) {
+                    recordAnswer(correlation, event);
+                    boolean responseIsComplete = (!(event instanceof ErrorEvent))
+                            ? correlation.replyHandler() != null && correlation.replyHandler().apply(event)
+                            : correlation.errorHandler() != null && correlation.errorHandler().apply(new ActorException(this, event));
+                    if (responseIsComplete) {
+                        correlations.complete(correlation);
                     }
                 }
-
-                if (responseIsComplete) {
-                    if (locksByRequest.containsKey(callbackKey)) {
-                        locksByRequest.get(callbackKey).release();
-                        locksByRequest.remove(callbackKey);
-                    }
+                if (event instanceof ErrorEvent && event.isToDoTask()) {
+                    todo.failTask(event);
                 }
             }
 
@@ -857,6 +1102,9 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
             remember("exception occurred", e);
             log.error("Error: ", e);
             onException(event, new ActorException(this, e));
+        } finally {
+            eventsInFlight.decrementAndGet();
+            handlingTime.recordNanos(System.nanoTime() - start);
         }
 
         return this;
@@ -877,7 +1125,7 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
      * @param behavior
      */
     protected void registerBehavior(String name, Function<ArchitectureFirstEvent, Actor> behavior) {
-        functions.put(name, behavior);
+        behaviors.register(name, behavior);
     }
 
     /**
@@ -1061,9 +1309,11 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
             onTerminate("environment is invalid for: " + name());
         }
 
-        giveStatus((!isAway)
-                ? BulletinBoardStatus.Status.Active
-                : BulletinBoardStatus.Status.Away, "running");
+        if (heartbeat == null) {    // otherwise the status was posted with the heartbeat
+            giveStatus((!isAway)
+                    ? BulletinBoardStatus.Status.Active
+                    : BulletinBoardStatus.Status.Away, "running");
+        }
     }
 
     /**
@@ -1072,10 +1322,31 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
      * @param message
      */
     private void giveStatus(BulletinBoardStatus.Status status, String message) {
+        prepareStatus(status, message);
+        bulletinBoard.postStatusTopic(MY_VICINITY_STATUS, name(), status.name(), bulletinBoardStatus.toString());
+    }
+
+    /**
+     * Updates the status to provide to the bulletin board
+     * @param status
+     * @param message
+     */
+    private void prepareStatus(BulletinBoardStatus.Status status, String message) {
         bulletinBoardStatus.setStatus(status);
         bulletinBoardStatus.setMessage(message);
+        updateLoad();
         bulletinBoardStatus.touch();
-        bulletinBoard.postStatusTopic(MY_VICINITY_STATUS, name(), status.name(), bulletinBoardStatus.toString());
+    }
+
+    /**
+     * Records the load since the last report in the status
+     */
+    private void updateLoad() {
+        bulletinBoardStatus.setLoad(eventsInFlight.get(), postOffice.depth(name()), handlingTime.percentileMicros(99));
+        bulletinBoardStatus.setHedging(hedging.requests(), hedging.hedges(), hedging.hedgeWins());
+        bulletinBoardStatus.setCircuits(breakers.openCircuits(), breakers.rejections());
+        handlingTime.reset();
+        hedging.roll();
     }
 
     /**
@@ -1083,7 +1354,10 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
      * @return true if it is this actors turn
      */
     protected boolean isMyTurn() {
-        return name().equals(bulletinBoard.whosTurnIsIt(MY_VICINITY_STATUS));
+        var current = heartbeat;
+        return name().equals((current != null)
+                ? current.whosTurnIsIt(MY_VICINITY_STATUS)
+                : bulletinBoard.whosTurnIsIt(MY_VICINITY_STATUS));
     }
 
     /**
@@ -1121,7 +1395,8 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
      */
     protected boolean isEnvironmentOk() {
         // note: this should be done with database also in derived class (shelf.isOk)
-        return bulletinBoard.isOk();
+        var current = heartbeat;
+        return (current != null) ? current.isEnvironmentOk() : bulletinBoard.isOk();
     }
 
     /**
@@ -1237,8 +1512,12 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
      */
     private void applyLogic(String s) {
         logic.apply(s, new DynamicActorEvent(this, name(), name())
-                .setTargetActor(this)
-                .setAccessToken(SecurityGuard.getAccessToken()));
+                        .setTargetActor(this)
+                        .setAccessToken(SecurityGuard.getAccessToken()))
+                .exceptionally(e -> {
+                    log.error("Logic failed for " + s + ": ", e);
+                    return null;
+                });
     }
 
     /**
@@ -1305,7 +1584,7 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
     protected void readNotes() {
         var contents = bulletinBoard.readRandomTopicEntry(MY_ACTOR_NOTES);
         if (hasNotes(contents)) {
-            Notes notes = new Gson().fromJson(contents, Notes.class);
+            Notes notes = JsonUtils.gson().fromJson(contents, Notes.class);
             notes.getEntries().entrySet().forEach(n -> {
                 try {
                     var clazz = Class.forName(n.getKey());
@@ -1344,12 +1623,83 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
     }
 
     /**
-     * Returns the key that matches the callback of an event
-     * @param event - the event to provide a callback for
-     * @return the callback key
+     * Records an awaited event whose response did not arrive in time
+     * @param correlation - the expired correlation
+     */
+    private void onResponseTimedOut(CorrelationRegistry.Correlation correlation) {
+        if (correlation.await() == CorrelationRegistry.Await.NONE) {
+            return;
+        }
+
+        var event = correlation.event();
+        log.warn("await timed out for: " + event.getRequestId() + "/" + event.name());
+
+        var isAnyCircuitOpen = new AtomicBoolean(false);
+        correlation.targets().stream()
+                .map(this::groupOf)
+                .filter(group -> group != null && !correlation.wasAnsweredBy(group))
+                .forEach(group -> {
+                    breakers.breakerFor(group, event.project()).recordFailure();
+                    isAnyCircuitOpen.compareAndSet(false, breakers.isOpen(group, event.project()));
+                });
+
+        CompletableFuture.runAsync(() -> {      // off the timer thread, since this writes to the Vicinity
+            convo.record(event, Conversation.Status.ErrorAfterReceivedByActor);
+            if (event.shouldProcessLaterIfNoActorFound() && !event.isToDoTask() && !isAnyCircuitOpen.get()) {
+                recordEventToDo(event);
+            }
+        });
+    }
+
+    /**
+     * Records the answer of a group to an awaited event with the circuit breaker of the group
+     * @param correlation
+     * @param event - the reply or error
+     */
+    private void recordAnswer(CorrelationRegistry.Correlation correlation, ArchitectureFirstEvent event) {
+        var group = (correlation.await() != CorrelationRegistry.Await.NONE && event.from() != null) ? groupOf(event.from()) : null;
+        if (group == null) {
+            return;
+        }
+
+        correlation.answeredBy(group);
+        var breaker = breakers.breakerFor(group, correlation.event().project());
+        if (event instanceof ErrorEvent) {
+            breaker.recordFailure();
+        }
+        else {
+            breaker.recordSuccess();
+        }
+    }
+
+    /**
+     * Returns the group of a target that is guarded by a circuit breaker
+     * @param to - an Actor name or group
+     * @return the group or null if the target is not guarded
      */
-    private String getCallbackKey(ArchitectureFirstEvent event) {
-        return event.getRequestId() + "/" + ((event.hasOriginalEventName()) ? event.originalEventName() : event.name());
+    private String groupOf(String to) {
+        if (StringUtils.isEmpty(to) || to.equalsIgnoreCase(ArchitectureFirstEvent.EVENT_ALL_PARTICIPANTS)
+                || to.equals(VICINITY_MONITOR)) {
+            return null;
+        }
+        int dot = to.indexOf('.');
+        return (dot < 0) ? to : to.substring(0, dot);
+    }
+
+    /**
+     * Returns the circuit breakers of the groups this Actor sends to
+     * @return circuit breakers
+     */
+    public CircuitBreakers circuitBreakers() {
+        return breakers;
+    }
+
+    /**
+     * Returns the number of responses that did not arrive in time since the Actor started
+     * @return
+     */
+    public long responseTimeouts() {
+        return correlations.expirations();
     }
 
     /**
@@ -1396,6 +1746,10 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
      */
     @Override
     public void onApplicationEvent(ArchitectureFirstEvent event) {
+        if (vicinity.deliversInProcess(event)) {
+            return;     // the Vicinity delivers a copy of the event to the Actors in this process
+        }
+
         if (event.isLocal() || this != event.getSource()) {    // do not receive an event from self unless a whisper
             event.to().forEach(t -> {
                 if (StringUtils.isNotEmpty(t)) {
@@ -1403,7 +1757,9 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
                             || t.equalsIgnoreCase(this.getClass().getSimpleName()) // message is targeted to any actor in group
                             || t.equalsIgnoreCase(ArchitectureFirstEvent.EVENT_ALL_PARTICIPANTS)) { // event is targeted to any actor
                         if (!event.isAnnouncement() || (event.isAnnouncement() && !event.from().equals(name()))) {
-                            log.info("Receiving event: " + new Gson().toJson(event));
+                            if (log.isInfoEnabled()) {
+                                log.info("Receiving event: " + JsonUtils.toJson(event));
+                            }
                             hear(event);
                         }
                     }
@@ -1435,12 +1791,17 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
     }
 
     /**
-     * Apply external logic based on an event
+     * Apply external logic based on an event.
+     * The logic continues when the responses it awaits arrive, so the method returns before it has finished
      * @param event
      * @return
      */
     public ArchitectureFirstEvent onExternalLogic(ArchitectureFirstEvent event) {
-        logic.apply(event);
+        logic.apply(event)
+                .exceptionally(e -> {
+                    log.error("Logic failed for " + event.name() + ": ", e);
+                    return null;
+                });
         return event;
     }
 
@@ -1633,7 +1994,7 @@ public class Actor implements ApplicationListener<ArchitectureFirstEvent> {
      * @return a map of all entries
      */
     protected Map<String, ? extends Object> convertToMap(Object m) {
-        Gson gson = new Gson();
+        Gson gson = JsonUtils.gson();
         String jsonString = gson.toJson(m);
         return gson.fromJson(jsonString, new HashMap<String, Object>().getClass());
     }
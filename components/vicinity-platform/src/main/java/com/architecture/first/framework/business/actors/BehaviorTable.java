@@ -0,0 +1,75 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The behaviors of an Actor, keyed by the class of the event they handle.
+ * A behavior is registered by name, which is the simple name of the event class without "Event", such as ViewProducts.
+ *
+ *      Note:
+ *          The known event types are resolved when a behavior is registered,
+ *          so finding the behavior for an event is a single lookup by its class.
+ *          A type that was not known is resolved on its first event, including when it has no behavior.
+ */
+public class BehaviorTable {
+    private static final Function<ArchitectureFirstEvent, Actor> NO_BEHAVIOR = event -> null;
+
+    private final Collection<Class<? extends ArchitectureFirstEvent>> knownTypes;
+    private final Map<String, Function<ArchitectureFirstEvent, Actor>> behaviorsByName = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Function<ArchitectureFirstEvent, Actor>> behaviorsByType = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a table
+     * @param knownTypes - the event types to resolve when a behavior is registered
+     */
+    public BehaviorTable(Collection<Class<? extends ArchitectureFirstEvent>> knownTypes) {
+        this.knownTypes = List.copyOf(knownTypes);
+    }
+
+    /**
+     * Returns the name of the behavior for an event type
+     * @param eventType
+     * @return behavior name
+     */
+    public static String behaviorNameOf(Class<?> eventType) {
+        return eventType.getSimpleName().replace("Event", "");
+    }
+
+    /**
+     * Registers a behavior, replacing an existing one with the same name
+     * @param name
+     * @param behavior
+     */
+    public synchronized void register(String name, Function<ArchitectureFirstEvent, Actor> behavior) {
+        behaviorsByName.put(name, behavior);
+
+        knownTypes.stream()
+                .filter(type -> behaviorNameOf(type).equals(name))
+                .forEach(type -> behaviorsByType.put(type, behavior));
+        behaviorsByType.replaceAll((type, existing) -> behaviorNameOf(type).equals(name) ? behavior : existing);
+    }
+
+    /**
+     * Returns the behavior for an event
+     * @param event
+     * @return the behavior or null if there is none
+     */
+    public Function<ArchitectureFirstEvent, Actor> find(ArchitectureFirstEvent event) {
+        var behavior = behaviorsByType.get(event.getClass());
+        if (behavior == null) {
+            behavior = resolve(event.getClass());
+        }
+        return (behavior != NO_BEHAVIOR) ? behavior : null;
+    }
+
+    private synchronized Function<ArchitectureFirstEvent, Actor> resolve(Class<?> eventType) {
+        return behaviorsByType.computeIfAbsent(eventType,
+                type -> behaviorsByName.getOrDefault(behaviorNameOf(type), NO_BEHAVIOR));
+    }
+}
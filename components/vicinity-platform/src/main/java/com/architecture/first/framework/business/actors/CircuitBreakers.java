@@ -0,0 +1,81 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.technical.resilience.CircuitBreaker;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The circuit breakers of an Actor, one per target group and project.
+ *
+ *      Note:
+ *          A breaker is created the first time its group and project are used, in the closed state.
+ *          Only awaited requests record outcomes: a reply is a success; an error or a timeout is a failure.
+ */
+public class CircuitBreakers {
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRatePercent;
+    private final long openMillis;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the breakers
+     * @param windowSize - the number of recent calls the failure rate is judged on
+     * @param minimumCalls - the number of calls needed before a breaker can open
+     * @param failureRatePercent - the failure rate that opens a breaker
+     * @param openMillis - how long a breaker stays open before a probe
+     */
+    public CircuitBreakers(int windowSize, int minimumCalls, double failureRatePercent, long openMillis) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRatePercent = failureRatePercent;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Returns the breaker of a group and project
+     * @param group - such as Cashier
+     * @param project
+     * @return breaker
+     */
+    public CircuitBreaker breakerFor(String group, String project) {
+        return breakers.computeIfAbsent(group + "/" + project,
+                key -> new CircuitBreaker(windowSize, minimumCalls, failureRatePercent, openMillis));
+    }
+
+    /**
+     * Determines if a breaker is open and not yet due for a probe
+     * @param group
+     * @param project
+     * @return true if open
+     */
+    public boolean isOpen(String group, String project) {
+        var breaker = breakers.get(group + "/" + project);
+        return breaker != null && breaker.state() == CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * Returns the state of every breaker that is not closed
+     * @return state by group/project
+     */
+    public Map<String, String> openCircuits() {
+        Map<String, String> states = new TreeMap<>();
+        breakers.forEach((key, breaker) -> {
+            var state = breaker.state();
+            if (state != CircuitBreaker.State.CLOSED) {
+                states.put(key, state.name());
+            }
+        });
+        return states;
+    }
+
+    /**
+     * Returns the number of calls rejected by all breakers
+     * @return
+     */
+    public long rejections() {
+        return breakers.values().stream().mapToLong(CircuitBreaker::rejections).sum();
+    }
+}
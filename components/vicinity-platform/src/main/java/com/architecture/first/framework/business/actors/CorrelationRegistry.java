@@ -0,0 +1,298 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.business.actors.exceptions.ActorException;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.threading.TimerWheel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Holds the reply and error handlers of the events an Actor is awaiting a response for.
+ * Each entry has a deadline; an entry that is not completed by then is expired by the timer wheel,
+ * which calls its error handler with an AWAIT_TIMED_OUT exception.
+ *
+ *      Note:
+ *          Entries are striped by request id and then chained by event name,
+ *          so finding the entry for a heard event does not allocate.
+ *          An entry is completed once; a handler that returns true completes it and releases a caller blocked on it.
+ *          Registering the same request and event name again replaces the previous entry.
+ */
+public class CorrelationRegistry {
+    private static final int STRIPES = 16;
+    private static final String AWAIT_TIMED_OUT = "AWAIT_TIMED_OUT";
+
+    private final Actor owner;
+    private final TimerWheel wheel;
+    private final Consumer<Correlation> onExpired;
+    private final Map<String, Correlation>[] stripes;
+    private final AtomicLong expirations = new AtomicLong(0);
+
+    /**
+     * Creates a registry
+     * @param owner - the Actor the timeout exceptions are raised for
+     * @param wheel - expires the entries
+     * @param onExpired - called after the error handler of an expired entry, on the thread of the wheel
+     */
+    @SuppressWarnings("unchecked")
+    public CorrelationRegistry(Actor owner, TimerWheel wheel, Consumer<Correlation> onExpired) {
+        this.owner = owner;
+        this.wheel = wheel;
+        this.onExpired = onExpired;
+        this.stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Returns the name an event is correlated by, which for a reply is the name of the original event
+     * @param event
+     * @return event name
+     */
+    public static String correlatedName(ArchitectureFirstEvent event) {
+        return (event.hasOriginalEventName()) ? event.originalEventName() : event.name();
+    }
+
+    /**
+     * How the sender of an event waits for its response
+     */
+    public enum Await {
+        NONE,       // only the handlers are called
+        ASYNC,      // a future is completed by the handlers
+        BLOCKING    // the sending thread waits on the entry
+    }
+
+    /**
+     * Registers the handlers for the response to an event.
+     * A replaced entry is no longer found but still expires at its own deadline
+     * @param event
+     * @param fnReplyHandler - may be null
+     * @param fnErrorHandler - may be null
+     * @param await
+     * @param timeout
+     * @param unit
+     * @return the entry
+     */
+    public Correlation register(ArchitectureFirstEvent event,
+                                Function<ArchitectureFirstEvent, Boolean> fnReplyHandler,
+                                Function<ActorException, Boolean> fnErrorHandler,
+                                Await await, long timeout, TimeUnit unit) {
+        var correlation = new Correlation(event, correlatedName(event), fnReplyHandler, fnErrorHandler, await);
+
+        stripeOf(correlation.requestId).compute(correlation.requestId, (requestId, first) -> {
+            var replaced = find(first, correlation.eventName);
+            correlation.next = (replaced != null) ? unlink(first, replaced) : first;
+            return correlation;
+        });
+        correlation.timeout = wheel.schedule(() -> expire(correlation), timeout, unit);
+        if (correlation.isFinished()) {
+            correlation.timeout.cancel();   // completed before the timeout was set
+        }
+
+        return correlation;
+    }
+
+    /**
+     * Finds the entry for a heard event
+     * @param event
+     * @return the entry or null
+     */
+    public Correlation find(ArchitectureFirstEvent event) {
+        var requestId = requestIdOf(event);
+        return find(stripeOf(requestId).get(requestId), correlatedName(event));
+    }
+
+    /**
+     * Determines if a response is awaited for any event of a request
+     * @param requestId
+     * @return true if the request has an entry
+     */
+    public boolean isAwaiting(String requestId) {
+        return stripeOf(requestId).containsKey(requestId);
+    }
+
+    /**
+     * Removes an entry and releases a caller blocked on it
+     * @param correlation
+     * @return true if this call completed it
+     */
+    public boolean complete(Correlation correlation) {
+        if (!correlation.finish()) {
+            return false;
+        }
+        remove(correlation);
+        return true;
+    }
+
+    /**
+     * Expires an entry before its deadline, such as when a blocked caller gave up waiting
+     * @param correlation
+     * @return true if this call expired it
+     */
+    public boolean expire(Correlation correlation) {
+        if (!correlation.finish()) {
+            return false;
+        }
+        remove(correlation);
+        expirations.incrementAndGet();
+
+        if (correlation.fnErrorHandler != null) {
+            correlation.fnErrorHandler.apply(new ActorException(owner, AWAIT_TIMED_OUT));
+        }
+        onExpired.accept(correlation);
+        return true;
+    }
+
+    /**
+     * Returns the number of entries that expired since the registry was created
+     * @return
+     */
+    public long expirations() {
+        return expirations.get();
+    }
+
+    /**
+     * Returns the number of entries awaiting a response
+     * @return
+     */
+    public int size() {
+        int size = 0;
+        for (var stripe : stripes) {
+            for (var first : stripe.values()) {
+                for (var c = first; c != null; c = c.next) {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    private void remove(Correlation correlation) {
+        if (correlation.timeout != null) {
+            correlation.timeout.cancel();
+        }
+        stripeOf(correlation.requestId).computeIfPresent(correlation.requestId,
+                (requestId, first) -> unlink(first, correlation));
+    }
+
+    private static String requestIdOf(ArchitectureFirstEvent event) {
+        return (event.getRequestId() != null) ? event.getRequestId() : "";
+    }
+
+    private Map<String, Correlation> stripeOf(String requestId) {
+        int h = requestId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static Correlation find(Correlation first, String eventName) {
+        for (var c = first; c != null; c = c.next) {
+            if (c.eventName.equals(eventName)) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Unlinks an entry from its chain; called inside compute so that writers of a request id are serialized
+     * @return the new first entry, or null if the chain is empty
+     */
+    private static Correlation unlink(Correlation first, Correlation correlation) {
+        if (first == correlation) {
+            return correlation.next;
+        }
+        for (var c = first; c != null; c = c.next) {
+            if (c.next == correlation) {
+                c.next = correlation.next;
+                break;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * The handlers awaiting the response to one event
+     */
+    public static class Correlation {
+        private final ArchitectureFirstEvent event;
+        private final String requestId;
+        private final String eventName;
+        private final Function<ArchitectureFirstEvent, Boolean> fnReplyHandler;
+        private final Function<ActorException, Boolean> fnErrorHandler;
+        private final Await await;
+        private final List<String> targets;
+        private final Set<String> answeredBy = ConcurrentHashMap.newKeySet();
+        private final Semaphore lock;
+        private final AtomicBoolean isFinished = new AtomicBoolean(false);
+        private volatile Correlation next;
+        private volatile TimerWheel.Timeout timeout;
+
+        private Correlation(ArchitectureFirstEvent event, String eventName,
+                            Function<ArchitectureFirstEvent, Boolean> fnReplyHandler,
+                            Function<ActorException, Boolean> fnErrorHandler,
+                            Await await) {
+            this.event = event;
+            this.requestId = requestIdOf(event);
+            this.eventName = eventName;
+            this.fnReplyHandler = fnReplyHandler;
+            this.fnErrorHandler = fnErrorHandler;
+            this.await = await;
+            this.targets = (event.to() != null) ? List.copyOf(event.to()) : List.of();
+            this.lock = (await == Await.BLOCKING) ? new Semaphore(0) : null;
+        }
+
+        public ArchitectureFirstEvent event() {return event;}
+
+        public Function<ArchitectureFirstEvent, Boolean> replyHandler() {return fnReplyHandler;}
+
+        public Function<ActorException, Boolean> errorHandler() {return fnErrorHandler;}
+
+        public Await await() {return await;}
+
+        /**
+         * Returns the targets of the event as it was sent, which may be groups
+         * @return names and/or groups
+         */
+        public List<String> targets() {return targets;}
+
+        /**
+         * Records that a group has answered
+         * @param group
+         */
+        public void answeredBy(String group) {answeredBy.add(group);}
+
+        public boolean wasAnsweredBy(String group) {return answeredBy.contains(group);}
+
+        public boolean isFinished() {return isFinished.get();}
+
+        /**
+         * Waits until the entry is completed or expired
+         * @param timeout
+         * @param unit
+         * @return true if it finished in time
+         * @throws InterruptedException
+         */
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            return lock == null || lock.tryAcquire(timeout, unit);
+        }
+
+        private boolean finish() {
+            if (!isFinished.compareAndSet(false, true)) {
+                return false;
+            }
+            if (lock != null) {
+                lock.release();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.business.actors.exceptions.ActorException;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The replies gathered for an event sent to several Actors.
+ * The gathering is done when all targets have answered, a quorum of replies has arrived,
+ * the quorum can no longer be reached, or the deadline has passed.
+ *
+ *      Note:
+ *          Replies and errors are keyed by the Actor that sent them, and the first one from each Actor is kept.
+ *          A gathering that ends before every target answered is partial; its result is still returned, not failed.
+ *          An error from an Actor that was not found is keyed by its message, since there is no Actor name.
+ */
+public class Gathering {
+    private final int expected;
+    private final int quorum;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, ArchitectureFirstEvent> replies = new LinkedHashMap<>();
+    private final Map<String, ActorException> errors = new LinkedHashMap<>();
+    private final Map<String, Long> latencyMicros = new LinkedHashMap<>();
+    private final CompletableFuture<Gathering> result = new CompletableFuture<>();
+    private boolean isTimedOut = false;
+
+    /**
+     * Creates a gathering
+     * @param expected - the number of targets
+     * @param quorum - the number of replies that is enough, or 0 for all targets
+     */
+    public Gathering(int expected, int quorum) {
+        this.expected = expected;
+        this.quorum = (quorum <= 0 || quorum > expected) ? expected : quorum;
+    }
+
+    /**
+     * Records a reply
+     * @param reply
+     * @return true if the gathering is done
+     */
+    public synchronized boolean addReply(ArchitectureFirstEvent reply) {
+        if (!result.isDone() && !replies.containsKey(reply.from()) && !errors.containsKey(reply.from())) {
+            replies.put(reply.from(), reply);
+            latencyMicros.put(reply.from(), elapsedMicros());
+        }
+        return completeIfDone();
+    }
+
+    /**
+     * Records an error returned by a target
+     * @param exception
+     * @return true if the gathering is done
+     */
+    public synchronized boolean addError(ActorException exception) {
+        var from = (exception.getErrorEvent() != null) ? exception.getErrorEvent().from() : exception.getMessage();
+        if (!result.isDone() && !replies.containsKey(from) && !errors.containsKey(from)) {
+            errors.put(from, exception);
+            latencyMicros.put(from, elapsedMicros());
+        }
+        return completeIfDone();
+    }
+
+    /**
+     * Ends the gathering with the replies that have arrived
+     * @return true
+     */
+    public synchronized boolean timeOut() {
+        if (!result.isDone()) {
+            isTimedOut = true;
+            result.complete(this);
+        }
+        return true;
+    }
+
+    /**
+     * Ends the gathering because the event could not be sent
+     * @param exception
+     */
+    public void fail(ActorException exception) {
+        result.completeExceptionally(exception);
+    }
+
+    /**
+     * Returns the result, which is completed when the gathering is done
+     * @return future
+     */
+    public CompletableFuture<Gathering> result() {
+        return result;
+    }
+
+    public int expected() {return expected;}
+
+    public int quorum() {return quorum;}
+
+    public synchronized Map<String, ArchitectureFirstEvent> replies() {return Map.copyOf(replies);}
+
+    public synchronized Map<String, ActorException> errors() {return Map.copyOf(errors);}
+
+    /**
+     * Returns the time from sending the event to the answer of each Actor that answered
+     * @return microseconds by Actor name
+     */
+    public synchronized Map<String, Long> latencyMicros() {return Map.copyOf(latencyMicros);}
+
+    public synchronized boolean hasQuorum() {return replies.size() >= quorum;}
+
+    /**
+     * Determines if every target answered, with a reply or an error
+     * @return true if complete
+     */
+    public synchronized boolean isComplete() {return replies.size() + errors.size() >= expected;}
+
+    public synchronized boolean isTimedOut() {return isTimedOut;}
+
+    private boolean completeIfDone() {
+        if (result.isDone()) {
+            return true;
+        }
+
+        if (hasQuorum() || isComplete() || expected - errors.size() < quorum) {
+            result.complete(this);
+            return true;
+        }
+        return false;
+    }
+
+    private long elapsedMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+}
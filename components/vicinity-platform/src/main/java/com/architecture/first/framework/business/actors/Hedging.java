@@ -0,0 +1,117 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.technical.metrics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when to hedge a request to a group and counts how hedging works out.
+ * A hedged request is sent to a second Actor of the group when the first has not replied within
+ * a percentile of the recent response times of the group; the first reply wins.
+ *
+ *      Note:
+ *          Response times are kept per group in two generations, so the delay does not jump back to the
+ *          initial delay each time the statistics roll over.
+ *          Until a group has enough responses the initial delay is used.
+ *          Only idempotent events should be hedged, since both Actors may process them.
+ */
+public class Hedging {
+    private static final int MIN_SAMPLES = 20;
+
+    private final double percentile;
+    private final long minDelayMillis;
+    private final long initialDelayMillis;
+    private final Map<String, Generations> latencyByGroup = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong hedges = new AtomicLong(0);
+    private final AtomicLong hedgeWins = new AtomicLong(0);
+
+    private static class Generations {
+        volatile LatencyHistogram current = new LatencyHistogram();
+        volatile LatencyHistogram previous = new LatencyHistogram();
+    }
+
+    /**
+     * Creates the hedging statistics
+     * @param percentile - of the response times to wait before hedging, such as 95
+     * @param minDelayMillis - the shortest wait before hedging
+     * @param initialDelayMillis - the wait before hedging until there are enough response times
+     */
+    public Hedging(double percentile, long minDelayMillis, long initialDelayMillis) {
+        this.percentile = percentile;
+        this.minDelayMillis = minDelayMillis;
+        this.initialDelayMillis = initialDelayMillis;
+    }
+
+    /**
+     * Returns how long to wait for a reply from a group before hedging
+     * @param group
+     * @return delay in milliseconds
+     */
+    public long delayMillis(String group) {
+        var generations = latencyByGroup.get(group);
+        if (generations == null) {
+            return initialDelayMillis;
+        }
+
+        var histogram = (generations.current.count() >= MIN_SAMPLES) ? generations.current : generations.previous;
+        if (histogram.count() < MIN_SAMPLES) {
+            return initialDelayMillis;
+        }
+        return Math.max(minDelayMillis, (histogram.percentileMicros(percentile) + 999) / 1000);
+    }
+
+    /**
+     * Records the time a group took to reply
+     * @param group
+     * @param nanos
+     */
+    public void recordResponse(String group, long nanos) {
+        latencyByGroup.computeIfAbsent(group, g -> new Generations()).current.recordNanos(nanos);
+    }
+
+    /**
+     * Starts a new generation of response times for every group
+     */
+    public void roll() {
+        latencyByGroup.values().forEach(generations -> {
+            generations.previous = generations.current;
+            generations.current = new LatencyHistogram();
+        });
+    }
+
+    public void recordRequest() {requests.incrementAndGet();}
+
+    public void recordHedge() {hedges.incrementAndGet();}
+
+    public void recordHedgeWin() {hedgeWins.incrementAndGet();}
+
+    /**
+     * Returns the number of requests that could be hedged
+     * @return
+     */
+    public long requests() {return requests.get();}
+
+    /**
+     * Returns the number of requests that were sent to a second Actor
+     * @return
+     */
+    public long hedges() {return hedges.get();}
+
+    /**
+     * Returns the number of hedged requests answered first by the second Actor
+     * @return
+     */
+    public long hedgeWins() {return hedgeWins.get();}
+
+    /**
+     * Returns the share of requests that were hedged
+     * @return 0.0 to 1.0
+     */
+    public double hedgeRate() {
+        long total = requests.get();
+        return (total > 0) ? (double) hedges.get() / total : 0.0;
+    }
+}
@@ -0,0 +1,30 @@
+package com.architecture.first.framework.business.actors.exceptions;
+
+import com.architecture.first.framework.business.actors.Actor;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+
+/**
+ * Exception raised without sending an event when the circuit breaker of its target group is open
+ */
+public class CircuitOpenException extends ActorException {
+    private final String group;
+    private ArchitectureFirstEvent event;
+
+    public CircuitOpenException(Actor actor, String group) {
+        super(actor, "CIRCUIT_OPEN: " + group);
+        this.group = group;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public ArchitectureFirstEvent getEvent() {
+        return event;
+    }
+
+    public CircuitOpenException setEvent(ArchitectureFirstEvent event) {
+        this.event = event;
+        return this;
+    }
+}
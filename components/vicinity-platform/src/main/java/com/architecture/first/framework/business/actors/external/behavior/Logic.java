@@ -13,6 +13,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
 /**
@@ -106,21 +107,23 @@ public class Logic {
     /**
      * Execute a pipeline based on an event
      * @param event
+     * @return completes when the pipeline has executed
      */
-    public void apply(ArchitectureFirstEvent event) {
+    public CompletionStage<Void> apply(ArchitectureFirstEvent event) {
         var subject = event.subject();
         var pipeline = pipelineContext.getPipelineFor(subject);
-        pipeline.execute(pipelineContext, event);
+        return pipeline.execute(pipelineContext, event);
     }
 
     /**
      * Execute a pipeline on a given interval for an event
      * @param timeSlot - "30min", "60min", "12hr", "24hrs"
      * @param event
+     * @return completes when the pipeline has executed
      */
-    public void apply(String timeSlot, ArchitectureFirstEvent event) {
+    public CompletionStage<Void> apply(String timeSlot, ArchitectureFirstEvent event) {
         var pipeline = pipelineContext.getPipelineFor(timeSlot);
-        pipeline.execute(pipelineContext, event);
+        return pipeline.execute(pipelineContext, event);
     }
 
     /**
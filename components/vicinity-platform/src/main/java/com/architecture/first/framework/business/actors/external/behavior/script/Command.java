@@ -5,6 +5,7 @@ import com.architecture.first.framework.business.actors.external.behavior.script
 import lombok.Data;
 
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Execute a command based on a script
@@ -13,8 +14,14 @@ import java.util.Map;
 public abstract class Command {
     private transient Script script;
 
-    public abstract boolean execute(Map<String, PipelineEntry> input,
-                                                   Map<String, PipelineEntry> output);
+    /**
+     * Executes the command
+     * @param input
+     * @param output
+     * @return completes with true if the pipeline continues with the next command
+     */
+    public abstract CompletionStage<Boolean> execute(Map<String, PipelineEntry> input,
+                                                     Map<String, PipelineEntry> output);
 
     public Script getScript() {
         return script;
@@ -6,27 +6,40 @@ import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
 
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * The pipeline to execute dynamic Logic
  */
 public class Pipeline extends ArrayList<Map<String,Object>> {
 
-    public void execute(PipelineContext context, ArchitectureFirstEvent event) {
+    public CompletionStage<Void> execute(PipelineContext context, ArchitectureFirstEvent event) {
         Script script = new Script(event, context.getDefine(), context.getDeclare());
-        execute(script);
+        return execute(script);
     }
 
-    public void execute(Script script) {
-        var iter = this.iterator();
-        for (int i = 0; iter.hasNext(); i++) {
-            var commandBlock = iter.next();
-            var stage = new PipelineStage(i, commandBlock);
-            script.addStage(stage);
+    /**
+     * Executes the stages in order.
+     * A stage that awaits a response continues the pipeline when the response arrives instead of blocking the caller
+     * @param script
+     * @return completes when the last stage has executed
+     */
+    public CompletionStage<Void> execute(Script script) {
+        return execute(script, 0);
+    }
 
-            if (!stage.execute(script)) {
-                break;
-            }
+    private CompletionStage<Void> execute(Script script, int index) {
+        if (index >= size()) {
+            return CompletableFuture.completedFuture(null);
         }
+
+        var stage = new PipelineStage(index, get(index));
+        script.addStage(stage);
+
+        return stage.execute(script)
+                .thenCompose(proceed -> (proceed)
+                        ? execute(script, index + 1)
+                        : CompletableFuture.completedFuture(null));
     }
 }
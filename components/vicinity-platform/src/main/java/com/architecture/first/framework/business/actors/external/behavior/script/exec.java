@@ -14,6 +14,8 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -32,24 +34,24 @@ public class exec extends Command {
     private transient Map<String, PipelineEntry> output;
 
     @Override
-    public boolean execute(Map<String, PipelineEntry> input,
-                                          Map<String, PipelineEntry> output) {
+    public CompletionStage<Boolean> execute(Map<String, PipelineEntry> input,
+                                            Map<String, PipelineEntry> output) {
         this.input = input;
         this.output = output;
 
         if (call != null) {
-            return executeCall();
+            return CompletableFuture.completedFuture(executeCall());
         }
         if (say != null) {
             return executeSay();
         }
         if (whisper != null) {
-            return executeWhisper();
+            return CompletableFuture.completedFuture(executeWhisper());
         }
         if (announce != null) {
-            return executeAnnounce();
+            return CompletableFuture.completedFuture(executeAnnounce());
         }
-        return false;
+        return CompletableFuture.completedFuture(false);
     }
 
     private boolean executeCall() {
@@ -61,27 +63,31 @@ public class exec extends Command {
         return true;
     }
 
-    private boolean executeSay() {
+    private CompletionStage<Boolean> executeSay() {
         var actor = getScript().getInitialEvent().getTarget().get();
         ArchitectureFirstEvent event = generateEvent(say);
         processResults(event);
 
-        var evt = (say.isAwaitResponse())
-                            ? actor.say(event, response -> {
-                                    if (!(event instanceof AcknowledgementEvent)) {
-                                        if (event.payload() != null) {
-                                            var entry = (event.payload().containsKey("results") && (event.payload().get("results") instanceof PipelineEntry))
-                                                    ? (PipelineEntry) event.payload().get("results")
-                                                    : new PipelineEntry(event.payload().getClass().getName(), event.payload());
-                                            output.put("results", entry);
-                                        }
-                                    }
-
-                                    return true;
-                                })
-                            : actor.say(event);
+        if (say.isAwaitResponse()) {
+            // the next entry continues when the results arrive, so the Actor's thread is not held while waiting
+            return actor.ask(event, response -> !(response instanceof AcknowledgementEvent))
+                    .thenApply(response -> {
+                        if (response.payload() != null) {
+                            var entry = (response.payload().containsKey("results") && (response.payload().get("results") instanceof PipelineEntry))
+                                    ? (PipelineEntry) response.payload().get("results")
+                                    : new PipelineEntry(response.payload().getClass().getName(), response.payload());
+                            output.put("results", entry);
+                        }
+                        return true;
+                    })
+                    .exceptionally(e -> {
+                        log.error("No results for " + event.name() + ": ", e);
+                        return true;
+                    });
+        }
 
-        return true;
+        actor.say(event);
+        return CompletableFuture.completedFuture(true);
     }
 
     private void processResults(ArchitectureFirstEvent event) {
@@ -6,6 +6,8 @@ import com.jayway.jsonpath.JsonPath;
 import lombok.Data;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -18,8 +20,8 @@ public class filter extends Command {
     private transient Map<String, PipelineEntry> output;
 
     @Override
-    public boolean execute(Map<String, PipelineEntry> input,
-                                          Map<String, PipelineEntry> output) {
+    public CompletionStage<Boolean> execute(Map<String, PipelineEntry> input,
+                                            Map<String, PipelineEntry> output) {
         this.input = input;
         this.output = output;
 
@@ -38,6 +40,6 @@ public class filter extends Command {
         var entry = new PipelineEntry(results.getClass().getName(), results);
         output.put("results", entry);
 
-        return true;
+        return CompletableFuture.completedFuture(true);
     }
 }
@@ -9,6 +9,7 @@ import lombok.Data;
 
 import java.lang.reflect.Type;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 /**
  * A stage in the pipeline for dynamic logic
@@ -35,7 +36,7 @@ public class PipelineStage {
         return this;
     }
 
-    public boolean execute(Script script) {
+    public CompletionStage<Boolean> execute(Script script) {
         var cmd = getCommand(script);
         return cmd.execute(input, output);
     }
@@ -6,13 +6,24 @@ import com.architecture.first.framework.business.vicinity.conversation.Conversat
 import com.architecture.first.framework.business.vicinity.events.ErrorEvent;
 import com.architecture.first.framework.business.vicinity.events.VicinityConnectionBrokenEvent;
 import com.architecture.first.framework.business.vicinity.exceptions.VicinityException;
+import com.architecture.first.framework.business.vicinity.mailbox.Letter;
+import com.architecture.first.framework.business.vicinity.mailbox.Mailbox;
+import com.architecture.first.framework.business.vicinity.mailbox.MailboxPriority;
+import com.architecture.first.framework.business.vicinity.mailbox.PostOffice;
+import com.architecture.first.framework.business.vicinity.messages.VicinityEnvelope;
 import com.architecture.first.framework.business.vicinity.messages.VicinityMessage;
-import com.architecture.first.framework.business.vicinity.threading.VicinityConnections;
+import com.architecture.first.framework.business.vicinity.publisher.VicinityPublisher;
+import com.architecture.first.framework.business.vicinity.roster.ActorRoster;
+import com.architecture.first.framework.business.vicinity.transport.PubSubTransport;
+import com.architecture.first.framework.business.vicinity.transport.StreamsTransport;
+import com.architecture.first.framework.business.vicinity.transport.VicinityDelivery;
+import com.architecture.first.framework.business.vicinity.transport.VicinityTransport;
 import com.architecture.first.framework.security.SecurityGuard;
 import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.events.EventTypeRegistry;
 import com.architecture.first.framework.technical.events.LocalEvent;
-import com.architecture.first.framework.technical.threading.Connection;
-import com.google.gson.Gson;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import com.architecture.first.framework.technical.util.JsonUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,20 +31,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationListener;
 import org.springframework.stereotype.Component;
-import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPubSub;
-import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.UnifiedJedis;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
-import java.time.LocalDate;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The Vicinity class is the main communication vehicle between Actors.
@@ -47,54 +52,84 @@ import java.util.concurrent.atomic.AtomicReference;
 @Component
 @Slf4j
 public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
-    public static final int ROSTER_LIST_COUNT = 100;
     public static final int JEDIS_TIMEOUT = 60000;
+    public static final String LOCAL_ORIGIN = "localOrigin";
+    public static final String ENVELOPE_JSON = "json";
+    private static final String PROCESS_ID = UUID.randomUUID().toString();
     @Autowired
     private ApplicationEventPublisher publisher;
 
     @Autowired
     private Conversation convo;
 
-    @Value("${redis.host}")
-    private String host;
+    @Autowired
+    private VicinityPublisher vicinityPublisher;
 
-    @Value("${redis.port:6379}")
-    private int port;
+    @Autowired
+    private UnifiedJedis jedis;
 
-    private final Map<String, LinkedList<String>> workQueueMap = new HashMap<>();
-    private final Map<String, Integer> currentWorkforceSize = new HashMap<>();
+    @Autowired
+    private PostOffice postOffice;
 
-    private static final Map<Future, String> activeTasks = new HashMap<>();
-    private final Map<String, VicinityConnections> taskGroups = new HashMap<>();
+    @Autowired
+    private ActorRoster roster;
 
-    /**
-     * Creates a new thread to manage Vicinity tasks
-     */
-    private final ThreadFactory threadFactory = new ThreadFactory() {
-        private final AtomicLong threadIndex = new AtomicLong(0);
-
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread thread = new Thread(r);
-            thread.setName("a1-vicinity-" + threadIndex.getAndIncrement());
-            return thread;
-        }
-    };
+    @Autowired
+    private RedisNodes redisNodes;
 
-    /**
-     * Executes threads in a dedicated pool
-     */
-    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 10, 30, TimeUnit.SECONDS,
-                                    new LinkedBlockingDeque<>(10),
-                                    threadFactory,
-                                    new ThreadPoolExecutor.CallerRunsPolicy());
+    @Value("${vicinity.envelope:binary}")
+    private String envelopeFormat;
+
+    @Value("${vicinity.transport:pubsub}")
+    private String transportType;
+
+    @Value("${vicinity.subscriber.connections:1}")
+    private int numberOfSubscriberConnections;
+
+    @Value("${vicinity.streams.batch-size:100}")
+    private int streamsBatchSize;
+
+    @Value("${vicinity.streams.block-millis:1000}")
+    private int streamsBlockMillis;
+
+    @Value("${vicinity.streams.claim-idle-millis:30000}")
+    private long streamsClaimIdleMillis;
+
+    @Value("${vicinity.streams.max-length:10000}")
+    private long streamsMaxLength;
+
+    @Value("${vicinity.streams.max-deliveries:5}")
+    private long streamsMaxDeliveries;
+
+    @Value("${vicinity.streams.actor-stream-ttl-seconds:3600}")
+    private long streamsActorStreamTtlSeconds;
+
+    @Value("${vicinity.local-delivery.enabled:true}")
+    private boolean isLocalDeliveryEnabled;
+
+    // the Actor names and groups subscribed in this process and the Actors subscribed to each, which is also the local routing table
+    private final Map<String, Set<Actor>> subscribers = new ConcurrentHashMap<>();
+    private VicinityTransport transport;
 
     /**
      * Peforms Vicinity initialization
      */
     @PostConstruct
     protected void init() {
+        EventTypeRegistry.instance();     // scan the event types before the first message arrives
+
+        if (redisNodes.isCluster() && VicinityTransport.STREAMS.equals(transportType)) {
+            // a stream read covers the streams of many Actors, which a Redis Cluster only allows within one slot
+            throw new VicinityException("The streams transport is not supported on a Redis Cluster, use vicinity.transport=pubsub");
+        }
 
+        transport = (VicinityTransport.STREAMS.equals(transportType))
+                ? new StreamsTransport(vicinityPublisher, jedis, redisNodes, JEDIS_TIMEOUT,
+                        streamsBatchSize, streamsBlockMillis, streamsClaimIdleMillis, streamsMaxLength,
+                        streamsMaxDeliveries, TimeUnit.SECONDS.toMillis(streamsActorStreamTtlSeconds))
+                : new PubSubTransport(vicinityPublisher, redisNodes, JEDIS_TIMEOUT, numberOfSubscriberConnections);
+        transport.start();
+        log.info("Vicinity transport: " + transportType);
     }
 
     /**
@@ -102,7 +137,7 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
      */
     @PreDestroy
     private void shutdown() {
-        taskGroups.values().stream().forEach(VicinityConnections::shutdown);
+        transport.shutdown();
     }
 
     /**
@@ -118,23 +153,27 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
                 log.info("Receiving event: " + event);
 
                 if (SecurityGuard.isOkToProceed(event)) {
-                    try (Jedis jedisDedicated = new Jedis(host, port)) {
+                    Map<String, Boolean> recipients = new LinkedHashMap<>();    // target -> is also delivered locally
+                    try {
                         event.to().forEach(t -> {
                             if (StringUtils.isNotEmpty(t)) {
                                 if (event.getTarget().isEmpty() || (event.getTarget().isPresent() && !t.equals(event.getTarget().get().name()))) {
-                                    VicinityMessage message = generateMessage(event, t);
-
-                                    String channel = channelFor(t);
-                                    var jsonEvent = new Gson().toJson(event);
-                                    log.info("Published Event to Vicinity: " + channel + " message: " + jsonEvent);
                                     convo.record(event, Conversation.Status.SendingViaVicinity);
 
-                                    jedisDedicated.publish(channel, message.toString());
+                                    boolean isDeliveredLocally = sendLocally(event, t);
+                                    if (isDeliveredLocally) {
+                                        log.info("Delivered Event in process: " + t + " " + event.getRequestId());
+                                    }
+
+                                    // named Actors and non-broadcast groups are done when delivered locally
+                                    if (!isDeliveredLocally || (!t.contains(".") && transport.isBroadcast())) {
+                                        recipients.put(t, isDeliveredLocally);
+                                    }
 
                                     if (event instanceof ErrorEvent) {      // send error events to vicinity monitor as well as the caller
                                         if (!event.toFirst().equals(SecurityGuard.VICINITY_MONITOR)) {
-                                            log.info("Published Event to Vicinity Monitor: " + channel + " " + event.getRequestId());
-                                            jedisDedicated.publish(channelFor(SecurityGuard.VICINITY_MONITOR), message.toString());
+                                            log.info("Published Event to Vicinity Monitor: " + channelFor(t) + " " + event.getRequestId());
+                                            publish(SecurityGuard.VICINITY_MONITOR, encode(generateMessage(event, t)));
                                         }
                                     }
                                 }
@@ -147,6 +186,8 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
                     } catch (Exception e) {
                         // TODO - handle threading errors.
                         log.error("Message error:", e);
+                    } finally {
+                        publishToRecipients(event, recipients);
                     }
                 } else {
                     processInvalidToken(event);
@@ -155,6 +196,110 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
         }
     }
 
+    /**
+     * Publishes an event to its remote recipients.
+     * The event is serialized once and only the recipient in the header differs between the messages,
+     * which are handed to the transport together so they share pipelines
+     * @param event
+     * @param recipients - each target and whether it was also delivered in this process
+     */
+    private void publishToRecipients(ArchitectureFirstEvent event, Map<String, Boolean> recipients) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        VicinityMessage message = generateMessage(event, event.toFirst());
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        List<String> remoteOnly = new ArrayList<>();
+        List<String> alsoLocal = new ArrayList<>();
+        recipients.forEach((t, isDeliveredLocally) -> (isDeliveredLocally ? alsoLocal : remoteOnly).add(t));
+
+        encode(message, remoteOnly, contents);
+        if (!alsoLocal.isEmpty()) {
+            message.setAttribute(LOCAL_ORIGIN, PROCESS_ID);   // remote group members still need it
+            encode(message, alsoLocal, contents);
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("Published Event to Vicinity: " + recipients.keySet() + " message: " + message.getJsonPayload());
+        }
+        transport.publishAll(contents, event.priority())
+                .whenComplete((receivers, e) -> {
+                    if (e != null) {
+                        log.error("Publish error to: " + recipients.keySet(), e);
+                    }
+                });
+    }
+
+    /**
+     * Determines if the Vicinity, rather than the in-process event listeners, delivers an event to the Actors in this process
+     * @param event
+     * @return true if Actors should only hear the copy delivered by the Vicinity
+     */
+    public boolean deliversInProcess(ArchitectureFirstEvent event) {
+        return isLocalDeliveryEnabled && !event.isLocal() && !(event instanceof LocalEvent) && !event.isPropagatedFromVicinity();
+    }
+
+    /**
+     * Posts a copy of the event to the mailbox of each Actor subscribed to the target in this process,
+     * so it is processed like a message received from the Vicinity without being serialized
+     * @param event
+     * @param to
+     * @return true if the event was queued
+     */
+    private boolean sendLocally(ArchitectureFirstEvent event, String to) {
+        var owners = (isLocalDeliveryEnabled) ? recipientsOf(to) : List.<Actor>of();
+
+        int refused = 0;
+        for (Actor owner : owners) {
+            var copy = event.copy().setTo(to);
+            copy.setPropagatedFromVicinity(true);
+            copy.shouldAwaitResponse(false);  // this flag is for the caller not recipients
+            copy.setAsLocal(false).setAsHandled(false);
+
+            if (!mailboxFor(owner).post(new Letter(copy))) {
+                refused++;
+            }
+        }
+
+        boolean isDelivered = refused < owners.size();
+        if (isDelivered && refused > 0) {   // the others heard it, so it is not sent again through the Vicinity
+            log.warn("Mailbox full, message shed for " + refused + " of " + owners.size() + " Actors of: " + to + " " + event.getRequestId());
+        }
+        return isDelivered;
+    }
+
+    /**
+     * Returns the Actors in this process that receive a message sent to a target.
+     * A message to a group reaches every subscribed member if the transport broadcasts, otherwise the least busy one
+     * @param target
+     * @return the receiving Actors
+     */
+    private List<Actor> recipientsOf(String target) {
+        var owners = subscribers.get(target);
+        if (owners == null || owners.isEmpty()) {
+            return List.of();
+        }
+        if (owners.size() > 1 && !target.contains(".") && !transport.isBroadcast()) {
+            return owners.stream().min(Comparator.comparingInt(o -> mailboxFor(o).depth())).stream().toList();
+        }
+        return List.copyOf(owners);
+    }
+
+    /**
+     * Delivers an event copy to the Actor whose mailbox it was taken from
+     * @param owner
+     * @param event
+     */
+    private void deliverLocally(Actor owner, ArchitectureFirstEvent event) {
+        convo.record(event, Conversation.Status.ReceivedInVicinity);
+        owner.onApplicationEvent(event);
+    }
+
+    private Mailbox mailboxFor(Actor owner) {
+        return postOffice.mailboxFor(owner, letter -> process(owner, letter));
+    }
+
     /**
      * Generates a Vicinity message from and event
      * @param event
@@ -163,6 +308,7 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
      */
     public VicinityMessage generateMessage(ArchitectureFirstEvent event, String to) {
         VicinityMessage message = new VicinityMessage(event.from(), to);
+        message.getHeader().setRequestId(event.getRequestId());
         message.setPayload(event, event.getClass());
         return message;
     }
@@ -173,100 +319,263 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
      * @param contents
      */
     public void publishMessage(String to, String contents) {
-        try (Jedis jedisDedicated = new Jedis(host, port)) {
-            jedisDedicated.publish(Vicinity.channelFor(to), contents);
+        publish(to, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Publish a message to the Vicinity in the configured envelope format
+     * @param to
+     * @param message
+     */
+    public void publishMessage(String to, VicinityMessage message) {
+        publish(to, encode(message));
+    }
+
+    /**
+     * Encodes a message as a binary envelope or, while receivers are being upgraded, as legacy JSON
+     * @param message
+     * @return the bytes to send
+     */
+    private byte[] encode(VicinityMessage message) {
+        return (ENVELOPE_JSON.equals(envelopeFormat))
+                ? message.toString().getBytes(StandardCharsets.UTF_8)
+                : message.toBytes();
+    }
+
+    /**
+     * Encodes a message for each recipient, reusing everything but the recipient
+     * @param message
+     * @param recipients
+     * @param contents - receives the bytes to send to each recipient
+     */
+    private void encode(VicinityMessage message, List<String> recipients, Map<String, byte[]> contents) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        if (ENVELOPE_JSON.equals(envelopeFormat)) {
+            recipients.forEach(t -> {
+                message.getHeader().setTo(t);
+                contents.put(t, message.toString().getBytes(StandardCharsets.UTF_8));
+            });
+            return;
+        }
+
+        var envelopes = VicinityEnvelope.encode(message, recipients);
+        for (int i = 0; i < recipients.size(); i++) {
+            contents.put(recipients.get(i), envelopes.get(i));
         }
     }
 
+    /**
+     * Publish contents to a target through the configured transport
+     * @param to
+     * @param contents
+     */
+    private void publish(String to, byte[] contents) {
+        transport.publish(to, contents)
+                .whenComplete((receivers, e) -> {
+                    if (e != null) {
+                        log.error("Publish error to: " + to, e);
+                    }
+                });
+    }
+
     /**
      * Handle an invalid token
      * @param event
      */
     private void processInvalidToken(ArchitectureFirstEvent event) {
-        String msg = "Received Invalid Token: " + new Gson().toJson(event);
+        String msg = "Received Invalid Token: " + JsonUtils.toJson(event);
         log.error(msg);
         SecurityGuard.reportError(event, msg);
         SecurityGuard.replyToSender(event.setMessage(msg));
     }
 
     /**
-     * Receive events from the environment, such as Redis, and propagate to the intended targets
+     * Receive events from the environment, such as Redis, and propagate to the intended targets.
+     *
+     *      Note:
+     *          Several Actors of a group in one process share the group's subscription.
+     *          The target is subscribed through the transport for its first Actor, or again for an Actor already subscribed to it,
+     *          such as after a broken connection.
      * @param owner
      * @param target
      */
     public void subscribe(Actor owner, String target) {
-        Runnable submitTask =  () -> {
-            try (Jedis jedisDedicated = new Jedis(host, port, JEDIS_TIMEOUT)) {
-                jedisDedicated.subscribe(new JedisPubSub() {
-                    @Override
-                    public void onMessage(String channel, String message) {
-                        super.onMessage(channel, message);
-
-                        VicinityMessage vicinityMessage = VicinityMessage.from(message);
-                        if (vicinityMessage != null) {
-
-                            AtomicReference<String> threadId = new AtomicReference<>();
-                            var future = executor.submit(() -> {
-                                try {
-                                    threadId.set(Thread.currentThread().getName());
-                                    ArchitectureFirstEvent event = ArchitectureFirstEvent.from(this, vicinityMessage);
-                                    if (event != null) {
-                                        event.setPropagatedFromVicinity(true);
-                                        event.shouldAwaitResponse(false);  // this flag is for the caller not recipients
-                                        event.onVicinityInit();
-                                        log.info("Received and Locally Published Event: " + new Gson().toJson(event));
-                                        convo.record(event, Conversation.Status.ReceivedInVicinity);
-
-                                        if (SecurityGuard.isOkToProceed(event)) {
-                                            event.setAsLocal(false).setAsHandled(false);
-                                            publisher.publishEvent(event);
-                                        }
-                                        else {
-                                            processInvalidToken(event);
-                                        }
-                                    } else {
-                                        owner.onError("Vicinity Message is not readable as an ArchitectureFirstEvent: " + vicinityMessage);
-                                    }
-                                }
-                                catch (Exception e) {
-                                    owner.onException(new ActorException(owner, e), "Error processing event: ");
-                                }
-                                finally {
-                                    activeTasks.remove(this);
-                                }
-                            });
-                            activeTasks.put(future, "running");
+        mailboxFor(owner);
+        subscribers.compute(target, (t, owners) -> {
+            var updated = (owners != null) ? owners : new CopyOnWriteArraySet<Actor>();
+            if (!updated.add(owner) || updated.size() == 1) {
+                transport.subscribe(target,
+                        delivery -> onVicinityMessage(target, delivery),
+                        () -> onConnectionBroken(target));
+            }
+            return updated;
+        });
 
-                        }
-                        else {
-                            owner.onError("Original message is not readable as a VicinityMessage: " + message);
-                        }
-                    }
-                }, channelFor(target));
+        log.info("Subscription to: " + target + " via " + transportType);
+    }
+
+    /**
+     * Posts a message received for a subscribed target to the mailbox of each receiving Actor.
+     * The delivery is acknowledged once the event has been published to each of them
+     * @param target
+     * @param delivery
+     */
+    private void onVicinityMessage(String target, VicinityDelivery delivery) {
+        VicinityMessage vicinityMessage = VicinityMessage.from(delivery.getMessage());
+        if (vicinityMessage == null) {
+            log.error("Original message is not readable as a VicinityMessage: " + new String(delivery.getMessage(), StandardCharsets.UTF_8));
+            delivery.acknowledge();
+            return;
+        }
+        if (PROCESS_ID.equals(vicinityMessage.attribute(LOCAL_ORIGIN))) {
+            delivery.acknowledge();     // already delivered in this process
+            return;
+        }
+
+        var owners = recipientsOf(target);
+        if (owners.isEmpty()) {
+            delivery.acknowledge();     // the last Actor unsubscribed while the message was in flight
+            return;
+        }
+
+        var shared = (owners.size() == 1) ? delivery : sharedDelivery(delivery, owners.size());
+        owners.forEach(owner -> {
+            if (!mailboxFor(owner).post(new Letter(vicinityMessage, shared, MailboxPriority.of(vicinityMessage)))) {
+                log.warn("Mailbox full, message shed for: " + owner.name() + " " + vicinityMessage.getHeader().getRequestId());
+            }
+        });
+    }
+
+    /**
+     * Returns a delivery that acknowledges the original once each of the Actors acknowledged it
+     * @param delivery
+     * @param numberOfActors
+     * @return
+     */
+    private VicinityDelivery sharedDelivery(VicinityDelivery delivery, int numberOfActors) {
+        var remaining = new AtomicInteger(numberOfActors);
+        return new VicinityDelivery(delivery.getMessage(), () -> {
+            if (remaining.decrementAndGet() == 0) {
+                delivery.acknowledge();
+            }
+        });
+    }
+
+    /**
+     * Publishes a message taken from the owner's mailbox to the local Actors
+     * @param owner
+     * @param letter
+     */
+    private void process(Actor owner, Letter letter) {
+        if (letter.isLocal()) {
+            try {
+                deliverLocally(owner, letter.getEvent());
+            }
+            catch (Exception e) {
+                owner.onException(new ActorException(owner, e), "Error processing event: ");
             }
-            catch(Exception e) {
-                var evt =  new VicinityConnectionBrokenEvent(this, "vicinity", owner.name())
-                        .setOwner(owner.name())
-                        .setTargetOwner(target)
-                        .setVicinity(this)
-                        .setTargetActor(owner);
-                owner.onException(evt, new ActorException(owner, e), "Vicinity Error:");
-                publisher.publishEvent(evt);
+            return;
+        }
+
+        var vicinityMessage = letter.getMessage();
+        try {
+            ArchitectureFirstEvent event = receive(vicinityMessage);
+            if (event != null) {
+                if (log.isInfoEnabled()) {
+                    log.info("Received and Locally Published Event: " + JsonUtils.toJson(event));
+                }
+                convo.record(event, Conversation.Status.ReceivedInVicinity);
+
+                if (SecurityGuard.isOkToProceed(event)) {
+                    event.setAsLocal(false).setAsHandled(false);
+                    owner.onApplicationEvent(event);    // each Actor of a group has its own letter
+                }
+                else {
+                    processInvalidToken(event);
+                }
+            } else {
+                owner.onError("Vicinity Message is not readable as an ArchitectureFirstEvent: " + vicinityMessage);
+            }
+            letter.getDelivery().acknowledge();
+        }
+        catch (Exception e) {
+            owner.onException(new ActorException(owner, e), "Error processing event: ");
+        }
+    }
+
+    /**
+     * Converts a message received from the Vicinity to the event heard by its recipient.
+     * Note: a message is published to each recipient of the event separately,
+     *       so the event is narrowed to the recipient in the header and each recipient hears it once
+     * @param vicinityMessage
+     * @return the event or null if the message is not readable
+     */
+    ArchitectureFirstEvent receive(VicinityMessage vicinityMessage) {
+        ArchitectureFirstEvent event = ArchitectureFirstEvent.from(this, vicinityMessage);
+        if (event != null) {
+            if (StringUtils.isNotEmpty(vicinityMessage.getHeader().getTo())) {
+                event.setTo(vicinityMessage.getHeader().getTo());
             }
-        };
+            event.setPropagatedFromVicinity(true);
+            event.shouldAwaitResponse(false);  // this flag is for the caller not recipients
+            event.onVicinityInit();
+        }
+        return event;
+    }
 
-        log.info("Subscription to: " + channelFor(target));
+    /**
+     * Notifies the Actors subscribed to the target that the connection serving it broke
+     * @param target
+     */
+    private void onConnectionBroken(String target) {
+        subscribers.getOrDefault(target, Set.of()).forEach(owner -> {
+            var evt =  new VicinityConnectionBrokenEvent(this, "vicinity", owner.name())
+                    .setOwner(owner.name())
+                    .setTargetOwner(target)
+                    .setVicinity(this)
+                    .setTargetActor(owner);
+            owner.onException(evt, new ActorException(owner, "Vicinity connection broken"), "Vicinity Error:");
+            publisher.publishEvent(evt);
+        });
+    }
 
-        setupTask(target, submitTask);
+    /**
+     * Unsubscribe an Actor from the event subscription.
+     * The target is unsubscribed through the transport when its last Actor in this process leaves
+     * @param owner
+     * @param target
+     */
+    public void unsubscribe(Actor owner, String target) {
+        subscribers.computeIfPresent(target, (t, owners) -> {
+            owners.remove(owner);
+            if (owners.isEmpty()) {
+                transport.unsubscribe(target);
+                return null;
+            }
+            return owners;
+        });
+        closeMailboxIfUnused(owner);
     }
 
     /**
-     * Unsubscribe from the event subscription
+     * Unsubscribe all Actors in this process from the event subscription
      * @param target
      */
     public void unsubscribe(String target) {
-        if (taskGroups.containsKey(target)) {
-            taskGroups.get(target).shutdown();
+        var owners = subscribers.remove(target);
+        transport.unsubscribe(target);
+
+        if (owners != null) {
+            owners.forEach(this::closeMailboxIfUnused);
+        }
+    }
+
+    private void closeMailboxIfUnused(Actor owner) {
+        if (subscribers.values().stream().noneMatch(owners -> owners.contains(owner))) {   // the mailbox serves all of the owner's targets
+            postOffice.close(owner.name());
         }
     }
 
@@ -277,7 +586,7 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
      * @return
      */
     public boolean areConnectionsOk(String target, int numberOfConnections) {
-        return taskGroups.containsKey(target) && taskGroups.get(target).isOk(numberOfConnections);
+        return subscribers.containsKey(target) && transport.isOk(target, numberOfConnections);
     }
 
     /**
@@ -286,47 +595,8 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
      * @param project
      * @return
      */
-
     protected String findActiveActor(String type, String project) {
-        var workQueueKey = String.format("%s.%s", type,
-                StringUtils.isNotEmpty(project) ? project : ArchitectureFirstEvent.DEFAULT_PROJECT);
-        if (!workQueueMap.containsKey(workQueueKey) || currentWorkforceSize.get(workQueueKey) == 0 ||
-                ( workQueueMap.get(workQueueKey).size() < currentWorkforceSize.get(workQueueKey))) {
-
-            try (Jedis jedisDedicated = new Jedis(host, port)) {
-                String roster = getRoster(type);
-
-                String cursor = "0";
-                ScanParams scanParams = new ScanParams()
-                                            .match("*").count(ROSTER_LIST_COUNT);
-                var scanResult = jedisDedicated.hscan(roster, cursor, scanParams);
-
-                LinkedList<String> workQueue = (workQueueMap.containsKey(workQueueKey))
-                        ? workQueueMap.get(workQueueKey) : new LinkedList<>();
-                workQueueMap.put(workQueueKey, workQueue);
-
-                final List<String> cleanupList = new ArrayList<>();
-
-                final AtomicInteger workforceSize = new AtomicInteger(0);
-                scanResult.getResult().forEach(x -> {
-                    if (x.getValue().contains("\"message\":\"running\"")) {
-                        if (x.getKey().contains(project)) {
-                            workQueue.push(x.getKey());
-                            workforceSize.incrementAndGet();
-                        }
-                    }
-                    else {
-                        cleanupList.add(x.getKey());
-                    }
-                });
-
-                currentWorkforceSize.put(workQueueKey, workforceSize.get());
-
-                cleanupList.forEach(e -> { jedisDedicated.hdel(roster, e);});
-            }
-        }
-
-        return (workQueueMap.get(workQueueKey) != null && workQueueMap.get(workQueueKey).size() > 0) ? workQueueMap.get(workQueueKey).pop() : "";
+        return roster.pick(type, StringUtils.isNotEmpty(project) ? project : ArchitectureFirstEvent.DEFAULT_PROJECT);
     }
 
     /**
@@ -354,25 +624,26 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
     }
 
     /**
-     * Returns an actor name for a group and default project
+     * Returns all active Actors of a group for a project, or of the default project if the project has none
      * @param type
-     * @return
+     * @param project
+     * @return the Actor names
      */
-    public String findActor(String type) {
-        return findActor(type, ArchitectureFirstEvent.DEFAULT_PROJECT);
+    public List<String> findActors(String type, String project) {
+        var prj = (StringUtils.isNotEmpty(project)) ? project : ArchitectureFirstEvent.DEFAULT_PROJECT;
+        var members = roster.members(type, prj);
+        return (members.isEmpty() && !ArchitectureFirstEvent.DEFAULT_PROJECT.equals(prj))
+                ? roster.members(type, ArchitectureFirstEvent.DEFAULT_PROJECT)
+                : members;
     }
 
     /**
-     * Returns the current roster of active Actors
+     * Returns an actor name for a group and default project
      * @param type
      * @return
      */
-    private String getRoster(String type) {
-        String template = "BulletinBoard:topic/VicinityStatus/%s:%s/Active";
-        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("uuuu-MM-dd");
-        LocalDate localDate = LocalDate.now(ZoneId.of("GMT"));
-        String roster = String.format(template, type, dtf.format(localDate));
-        return roster;
+    public String findActor(String type) {
+        return findActor(type, ArchitectureFirstEvent.DEFAULT_PROJECT);
     }
 
     /**
@@ -381,48 +652,21 @@ public class Vicinity implements ApplicationListener<ArchitectureFirstEvent> {
      * @return
      */
     public boolean actorIsAvailable(String name) {
-        try (Jedis jedisDedicated = new Jedis(host, port)) {
-            String type = name.substring(0, name.indexOf("."));
-            String roster = getRoster(type);
-
-            if (jedisDedicated.hexists(roster, name)) {
-                return true;
-            }
-        }
-
-        return false;
+        return roster.isAvailable(name);
     }
 
     public static String channelFor(String name) {
         return "channel: " + name;
     }
 
-    private void setupTask(String target, Runnable submitTask) {
-        var tasks = (taskGroups.containsKey(target))
-                ? taskGroups.get(target)
-                : addConnection(target);
-
-        if (tasks.containsConnection(target)) {
-            var connection = tasks.getConnection(target);
-            connection.getFuture().cancel(true);
-            connection.getExecutorService().shutdownNow();
-        }
-
-        ExecutorService executorService = Executors.newSingleThreadExecutor(threadFactory);
-        var task = executorService.submit(submitTask);
-        Connection conn = new Connection(executorService, task);
-
-        tasks.setConnection(target, conn);
-    }
-
     /**
-     * Adds a connection to a subscription
-     * @param ownername
-     * @return
+     * Returns the shard channel of an Actor or group on a Redis Cluster.
+     * The name is the hash tag, so the channel shares a slot with any key tagged with the same name
+     * @param name
+     * @return channel
      */
-    private VicinityConnections addConnection(String ownername) {
-        taskGroups.put(ownername, new VicinityConnections());
-        return taskGroups.get(ownername);
+    public static String shardChannelFor(String name) {
+        return "channel: {" + name + "}";
     }
 
 }
@@ -4,13 +4,15 @@ import com.architecture.first.framework.business.vicinity.Vicinity;
 import com.architecture.first.framework.business.vicinity.events.AcknowledgementEvent;
 import com.architecture.first.framework.business.vicinity.messages.VicinityMessage;
 import com.architecture.first.framework.technical.cache.JedisHCursor;
+import com.architecture.first.framework.technical.cache.RedisBatch;
 import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.util.JsonUtils;
 import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -47,12 +49,12 @@ public class Acknowledgement {
     }
 
     private final int expirationSeconds = 3600; //43200; // 12 hours
-    private static final Gson gson = new Gson();
+    private static final Gson gson = JsonUtils.gson();
     public static String ACK_TEMPLATE = "Ack";
     public static String UNACK_TEMPLATE = "UnAck";
 
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
 
     @Autowired
     private Vicinity vicinity;
@@ -118,7 +120,7 @@ public class Acknowledgement {
             var ackEvent = new AcknowledgementEvent(this, event.toFirst(), event.from())
                     .setAcknowledgementEvent(event);
             var ackMessage = vicinity.generateMessage(ackEvent, event.from());
-            vicinity.publishMessage(ackEvent.toFirst(), ackMessage.toString());
+            vicinity.publishMessage(ackEvent.toFirst(), ackMessage);
         }
 
         return index;
@@ -132,7 +134,27 @@ public class Acknowledgement {
      */
     public ArchitectureFirstEvent getUnacknowledgedEvent(String requestId, String index) {
         var ack = generateHandle(requestId, Status.Unacknowledged);
-        var json = jedis.hget(ack, index);
+        return toEvent(jedis.hget(ack, index));
+    }
+
+    /**
+     * Adds a read of an unacknowledged event to a batch
+     * @param batch
+     * @param requestId
+     * @param index
+     * @return the event as stored, once the batch is sent; see toEvent
+     */
+    public RedisBatch.Reply<String> readUnacknowledgedEvent(RedisBatch batch, String requestId, String index) {
+        var ack = generateHandle(requestId, Status.Unacknowledged);
+        return batch.add(ack, p -> p.hget(ack, index));
+    }
+
+    /**
+     * Converts an unacknowledged event as stored
+     * @param json
+     * @return the event, or null if there is none
+     */
+    public ArchitectureFirstEvent toEvent(String json) {
         if (StringUtils.isNotEmpty(json)) {
             var message = VicinityMessage.from(json);
 
@@ -1,20 +1,26 @@
 package com.architecture.first.framework.business.vicinity.bulletinboard;
 
+import com.architecture.first.framework.business.vicinity.publisher.VicinityPublisher;
 import com.architecture.first.framework.technical.cache.JedisHCursor;
+import com.architecture.first.framework.technical.cache.RedisBatch;
 import com.architecture.first.framework.technical.util.DateUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The shared object for inter-actor communication.
@@ -24,13 +30,21 @@ import java.util.UUID;
 public class BulletinBoard {
 
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
+
+    @Autowired
+    private VicinityPublisher vicinityPublisher;
     private final String bulletinBoardConnectionId = UUID.randomUUID().toString();
 
     @Value("${vicinity.bulletin-board.items.default-expiration-seconds:3600}")
     private long expirationSeconds;
     private static final String BULLETIN_BOARD_PREFIX = "BulletinBoard:topic/";
 
+    // announces when an entry joins or leaves an Active topic, as: active topic|name|status
+    // and when an entry of an Active topic is posted again, with its status string: active topic|name|Active|status string
+    public static final String STATUS_CHANGES_CHANNEL = "channel: vicinity/status-changes";
+    public static final String STATUS_CHANGE_SEPARATOR = "|";
+
     @PostConstruct
     public void init() {
         log.info("bulletinBoardConnectionId: " + bulletinBoardConnectionId);
@@ -77,18 +91,23 @@ public class BulletinBoard {
 
         switch (value) {
             case "Gone":
-                jedis.hdel(activeTopic, name);
-                jedis.hdel(awayTopic, name);
+                long removed = jedis.hdel(activeTopic, name) + jedis.hdel(awayTopic, name);
                 jedis.hset(goneTopic, name, statusString);
                 jedis.expire(goneTopic, expirationSeconds);
+                if (removed > 0) {
+                    announceStatusChange(activeTopic, name, value);
+                }
                 return;
             case "Away":
-                jedis.hdel(activeTopic, name);
+                if (jedis.hdel(activeTopic, name) > 0) {
+                    announceStatusChange(activeTopic, name, value);
+                }
                 jedis.hset(awayTopic, name, statusString);
                 jedis.expire(awayTopic, expirationSeconds);
                 return;
         }
         jedis.hset(activeTopic, name, statusString);
+        announceStatusChange(activeTopic, name, "Active", statusString);
         jedis.expire(activeTopic, expirationSeconds);
 
         clearIdleTopicEntries(activeTopic, awayTopic);
@@ -100,26 +119,163 @@ public class BulletinBoard {
      * @param awayTopic
      */
     public void clearIdleTopicEntries(String activeTopic, String awayTopic) {
-        var idleEntries = new HashMap<String,String>();
+        var entries = new HashMap<String,String>();
 
         var cursor = new JedisHCursor(jedis);
         cursor.processAll(activeTopic, e -> {
-            var entry = BulletinBoardStatus.from(e.getValue());
-            if (entry.getTimestamp().isBefore(ZonedDateTime.now(ZoneId.of("GMT")).minus(2, ChronoUnit.MINUTES))) {
-                idleEntries.put(e.getKey(), e.getValue());
-            }
-
+            entries.put(e.getKey(), e.getValue());
             return false;
         });
 
+        clearIdleTopicEntries(activeTopic, awayTopic, entries);
+    }
+
+    /**
+     * Remove idle entries that have not been updated recently
+     * @param activeTopic
+     * @param awayTopic
+     * @param entries - the entries of the active topic, as read
+     */
+    private void clearIdleTopicEntries(String activeTopic, String awayTopic, Map<String,String> entries) {
+        var idleBefore = ZonedDateTime.now(ZoneId.of("GMT")).minus(2, ChronoUnit.MINUTES);
+        var idleEntries = new HashMap<String,String>();
+        entries.forEach((name, status) -> {
+            var entry = BulletinBoardStatus.from(status);
+            if (entry.getTimestamp().isBefore(idleBefore)) {
+                idleEntries.put(name, status);
+            }
+        });
+
         idleEntries.entrySet().forEach(e -> {
-            jedis.hdel(activeTopic, e.getKey());
+            if (jedis.hdel(activeTopic, e.getKey()) > 0) {
+                announceStatusChange(activeTopic, e.getKey(), "Away");
+            }
             jedis.hset(awayTopic, e.getKey(), e.getValue());
             jedis.expire(awayTopic, expirationSeconds);
         });
 
     }
 
+    /**
+     * Adds a status entry for an availability bulletin board to a batch, instead of posting it right away
+     * @param batch
+     * @param topic
+     * @param name
+     * @param value
+     * @param statusString
+     * @param shouldReadActiveEntries - true to also read the Active topic, to find idle entries and whose turn it is
+     * @return the post, to complete once the batch is sent
+     */
+    public StatusPost postStatusTopic(RedisBatch batch, String topic, String name, String value, String statusString,
+                                      boolean shouldReadActiveEntries) {
+        return new StatusPost(batch, DateUtils.appendDaily(topic), name, value, statusString, shouldReadActiveEntries);
+    }
+
+    /**
+     * A status entry added to a batch.
+     * It announces a change of status and clears idle entries once the batch is sent, which only costs more commands
+     * when there is a change to make.
+     */
+    public class StatusPost {
+        private final String name;
+        private final String value;
+        private final String statusString;
+        private final String activeTopic;
+        private final String awayTopic;
+        private final List<RedisBatch.Reply<Long>> changes = new ArrayList<>();
+        private final RedisBatch.Reply<Map<String,String>> activeEntries;
+
+        private StatusPost(RedisBatch batch, String topic, String name, String value, String statusString,
+                           boolean shouldReadActiveEntries) {
+            this.name = name;
+            this.value = value;
+            this.statusString = statusString;
+            this.activeTopic = BULLETIN_BOARD_PREFIX + topic + "/Active";
+            this.awayTopic = BULLETIN_BOARD_PREFIX + topic + "/Away";
+            String goneTopic = BULLETIN_BOARD_PREFIX + topic + "/Gone";
+
+            switch (value) {
+                case "Gone":
+                    changes.add(batch.add(activeTopic, p -> p.hdel(activeTopic, name)));
+                    changes.add(batch.add(awayTopic, p -> p.hdel(awayTopic, name)));
+                    batch.add(goneTopic, p -> p.hset(goneTopic, name, statusString));
+                    batch.add(goneTopic, p -> p.expire(goneTopic, expirationSeconds));
+                    break;
+                case "Away":
+                    changes.add(batch.add(activeTopic, p -> p.hdel(activeTopic, name)));
+                    batch.add(awayTopic, p -> p.hset(awayTopic, name, statusString));
+                    batch.add(awayTopic, p -> p.expire(awayTopic, expirationSeconds));
+                    break;
+                default:
+                    changes.add(batch.add(activeTopic, p -> p.hset(activeTopic, name, statusString)));
+                    batch.add(activeTopic, p -> p.expire(activeTopic, expirationSeconds));
+            }
+
+            activeEntries = (shouldReadActiveEntries) ? batch.add(activeTopic, p -> p.hgetAll(activeTopic)) : null;
+        }
+
+        /**
+         * Announces the status and clears idle entries of the Active topic
+         * @return true if the entry was posted
+         */
+        public boolean complete() {
+            if (!changes.stream().allMatch(RedisBatch.Reply::isOk)) {
+                log.warn("Unable to post status for: " + name);
+                return false;
+            }
+
+            if (value.equals("Gone") || value.equals("Away")) {
+                if (changes.stream().mapToLong(RedisBatch.Reply::get).sum() > 0) {
+                    announceStatusChange(activeTopic, name, value);
+                }
+            }
+            else {
+                announceStatusChange(activeTopic, name, "Active", statusString);    // with the load it reports
+            }
+            if (value.equals("Active") && activeEntries != null && activeEntries.isOk()) {
+                clearIdleTopicEntries(activeTopic, awayTopic, activeEntries.get());
+            }
+            return true;
+        }
+
+        /**
+         * Determine which Actor should do the next task, from the Active topic as read
+         * @return the Actor name, or empty if there are no Active entries, or null if the topic was not read
+         */
+        public String whosTurnIsIt() {
+            if (activeEntries == null || !activeEntries.isOk()) {
+                return null;
+            }
+            if (activeEntries.get().isEmpty()) {
+                return "";
+            }
+
+            var names = new ArrayList<>(activeEntries.get().keySet());
+            return names.get(ThreadLocalRandom.current().nextInt(names.size()));
+        }
+    }
+
+    /**
+     * Tells the processes that cache Active topics, such as the Actor roster, that an entry joined or left
+     * @param activeTopic
+     * @param name
+     * @param status - Active, Away or Gone
+     * @param details - the status string of an Active entry, if any
+     */
+    private void announceStatusChange(String activeTopic, String name, String status, String... details) {
+        var parts = new ArrayList<>(List.of(activeTopic, name, status));
+        parts.addAll(List.of(details));
+
+        // published on the node that owns the channel, where the rosters listen
+        vicinityPublisher.publish(STATUS_CHANGES_CHANNEL,
+                        String.join(STATUS_CHANGE_SEPARATOR, parts).getBytes(StandardCharsets.UTF_8))
+                .whenComplete((receivers, e) -> {
+                    if (e != null) {    // the caches reconcile periodically
+                        log.warn("Unable to announce status change for: " + name, e);
+                    }
+                });
+    }
+
     /**
      * Determine which Actor should do the next task based on bulletin board status
      * @param topic
@@ -199,4 +355,17 @@ public class BulletinBoard {
 
         return true;
     }
+
+    /**
+     * Adds the health check of the bulletin board to a batch
+     * @param batch
+     * @return the reply, which is ok if the bulletin board can make a simple update
+     */
+    public RedisBatch.Reply<Long> isOk(RedisBatch batch) {
+        String bulletinboardPath = "environment/health/bulletinboard";
+        var reply = batch.add(bulletinboardPath,
+                p -> p.hset(bulletinboardPath, "BB" + bulletinBoardConnectionId, ZonedDateTime.now(ZoneId.of("GMT")).toString()));
+        batch.add(bulletinboardPath, p -> p.expire(bulletinboardPath, expirationSeconds));
+        return reply;
+    }
 }
@@ -6,6 +6,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.Map;
 
 /**
  * A status entry for the bulletin board
@@ -29,6 +30,25 @@ public class BulletinBoardStatus {
     private String message;
     private String timestamp;
 
+    // load, so that senders can prefer the less busy Actors of a group
+    private int inFlight;
+    private int mailboxDepth;
+    private long p99Micros;
+
+    // hedged requests sent by the Actor, in total
+    private long requests;
+    private long hedges;
+    private long hedgeWins;
+
+    // circuit breakers of the groups the Actor sends to that are not closed
+    private Map<String, String> circuits = Map.of();
+    private long circuitRejections;
+
+    // Redis work of the last heartbeat of the Actor
+    private int heartbeatCommands;
+    private int heartbeatRoundTrips;
+    private long heartbeatMicros;
+
     public BulletinBoardStatus(BulletinBoardStatus.Status status, String subject, String message) {
         this.status = status;
         this.subject = subject;
@@ -57,6 +77,96 @@ public class BulletinBoardStatus {
         this.message = message;
     }
 
+    /**
+     * Set the current load
+     * @param inFlight - events being processed
+     * @param mailboxDepth - events waiting to be processed
+     * @param p99Micros - recent 99th percentile handling time
+     */
+    public void setLoad(int inFlight, int mailboxDepth, long p99Micros) {
+        this.inFlight = inFlight;
+        this.mailboxDepth = mailboxDepth;
+        this.p99Micros = p99Micros;
+    }
+
+    /**
+     * Set the hedging statistics
+     * @param requests - requests that could be hedged
+     * @param hedges - requests sent to a second Actor
+     * @param hedgeWins - hedged requests answered first by the second Actor
+     */
+    public void setHedging(long requests, long hedges, long hedgeWins) {
+        this.requests = requests;
+        this.hedges = hedges;
+        this.hedgeWins = hedgeWins;
+    }
+
+    /**
+     * Set the Redis work of the last heartbeat
+     * @param commands - Redis commands sent
+     * @param roundTrips - Redis round trips made
+     * @param micros - time taken
+     */
+    public void setHeartbeat(int commands, int roundTrips, long micros) {
+        this.heartbeatCommands = commands;
+        this.heartbeatRoundTrips = roundTrips;
+        this.heartbeatMicros = micros;
+    }
+
+    /**
+     * Set the circuit breaker states
+     * @param circuits - the state of each breaker that is not closed, by group/project
+     * @param rejections - calls rejected by open breakers, in total
+     */
+    public void setCircuits(Map<String, String> circuits, long rejections) {
+        this.circuits = circuits;
+        this.circuitRejections = rejections;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getMailboxDepth() {
+        return mailboxDepth;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getHedges() {
+        return hedges;
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    public Map<String, String> getCircuits() {
+        return circuits;
+    }
+
+    public long getCircuitRejections() {
+        return circuitRejections;
+    }
+
+    public int getHeartbeatCommands() {
+        return heartbeatCommands;
+    }
+
+    public int getHeartbeatRoundTrips() {
+        return heartbeatRoundTrips;
+    }
+
+    public long getHeartbeatMicros() {
+        return heartbeatMicros;
+    }
+
     /**
      * Update the timestamp
      */
@@ -2,11 +2,12 @@ package com.architecture.first.framework.business.vicinity.conversation;
 
 import com.architecture.first.framework.technical.cache.JedisHCursor;
 import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.util.JsonUtils;
 import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -53,11 +54,11 @@ public class Conversation {
     }
 
     private final int expirationSeconds = 3600; //43200; // 12 hours
-    private static final Gson gson = new Gson();
+    private static final Gson gson = JsonUtils.gson();
     public static String CONVO_TEMPLATE = "%s/Convo";
 
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
     private final String convoConnectionId = UUID.randomUUID().toString();
 
     /**
@@ -86,9 +87,20 @@ public class Conversation {
      * @return
      */
     public String record(ArchitectureFirstEvent event, Status status) {
+        return record(event, event.toFirst(), status);
+    }
+
+    /**
+     * Record the current state of the conversation with one of the event's recipients
+     * @param event - the event in process
+     * @param to - the recipient
+     * @param status - the status of the event processing
+     * @return
+     */
+    public String record(ArchitectureFirstEvent event, String to, Status status) {
         return  (!event.name().equals("SelfVicinityCheckupEvent") && !event.name().equals("AcknowledgementEvent")
-                && !event.toFirst().equals("VicinityMonitor"))
-                ? record(event.getRequestId(), event.originalEventName(), event.from(), event.toFirst(), String.valueOf(event.index()), status)
+                && !to.equals("VicinityMonitor"))
+                ? record(event.getRequestId(), event.originalEventName(), event.from(), to, String.valueOf(event.index()), status)
                 : "WARNING_CONVO_ENTRY_IGNORED";
     }
 
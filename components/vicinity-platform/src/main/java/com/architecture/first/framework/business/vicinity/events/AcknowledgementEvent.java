@@ -1,13 +1,14 @@
 package com.architecture.first.framework.business.vicinity.events;
 
 import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.events.ControlEvent;
 
 /**
  * Represents an acknowledgement that a previous event has been received
  */
-public class AcknowledgementEvent extends ArchitectureFirstEvent {
-    private String acknowledgedEventName;
-    private ArchitectureFirstEvent acknowledgedEvent;
+public class AcknowledgementEvent extends ArchitectureFirstEvent implements ControlEvent {
+    String acknowledgedEventName;
+    ArchitectureFirstEvent acknowledgedEvent;
 
     public AcknowledgementEvent(Object source, String from, String to) {
         super(source, from, to);
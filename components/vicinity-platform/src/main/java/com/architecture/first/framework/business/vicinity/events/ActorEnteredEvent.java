@@ -1,11 +1,12 @@
 package com.architecture.first.framework.business.vicinity.events;
 
 import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.events.ControlEvent;
 
 /**
  * The event sent when an Actor enters a Vicinity
  */
-public class ActorEnteredEvent extends ArchitectureFirstEvent {
+public class ActorEnteredEvent extends ArchitectureFirstEvent implements ControlEvent {
 
     public ActorEnteredEvent(Object source, String from, String to) {
         super(source, from, to);
@@ -0,0 +1,164 @@
+package com.architecture.first.framework.business.vicinity.heartbeat;
+
+import com.architecture.first.framework.business.vicinity.bulletinboard.BulletinBoard;
+import com.architecture.first.framework.technical.cache.RedisBatch;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The periodic Redis work of an Actor, sent as one batch.
+ * The work is added first, then the heartbeat is sent, and the results are read afterwards.
+ *
+ *      Note:
+ *          A result whose work was not added or failed is read from Redis directly, as without a heartbeat.
+ */
+@Slf4j
+public class Heartbeat {
+    private final HeartbeatCoordinator coordinator;
+    private final RedisBatch batch;
+    private String name = "";
+    private BulletinBoard.StatusPost statusPost;
+    private RedisBatch.Reply<Long> environmentCheck;
+    private String toDoGroup;
+    private RedisBatch.Reply<Map<String,String>> toDoTasks;
+    private final Map<String, RedisBatch.Reply<String>> unacknowledgedEvents = new HashMap<>();
+    private RedisBatch.Cost cost;
+
+    Heartbeat(HeartbeatCoordinator coordinator, RedisBatch batch) {
+        this.coordinator = coordinator;
+        this.batch = batch;
+    }
+
+    /**
+     * Adds the status of an Actor
+     * @param topic - the availability bulletin board
+     * @param name - the Actor
+     * @param status - Active, Away or Gone
+     * @param statusString
+     * @param shouldReadActiveEntries - true to also find idle entries and whose turn it is
+     * @return this heartbeat
+     */
+    public Heartbeat postStatus(String topic, String name, String status, String statusString, boolean shouldReadActiveEntries) {
+        this.name = name;
+        statusPost = coordinator.bulletinBoard().postStatusTopic(batch, topic, name, status, statusString, shouldReadActiveEntries);
+        return this;
+    }
+
+    /**
+     * Adds the health check of the environment
+     * @return this heartbeat
+     */
+    public Heartbeat checkEnvironment() {
+        environmentCheck = coordinator.bulletinBoard().isOk(batch);
+        return this;
+    }
+
+    /**
+     * Adds a read of the tasks of a group
+     * @param group
+     * @return this heartbeat
+     */
+    public Heartbeat readToDoList(String group) {
+        toDoGroup = group;
+        toDoTasks = coordinator.todo().readTasks(batch, group);
+        return this;
+    }
+
+    /**
+     * Adds a read of an unacknowledged event
+     * @param requestId
+     * @param index
+     * @return this heartbeat
+     */
+    public Heartbeat readUnacknowledgedEvent(String requestId, String index) {
+        unacknowledgedEvents.computeIfAbsent(requestId + "/" + index,
+                k -> coordinator.ack().readUnacknowledgedEvent(batch, requestId, index));
+        return this;
+    }
+
+    /**
+     * Sends the work and completes the status post
+     * @return this heartbeat
+     */
+    public Heartbeat send() {
+        if (cost == null) {
+            cost = batch.send();
+            coordinator.record(name, cost);
+            if (statusPost != null) {
+                statusPost.complete();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the Redis work done to send the heartbeat
+     * @return cost, or empty if it has not been sent
+     */
+    public Optional<RedisBatch.Cost> cost() {
+        return Optional.ofNullable(cost);
+    }
+
+    /**
+     * Determines if the environment is healthy
+     * @return true if the bulletin board could make a simple update
+     */
+    public boolean isEnvironmentOk() {
+        if (cost == null || environmentCheck == null) {
+            return coordinator.bulletinBoard().isOk();
+        }
+
+        if (!environmentCheck.isOk()) {
+            try {
+                environmentCheck.get();
+            }
+            catch (Exception e) {
+                log.error("Health Check Error: " + e);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Determine which Actor should do the next task
+     * @param topic - the availability bulletin board
+     * @return the Actor name
+     */
+    public String whosTurnIsIt(String topic) {
+        var turn = (cost != null && statusPost != null) ? statusPost.whosTurnIsIt() : null;
+        return (turn != null) ? turn : coordinator.bulletinBoard().whosTurnIsIt(topic);
+    }
+
+    /**
+     * Acquires a task of a group
+     * @param group
+     * @param requestor
+     * @return the event of the task, if there is one to process
+     */
+    // Note: has side effects
+    public Optional<ArchitectureFirstEvent> acquireAvailableTask(String group, String requestor) {
+        if (cost != null && group.equals(toDoGroup) && toDoTasks.isOk()) {
+            return coordinator.todo().acquireAvailableTask(group, requestor, toDoTasks.get());
+        }
+        return coordinator.todo().acquireAvailableTask(group, requestor);
+    }
+
+    /**
+     * Get an unacknowledged event by request id and index
+     * @param requestId
+     * @param index
+     * @return the event or null
+     */
+    public ArchitectureFirstEvent getUnacknowledgedEvent(String requestId, String index) {
+        var reply = unacknowledgedEvents.get(requestId + "/" + index);
+        if (cost != null && reply != null && reply.isOk()) {
+            return coordinator.ack().toEvent(reply.get());
+        }
+        return coordinator.ack().getUnacknowledgedEvent(requestId, index);
+    }
+}
@@ -0,0 +1,116 @@
+package com.architecture.first.framework.business.vicinity.heartbeat;
+
+import com.architecture.first.framework.business.vicinity.Vicinity;
+import com.architecture.first.framework.business.vicinity.acknowledgement.Acknowledgement;
+import com.architecture.first.framework.business.vicinity.bulletinboard.BulletinBoard;
+import com.architecture.first.framework.business.vicinity.todo.ToDoList;
+import com.architecture.first.framework.technical.cache.RedisBatch;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coordinates the periodic Redis work of the Actors, so that each heartbeat is sent as one batch.
+ *
+ *      Note:
+ *          A heartbeat collects the status post, the environment check and the reads an Actor needs to think,
+ *          and sends them in one pipeline per Redis node, instead of a round trip per command.
+ *          Writes that depend on what was read, such as clearing idle entries or acquiring a task, are only made
+ *          when there is something to change.
+ *          Each Redis node has a small connection pool of its own for heartbeats.
+ */
+@Slf4j
+@Component
+public class HeartbeatCoordinator {
+
+    @Autowired
+    private RedisNodes nodes;
+
+    @Autowired
+    private BulletinBoard bulletinBoard;
+
+    @Autowired
+    private ToDoList todo;
+
+    @Autowired
+    private Acknowledgement ack;
+
+    @Value("${vicinity.heartbeat.pool-size:4}")
+    private int poolSize;
+
+    private final Map<HostAndPort, JedisPool> pools = new ConcurrentHashMap<>();
+    private final JedisPoolConfig poolConfig = new JedisPoolConfig();
+    private final AtomicLong beats = new AtomicLong(0);
+    private final AtomicLong commands = new AtomicLong(0);
+    private final AtomicLong roundTrips = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        poolConfig.setMaxTotal(poolSize);
+        poolConfig.setMaxIdle(poolSize);
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.values().forEach(JedisPool::close);
+    }
+
+    /**
+     * Starts a heartbeat
+     * @return an empty heartbeat, to fill and send
+     */
+    public Heartbeat beat() {
+        return new Heartbeat(this, new RedisBatch(nodes, node -> poolFor(node).getResource()));
+    }
+
+    /**
+     * Returns the number of heartbeats sent
+     * @return
+     */
+    public long beats() {return beats.get();}
+
+    /**
+     * Returns the number of Redis commands sent by all heartbeats
+     * @return
+     */
+    public long commands() {return commands.get();}
+
+    /**
+     * Returns the number of Redis round trips made by all heartbeats
+     * @return
+     */
+    public long roundTrips() {return roundTrips.get();}
+
+    BulletinBoard bulletinBoard() {return bulletinBoard;}
+
+    ToDoList todo() {return todo;}
+
+    Acknowledgement ack() {return ack;}
+
+    /**
+     * Records the Redis work done by a heartbeat
+     * @param name - the Actor
+     * @param cost
+     */
+    void record(String name, RedisBatch.Cost cost) {
+        beats.incrementAndGet();
+        commands.addAndGet(cost.commands());
+        roundTrips.addAndGet(cost.roundTrips());
+        log.debug("heartbeat for " + name + ": " + cost);
+    }
+
+    private JedisPool poolFor(HostAndPort node) {
+        return pools.computeIfAbsent(node, n -> new JedisPool(poolConfig, n.getHost(), n.getPort(), Vicinity.JEDIS_TIMEOUT));
+    }
+}
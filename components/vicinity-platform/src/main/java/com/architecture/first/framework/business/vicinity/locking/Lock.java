@@ -3,7 +3,7 @@ package com.architecture.first.framework.business.vicinity.locking;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 import java.util.UUID;
 
@@ -20,7 +20,7 @@ public class Lock {
     public static String LOCK_TEMPLATE = "Lock:%s";
 
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
     private final String lockConnectionId = UUID.randomUUID().toString();
 
     /**
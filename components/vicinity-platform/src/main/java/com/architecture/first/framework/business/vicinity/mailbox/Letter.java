@@ -0,0 +1,81 @@
+package com.architecture.first.framework.business.vicinity.mailbox;
+
+import com.architecture.first.framework.business.vicinity.messages.VicinityMessage;
+import com.architecture.first.framework.business.vicinity.transport.VicinityDelivery;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+
+/**
+ * A message waiting in an Actor's mailbox.
+ * A letter holds either a message received from the Vicinity or a copy of an event sent from this process.
+ */
+public class Letter {
+    private static final VicinityDelivery LOCAL_DELIVERY = VicinityDelivery.of(new byte[0]);
+
+    private final VicinityMessage message;
+    private final ArchitectureFirstEvent event;
+    private final VicinityDelivery delivery;
+    private final MailboxPriority priority;
+    private final long postedNanos = System.nanoTime();
+
+    public Letter(VicinityMessage message, VicinityDelivery delivery, MailboxPriority priority) {
+        this.message = message;
+        this.event = null;
+        this.delivery = delivery;
+        this.priority = priority;
+    }
+
+    /**
+     * Creates a letter for an event sent from this process, which is not serialized
+     * @param event
+     */
+    public Letter(ArchitectureFirstEvent event) {
+        this.message = null;
+        this.event = event;
+        this.delivery = LOCAL_DELIVERY;
+        this.priority = MailboxPriority.from(event.priority());
+    }
+
+    /**
+     * Returns the message received from the Vicinity
+     * @return message, or null for a local letter
+     */
+    public VicinityMessage getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns the event sent from this process
+     * @return event, or null for a letter received from the Vicinity
+     */
+    public ArchitectureFirstEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Determines if the letter was sent from this process
+     * @return true if the letter holds an event rather than a message
+     */
+    public boolean isLocal() {
+        return event != null;
+    }
+
+    public String getRequestId() {
+        return (isLocal()) ? event.getRequestId() : message.getHeader().getRequestId();
+    }
+
+    public VicinityDelivery getDelivery() {
+        return delivery;
+    }
+
+    public MailboxPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns when the letter was posted, in System.nanoTime units
+     * @return
+     */
+    public long getPostedNanos() {
+        return postedNanos;
+    }
+}
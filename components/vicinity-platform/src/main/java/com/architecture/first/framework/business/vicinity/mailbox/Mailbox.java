@@ -0,0 +1,477 @@
+package com.architecture.first.framework.business.vicinity.mailbox;
+
+import com.architecture.first.framework.business.vicinity.messages.VicinityMessage;
+import com.architecture.first.framework.business.vicinity.transport.VicinityDelivery;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The queue of messages received from the Vicinity for one Actor.
+ *
+ *      Note:
+ *          Letters are striped by requestId over 'concurrency' lanes, and each lane is processed by one worker at a time,
+ *          so the letters of one request are processed in order while different requests run in parallel.
+ *          Each lane has a bounded queue per priority, and the higher priority is always taken first.
+ *          Control letters, such as health checks, have a lane of their own with its own capacity and executor,
+ *          so a backlog of business letters never delays them. A control letter that does not fit is shed.
+ *          Letters of a request the Actor is awaiting a response for, such as replies, have a reply lane and executor of their own,
+ *          so a handler blocked on a response is never queued ahead of it. They are not kept in order with the other letters
+ *          of the request.
+ *          A worker yields its thread after a number of letters so that one busy Actor does not hold the executor.
+ *          Posting never runs the Actor's handler on the delivering thread; when a queue is full the overflow policy decides.
+ *          A local letter, holding an event sent from this process, is not serialized to be spilled or shed. When its queue
+ *          is full it is refused, after waiting under SLOW_DOWN, and the sender publishes it through the Vicinity instead,
+ *          which brings it back as a message the overflow policy applies to.
+ *          Spilled messages are reclaimed from the overflow store when a lane has drained, after the letters that were queued.
+ *          While a request has spilled letters, its new letters are spilled behind them, so they are still processed in order;
+ *          a local letter of such a request is refused.  The one exception is a reclaimed letter that no longer fits because
+ *          letters of other requests took the room; it is spilled again, after the later letters of its request.
+ *          The number of spilled letters is taken from the overflow store, which may trim its oldest letters.
+ */
+@Slf4j
+public class Mailbox {
+    private static final int THROUGHPUT = 32;
+    private static final int RECLAIM_BATCH = 100;
+
+    private final String owner;
+    private final Lane[] lanes;
+    private final OverflowPolicy policy;
+    private final long slowDownMillis;
+    private final Lane controlLane;
+    private final Lane replyLane;
+    private final Predicate<String> isAwaited;
+    private final OverflowStore overflowStore;
+    private final Consumer<Letter> handler;
+    private final MailboxMetrics metrics = new MailboxMetrics();
+    private final AtomicInteger nextLane = new AtomicInteger(0);
+    private final AtomicLong spilledCount = new AtomicLong(0);
+    private final AtomicInteger pendingSpills = new AtomicInteger(0);
+    private final Map<String, Integer> spilledRequests = new ConcurrentHashMap<>();     // spilled letters by requestId
+    private final AtomicBoolean isReclaiming = new AtomicBoolean(false);
+    private volatile boolean isOpen = true;
+
+    /**
+     * The letters of the requests that hash to it, or the control letters, processed by at most one worker at a time
+     */
+    private static class Lane {
+        private final BlockingQueue<Letter>[] queues;     // by priority, null for the priorities the lane does not carry
+        private final Executor executor;
+        private final boolean isControl;
+        private final AtomicBoolean isScheduled = new AtomicBoolean(false);
+
+        @SuppressWarnings("unchecked")
+        private Lane(int capacity, Executor executor, boolean isControl) {
+            this.executor = executor;
+            this.isControl = isControl;
+            queues = new BlockingQueue[MailboxPriority.values().length];
+            for (var priority : MailboxPriority.values()) {
+                if ((priority == MailboxPriority.CONTROL) == isControl) {
+                    queues[priority.ordinal()] = new ArrayBlockingQueue<>(capacity);
+                }
+            }
+        }
+
+        private Letter next() {
+            for (var queue : queues) {
+                var letter = (queue != null) ? queue.poll() : null;
+                if (letter != null) {
+                    return letter;
+                }
+            }
+            return null;
+        }
+
+        private int depth() {
+            int depth = 0;
+            for (var queue : queues) {
+                depth += (queue != null) ? queue.size() : 0;
+            }
+            return depth;
+        }
+
+        private int depth(MailboxPriority priority) {
+            var queue = queues[priority.ordinal()];
+            return (queue != null) ? queue.size() : 0;
+        }
+    }
+
+    /**
+     * Creates a mailbox whose control letters share the executor and capacity of the other letters
+     * @param owner - name of the Actor
+     * @param capacity - the maximum number of waiting letters per priority
+     * @param concurrency - the maximum number of letters processed at the same time, which is also the number of lanes
+     * @param policy - what to do with a letter when its queue is full
+     * @param slowDownMillis - how long the SLOW_DOWN policy waits for room
+     * @param executor - the threads that process letters
+     * @param overflowStore - where spilled letters are kept, or null to shed them
+     * @param handler - processes a letter
+     */
+    public Mailbox(String owner, int capacity, int concurrency, OverflowPolicy policy, long slowDownMillis,
+                   Executor executor, OverflowStore overflowStore, Consumer<Letter> handler) {
+        this(owner, capacity, concurrency, policy, slowDownMillis, executor, capacity, executor, overflowStore, handler);
+    }
+
+    /**
+     * Creates a mailbox
+     * @param owner - name of the Actor
+     * @param capacity - the maximum number of waiting letters per priority
+     * @param concurrency - the maximum number of letters processed at the same time, which is also the number of lanes
+     * @param policy - what to do with a letter when its queue is full
+     * @param slowDownMillis - how long the SLOW_DOWN policy waits for room
+     * @param executor - the threads that process letters
+     * @param controlCapacity - the maximum number of waiting control letters
+     * @param controlExecutor - the threads reserved for control letters
+     * @param overflowStore - where spilled letters are kept, or null to shed them
+     * @param handler - processes a letter
+     */
+    public Mailbox(String owner, int capacity, int concurrency, OverflowPolicy policy, long slowDownMillis, Executor executor,
+                   int controlCapacity, Executor controlExecutor, OverflowStore overflowStore, Consumer<Letter> handler) {
+        this(owner, capacity, concurrency, policy, slowDownMillis, executor, controlCapacity, controlExecutor,
+                controlExecutor, requestId -> false, overflowStore, handler);
+    }
+
+    /**
+     * Creates a mailbox with a reply lane
+     * @param owner - name of the Actor
+     * @param capacity - the maximum number of waiting letters per priority
+     * @param concurrency - the maximum number of letters processed at the same time, which is also the number of lanes
+     * @param policy - what to do with a letter when its queue is full
+     * @param slowDownMillis - how long the SLOW_DOWN policy waits for room
+     * @param executor - the threads that process letters
+     * @param controlCapacity - the maximum number of waiting control letters
+     * @param controlExecutor - the threads reserved for control letters
+     * @param replyExecutor - the threads reserved for the letters of awaited requests
+     * @param isAwaited - determines if the Actor is awaiting a response for a requestId
+     * @param overflowStore - where spilled letters are kept, or null to shed them
+     * @param handler - processes a letter
+     */
+    public Mailbox(String owner, int capacity, int concurrency, OverflowPolicy policy, long slowDownMillis, Executor executor,
+                   int controlCapacity, Executor controlExecutor, Executor replyExecutor, Predicate<String> isAwaited,
+                   OverflowStore overflowStore, Consumer<Letter> handler) {
+        this.owner = owner;
+        this.isAwaited = isAwaited;
+        this.policy = policy;
+        this.slowDownMillis = slowDownMillis;
+        this.overflowStore = overflowStore;
+        this.handler = handler;
+
+        this.lanes = new Lane[Math.max(1, concurrency)];
+        int laneCapacity = Math.max(1, capacity / lanes.length);
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(laneCapacity, executor, false);
+        }
+        this.controlLane = new Lane(Math.max(1, controlCapacity), controlExecutor, true);
+        this.replyLane = new Lane(laneCapacity, replyExecutor, false);
+    }
+
+    /**
+     * Posts a letter to the mailbox
+     * @param letter
+     * @return true if the letter was queued or spilled, false if it was shed or, for a local letter, refused
+     */
+    public boolean post(Letter letter) {
+        if (!isOpen) {
+            return false;
+        }
+
+        var lane = laneFor(letter);
+        if (!lane.isControl && lane != replyLane && hasSpilledLetters(letter.getRequestId())) {
+            // keep the letter behind the spilled letters of its request
+            if (letter.isLocal()) {
+                metrics.recordRefused();
+                return false;
+            }
+            return spill(letter);
+        }
+
+        var queue = lane.queues[letter.getPriority().ordinal()];
+        if (queue.offer(letter)) {
+            queued(lane);
+            return true;
+        }
+        if (letter.isLocal() && (lane.isControl || policy != OverflowPolicy.SLOW_DOWN)) {
+            metrics.recordRefused();
+            return false;
+        }
+        if (lane.isControl) {
+            shed(letter);   // a newer control letter follows soon, so it is not worth holding up the receiver
+            return false;
+        }
+
+        switch (policy) {
+            case SLOW_DOWN:
+                metrics.recordSlowDown();
+                try {
+                    if (queue.offer(letter, slowDownMillis, TimeUnit.MILLISECONDS)) {
+                        queued(lane);
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (letter.isLocal()) {
+                    metrics.recordRefused();
+                    return false;
+                }
+                return spill(letter);
+
+            case SPILL:
+                return spill(letter);
+
+            default:
+                shed(letter);
+                return false;
+        }
+    }
+
+    /**
+     * Stops processing letters.
+     * Letters still waiting are not acknowledged, so transports with delivery guarantees deliver them again
+     */
+    public void close() {
+        isOpen = false;
+    }
+
+    /**
+     * Returns the name of the owning Actor
+     * @return
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns the number of waiting letters
+     * @return depth
+     */
+    public int depth() {
+        int depth = controlLane.depth() + replyLane.depth();
+        for (var lane : lanes) {
+            depth += lane.depth();
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of waiting letters of a priority
+     * @param priority
+     * @return depth
+     */
+    public int depth(MailboxPriority priority) {
+        int depth = controlLane.depth(priority) + replyLane.depth(priority);
+        for (var lane : lanes) {
+            depth += lane.depth(priority);
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the number of letters in the overflow store that have not been reclaimed, as last reported by the store
+     * @return
+     */
+    public long spilled() {
+        return spilledCount.get();
+    }
+
+    /**
+     * Returns the metrics for the current reporting interval
+     * @return metrics
+     */
+    public MailboxMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the lane of a letter.
+     * Letters of the same request share a lane so they are processed in the order they were posted,
+     * unless the Actor is awaiting a response for the request
+     * @param letter
+     * @return lane
+     */
+    private Lane laneFor(Letter letter) {
+        if (letter.getPriority() == MailboxPriority.CONTROL) {
+            return controlLane;
+        }
+        var requestId = letter.getRequestId();
+        if (requestId != null && isAwaited.test(requestId)) {
+            return replyLane;
+        }
+        if (lanes.length == 1) {
+            return lanes[0];
+        }
+
+        int index = (requestId != null)
+                ? spread(requestId.hashCode()) % lanes.length
+                : Math.floorMod(nextLane.getAndIncrement(), lanes.length);   // no order to keep
+        return lanes[index];
+    }
+
+    private static int roomIn(Lane lane) {
+        return Math.min(lane.queues[MailboxPriority.NORMAL.ordinal()].remainingCapacity(),
+                lane.queues[MailboxPriority.HIGH.ordinal()].remainingCapacity());
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) & 0x7fffffff;
+    }
+
+    private void queued(Lane lane) {
+        metrics.recordDepth(depth());
+        schedule(lane);
+    }
+
+    private void shed(Letter letter) {
+        metrics.recordShed();
+        letter.getDelivery().acknowledge();
+        log.debug("Mailbox full, message shed for: " + owner);
+    }
+
+    private boolean spill(Letter letter) {
+        if (overflowStore == null) {
+            shed(letter);
+            return false;
+        }
+
+        metrics.recordSpilled();
+        spilledCount.incrementAndGet();     // so a draining lane looks for it before the store reports the count
+        pendingSpills.incrementAndGet();
+        countSpilled(letter.getRequestId(), 1);
+        overflowStore.spill(owner, letter.getDelivery().getMessage())
+                .whenComplete((stored, e) -> {
+                    pendingSpills.decrementAndGet();
+                    if (e == null) {
+                        spilledCount.set(stored);
+                        letter.getDelivery().acknowledge();
+                        schedule(laneFor(letter));     // reclaim it if the mailbox drained in the meantime
+                    }
+                    else {
+                        spilledCount.decrementAndGet();
+                        countSpilled(letter.getRequestId(), -1);
+                        metrics.recordFailure();
+                        log.error("Unable to spill message for: " + owner, e);
+                    }
+                });
+        return true;
+    }
+
+    private boolean hasSpilledLetters(String requestId) {
+        return requestId != null && spilledRequests.containsKey(requestId);
+    }
+
+    private void countSpilled(String requestId, int delta) {
+        if (requestId != null) {
+            spilledRequests.compute(requestId, (k, count) -> {
+                int spilled = ((count != null) ? count : 0) + delta;
+                return (spilled > 0) ? spilled : null;
+            });
+        }
+    }
+
+    /**
+     * Starts the worker of a lane if there is work and it is not already running
+     */
+    private void schedule(Lane lane) {
+        if (isOpen && (lane.depth() > 0 || (!lane.isControl && spilledCount.get() > 0)) && lane.isScheduled.compareAndSet(false, true)) {
+            try {
+                lane.executor.execute(() -> drain(lane));
+            } catch (RejectedExecutionException e) {
+                lane.isScheduled.set(false);
+                log.error("Mailbox worker rejected for: " + owner, e);
+            }
+        }
+    }
+
+    /**
+     * Processes the letters of a lane until it is empty or the worker has had its share of the thread
+     */
+    private void drain(Lane lane) {
+        try {
+            for (int i = 0; i < THROUGHPUT && isOpen; i++) {
+                var letter = lane.next();
+                if (letter == null && (lane.isControl || !reclaim() || (letter = lane.next()) == null)) {
+                    break;
+                }
+
+                metrics.recordProcessed(System.nanoTime() - letter.getPostedNanos());
+                try {
+                    handler.accept(letter);
+                }
+                catch (Exception e) {
+                    log.error("Error processing letter for: " + owner, e);
+                }
+            }
+        }
+        finally {
+            lane.isScheduled.set(false);
+            if (lane.depth() > 0) {
+                schedule(lane);
+            }
+        }
+    }
+
+    /**
+     * Moves spilled letters back into the mailbox
+     * @return true if any letters were reclaimed
+     */
+    private boolean reclaim() {
+        if (overflowStore == null || spilledCount.get() <= 0 || !isReclaiming.compareAndSet(false, true)) {
+            return false;
+        }
+
+        try {
+            // the reclaimed letters may all belong to one lane and priority, so take no more than the smallest room
+            int room = Math.min(RECLAIM_BATCH, roomIn(replyLane));
+            for (var lane : lanes) {
+                room = Math.min(room, roomIn(lane));
+            }
+            if (room <= 0) {
+                return false;
+            }
+            var messages = overflowStore.reclaim(owner, room);
+            metrics.recordReclaimed(messages.size());
+
+            messages.forEach(bytes -> {
+                var message = VicinityMessage.from(bytes);
+                if (message == null) {
+                    log.error("Spilled message is not readable for: " + owner);
+                    return;
+                }
+                var letter = new Letter(message, VicinityDelivery.of(bytes), MailboxPriority.of(message));
+                var lane = laneFor(letter);
+                if (lane.queues[letter.getPriority().ordinal()].offer(letter)) {
+                    schedule(lane);
+                }
+                else {
+                    spill(letter);
+                }
+                countSpilled(letter.getRequestId(), -1);
+            });
+
+            long stored = overflowStore.size(owner);
+            spilledCount.set(stored);
+            if (stored == 0 && pendingSpills.get() == 0) {
+                spilledRequests.clear();    // letters trimmed by the store are never reclaimed
+            }
+            return !messages.isEmpty();
+        }
+        catch (Exception e) {
+            log.error("Unable to reclaim spilled messages for: " + owner, e);
+            return false;
+        }
+        finally {
+            isReclaiming.set(false);
+        }
+    }
+}
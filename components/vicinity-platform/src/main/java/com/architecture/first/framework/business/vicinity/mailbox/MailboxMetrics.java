@@ -0,0 +1,133 @@
+package com.architecture.first.framework.business.vicinity.mailbox;
+
+import com.architecture.first.framework.technical.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics for an Actor's mailbox
+ */
+public class MailboxMetrics {
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder reclaimed = new LongAdder();
+    private final LongAdder slowDowns = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile int maxDepth = 0;
+
+    /**
+     * Records a letter taken from the mailbox
+     * @param waitNanos - the time the letter waited in the mailbox
+     */
+    public void recordProcessed(long waitNanos) {
+        processed.increment();
+        waitTime.recordNanos(waitNanos);
+    }
+
+    /**
+     * Records the depth of the mailbox after a letter was posted
+     * @param depth
+     */
+    public void recordDepth(int depth) {
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    public void recordShed() {
+        shed.increment();
+    }
+
+    public void recordSpilled() {
+        spilled.increment();
+    }
+
+    public void recordReclaimed(int count) {
+        reclaimed.add(count);
+    }
+
+    public void recordSlowDown() {
+        slowDowns.increment();
+    }
+
+    /**
+     * Records a local letter that did not fit, which the sender publishes through the Vicinity instead
+     */
+    public void recordRefused() {
+        refused.increment();
+    }
+
+    /**
+     * Records a message that could not be spilled
+     */
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+
+    public long getSpilled() {
+        return spilled.sum();
+    }
+
+    public long getReclaimed() {
+        return reclaimed.sum();
+    }
+
+    public long getSlowDowns() {
+        return slowDowns.sum();
+    }
+
+    public long getRefused() {
+        return refused.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Determines if anything happened in the current reporting interval
+     * @return true if there was activity
+     */
+    public boolean hasActivity() {
+        return processed.sum() > 0 || shed.sum() > 0 || spilled.sum() > 0 || refused.sum() > 0 || failures.sum() > 0;
+    }
+
+    /**
+     * Clears the metrics for the next reporting interval
+     */
+    public void reset() {
+        waitTime.reset();
+        processed.reset();
+        shed.reset();
+        spilled.reset();
+        reclaimed.reset();
+        slowDowns.reset();
+        refused.reset();
+        failures.reset();
+        maxDepth = 0;
+    }
+
+    public String toString() {
+        return String.format("processed=%d maxDepth=%d shed=%d spilled=%d reclaimed=%d slowDowns=%d refused=%d failures=%d wait[%s]",
+                getProcessed(), getMaxDepth(), getShed(), getSpilled(), getReclaimed(), getSlowDowns(), getRefused(), getFailures(), waitTime);
+    }
+}
@@ -0,0 +1,56 @@
+package com.architecture.first.framework.business.vicinity.mailbox;
+
+import com.architecture.first.framework.business.vicinity.messages.VicinityMessage;
+import com.architecture.first.framework.technical.events.EventPriority;
+import com.architecture.first.framework.technical.events.EventTypeRegistry;
+
+/**
+ * The priority of a message in an Actor's mailbox.
+ * Control messages have their own lane; in the other lanes each priority has its own bounded queue and higher priorities are taken first.
+ */
+public enum MailboxPriority {
+    CONTROL,
+    HIGH,
+    NORMAL;
+
+    /**
+     * Returns the priority of a received message.
+     * The priority is carried by the message; messages from senders that do not set it are classified by their event type.
+     * @param message
+     * @return priority
+     */
+    public static MailboxPriority of(VicinityMessage message) {
+        var priority = message.getHeader().getPriority();
+        if (priority != null) {
+            return from(priority);
+        }
+
+        var eventType = message.getHeader().getEventType();
+        if (eventType == null) {
+            return NORMAL;
+        }
+
+        try {
+            return from(EventPriority.of(EventTypeRegistry.instance().codecFor(eventType).type()));
+        }
+        catch (ClassNotFoundException e) {
+            return NORMAL;
+        }
+    }
+
+    /**
+     * Returns the mailbox priority of an event priority
+     * @param priority
+     * @return priority
+     */
+    public static MailboxPriority from(EventPriority priority) {
+        switch (priority) {
+            case CONTROL:
+                return CONTROL;
+            case HIGH:
+                return HIGH;
+            default:
+                return NORMAL;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.architecture.first.framework.business.vicinity.mailbox;
+
+/**
+ * What a mailbox does with a message when the queue for its priority is full
+ */
+public enum OverflowPolicy {
+    /**
+     * Drop the message
+     */
+    SHED,
+
+    /**
+     * Move the message to the Actor's overflow stream in Redis; it is delivered once the mailbox drains
+     */
+    SPILL,
+
+    /**
+     * Hold the delivering thread until there is room, so that reading from the Vicinity slows down and pushes back
+     * on the senders; the message is spilled if there is still no room
+     */
+    SLOW_DOWN;
+
+    /**
+     * Returns the policy for a configuration value such as "shed", "spill" or "slow-down"
+     * @param value
+     * @return policy
+     */
+    public static OverflowPolicy from(String value) {
+        return OverflowPolicy.valueOf(value.trim().replace('-', '_').toUpperCase());
+    }
+}
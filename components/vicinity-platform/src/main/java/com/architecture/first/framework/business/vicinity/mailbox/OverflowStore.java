@@ -0,0 +1,33 @@
+package com.architecture.first.framework.business.vicinity.mailbox;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Holds the messages that did not fit in an Actor's mailbox
+ */
+public interface OverflowStore {
+
+    /**
+     * Stores a message for later delivery
+     * @param owner - the Actor that owns the mailbox
+     * @param message - the message as received from the Vicinity
+     * @return a future with the number of messages stored for the owner once the message is stored
+     */
+    CompletableFuture<Long> spill(String owner, byte[] message);
+
+    /**
+     * Removes and returns the oldest stored messages
+     * @param owner
+     * @param max
+     * @return messages in the order they were stored
+     */
+    List<byte[]> reclaim(String owner, int max);
+
+    /**
+     * Returns the number of messages stored for an Actor
+     * @param owner
+     * @return number of messages
+     */
+    long size(String owner);
+}
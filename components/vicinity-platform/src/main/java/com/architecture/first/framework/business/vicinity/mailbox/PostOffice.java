@@ -0,0 +1,241 @@
+package com.architecture.first.framework.business.vicinity.mailbox;
+
+import com.architecture.first.framework.business.actors.Actor;
+import com.architecture.first.framework.business.vicinity.publisher.VicinityPublisher;
+import com.architecture.first.framework.technical.threading.VicinityThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.util.SafeEncoder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Owns the mailboxes of the Actors in this process and the threads that process them.
+ *
+ *      Note:
+ *          The defaults apply to every Actor and can be overridden per Actor group, for example:
+ *              vicinity.mailbox.actors.Merchant.concurrency=4
+ *              vicinity.mailbox.actors.Merchant.overflow=shed
+ *          Spilled messages are kept in a Redis stream per Actor.  Actor names are unique to a process, so the stream
+ *          is deleted when the Actor's mailbox closes and expires if the process stops without closing it.
+ *          Control messages are processed by a small set of threads of their own, so they are not queued behind business work.
+ */
+@Slf4j
+@Component
+public class PostOffice implements OverflowStore {
+    private static final String ACTOR_PROPERTY = "vicinity.mailbox.actors.%s.%s";
+
+    @Autowired
+    private VicinityPublisher vicinityPublisher;
+
+    @Autowired
+    private UnifiedJedis jedis;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${vicinity.mailbox.threads:10}")
+    private int numberOfThreads;
+
+    @Value("${vicinity.mailbox.capacity:1000}")
+    private int capacity;
+
+    @Value("${vicinity.mailbox.concurrency:2}")
+    private int concurrency;
+
+    @Value("${vicinity.mailbox.overflow:spill}")
+    private String overflow;
+
+    @Value("${vicinity.mailbox.slow-down-millis:100}")
+    private long slowDownMillis;
+
+    @Value("${vicinity.mailbox.spill-max-length:100000}")
+    private long spillMaxLength;
+
+    @Value("${vicinity.mailbox.spill-expiration-seconds:3600}")
+    private long spillExpirationSeconds;
+
+    @Value("${vicinity.mailbox.control-threads:2}")
+    private int numberOfControlThreads;
+
+    @Value("${vicinity.mailbox.control-capacity:100}")
+    private int controlCapacity;
+
+    @Value("${vicinity.mailbox.reply-threads:2}")
+    private int numberOfReplyThreads;
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private ExecutorService controlExecutor;
+    private ExecutorService replyExecutor;
+
+    /**
+     * Creates the threads that process the mailboxes
+     */
+    @PostConstruct
+    protected void init() {
+        // the pool queue only holds mailbox workers, which are limited by the concurrency of each mailbox
+        executor = VicinityThreads.newExecutor("a1-vicinity-mailbox-", numberOfThreads);
+        controlExecutor = VicinityThreads.newExecutor("a1-vicinity-control-", numberOfControlThreads);
+        replyExecutor = VicinityThreads.newExecutor("a1-vicinity-reply-", numberOfReplyThreads);
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        mailboxes.keySet().forEach(this::close);
+        executor.shutdown();
+        controlExecutor.shutdown();
+        replyExecutor.shutdown();
+    }
+
+    /**
+     * Returns the mailbox of an Actor, creating it the first time
+     * @param owner
+     * @param handler - processes the letters of the Actor
+     * @return mailbox
+     */
+    public Mailbox mailboxFor(Actor owner, Consumer<Letter> handler) {
+        return mailboxes.computeIfAbsent(owner.name(), name -> new Mailbox(name,
+                property(owner, "capacity", Integer.class, capacity),
+                property(owner, "concurrency", Integer.class, concurrency),
+                OverflowPolicy.from(property(owner, "overflow", String.class, overflow)),
+                property(owner, "slow-down-millis", Long.class, slowDownMillis),
+                executor, controlCapacity, controlExecutor, replyExecutor, owner::isAwaitingResponse, this, handler));
+    }
+
+    /**
+     * Closes an Actor's mailbox
+     * @param name
+     */
+    public void close(String name) {
+        var mailbox = mailboxes.remove(name);
+        if (mailbox != null) {
+            mailbox.close();
+            discardOverflow(name);
+        }
+    }
+
+    /**
+     * Returns the number of letters waiting for an Actor
+     * @param name
+     * @return depth, or 0 if the Actor has no mailbox
+     */
+    public int depth(String name) {
+        var mailbox = mailboxes.get(name);
+        return (mailbox != null) ? mailbox.depth() : 0;
+    }
+
+    /**
+     * Returns the mailbox metrics by Actor name
+     * @return metrics
+     */
+    public Map<String, MailboxMetrics> getMetrics() {
+        Map<String, MailboxMetrics> metrics = new ConcurrentHashMap<>();
+        mailboxes.forEach((name, mailbox) -> metrics.put(name, mailbox.getMetrics()));
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Logs the metrics of the active mailboxes for the current reporting interval
+     */
+    @Scheduled(fixedDelayString = "${vicinity.mailbox.report-interval-ms:60000}")
+    public void report() {
+        mailboxes.values().forEach(mailbox -> {
+            var metrics = mailbox.getMetrics();
+            if (metrics.hasActivity() || mailbox.depth() > 0) {
+                log.info(String.format("Mailbox %s: depth[control=%d high=%d normal=%d spilled=%d] %s", mailbox.getOwner(),
+                        mailbox.depth(MailboxPriority.CONTROL), mailbox.depth(MailboxPriority.HIGH), mailbox.depth(MailboxPriority.NORMAL), mailbox.spilled(), metrics));
+            }
+            metrics.reset();
+        });
+    }
+
+    /**
+     * Returns the overflow stream for an Actor
+     * @param owner
+     * @return stream name
+     */
+    public static String overflowStreamFor(String owner) {
+        return "mailbox-overflow: " + owner;
+    }
+
+    @Override
+    public CompletableFuture<Long> spill(String owner, byte[] message) {
+        String stream = overflowStreamFor(owner);
+        return vicinityPublisher.append(stream, message, spillMaxLength)
+                .thenApplyAsync(r -> {
+                    jedis.expire(stream, spillExpirationSeconds);
+                    return jedis.xlen(stream);      // the append may have trimmed the oldest messages
+                }, executor);
+    }
+
+    @Override
+    public long size(String owner) {
+        return jedis.xlen(overflowStreamFor(owner));
+    }
+
+    @Override
+    public List<byte[]> reclaim(String owner, int max) {
+        if (max <= 0) {
+            return Collections.emptyList();
+        }
+
+        byte[] stream = SafeEncoder.encode(overflowStreamFor(owner));
+        List<?> entries = jedis.xrange(stream, SafeEncoder.encode("-"), SafeEncoder.encode("+"), max);
+        List<byte[]> messages = new ArrayList<>();
+        List<byte[]> ids = new ArrayList<>();
+
+        // raw entries, each a list of the entry id and its field/value pairs
+        entries.forEach(e -> {
+            var entry = (List<?>) e;
+            ids.add((byte[]) entry.get(0));
+            var fields = (List<?>) entry.get(1);
+            for (int i = 0; fields != null && i + 1 < fields.size(); i += 2) {
+                if (Arrays.equals((byte[]) fields.get(i), VicinityPublisher.STREAM_MESSAGE_FIELD_BYTES)) {
+                    messages.add((byte[]) fields.get(i + 1));
+                }
+            }
+        });
+
+        if (!ids.isEmpty()) {
+            jedis.xdel(stream, ids.toArray(new byte[0][]));
+        }
+        return messages;
+    }
+
+    /**
+     * Deletes the overflow stream of an Actor that left; no other Actor has its name, so its messages cannot be delivered
+     * @param owner
+     */
+    private void discardOverflow(String owner) {
+        try {
+            long discarded = size(owner);
+            if (discarded > 0) {
+                jedis.del(overflowStreamFor(owner));
+                log.warn("Discarded " + discarded + " spilled messages for: " + owner);
+            }
+        }
+        catch (Exception e) {
+            log.error("Unable to discard spilled messages for: " + owner, e);
+        }
+    }
+
+    private <T> T property(Actor owner, String name, Class<T> type, T defaultValue) {
+        return environment.getProperty(String.format(ACTOR_PROPERTY, owner.group(), name), type, defaultValue);
+    }
+}
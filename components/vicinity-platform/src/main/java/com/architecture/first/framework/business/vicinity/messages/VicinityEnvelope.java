@@ -0,0 +1,229 @@
+package com.architecture.first.framework.business.vicinity.messages;
+
+import com.architecture.first.framework.technical.events.EventPriority;
+import com.architecture.first.framework.technical.events.EventTypeRegistry;
+import com.architecture.first.framework.technical.util.SimpleModel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The binary form of a Vicinity message on the wire.
+ *
+ *      Note:
+ *          Layout:
+ *              magic (1 byte), version (1 byte), priority (1 byte, the EventPriority ordinal or -1 for none),
+ *              from, to, subject (each a length-prefixed UTF-8 string, -1 for null),
+ *              event type id (int) from the EventTypeRegistry, followed by the eventType string only if the id is 0,
+ *              token, requestId (each a length-prefixed UTF-8 string, -1 for null),
+ *              number of attributes (int), followed by each attribute name and value as strings,
+ *              payload length (int) followed by the raw UTF-8 JSON of the event.
+ *          The payload is not escaped inside another JSON document, so it is written and read once.
+ *          A message for several recipients is encoded once and only the 'to' field is written per recipient.
+ *          Messages that do not start with the magic byte are read as the legacy JSON format.
+ */
+@Slf4j
+public class VicinityEnvelope {
+    public static final byte MAGIC = (byte) 0xA1;
+    public static final byte VERSION = 1;
+    private static final int NULL_LENGTH = -1;
+    private static final byte NO_PRIORITY = -1;
+
+    private VicinityEnvelope() {}
+
+    /**
+     * Determines if the bytes are a binary envelope
+     * @param bytes
+     * @return true if the bytes start with the envelope's magic byte
+     */
+    public static boolean isEnvelope(byte[] bytes) {
+        return bytes != null && bytes.length > 1 && bytes[0] == MAGIC;
+    }
+
+    /**
+     * Encodes a Vicinity message
+     * @param message
+     * @return the envelope bytes
+     */
+    public static byte[] encode(VicinityMessage message) {
+        return assemble(head(message), utf8(message.to()), tail(message));
+    }
+
+    /**
+     * Encodes a Vicinity message once for several recipients.
+     * Only the 'to' field differs between the envelopes, so the rest of the message, including the payload, is encoded once
+     * @param message
+     * @param recipients
+     * @return the envelope bytes of each recipient, in the order of the recipients
+     */
+    public static List<byte[]> encode(VicinityMessage message, List<String> recipients) {
+        byte[] head = head(message);
+        byte[] tail = tail(message);
+
+        List<byte[]> envelopes = new ArrayList<>(recipients.size());
+        recipients.forEach(r -> envelopes.add(assemble(head, utf8(r), tail)));
+        return envelopes;
+    }
+
+    /**
+     * Encodes the fields before 'to': magic, version, priority and from
+     */
+    private static byte[] head(VicinityMessage message) {
+        var priority = message.getHeader().getPriority();
+        byte[] from = utf8(message.from());
+
+        ByteBuffer buffer = ByteBuffer.allocate(3 + sizeOf(from));
+        buffer.put(MAGIC).put(VERSION).put((priority != null) ? (byte) priority.ordinal() : NO_PRIORITY);
+        put(buffer, from);
+        return buffer.array();
+    }
+
+    /**
+     * Encodes the fields after 'to': subject, event type, token, requestId, attributes and payload
+     */
+    private static byte[] tail(VicinityMessage message) {
+        var header = message.getHeader();
+        byte[] subject = utf8(header.getSubject());
+        byte[] token = utf8(header.getToken());
+        byte[] requestId = utf8(header.getRequestId());
+
+        var attributes = header.getAttributes();
+        List<byte[]> attributeFields = new ArrayList<>();
+        if (attributes != null) {
+            attributes.forEach((k, v) -> {
+                attributeFields.add(utf8(k));
+                attributeFields.add(utf8((v != null) ? v.toString() : null));
+            });
+        }
+
+        byte[] payload = utf8(message.getJsonPayload());
+
+        int typeId = (header.getEventType() != null)
+                ? EventTypeRegistry.instance().typeIdFor(header.getEventType())
+                : EventTypeRegistry.UNREGISTERED_TYPE_ID;
+        boolean isUnregistered = typeId == EventTypeRegistry.UNREGISTERED_TYPE_ID;
+        byte[] eventType = (isUnregistered) ? utf8(header.getEventType()) : null;
+
+        int size = sizeOf(subject) + Integer.BYTES + ((isUnregistered) ? sizeOf(eventType) : 0)
+                + sizeOf(token) + sizeOf(requestId) + Integer.BYTES + sizeOf(payload);
+        for (byte[] f : attributeFields) {
+            size += sizeOf(f);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        put(buffer, subject);
+        buffer.putInt(typeId);
+        if (isUnregistered) {
+            put(buffer, eventType);
+        }
+        put(buffer, token);
+        put(buffer, requestId);
+        buffer.putInt(attributeFields.size() / 2);
+        attributeFields.forEach(f -> put(buffer, f));
+        put(buffer, payload);
+
+        return buffer.array();
+    }
+
+    private static byte[] assemble(byte[] head, byte[] to, byte[] tail) {
+        ByteBuffer buffer = ByteBuffer.allocate(head.length + sizeOf(to) + tail.length);
+        buffer.put(head);
+        put(buffer, to);
+        buffer.put(tail);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a Vicinity message
+     * @param bytes
+     * @return the message or null if the bytes are not a readable envelope
+     */
+    public static VicinityMessage decode(byte[] bytes) {
+        if (!isEnvelope(bytes)) {
+            return null;
+        }
+        if (bytes[1] != VERSION) {
+            log.error("Unsupported Vicinity envelope version: " + bytes[1]);
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+            var message = new VicinityMessage();
+            var header = message.getHeader();
+            header.setPriority(priorityOf(buffer.get()));
+            header.setFrom(getString(buffer));
+            header.setTo(getString(buffer));
+            header.setSubject(getString(buffer));
+            int typeId = buffer.getInt();
+            if (typeId == EventTypeRegistry.UNREGISTERED_TYPE_ID) {
+                header.setEventType(getString(buffer));
+            }
+            else {
+                var codec = EventTypeRegistry.instance().codecFor(typeId);
+                if (codec == null) {
+                    log.error("Unknown event type id in Vicinity envelope: " + typeId);
+                    return null;
+                }
+                header.setEventType(codec.type().getName());
+            }
+            header.setToken(getString(buffer));
+            header.setRequestId(getString(buffer));
+
+            int numberOfAttributes = buffer.getInt();
+            if (numberOfAttributes > 0) {
+                var attributes = new SimpleModel();
+                for (int i = 0; i < numberOfAttributes; i++) {
+                    attributes.put(getString(buffer), getString(buffer));
+                }
+                header.setAttributes(attributes);
+            }
+
+            message.setJsonPayload(getString(buffer));
+            return message;
+        }
+        catch (BufferUnderflowException | IllegalArgumentException e) {
+            log.error("Invalid Vicinity envelope: ", e);
+            return null;
+        }
+    }
+
+    private static EventPriority priorityOf(byte ordinal) {
+        var priorities = EventPriority.values();
+        return (ordinal >= 0 && ordinal < priorities.length) ? priorities[ordinal] : null;
+    }
+
+    private static byte[] utf8(String value) {
+        return (value != null) ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int sizeOf(byte[] value) {
+        return Integer.BYTES + ((value != null) ? value.length : 0);
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(NULL_LENGTH);
+            return;
+        }
+        buffer.putInt(value.length).put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid field length: " + length);
+        }
+
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
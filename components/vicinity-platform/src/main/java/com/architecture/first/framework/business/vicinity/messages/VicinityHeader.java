@@ -1,5 +1,6 @@
 package com.architecture.first.framework.business.vicinity.messages;
 
+import com.architecture.first.framework.technical.events.EventPriority;
 import com.architecture.first.framework.technical.util.SimpleModel;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -17,5 +18,7 @@ public class VicinityHeader implements Serializable {
     private String subject;
     private String eventType;
     private String token;
+    private String requestId;
     private SimpleModel attributes;
+    private EventPriority priority;
 }
@@ -1,11 +1,15 @@
 package com.architecture.first.framework.business.vicinity.messages;
 
-import com.google.gson.Gson;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.events.EventTypeRegistry;
+import com.architecture.first.framework.technical.util.JsonUtils;
+import com.architecture.first.framework.technical.util.SimpleModel;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 
 import java.io.Serializable;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 
 /**
  * The message sent through the Vicinity between Actors
@@ -34,7 +38,13 @@ public class VicinityMessage implements Serializable {
      */
     public VicinityMessage setPayload(Object payload, Type classType) {
         header.setEventType(classType.getTypeName());
-        jsonPayload = new Gson().toJson(payload, classType);
+        if (classType instanceof Class && ArchitectureFirstEvent.class.isAssignableFrom((Class<?>) classType)) {
+            header.setPriority(((ArchitectureFirstEvent) payload).priority());
+            jsonPayload = EventTypeRegistry.instance().codecFor((Class<? extends ArchitectureFirstEvent>) classType).toJson((ArchitectureFirstEvent) payload);
+        }
+        else {
+            jsonPayload = JsonUtils.gson().toJson(payload, classType);
+        }
 
         return this;
     }
@@ -71,12 +81,57 @@ public class VicinityMessage implements Serializable {
         return header.getSubject();
     }
 
+    /**
+     * Sets an attribute in the header of the message
+     * @param name
+     * @param value
+     * @return the message
+     */
+    public VicinityMessage setAttribute(String name, Object value) {
+        if (header.getAttributes() == null) {
+            header.setAttributes(new SimpleModel());
+        }
+        header.getAttributes().put(name, value);
+
+        return this;
+    }
+
+    /**
+     * Returns an attribute from the header of the message
+     * @param name
+     * @return the attribute or null if it does not exist
+     */
+    public Object attribute(String name) {
+        return (header.getAttributes() != null) ? header.getAttributes().get(name) : null;
+    }
+
     /**
      * Returns this object as a JSON string
      * @return JSON string
      */
     public String toString() {
-        return new Gson().toJson(this, this.getClass());
+        return JsonUtils.gson().toJson(this, this.getClass());
+    }
+
+    /**
+     * Returns this object as a binary envelope
+     * @return envelope bytes
+     */
+    public byte[] toBytes() {
+        return VicinityEnvelope.encode(this);
+    }
+
+    /**
+     * Builds the Vicinity message from a binary envelope or a legacy JSON message
+     * @param bytes
+     * @return the message or null if it is not readable
+     */
+    public static VicinityMessage from(byte[] bytes) {
+        if (VicinityEnvelope.isEnvelope(bytes)) {
+            return VicinityEnvelope.decode(bytes);
+        }
+
+        return from(new String(bytes, StandardCharsets.UTF_8));
     }
 
     /**
@@ -86,7 +141,7 @@ public class VicinityMessage implements Serializable {
      */
     public static VicinityMessage from(String jsonMessage) {
         try {
-            return new Gson().fromJson(jsonMessage, VicinityMessage.class);
+            return JsonUtils.gson().fromJson(jsonMessage, VicinityMessage.class);
         }
         catch (Exception e) {
             return null;
@@ -0,0 +1,135 @@
+package com.architecture.first.framework.business.vicinity.publisher;
+
+import com.architecture.first.framework.technical.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics for tuning the Vicinity publisher
+ */
+public class PublisherMetrics {
+    private final LatencyHistogram publishLatency = new LatencyHistogram();
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder fullBatches = new LongAdder();
+    private final LongAdder directPublishes = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile int maxBatchSize = 0;
+
+    /**
+     * Records a flushed pipeline batch
+     * @param size - number of messages in the batch
+     * @param isFull - true if the batch was flushed because it reached the batch size
+     * @param flushNanos - the time taken to send the pipeline and read the replies
+     */
+    public void recordBatch(int size, boolean isFull, long flushNanos) {
+        batches.increment();
+        messages.add(size);
+        if (isFull) {
+            fullBatches.increment();
+        }
+        if (size > maxBatchSize) {
+            maxBatchSize = size;
+        }
+        flushLatency.recordNanos(flushNanos);
+    }
+
+    /**
+     * Records the time from the caller's request until Redis accepted the message
+     * @param nanos
+     */
+    public void recordPublishLatency(long nanos) {
+        publishLatency.recordNanos(nanos);
+    }
+
+    /**
+     * Records a publish that bypassed the pipeline because the lanes were not running
+     */
+    public void recordDirectPublish() {
+        directPublishes.increment();
+    }
+
+    /**
+     * Records messages that were not queued because a lane stayed full for the offer timeout
+     * @param count
+     */
+    public void recordRejections(int count) {
+        rejections.add(count);
+    }
+
+    /**
+     * Records messages that could not be published
+     * @param count
+     */
+    public void recordFailures(int count) {
+        failures.add(count);
+    }
+
+    public LatencyHistogram getPublishLatency() {
+        return publishLatency;
+    }
+
+    public LatencyHistogram getFlushLatency() {
+        return flushLatency;
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getMessages() {
+        return messages.sum();
+    }
+
+    public long getFullBatches() {
+        return fullBatches.sum();
+    }
+
+    public long getDirectPublishes() {
+        return directPublishes.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the average number of messages per pipeline
+     * @return average batch size
+     */
+    public double getAverageBatchSize() {
+        long n = batches.sum();
+        return (n > 0) ? (double) messages.sum() / n : 0;
+    }
+
+    /**
+     * Clears the metrics for the next reporting interval
+     */
+    public void reset() {
+        publishLatency.reset();
+        flushLatency.reset();
+        batches.reset();
+        messages.reset();
+        fullBatches.reset();
+        directPublishes.reset();
+        rejections.reset();
+        failures.reset();
+        maxBatchSize = 0;
+    }
+
+    public String toString() {
+        return String.format("messages=%d batches=%d avgBatch=%.1f maxBatch=%d fullBatches=%d direct=%d rejected=%d failures=%d publish[%s] flush[%s]",
+                getMessages(), getBatches(), getAverageBatchSize(), getMaxBatchSize(), getFullBatches(),
+                getDirectPublishes(), getRejections(), getFailures(), publishLatency, flushLatency);
+    }
+}
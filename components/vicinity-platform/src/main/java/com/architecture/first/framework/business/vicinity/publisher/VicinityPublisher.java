@@ -0,0 +1,486 @@
+package com.architecture.first.framework.business.vicinity.publisher;
+
+import com.architecture.first.framework.business.vicinity.Vicinity;
+import com.architecture.first.framework.technical.events.EventPriority;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import com.architecture.first.framework.technical.sharding.ShardedPubSubCommand;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.params.XAddParams;
+import redis.clients.jedis.util.SafeEncoder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes messages to the Vicinity over a long-lived connection pool.
+ *
+ *      Note:
+ *          Concurrent publishes are collected into lanes and sent as Redis pipelines.
+ *          A lane is flushed when it reaches the batch size or when the linger time has passed.
+ *          Channels are always assigned to the same lane, so messages to a channel keep their order.
+ *          Stream entries share the same lanes and pipelines as pub/sub messages.
+ *          The messages of a fan-out are queued together, so the messages that share a lane go out in the same pipeline.
+ *          Control messages have a lane of their own so they are not queued behind business messages.
+ *          When a lane is full the caller waits for room, up to the offer timeout, and the publish then fails
+ *          rather than overtaking the messages already queued on the lane.
+ *          Each Redis node has its own connection pool; a batch is split into one pipeline per node that owns its channels.
+ *          On a Redis Cluster messages are sent with SPUBLISH, and a message redirected by Redis is sent once more
+ *          to the node Redis named.
+ *          Once the publisher is closed, a publish fails with a RejectedExecutionException.
+ */
+@Slf4j
+@Component
+public class VicinityPublisher {
+
+    @Autowired
+    private RedisNodes nodes;
+
+    @Value("${vicinity.publisher.pool-size:8}")
+    private int poolSize;
+
+    @Value("${vicinity.publisher.lanes:2}")
+    private int numberOfLanes;
+
+    @Value("${vicinity.publisher.batch-size:64}")
+    private int batchSize;
+
+    @Value("${vicinity.publisher.linger-micros:200}")
+    private long lingerMicros;
+
+    @Value("${vicinity.publisher.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${vicinity.publisher.offer-timeout-millis:1000}")
+    private long offerTimeoutMillis;
+
+    public static final String STREAM_MESSAGE_FIELD = "message";
+    public static final byte[] STREAM_MESSAGE_FIELD_BYTES = SafeEncoder.encode(STREAM_MESSAGE_FIELD);
+    private static final long NOT_A_STREAM = -1;
+
+    private final PublisherMetrics metrics = new PublisherMetrics();
+    private final Map<HostAndPort, JedisPool> pools = new ConcurrentHashMap<>();
+    private final JedisPoolConfig poolConfig = new JedisPoolConfig();
+    private Lane[] lanes;
+    private Lane controlLane;
+    private volatile boolean isRunning = false;
+    private volatile boolean isClosed = false;
+
+    /**
+     * A message waiting to be published
+     */
+    private static class PendingPublish {
+        private final String channel;
+        private final byte[] message;
+        private final long maxLength;
+        private final long requestedAt = System.nanoTime();
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        private PendingPublish(String channel, byte[] message, long maxLength) {
+            this.channel = channel;
+            this.message = message;
+            this.maxLength = maxLength;
+        }
+
+        private boolean isStreamEntry() {
+            return maxLength != NOT_A_STREAM;
+        }
+
+        private byte[] key() {
+            return SafeEncoder.encode(channel);
+        }
+
+        private Map<byte[], byte[]> fields() {
+            return Map.of(STREAM_MESSAGE_FIELD_BYTES, message);
+        }
+
+        private XAddParams params() {
+            return XAddParams.xAddParams().maxLen(maxLength).approximateTrimming();
+        }
+    }
+
+    /**
+     * A queue of messages and the thread that flushes them to Redis
+     */
+    private class Lane implements Runnable {
+        private final BlockingQueue<List<PendingPublish>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread thread;
+
+        private Lane(String name) {
+            thread = new Thread(this, "a1-vicinity-publisher-" + name);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<PendingPublish> batch = new ArrayList<>(batchSize);
+            List<List<PendingPublish>> groups = new ArrayList<>(batchSize);
+            while (isRunning || !queue.isEmpty()) {
+                try {
+                    var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+
+                    batch.addAll(first);
+                    long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(groups, batchSize - batch.size());   // a group is never split across batches
+                        groups.forEach(batch::addAll);
+                        groups.clear();
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= batchSize || remaining <= 0) {
+                            break;
+                        }
+                        var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.addAll(next);
+                    }
+
+                    flush(batch);
+                }
+                catch (InterruptedException e) {
+                    if (!isRunning) {
+                        queue.drainTo(groups);
+                        groups.forEach(batch::addAll);
+                        groups.clear();
+                    }
+                    flush(batch);
+                }
+                catch (Exception e) {
+                    log.error("Publisher error: ", e);
+                    fail(batch, e);
+                }
+                finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the connection pool and starts the lanes
+     */
+    @PostConstruct
+    protected void init() {
+        poolConfig.setMaxTotal(poolSize);
+        poolConfig.setMaxIdle(poolSize);
+        poolConfig.setMinIdle(Math.min(numberOfLanes, poolSize));
+        nodes.all().forEach(this::poolFor);
+
+        isRunning = true;
+        lanes = new Lane[Math.max(1, numberOfLanes)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(String.valueOf(i));
+            lanes[i].thread.start();
+        }
+        controlLane = new Lane("control");
+        controlLane.thread.start();
+    }
+
+    /**
+     * Flushes the remaining messages and closes the connection pool
+     */
+    @PreDestroy
+    protected void shutdown() {
+        isClosed = true;
+        isRunning = false;
+        if (lanes != null) {
+            List<Lane> all = new ArrayList<>(List.of(lanes));
+            all.add(controlLane);
+            for (Lane lane : all) {
+                lane.thread.interrupt();
+            }
+            for (Lane lane : all) {
+                try {
+                    lane.thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (Lane lane : all) {     // queued after the lane stopped
+                List<List<PendingPublish>> remaining = new ArrayList<>();
+                lane.queue.drainTo(remaining);
+                remaining.forEach(this::rejectClosed);
+            }
+        }
+        pools.values().forEach(JedisPool::close);
+    }
+
+    /**
+     * Publishes a message to a channel
+     * @param channel
+     * @param message
+     * @return a future with the number of subscribers that received the message
+     */
+    public CompletableFuture<Long> publish(String channel, byte[] message) {
+        return submit(new PendingPublish(channel, message, NOT_A_STREAM));
+    }
+
+    /**
+     * Appends a message to a stream, trimming the stream to approximately the maximum length
+     * @param stream
+     * @param message
+     * @param maxLength
+     * @return a future with 1 when the message was appended
+     */
+    public CompletableFuture<Long> append(String stream, byte[] message, long maxLength) {
+        return submit(new PendingPublish(stream, message, maxLength));
+    }
+
+    /**
+     * Publishes the same message, encoded for each recipient, to several channels.
+     * The messages that share a lane are queued as one group and are sent in the same pipeline
+     * @param messages - the message of each channel
+     * @param priority - control messages are sent on the control lane
+     * @return a future with the total number of subscribers that received the messages
+     */
+    public CompletableFuture<Long> publishAll(Map<String, byte[]> messages, EventPriority priority) {
+        return submitAll(messages, NOT_A_STREAM, priority);
+    }
+
+    /**
+     * Appends the same message, encoded for each recipient, to several streams
+     * @param messages - the message of each stream
+     * @param maxLength
+     * @param priority - control messages are sent on the control lane
+     * @return a future with the number of messages appended
+     */
+    public CompletableFuture<Long> appendAll(Map<String, byte[]> messages, long maxLength, EventPriority priority) {
+        return submitAll(messages, maxLength, priority);
+    }
+
+    private CompletableFuture<Long> submit(PendingPublish pending) {
+        submit(List.of(pending), laneFor(pending.channel));
+        return pending.future;
+    }
+
+    private CompletableFuture<Long> submitAll(Map<String, byte[]> messages, long maxLength, EventPriority priority) {
+        Map<Lane, List<PendingPublish>> groups = new LinkedHashMap<>();
+        List<CompletableFuture<Long>> futures = new ArrayList<>(messages.size());
+        messages.forEach((channel, message) -> {
+            var pending = new PendingPublish(channel, message, maxLength);
+            var lane = (priority == EventPriority.CONTROL) ? controlLane : laneFor(channel);
+            groups.computeIfAbsent(lane, l -> new ArrayList<>()).add(pending);
+            futures.add(pending.future);
+        });
+        groups.forEach((lane, group) -> submit(group, lane));
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> futures.stream().mapToLong(CompletableFuture::join).sum());
+    }
+
+    private void submit(List<PendingPublish> group, Lane lane) {
+        if (isClosed) {
+            rejectClosed(group);
+            return;
+        }
+        if (!isRunning) {
+            // there are no lanes to keep an order for
+            publishDirectly(group);
+            return;
+        }
+
+        try {
+            // the lane is saturated, so push back on the caller; publishing directly would overtake the queued messages
+            if (!lane.queue.offer(group, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                metrics.recordRejections(group.size());
+                fail(group, new RejectedExecutionException("Vicinity publisher lane is full: " + lane.thread.getName()));
+            }
+            else if (isClosed && lane.queue.remove(group)) {   // closed while offering, so the lane may have stopped
+                rejectClosed(group);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(group, e);
+        }
+    }
+
+    /**
+     * Returns the metrics for the current reporting interval
+     * @return metrics
+     */
+    public PublisherMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Logs the metrics for the current reporting interval
+     */
+    @Scheduled(fixedDelayString = "${vicinity.publisher.report-interval-ms:60000}")
+    public void report() {
+        if (metrics.getMessages() > 0 || metrics.getDirectPublishes() > 0 || metrics.getFailures() > 0) {
+            log.info("Vicinity publisher: " + metrics);
+        }
+        metrics.reset();
+    }
+
+    private Lane laneFor(String channel) {
+        return lanes[Math.floorMod(channel.hashCode(), lanes.length)];
+    }
+
+    private void publishDirectly(List<PendingPublish> group) {
+        metrics.recordDirectPublish();
+        List<PendingPublish> redirected = new ArrayList<>();
+        byNode(group).forEach((node, part) -> {
+            try (Jedis jedis = poolFor(node).getResource()) {
+                if (part.size() > 1) {
+                    redirected.addAll(pipeline(jedis, part, true));
+                    return;
+                }
+
+                var pending = part.get(0);
+                try {
+                    if (pending.isStreamEntry()) {
+                        jedis.xadd(pending.key(), pending.params(), pending.fields());
+                        complete(pending, 1L);
+                    }
+                    else if (nodes.isCluster()) {
+                        complete(pending, (Long) jedis.sendCommand(ShardedPubSubCommand.SPUBLISH, pending.key(), pending.message));
+                    }
+                    else {
+                        complete(pending, jedis.publish(pending.key(), pending.message));
+                    }
+                }
+                catch (JedisRedirectionException e) {
+                    nodes.moved(pending.channel, e.getTargetNode());
+                    redirected.add(pending);
+                }
+            }
+            catch (Exception e) {
+                fail(part, e);
+            }
+        });
+        redirect(redirected);
+    }
+
+    private void flush(List<PendingPublish> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<PendingPublish> redirected = new ArrayList<>();
+        byNode(batch).forEach((node, part) -> {
+            try (Jedis jedis = poolFor(node).getResource()) {
+                redirected.addAll(pipeline(jedis, part, true));
+            }
+            catch (Exception e) {
+                fail(part, e);
+            }
+        });
+        redirect(redirected);
+        metrics.recordBatch(batch.size(), batch.size() >= batchSize, System.nanoTime() - start);
+    }
+
+    /**
+     * Sends messages once more to the nodes that Redis redirected them to
+     * @param redirected
+     */
+    private void redirect(List<PendingPublish> redirected) {
+        if (redirected.isEmpty()) {
+            return;
+        }
+
+        byNode(redirected).forEach((node, part) -> {
+            try (Jedis jedis = poolFor(node).getResource()) {
+                pipeline(jedis, part, false);
+            }
+            catch (Exception e) {
+                fail(part, e);
+            }
+        });
+    }
+
+    private JedisPool poolFor(HostAndPort node) {
+        return pools.computeIfAbsent(node, n -> new JedisPool(poolConfig, n.getHost(), n.getPort(), Vicinity.JEDIS_TIMEOUT));
+    }
+
+    /**
+     * Splits messages by the Redis node that owns their channel or stream
+     * @param batch
+     * @return the messages of each node, in their original order
+     */
+    private Map<HostAndPort, List<PendingPublish>> byNode(List<PendingPublish> batch) {
+        if (!nodes.isSharded()) {
+            return Map.of(nodes.all().get(0), batch);
+        }
+
+        Map<HostAndPort, List<PendingPublish>> parts = new LinkedHashMap<>();
+        batch.forEach(p -> parts.computeIfAbsent(nodes.nodeFor(p.channel), n -> new ArrayList<>()).add(p));
+        return parts;
+    }
+
+    /**
+     * Sends messages to one node in a pipeline
+     * @param jedis
+     * @param batch
+     * @param canRedirect - true to return the messages Redis redirected instead of failing them
+     * @return the redirected messages
+     */
+    private List<PendingPublish> pipeline(Jedis jedis, List<PendingPublish> batch, boolean canRedirect) {
+        Pipeline pipeline = jedis.pipelined();
+        List<Response<?>> responses = new ArrayList<>(batch.size());
+        batch.forEach(p -> responses.add((p.isStreamEntry())
+                ? pipeline.xadd(p.key(), p.params(), p.fields())
+                : (nodes.isCluster())
+                        ? pipeline.sendCommand(ShardedPubSubCommand.SPUBLISH, p.key(), p.message)
+                        : pipeline.publish(p.key(), p.message)));
+        pipeline.sync();
+
+        List<PendingPublish> redirected = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                var response = responses.get(i).get();
+                complete(batch.get(i), (response instanceof Long) ? (Long) response : 1L);
+            }
+            catch (JedisRedirectionException e) {
+                if (!canRedirect) {
+                    fail(List.of(batch.get(i)), e);
+                    continue;
+                }
+                nodes.moved(batch.get(i).channel, e.getTargetNode());
+                redirected.add(batch.get(i));
+            }
+        }
+        return redirected;
+    }
+
+    private void complete(PendingPublish pending, Long receivers) {
+        metrics.recordPublishLatency(System.nanoTime() - pending.requestedAt);
+        pending.future.complete(receivers);
+    }
+
+    private void rejectClosed(List<PendingPublish> group) {
+        metrics.recordRejections(group.size());
+        fail(group, new RejectedExecutionException("Vicinity publisher is closed"));
+    }
+
+    private void fail(List<PendingPublish> batch, Exception e) {
+        metrics.recordFailures(batch.size());
+        batch.forEach(p -> p.future.completeExceptionally(e));
+    }
+}
@@ -1,15 +1,19 @@
 package com.architecture.first.framework.business.vicinity.queue;
 
+import com.architecture.first.framework.technical.threading.VicinityThreads;
 import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.lang.reflect.Type;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Slf4j
 @Repository
@@ -18,7 +22,7 @@ public class Queue {
     public static final int ONE_DAY_DURATION_SECONDS = 86400;
 
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
 
     private final String queueConnectionId = UUID.randomUUID().toString();
 
@@ -27,11 +31,23 @@ public class Queue {
     private long expirationSeconds;
     private final int waitTimeount = 60;
 
+    // each waiting consumer also holds a Redis connection, so size the Jedis pool accordingly
+    @Value("${vicinity.queue.consumer-threads:10}")
+    private int numberOfConsumerThreads;
+
+    private ExecutorService consumers;
+
     private static final String QUEUE_PREFIX = "queue/";
     private final Gson gson = new Gson();
 
     @PostConstruct
     public void init() {
+        consumers = VicinityThreads.newExecutor("a1-vicinity-queue-", numberOfConsumerThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        consumers.shutdownNow();
     }
 
     /**
@@ -99,9 +115,12 @@ public class Queue {
      * @return a string of the entry
      */
     public String pop(String signature, boolean waitIfEmpty, int waitTimeout) {
-        return (waitIfEmpty)
-                ? jedis.blpop(waitTimeout,signature).get(0)
-                : jedis.lpop(signature);
+        if (!waitIfEmpty) {
+            return jedis.lpop(signature);
+        }
+
+        var entry = jedis.blpop(waitTimeout, signature);    // the queue name and the entry, or null if timed out
+        return (entry != null && entry.size() > 1) ? entry.get(1) : null;
     }
 
     /**
@@ -160,6 +179,27 @@ public class Queue {
         return  pop(signature, false, classType);
     }
 
+    /**
+     * Waits for an entry on a consumer thread instead of the caller's thread
+     * @param signature - the name of the queue
+     * @param waitTimeout - the time to block if empty
+     * @return a future with the entry, or null if the wait timed out
+     */
+    public CompletableFuture<String> popAsync(String signature, int waitTimeout) {
+        return CompletableFuture.supplyAsync(() -> pop(signature, true, waitTimeout), consumers);
+    }
+
+    /**
+     * Waits for an entry of a given type on a consumer thread instead of the caller's thread
+     * @param signature - the name of the queue
+     * @param waitTimeout - the time to block if empty
+     * @param classType - class type of entry
+     * @return a future with the entry, or null if the wait timed out
+     */
+    public <T> CompletableFuture<T> popAsync(String signature, int waitTimeout, Type classType) {
+        return popAsync(signature, waitTimeout).thenApply(json -> gson.fromJson(json, classType));
+    }
+
     /**
      * Returns the size of the queue
      * @param signature
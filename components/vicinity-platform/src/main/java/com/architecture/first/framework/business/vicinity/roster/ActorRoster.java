@@ -0,0 +1,235 @@
+package com.architecture.first.framework.business.vicinity.roster;
+
+import com.architecture.first.framework.business.vicinity.Vicinity;
+import com.architecture.first.framework.business.vicinity.bulletinboard.BulletinBoard;
+import com.architecture.first.framework.business.vicinity.bulletinboard.BulletinBoardStatus;
+import com.architecture.first.framework.business.vicinity.threading.VicinityConnections;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.UnifiedJedis;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * The in-memory roster of active Actors, by group and project.
+ *
+ *      Note:
+ *          A group is read from the bulletin board the first time it is needed.
+ *          After that it is kept current by the status changes the bulletin board announces, which also carry the load
+ *          each Actor reports for the selection strategy (vicinity.roster.selection).
+ *          In case an announcement was missed, the reconcile compares the size of each group with the bulletin board
+ *          and only reads the group again when it differs, or when it has not been read for a while.
+ *          Looking up an Actor never calls Redis or changes the bulletin board.
+ */
+@Slf4j
+@Component
+public class ActorRoster {
+    private static final String ROSTER_TEMPLATE = "BulletinBoard:topic/VicinityStatus/%s:%s/Active";
+    private static final Pattern ROSTER_PATTERN = Pattern.compile("BulletinBoard:topic/VicinityStatus/([^:]+):.*/Active");
+    private static final DateTimeFormatter ROSTER_DATE = DateTimeFormatter.ofPattern("uuuu-MM-dd");
+
+    @Autowired
+    private UnifiedJedis jedis;
+
+    @Autowired
+    private RedisNodes nodes;
+
+    @Value("${vicinity.roster.selection:round-robin}")
+    private String selection;
+
+    @Value("${vicinity.roster.available-ttl-ms:5000}")
+    private long availableTtlMillis;
+
+    @Value("${vicinity.roster.unavailable-ttl-ms:1000}")
+    private long unavailableTtlMillis;
+
+    @Value("${vicinity.roster.full-reconcile-interval-ms:300000}")
+    private long fullReconcileIntervalMillis;
+
+    private final Map<String, RosterGroup> groups = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastReads = new ConcurrentHashMap<>();
+    private VicinityConnections connections;
+    private AvailabilityCache availability;
+
+    /**
+     * Listens for status changes
+     */
+    @PostConstruct
+    protected void init() {
+        availability = new AvailabilityCache(availableTtlMillis, unavailableTtlMillis, this::isOnRoster);
+        connections = new VicinityConnections("a1-vicinity-roster", nodes, Vicinity.JEDIS_TIMEOUT, 1,
+                channels -> log.warn("Roster connection broken, relying on reconcile until it reconnects"));
+        connections.start();
+        connections.subscribe(BulletinBoard.STATUS_CHANGES_CHANNEL, this::onStatusChange);
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        connections.shutdown();
+    }
+
+    /**
+     * Returns the next active Actor of a group and project
+     * @param type - the Actor group, such as Merchant
+     * @param project
+     * @return the Actor name or an empty string if there is none
+     */
+    public String pick(String type, String project) {
+        return groupFor(type).pick(project);
+    }
+
+    /**
+     * Returns all active Actors of a group and project
+     * @param type - the Actor group, such as Merchant
+     * @param project
+     * @return the Actor names
+     */
+    public List<String> members(String type, String project) {
+        return groupFor(type).members(project);
+    }
+
+    /**
+     * Determines if an Actor is in the roster
+     * @param name
+     * @return true if active
+     */
+    public boolean contains(String name) {
+        int dot = name.indexOf('.');
+        return dot > 0 && groupFor(name.substring(0, dot)).contains(name);
+    }
+
+    /**
+     * Determines if a named Actor is available.
+     * Groups in use are answered from the roster; other Actors, such as the sender of a request, from the availability cache
+     * @param name
+     * @return true if available
+     */
+    public boolean isAvailable(String name) {
+        int dot = name.indexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+
+        var group = groups.get(name.substring(0, dot));
+        return (group != null) ? group.contains(name) : availability.isAvailable(name);
+    }
+
+    /**
+     * Returns today's bulletin board topic of the active Actors of a group
+     * @param type
+     * @return roster key
+     */
+    public static String rosterFor(String type) {
+        return String.format(ROSTER_TEMPLATE, type, ROSTER_DATE.format(LocalDate.now(ZoneId.of("GMT"))));
+    }
+
+    /**
+     * Re-reads the groups in use whose size differs from the bulletin board, or that have not been read for a while
+     */
+    @Scheduled(fixedDelayString = "${vicinity.roster.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        long readBefore = System.currentTimeMillis() - fullReconcileIntervalMillis;
+        groups.values().forEach(group -> {
+            try {
+                if (lastReads.getOrDefault(group.getType(), 0L) < readBefore
+                        || jedis.hlen(rosterFor(group.getType())) != group.size()) {
+                    load(group);
+                }
+            }
+            catch (Exception e) {
+                log.error("Unable to reconcile roster for: " + group.getType(), e);
+            }
+        });
+    }
+
+    private boolean isOnRoster(String name) {
+        try {
+            return jedis.hexists(rosterFor(name.substring(0, name.indexOf('.'))), name);
+        }
+        catch (Exception e) {
+            log.error("Unable to read roster for: " + name, e);
+            return false;
+        }
+    }
+
+    private RosterGroup groupFor(String type) {
+        var group = groups.get(type);
+        if (group == null) {
+            group = new RosterGroup(type, SelectionStrategy.from(selection));
+            load(group);    // before it is shared so that no caller sees it empty
+            var existing = groups.putIfAbsent(type, group);
+            return (existing != null) ? existing : group;
+        }
+
+        return group;
+    }
+
+    private void load(RosterGroup group) {
+        try {
+            var entries = jedis.hgetAll(rosterFor(group.getType()));
+            lastReads.put(group.getType(), System.currentTimeMillis());
+            group.replace(entries.keySet());
+            entries.forEach((name, json) -> updateLoad(group, name, json));
+        }
+        catch (Exception e) {
+            log.error("Unable to read roster for: " + group.getType(), e);
+        }
+    }
+
+    private void updateLoad(RosterGroup group, String name, String json) {
+        try {
+            var status = BulletinBoardStatus.from(json);
+            group.updateLoad(name, status.getInFlight(), status.getMailboxDepth(), status.getP99Micros(), status.getTimestamp().toString());
+        }
+        catch (Exception e) {   // an older status format without load
+            log.debug("No load reported by: " + name);
+        }
+    }
+
+    /**
+     * Applies a status change announced by the bulletin board
+     * @param message - active topic|name|status, followed by |status string for an Active entry
+     */
+    private void onStatusChange(byte[] message) {
+        var parts = new String(message, StandardCharsets.UTF_8).split(Pattern.quote(BulletinBoard.STATUS_CHANGE_SEPARATOR), 4);
+        if (parts.length < 3) {
+            return;
+        }
+
+        var matcher = ROSTER_PATTERN.matcher(parts[0]);
+        if (!matcher.matches() || !parts[0].equals(rosterFor(matcher.group(1)))) {
+            return;     // not an Actor roster or not today's
+        }
+
+        boolean isActive = "Active".equals(parts[2]);
+        availability.update(parts[1], isActive);
+
+        var group = groups.get(matcher.group(1));
+        if (group == null) {
+            return;     // not in use in this process
+        }
+
+        if (isActive) {
+            group.add(parts[1]);
+            if (parts.length == 4) {
+                updateLoad(group, parts[1], parts[3]);
+            }
+        }
+        else {
+            group.remove(parts[1]);
+        }
+    }
+}
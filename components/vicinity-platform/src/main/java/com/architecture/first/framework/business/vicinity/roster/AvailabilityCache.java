@@ -0,0 +1,74 @@
+package com.architecture.first.framework.business.vicinity.roster;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Remembers whether named Actors are available for a short time.
+ *
+ *      Note:
+ *          Unavailable Actors are remembered too, for a shorter time, so that failing over from them does not call Redis each time.
+ *          Status changes announced by the bulletin board replace an entry immediately.
+ */
+public class AvailabilityCache {
+    private static final int MAX_ENTRIES = 10_000;
+
+    private record Entry(boolean isAvailable, long expiresAtNanos) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long availableTtlNanos;
+    private final long unavailableTtlNanos;
+    private final Predicate<String> lookup;
+
+    /**
+     * Creates a cache
+     * @param availableTtlMillis - how long an available Actor is remembered
+     * @param unavailableTtlMillis - how long an unavailable Actor is remembered
+     * @param lookup - determines if an Actor is available when it is not remembered
+     */
+    public AvailabilityCache(long availableTtlMillis, long unavailableTtlMillis, Predicate<String> lookup) {
+        this.availableTtlNanos = availableTtlMillis * 1_000_000;
+        this.unavailableTtlNanos = unavailableTtlMillis * 1_000_000;
+        this.lookup = lookup;
+    }
+
+    /**
+     * Determines if an Actor is available
+     * @param name
+     * @return true if available
+     */
+    public boolean isAvailable(String name) {
+        long now = System.nanoTime();
+        var entry = entries.get(name);
+        if (entry != null && entry.expiresAtNanos() - now > 0) {
+            return entry.isAvailable();
+        }
+
+        boolean isAvailable = lookup.test(name);
+        record(name, isAvailable, now);
+        return isAvailable;
+    }
+
+    /**
+     * Records a status change for an Actor
+     * @param name
+     * @param isAvailable
+     */
+    public void update(String name, boolean isAvailable) {
+        if (entries.containsKey(name)) {    // only Actors this process talks to
+            record(name, isAvailable, System.nanoTime());
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void record(String name, boolean isAvailable, long now) {
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(e -> e.expiresAtNanos() - now <= 0);
+        }
+        entries.put(name, new Entry(isAvailable, now + (isAvailable ? availableTtlNanos : unavailableTtlNanos)));
+    }
+}
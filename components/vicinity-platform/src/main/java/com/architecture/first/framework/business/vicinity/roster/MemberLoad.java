@@ -0,0 +1,51 @@
+package com.architecture.first.framework.business.vicinity.roster;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The last load an Actor reported, plus the events this process sent it since then.
+ * Counting the picks keeps every sender from choosing the same idle Actor until the next report.
+ */
+public class MemberLoad {
+    private volatile int inFlight;
+    private volatile int mailboxDepth;
+    private volatile long p99Micros;
+    private volatile String reportedAt = "";
+    private final AtomicInteger picksSinceReport = new AtomicInteger(0);
+
+    /**
+     * Applies a load report
+     * @param inFlight
+     * @param mailboxDepth
+     * @param p99Micros
+     * @param reportedAt - when the Actor made the report
+     */
+    public void update(int inFlight, int mailboxDepth, long p99Micros, String reportedAt) {
+        if (!this.reportedAt.equals(reportedAt)) {
+            this.inFlight = inFlight;
+            this.mailboxDepth = mailboxDepth;
+            this.p99Micros = p99Micros;
+            this.reportedAt = reportedAt;
+            picksSinceReport.set(0);
+        }
+    }
+
+    /**
+     * Records that this process sent the Actor an event
+     */
+    public void recordPick() {
+        picksSinceReport.incrementAndGet();
+    }
+
+    /**
+     * Returns the estimated number of events the Actor has not finished
+     * @return
+     */
+    public int outstanding() {
+        return inFlight + mailboxDepth + picksSinceReport.get();
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+}
@@ -0,0 +1,155 @@
+package com.architecture.first.framework.business.vicinity.roster;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The active Actors of one group, such as Merchant, by project.
+ *
+ *      Note:
+ *          Readers use an immutable snapshot, so picking an Actor takes no lock and no Redis call.
+ *          Changes are rare (Actors joining or leaving) and copy the snapshot.
+ *          Loads are updated in place and only used by the selection strategy.
+ */
+public class RosterGroup {
+    private final String type;
+    private final SelectionStrategy strategy;
+    private final Map<String, MemberLoad> loads = new ConcurrentHashMap<>();
+    private final Set<String> names = new HashSet<>();
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Set.of());
+
+    private record Snapshot(Map<String, String[]> membersByProject, Set<String> names) {}
+
+    public RosterGroup(String type) {
+        this(type, SelectionStrategy.from(SelectionStrategy.ROUND_ROBIN));
+    }
+
+    public RosterGroup(String type, SelectionStrategy strategy) {
+        this.type = type;
+        this.strategy = strategy;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the Actor of a project chosen by the selection strategy
+     * @param project
+     * @return the Actor name or an empty string if there is none
+     */
+    public String pick(String project) {
+        var members = snapshot.membersByProject().get(project);
+        if (members == null || members.length == 0) {
+            return "";
+        }
+
+        var name = strategy.select(members, this::loadOf);
+        loadOf(name).recordPick();
+        return name;
+    }
+
+    /**
+     * Returns all active Actors of a project
+     * @param project
+     * @return the Actor names
+     */
+    public List<String> members(String project) {
+        var members = snapshot.membersByProject().get(project);
+        return (members != null) ? List.of(members) : List.of();
+    }
+
+    /**
+     * Applies the load an Actor reported
+     * @param name
+     * @param inFlight
+     * @param mailboxDepth
+     * @param p99Micros
+     * @param reportedAt
+     */
+    public void updateLoad(String name, int inFlight, int mailboxDepth, long p99Micros, String reportedAt) {
+        if (contains(name)) {
+            loadOf(name).update(inFlight, mailboxDepth, p99Micros, reportedAt);
+        }
+    }
+
+    /**
+     * Returns the known load of an Actor
+     * @param name
+     * @return load
+     */
+    public MemberLoad loadOf(String name) {
+        return loads.computeIfAbsent(name, n -> new MemberLoad());
+    }
+
+    /**
+     * Determines if an Actor is in the roster
+     * @param name
+     * @return true if active
+     */
+    public boolean contains(String name) {
+        return snapshot.names().contains(name);
+    }
+
+    /**
+     * Returns the number of active Actors
+     * @return
+     */
+    public int size() {
+        return snapshot.names().size();
+    }
+
+    public synchronized void add(String name) {
+        if (names.add(name)) {
+            publish();
+        }
+    }
+
+    public synchronized void remove(String name) {
+        if (names.remove(name)) {
+            loads.remove(name);
+            publish();
+        }
+    }
+
+    /**
+     * Replaces the members with those read from the bulletin board
+     * @param activeNames
+     */
+    public synchronized void replace(Collection<String> activeNames) {
+        if (!names.equals(Set.copyOf(activeNames))) {
+            names.clear();
+            names.addAll(activeNames);
+            loads.keySet().retainAll(names);
+            publish();
+        }
+    }
+
+    private void publish() {
+        Map<String, Set<String>> byProject = new HashMap<>();
+        names.forEach(n -> byProject.computeIfAbsent(projectOf(n), p -> new HashSet<>()).add(n));
+
+        Map<String, String[]> membersByProject = new HashMap<>();
+        byProject.forEach((project, members) -> membersByProject.put(project, members.stream().sorted().toArray(String[]::new)));
+        snapshot = new Snapshot(Map.copyOf(membersByProject), Set.copyOf(names));
+    }
+
+    /**
+     * Returns the project of an Actor name (group.project.generation.id)
+     * @param name
+     * @return project or an empty string if the name has no project
+     */
+    public static String projectOf(String name) {
+        int start = name.indexOf('.');
+        if (start < 0) {
+            return "";
+        }
+        int end = name.indexOf('.', start + 1);
+        return (end < 0) ? name.substring(start + 1) : name.substring(start + 1, end);
+    }
+}
@@ -0,0 +1,99 @@
+package com.architecture.first.framework.business.vicinity.roster;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Chooses which Actor of a group receives an event
+ */
+public interface SelectionStrategy {
+    String ROUND_ROBIN = "round-robin";
+    String LEAST_OUTSTANDING = "least-outstanding";
+    String POWER_OF_TWO = "power-of-two";
+    String LATENCY_WEIGHTED = "latency-weighted";
+
+    /**
+     * Selects an Actor
+     * @param members - the candidates, never empty
+     * @param loads - the load of a candidate
+     * @return the selected Actor name
+     */
+    String select(String[] members, Function<String, MemberLoad> loads);
+
+    /**
+     * Returns the strategy for a configuration value
+     * @param name - round-robin, least-outstanding, power-of-two or latency-weighted
+     * @return strategy, round robin if the name is not recognized
+     */
+    static SelectionStrategy from(String name) {
+        switch (name) {
+            case LEAST_OUTSTANDING:
+                return SelectionStrategy::leastOutstanding;
+            case POWER_OF_TWO:
+                return SelectionStrategy::powerOfTwoChoices;
+            case LATENCY_WEIGHTED:
+                return SelectionStrategy::latencyWeighted;
+            default:
+                var cursor = new AtomicInteger(0);
+                return (members, loads) -> members[Math.floorMod(cursor.getAndIncrement(), members.length)];
+        }
+    }
+
+    /**
+     * Picks the Actor with the fewest unfinished events, starting at a random member to spread ties
+     */
+    static String leastOutstanding(String[] members, Function<String, MemberLoad> loads) {
+        int start = ThreadLocalRandom.current().nextInt(members.length);
+        String best = members[start];
+        int bestOutstanding = loads.apply(best).outstanding();
+        for (int i = 1; i < members.length && bestOutstanding > 0; i++) {
+            var candidate = members[(start + i) % members.length];
+            int outstanding = loads.apply(candidate).outstanding();
+            if (outstanding < bestOutstanding) {
+                best = candidate;
+                bestOutstanding = outstanding;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Picks the less busy of two random Actors, which avoids the herding of always taking the least busy one
+     */
+    static String powerOfTwoChoices(String[] members, Function<String, MemberLoad> loads) {
+        if (members.length == 1) {
+            return members[0];
+        }
+
+        var random = ThreadLocalRandom.current();
+        int first = random.nextInt(members.length);
+        int second = (first + 1 + random.nextInt(members.length - 1)) % members.length;
+        return (loads.apply(members[second]).outstanding() < loads.apply(members[first]).outstanding())
+                ? members[second] : members[first];
+    }
+
+    /**
+     * Picks an Actor at random, weighted by the inverse of its expected wait: (outstanding + 1) * p99.
+     * Actors that have not reported a handling time count as taking a millisecond
+     */
+    static String latencyWeighted(String[] members, Function<String, MemberLoad> loads) {
+        final long minP99Micros = 1000;
+        double[] weights = new double[members.length];
+        double total = 0;
+        for (int i = 0; i < members.length; i++) {
+            var load = loads.apply(members[i]);
+            weights[i] = 1.0 / ((load.outstanding() + 1) * (double) Math.max(load.getP99Micros(), minP99Micros));
+            total += weights[i];
+        }
+
+        double target = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < members.length; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return members[i];
+            }
+        }
+        return members[members.length - 1];
+    }
+}
@@ -15,7 +15,6 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.web.context.request.RequestContextHolder;
 
 import java.lang.reflect.Method;
 
@@ -27,8 +26,6 @@ import java.lang.reflect.Method;
 @Component
 public class TaskAspect {
 
-    private RequestContext requestContext;  // don't autowire since request context doesn't work properly in aspects
-
     @Autowired
     private AsyncRequestContext asyncRequestContext;
 
@@ -61,7 +58,8 @@ public class TaskAspect {
 
         var actor = (Actor) joinPoint.getTarget();
 
-        requestContext = asyncRequestContext.requestContext();
+        // don't autowire since request context doesn't work properly in aspects, and keep it local since requests run concurrently
+        var requestContext = asyncRequestContext.requestContext();
 
         var userInfo = new UserInfo();
         userInfo.setAccessToken(
@@ -129,6 +127,7 @@ public class TaskAspect {
      * @param actorname
      */
     protected void endTask(TasklistConnection conn, String requestId, String actorname) {
+        var requestContext = asyncRequestContext.requestContext();
         TasklistEntry entry = new TasklistEntry(TasklistEntry.Status.Complete, actorname);
         taskList.postEntry(requestId, conn.getTaskList(), conn.getTask(), entry.toString());
         taskList.recordCompletion(requestId, conn.getTaskList(), conn.getTask());
@@ -145,10 +144,7 @@ public class TaskAspect {
      * @param message
      */
     protected void failTask(TasklistConnection conn, String message) {
-        // support async contexts
-        if (RequestContextHolder.getRequestAttributes() == null) {
-            requestContext = asyncRequestContext.requestContext();
-        }
+        var requestContext = asyncRequestContext.requestContext();
 
         TasklistEntry entry = new TasklistEntry(TasklistEntry.Status.Failed, "Failed");
         taskList.postEntry(requestContext.getRequestId(), conn.getTaskList(), conn.getTask(), entry.toString());
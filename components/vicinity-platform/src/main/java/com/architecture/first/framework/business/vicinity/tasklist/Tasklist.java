@@ -8,7 +8,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
@@ -40,7 +40,7 @@ public class Tasklist {
     public static final String NUM_TASKS_FAILED = "numTasksFailed";
 
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
 
     @Autowired
     private Lock lock;
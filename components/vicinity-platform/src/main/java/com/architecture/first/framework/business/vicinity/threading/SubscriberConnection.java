@@ -0,0 +1,428 @@
+package com.architecture.first.framework.business.vicinity.threading;
+
+import com.architecture.first.framework.technical.sharding.ShardedPubSubCommand;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A single Redis pub/sub connection shared by many channels.
+ *
+ *      Note:
+ *          Channels are subscribed and unsubscribed dynamically on the open connection.
+ *          Each channel has one handler; the Vicinity shares it between the Actors of the process subscribed to the channel.
+ *          The connection is always subscribed to a control channel so that it stays open when no Actor channels exist.
+ *          If the connection breaks it is reopened with a backoff and all registered channels are subscribed again.
+ *          A sharded connection subscribes with SSUBSCRIBE to shard channels owned by its Redis Cluster node.
+ *          When Redis redirects a subscription, or unsubscribes a channel because its slot moved to another node,
+ *          the channels are reported as moved so they can be subscribed on the connection to their new node.
+ */
+@Slf4j
+public class SubscriberConnection {
+    public static final String CONTROL_CHANNEL = "channel: vicinity/control";
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final String host;
+    private final int port;
+    private final int timeout;
+    private final Thread thread;
+    private final Map<String, Consumer<byte[]>> handlers = new ConcurrentHashMap<>();
+    private final Set<String> confirmedChannels = ConcurrentHashMap.newKeySet();
+    private final boolean isSharded;
+    private final Consumer<List<String>> onBroken;
+    private final BiConsumer<List<String>, HostAndPort> onMoved;
+    private final Object writeLock = new Object();
+
+    private volatile Subscription pubSub;
+    private volatile boolean isConnected = false;
+    private volatile boolean isRunning = false;
+
+    /**
+     * Creates a shared subscriber connection
+     * @param name - name of the thread reading from the connection
+     * @param host
+     * @param port
+     * @param timeout
+     * @param onBroken - called with the affected channels when an open connection breaks
+     */
+    public SubscriberConnection(String name, String host, int port, int timeout, Consumer<List<String>> onBroken) {
+        this(name, host, port, timeout, false, onBroken, (channels, node) -> {});
+    }
+
+    /**
+     * Creates a shared subscriber connection
+     * @param name - name of the thread reading from the connection
+     * @param host
+     * @param port
+     * @param timeout
+     * @param isSharded - true to subscribe to shard channels of a Redis Cluster
+     * @param onBroken - called with the affected channels when an open connection breaks
+     * @param onMoved - called with the channels that moved to another node, and the node if Redis named it
+     */
+    public SubscriberConnection(String name, String host, int port, int timeout, boolean isSharded,
+                                Consumer<List<String>> onBroken, BiConsumer<List<String>, HostAndPort> onMoved) {
+        this.host = host;
+        this.port = port;
+        this.timeout = timeout;
+        this.isSharded = isSharded;
+        this.onBroken = onBroken;
+        this.onMoved = onMoved;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Opens the connection
+     */
+    public void start() {
+        isRunning = true;
+        thread.start();
+    }
+
+    /**
+     * Closes the connection
+     */
+    public void shutdown() {
+        isRunning = false;
+        synchronized (writeLock) {
+            if (isConnected) {
+                pubSub.unsubscribe();
+            }
+        }
+        thread.interrupt();
+    }
+
+    /**
+     * Subscribes to a channel, replacing an existing handler for the channel
+     * @param channel
+     * @param handler - receives each message on the channel
+     */
+    public void subscribe(String channel, Consumer<byte[]> handler) {
+        if (handlers.put(channel, handler) == null) {
+            synchronized (writeLock) {
+                if (isConnected) {
+                    pubSub.subscribe(SafeEncoder.encode(channel));
+                }
+            }
+        }
+    }
+
+    /**
+     * Unsubscribes from a channel
+     * @param channel
+     */
+    public void unsubscribe(String channel) {
+        if (handlers.remove(channel) != null) {
+            synchronized (writeLock) {
+                if (isConnected) {
+                    pubSub.unsubscribe(SafeEncoder.encode(channel));
+                }
+            }
+        }
+    }
+
+    /**
+     * Subscribes to a registered channel again, after Redis dropped or refused the subscription
+     * @param channel
+     */
+    public void resubscribe(String channel) {
+        synchronized (writeLock) {
+            if (isConnected && handlers.containsKey(channel) && !confirmedChannels.contains(channel)) {
+                pubSub.subscribe(SafeEncoder.encode(channel));
+            }
+        }
+    }
+
+    /**
+     * Determines if a handler is registered for a channel on this connection
+     * @param channel
+     * @return true if the channel is registered
+     */
+    public boolean contains(String channel) {
+        return handlers.containsKey(channel);
+    }
+
+    /**
+     * Removes a channel without unsubscribing, because Redis no longer serves it on this connection
+     * @param channel
+     * @return the handler of the channel, or null if it is not registered
+     */
+    public Consumer<byte[]> release(String channel) {
+        confirmedChannels.remove(channel);
+        return handlers.remove(channel);
+    }
+
+    /**
+     * Determines if the connection is open and Redis confirmed the subscription to the channel
+     * @param channel
+     * @return true if messages on the channel will be received
+     */
+    public boolean isOk(String channel) {
+        return isConnected && confirmedChannels.contains(channel);
+    }
+
+    /**
+     * Determines if the connection is open
+     * @return true if connected
+     */
+    public boolean isConnected() {
+        return isConnected;
+    }
+
+    /**
+     * Returns the number of channels registered on this connection
+     * @return
+     */
+    public int numberOfChannels() {
+        return handlers.size();
+    }
+
+    /**
+     * Reads from the connection and reconnects when it breaks
+     */
+    private void run() {
+        long backoff = MIN_BACKOFF_MILLIS;
+
+        while (isRunning) {
+            try (var connection = new PubSubConnection(new HostAndPort(host, port), timeout)) {
+                pubSub = (isSharded) ? new ShardedDemultiplexer(connection) : new Demultiplexer();
+                connection.setTimeoutInfinite();
+                pubSub.listen(connection);
+                backoff = MIN_BACKOFF_MILLIS;
+            }
+            catch (Exception e) {
+                boolean wasConnected = isConnected;
+                disconnected();
+                if (!isRunning) {
+                    break;
+                }
+
+                log.warn("Vicinity subscriber connection lost, retrying in " + backoff + "ms", e);
+                if (wasConnected) {
+                    onBroken.accept(new ArrayList<>(handlers.keySet()));
+                }
+
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+            finally {
+                disconnected();
+            }
+        }
+    }
+
+    private void disconnected() {
+        synchronized (writeLock) {
+            isConnected = false;
+        }
+        confirmedChannels.clear();
+    }
+
+    /**
+     * Subscribes to the channels registered before or while the connection was opening
+     * @param subscription
+     */
+    private void connected(Subscription subscription) {
+        synchronized (writeLock) {
+            isConnected = true;
+            if (!handlers.isEmpty()) {
+                subscription.subscribe(handlers.keySet().stream().map(SafeEncoder::encode).toArray(byte[][]::new));
+            }
+        }
+    }
+
+    private void dispatch(byte[] channelBytes, byte[] message) {
+        String channel = SafeEncoder.encode(channelBytes);
+        var handler = handlers.get(channel);
+        if (handler != null) {
+            try {
+                handler.accept(message);
+            }
+            catch (Exception e) {
+                log.error("Error handling message on channel: " + channel, e);
+            }
+        }
+    }
+
+    /**
+     * The subscriptions of an open connection
+     */
+    private interface Subscription {
+        void listen(Connection connection);
+        void subscribe(byte[]... channels);
+        void unsubscribe(byte[]... channels);
+        void unsubscribe();
+    }
+
+    /**
+     * A connection whose commands can be sent while another thread reads from it
+     */
+    private static class PubSubConnection extends Connection {
+        private PubSubConnection(HostAndPort node, int timeout) {
+            super(node, DefaultJedisClientConfig.builder().timeoutMillis(timeout).build());
+        }
+
+        @Override
+        public void flush() {
+            super.flush();
+        }
+    }
+
+    /**
+     * Dispatches messages to the handler registered for their channel
+     */
+    private class Demultiplexer extends BinaryJedisPubSub implements Subscription {
+
+        @Override
+        public void listen(Connection connection) {
+            proceed(connection, SafeEncoder.encode(CONTROL_CHANNEL));
+        }
+
+        @Override
+        public void onSubscribe(byte[] channelBytes, int subscribedChannels) {
+            String channel = SafeEncoder.encode(channelBytes);
+            if (CONTROL_CHANNEL.equals(channel)) {
+                connected(this);
+                return;
+            }
+
+            confirmedChannels.add(channel);
+        }
+
+        @Override
+        public void onUnsubscribe(byte[] channel, int subscribedChannels) {
+            confirmedChannels.remove(SafeEncoder.encode(channel));
+        }
+
+        @Override
+        public void onMessage(byte[] channelBytes, byte[] message) {
+            dispatch(channelBytes, message);
+        }
+    }
+
+    /**
+     * Dispatches messages of shard channels to the handler registered for their channel.
+     *
+     *      Note:
+     *          The connection stays subscribed to the control channel with SUBSCRIBE, which every node serves,
+     *          and each shard channel is subscribed on its own, as SSUBSCRIBE only accepts channels of one slot.
+     */
+    private class ShardedDemultiplexer implements Subscription {
+        private final PubSubConnection connection;
+
+        private ShardedDemultiplexer(PubSubConnection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void listen(Connection connection) {
+            send(Protocol.Command.SUBSCRIBE, SafeEncoder.encode(CONTROL_CHANNEL));
+
+            while (true) {
+                List<Object> reply;
+                try {
+                    reply = connection.getUnflushedObjectMultiBulkReply();
+                }
+                catch (JedisRedirectionException e) {
+                    redirected(e);
+                    continue;
+                }
+
+                var kind = SafeEncoder.encode((byte[]) reply.get(0));
+                var channelBytes = (byte[]) reply.get(1);
+                switch (kind) {
+                    case "subscribe":
+                        connected(this);
+                        break;
+                    case "ssubscribe":
+                        confirmedChannels.add(SafeEncoder.encode(channelBytes));
+                        break;
+                    case "smessage":
+                        dispatch(channelBytes, (byte[]) reply.get(2));
+                        break;
+                    case "sunsubscribe":
+                        unsubscribed(SafeEncoder.encode(channelBytes));
+                        break;
+                    case "unsubscribe":
+                        if (CONTROL_CHANNEL.equals(SafeEncoder.encode(channelBytes))) {
+                            return;     // the connection is shutting down
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        @Override
+        public void subscribe(byte[]... channels) {
+            for (byte[] channel : channels) {
+                connection.sendCommand(ShardedPubSubCommand.SSUBSCRIBE, channel);
+            }
+            connection.flush();
+        }
+
+        @Override
+        public void unsubscribe(byte[]... channels) {
+            for (byte[] channel : channels) {
+                connection.sendCommand(ShardedPubSubCommand.SUNSUBSCRIBE, channel);
+            }
+            connection.flush();
+        }
+
+        @Override
+        public void unsubscribe() {
+            connection.sendCommand(ShardedPubSubCommand.SUNSUBSCRIBE);
+            send(Protocol.Command.UNSUBSCRIBE);
+        }
+
+        private void send(Protocol.Command command, byte[]... args) {
+            connection.sendCommand(command, args);
+            connection.flush();
+        }
+
+        /**
+         * Redis unsubscribes a shard channel when its slot moves to another node.
+         * The handler of a channel unsubscribed on request has already been removed
+         */
+        private void unsubscribed(String channel) {
+            confirmedChannels.remove(channel);
+            if (handlers.containsKey(channel)) {
+                onMoved.accept(List.of(channel), null);
+            }
+        }
+
+        /**
+         * A subscription was refused because the node does not own the slot
+         */
+        private void redirected(JedisRedirectionException e) {
+            List<String> channels = handlers.keySet().stream()
+                    .filter(c -> !confirmedChannels.contains(c) && JedisClusterCRC16.getSlot(c) == e.getSlot())
+                    .toList();
+            if (!channels.isEmpty()) {
+                onMoved.accept(channels, e.getTargetNode());
+            }
+        }
+    }
+}
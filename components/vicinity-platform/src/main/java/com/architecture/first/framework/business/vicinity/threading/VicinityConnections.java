@@ -1,72 +1,198 @@
 package com.architecture.first.framework.business.vicinity.threading;
 
-import com.architecture.first.framework.technical.threading.Connection;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import redis.clients.jedis.HostAndPort;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
- * Manages one or more connections to the Vicinity
+ * Manages one or more shared subscriber connections to the Vicinity.
+ * Each channel is always served by the same connection, which is one of the connections to the Redis node that owns the channel.
+ *
+ *      Note:
+ *          The connections to a node are opened when the first of its channels is subscribed,
+ *          so a Redis Cluster node that takes over slots while running is served as well.
+ *          On a Redis Cluster the connections use sharded pub/sub, and a channel whose slot moved is subscribed
+ *          again on the connection to its new node.
  */
 public class VicinityConnections {
-    private final Map<String, Connection> connections = new HashMap<>();
+    private static final String DEFAULT_NAME = "a1-vicinity-subscriber";
+    private static final long MIGRATION_RETRY_MILLIS = 100;
+
+    private final String name;
+    private final RedisNodes nodes;
+    private final int timeout;
+    private final int numberOfConnections;
+    private final Consumer<List<String>> onBroken;
+    private final Map<HostAndPort, List<SubscriberConnection>> connectionsByNode = new ConcurrentHashMap<>();
+    private final AtomicInteger numberOfNodes = new AtomicInteger(0);
+    private volatile boolean isStarted = false;
+
+    /**
+     * Creates the shared connections
+     * @param nodes
+     * @param timeout
+     * @param numberOfConnections - per node
+     * @param onBroken - called with the affected channels when a connection breaks
+     */
+    public VicinityConnections(RedisNodes nodes, int timeout, int numberOfConnections, Consumer<List<String>> onBroken) {
+        this(DEFAULT_NAME, nodes, timeout, numberOfConnections, onBroken);
+    }
+
+    /**
+     * Creates the shared connections
+     * @param name - prefix of the names of the threads reading from the connections
+     * @param nodes
+     * @param timeout
+     * @param numberOfConnections - per node
+     * @param onBroken - called with the affected channels when a connection breaks
+     */
+    public VicinityConnections(String name, RedisNodes nodes, int timeout, int numberOfConnections, Consumer<List<String>> onBroken) {
+        this.name = name;
+        this.nodes = nodes;
+        this.timeout = timeout;
+        this.numberOfConnections = Math.max(1, numberOfConnections);
+        this.onBroken = onBroken;
+    }
 
     /**
-     * Returns a connection by name
-     * @param name
+     * Opens the contained connections, and the connections added from now on
+     */
+    public synchronized void start() {
+        isStarted = true;
+        connections().forEach(SubscriberConnection::start);
+    }
+
+    /**
+     * Returns the connection that serves a channel
+     * @param channel
      * @return a Vicinity connection
      */
-    public Connection getConnection(String name) {
-        return connections.get(name);
+    public SubscriberConnection getConnection(String channel) {
+        var nodeConnections = connectionsFor(nodes.nodeFor(channel));
+        return nodeConnections.get(Math.floorMod(channel.hashCode(), nodeConnections.size()));
     }
 
     /**
-     * Sets a connection by name
-     * @param name
-     * @param connection
+     * Subscribes to a channel on its shared connection
+     * @param channel
+     * @param handler
      */
-    public void setConnection(String name, Connection connection) {
-        connections.put(name, connection);
+    public void subscribe(String channel, Consumer<byte[]> handler) {
+        getConnection(channel).subscribe(channel, handler);
     }
 
     /**
-     * Determines if there is an existing connection by name
-     * @param name
-     * @return
+     * Unsubscribes from a channel on its shared connection
+     * @param channel
      */
-    public boolean containsConnection(String name) {
-        return connections.containsKey(name);
+    public void unsubscribe(String channel) {
+        var connection = getConnection(channel);
+        if (!connection.contains(channel)) {
+            // the channel was subscribed before its slot moved
+            connection = connections().stream().filter(conn -> conn.contains(channel)).findFirst().orElse(connection);
+        }
+        connection.unsubscribe(channel);
     }
 
     /**
      * Shuts down all contained connections
      */
-    public void shutdown() {
-        connections.values().stream()
-                .filter(Predicate.not(Connection::isShutdown))
-                .forEach(Connection::shutdownNow);
+    public synchronized void shutdown() {
+        isStarted = false;
+        connections().forEach(SubscriberConnection::shutdown);
     }
 
     /**
-     * Returns the number of connections
+     * Returns the number of connections to all nodes
      * @return
      */
     public int numberOfConnections() {
-        return connections.values().size();
+        return connections().size();
     }
 
     /**
-     * Determines if the status of all connections are ok
-     * @param numRunningTasks
+     * Determines if the expected number of open connections have confirmed a subscription to the channel
+     * @param channel
+     * @param numberOfConnections
      * @return
      */
-    public boolean isOk(int numRunningTasks) {
-        int numCurrentlyRunningTasks = connections.values().stream()
-                .filter(Predicate.not(conn -> conn.getFuture().isDone()))
-                .collect(Collectors.toList()).size();
+    public boolean isOk(String channel, int numberOfConnections) {
+        int numConfirmed = (int) connectionsFor(nodes.nodeFor(channel)).stream()
+                .filter(conn -> conn.isOk(channel))
+                .count();
+
+        return numConfirmed == numberOfConnections;
+    }
+
+    private List<SubscriberConnection> connections() {
+        List<SubscriberConnection> connections = new ArrayList<>();
+        connectionsByNode.values().forEach(connections::addAll);
+        return connections;
+    }
+
+    /**
+     * Returns the connections to a node, opening them the first time
+     */
+    private List<SubscriberConnection> connectionsFor(HostAndPort node) {
+        var nodeConnections = connectionsByNode.get(node);
+        if (nodeConnections != null) {
+            return nodeConnections;
+        }
+
+        synchronized (this) {
+            return connectionsByNode.computeIfAbsent(node, n -> {
+                int index = numberOfNodes.getAndIncrement();
+                List<SubscriberConnection> created = new ArrayList<>();
+                for (int i = 0; i < numberOfConnections; i++) {
+                    var threadName = (nodes.isSharded()) ? name + "-" + index + "-" + i : name + "-" + i;
+                    created.add(new SubscriberConnection(threadName, n.getHost(), n.getPort(), timeout, nodes.isCluster(),
+                            onBroken, this::moved));
+                }
+                if (isStarted) {
+                    created.forEach(SubscriberConnection::start);
+                }
+                return created;
+            });
+        }
+    }
+
+    /**
+     * Subscribes channels again on the connection to the node that now owns them.
+     * A channel that still maps to the same node is retried after a short delay, as the slot may still be migrating
+     * @param channels
+     * @param node - the new owner, or null if Redis did not name it
+     */
+    private void moved(List<String> channels, HostAndPort node) {
+        if (node != null) {
+            channels.forEach(channel -> nodes.moved(channel, node));
+        }
+        else {
+            nodes.refresh();
+        }
+
+        channels.forEach(channel -> connections().stream()
+                .filter(conn -> conn.contains(channel))
+                .findFirst()
+                .ifPresent(from -> {
+                    var to = getConnection(channel);
+                    if (to == from) {
+                        CompletableFuture.runAsync(() -> from.resubscribe(channel),
+                                CompletableFuture.delayedExecutor(MIGRATION_RETRY_MILLIS, TimeUnit.MILLISECONDS));
+                        return;
+                    }
 
-        return numCurrentlyRunningTasks == numRunningTasks && numCurrentlyRunningTasks == numberOfConnections();
+                    var handler = from.release(channel);
+                    if (handler != null) {
+                        to.subscribe(channel, handler);
+                    }
+                }));
     }
 }
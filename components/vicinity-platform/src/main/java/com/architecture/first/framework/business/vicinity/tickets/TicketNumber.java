@@ -2,7 +2,7 @@ package com.architecture.first.framework.business.vicinity.tickets;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 import java.util.function.Function;
 
@@ -13,7 +13,7 @@ import java.util.function.Function;
 public class TicketNumber {
 
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
 
     public static String TICKET_NUMBERS = "TicketNumbers";
 
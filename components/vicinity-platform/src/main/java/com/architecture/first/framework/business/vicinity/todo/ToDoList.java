@@ -3,15 +3,19 @@ package com.architecture.first.framework.business.vicinity.todo;
 import com.architecture.first.framework.business.vicinity.Vicinity;
 import com.architecture.first.framework.business.vicinity.acknowledgement.Acknowledgement;
 import com.architecture.first.framework.technical.cache.JedisHCursor;
+import com.architecture.first.framework.technical.cache.RedisBatch;
 import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
 import com.google.gson.Gson;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Represents a list of items for actors in a group to process
@@ -32,7 +36,7 @@ public class ToDoList {
     }
 
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
 
     @Autowired
     private Acknowledgement ack;
@@ -113,11 +117,45 @@ public class ToDoList {
 
     // Note: has side effects
     public Optional<ArchitectureFirstEvent> acquireAvailableTask(String group, String requestor) {
+        var cursor = new JedisHCursor(jedis);
+        return acquireAvailableTask(group, requestor, fnOnEntry -> cursor.processAll(generateSignature(group), fnOnEntry));
+    }
+
+    /**
+     * Acquires a task from the tasks of a group that have already been read, such as by a heartbeat
+     * @param group
+     * @param requestor
+     * @param tasks - the tasks as read with readTasks
+     * @return the event of the task, if there is one to process
+     */
+    // Note: has side effects
+    public Optional<ArchitectureFirstEvent> acquireAvailableTask(String group, String requestor, Map<String,String> tasks) {
+        return acquireAvailableTask(group, requestor, fnOnEntry -> {
+            for (var e : tasks.entrySet()) {
+                if (fnOnEntry.apply(e)) {
+                    break;
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds a read of the tasks of a group to a batch
+     * @param batch
+     * @param group
+     * @return the tasks and their status, once the batch is sent
+     */
+    public RedisBatch.Reply<Map<String,String>> readTasks(RedisBatch batch, String group) {
+        var signature = generateSignature(group);
+        return batch.add(signature, p -> p.hgetAll(signature));
+    }
+
+    private Optional<ArchitectureFirstEvent> acquireAvailableTask(String group, String requestor,
+                                                                  Consumer<Function<Map.Entry<String,String>, Boolean>> fnForEachTask) {
         AtomicReference<ToDoListEntry> ref = new AtomicReference<>();
 
-        var cursor = new JedisHCursor(jedis);
         var signature = generateSignature(group);
-        cursor.processAll(signature, e -> {
+        fnForEachTask.accept(e -> {
             var entry = ToDoListEntry.from(e.getKey());
             if (ref.get() == null && e.getValue().equals(Status.Pending.toString())) {
                 ref.set(entry);
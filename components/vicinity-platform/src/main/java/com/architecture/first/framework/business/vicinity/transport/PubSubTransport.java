@@ -0,0 +1,92 @@
+package com.architecture.first.framework.business.vicinity.transport;
+
+import com.architecture.first.framework.business.vicinity.Vicinity;
+import com.architecture.first.framework.business.vicinity.publisher.VicinityPublisher;
+import com.architecture.first.framework.business.vicinity.threading.VicinityConnections;
+import com.architecture.first.framework.technical.events.EventPriority;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A fire-and-forget transport based on Redis pub/sub.
+ * Messages sent while no Actor is subscribed are lost.
+ *
+ *      Note:
+ *          On a Redis Cluster the transport uses sharded pub/sub, so a message only travels to the node that owns
+ *          its channel instead of being broadcast to every node of the cluster.
+ */
+public class PubSubTransport implements VicinityTransport {
+    private final VicinityPublisher publisher;
+    private final VicinityConnections connections;
+    private final boolean isSharded;
+    private final Map<String, Runnable> brokenHandlers = new ConcurrentHashMap<>();
+
+    public PubSubTransport(VicinityPublisher publisher, RedisNodes nodes, int timeout, int numberOfConnections) {
+        this.publisher = publisher;
+        this.isSharded = nodes.isCluster();
+        this.connections = new VicinityConnections(nodes, timeout, numberOfConnections, this::onConnectionBroken);
+    }
+
+    @Override
+    public void start() {
+        connections.start();
+    }
+
+    @Override
+    public void shutdown() {
+        connections.shutdown();
+    }
+
+    @Override
+    public CompletableFuture<Long> publish(String to, byte[] contents) {
+        return publisher.publish(channelFor(to), contents);
+    }
+
+    @Override
+    public CompletableFuture<Long> publishAll(Map<String, byte[]> contents, EventPriority priority) {
+        Map<String, byte[]> messages = new LinkedHashMap<>();
+        contents.forEach((to, message) -> messages.put(channelFor(to), message));
+        return publisher.publishAll(messages, priority);
+    }
+
+    @Override
+    public boolean isBroadcast() {
+        return true;
+    }
+
+    @Override
+    public void subscribe(String target, Consumer<VicinityDelivery> handler, Runnable onBroken) {
+        var channel = channelFor(target);
+        brokenHandlers.put(channel, onBroken);
+        connections.subscribe(channel, message -> handler.accept(VicinityDelivery.of(message)));
+    }
+
+    @Override
+    public void unsubscribe(String target) {
+        var channel = channelFor(target);
+        brokenHandlers.remove(channel);
+        connections.unsubscribe(channel);
+    }
+
+    @Override
+    public boolean isOk(String target, int numberOfConnections) {
+        return connections.isOk(channelFor(target), numberOfConnections);
+    }
+
+    private void onConnectionBroken(List<String> channels) {
+        channels.stream()
+                .map(brokenHandlers::get)
+                .filter(h -> h != null)
+                .forEach(Runnable::run);
+    }
+
+    private String channelFor(String target) {
+        return (isSharded) ? Vicinity.shardChannelFor(target) : Vicinity.channelFor(target);
+    }
+}
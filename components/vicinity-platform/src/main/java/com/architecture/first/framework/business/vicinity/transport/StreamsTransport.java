@@ -0,0 +1,478 @@
+package com.architecture.first.framework.business.vicinity.transport;
+
+import com.architecture.first.framework.business.vicinity.publisher.VicinityPublisher;
+import com.architecture.first.framework.technical.events.EventPriority;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.XAddParams;
+import redis.clients.jedis.params.XAutoClaimParams;
+import redis.clients.jedis.params.XPendingParams;
+import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * A transport based on Redis Streams and consumer groups.
+ *
+ *      Note:
+ *          Each Actor and each group has its own stream.  Every stream is read with the same consumer group,
+ *          so an entry on a group stream is delivered to one replica of the group.
+ *          Entries stay pending until they are acknowledged; entries that stay pending longer than the
+ *          claim idle time, such as those held by a replica that stopped, are claimed and delivered again.
+ *          Messages sent while an Actor is restarting wait in its stream instead of being lost.
+ *          Each Redis node has its own reader, which reads the subscribed streams that the node owns.
+ *          An entry delivered the maximum number of times without being acknowledged is moved to the dead letter stream.
+ *          The stream of an Actor is only read by that Actor, whose name is unique to the process, so it is deleted
+ *          when the Actor unsubscribes and expires if the process stops without unsubscribing.
+ *          Consumers that hold no pending entries are removed from the group streams when they have been idle,
+ *          so the consumers of stopped processes do not accumulate.
+ */
+@Slf4j
+public class StreamsTransport implements VicinityTransport {
+    public static final String CONSUMER_GROUP = "vicinity";
+    public static final String DEAD_LETTER_STREAM = "stream: vicinity/dead-letter";
+    private static final byte[] DEAD_LETTER_STREAM_BYTES = SafeEncoder.encode(DEAD_LETTER_STREAM);
+    private static final byte[] STREAM_FIELD_BYTES = SafeEncoder.encode("stream");
+    private static final byte[] ID_FIELD_BYTES = SafeEncoder.encode("id");
+    private static final byte[] DELIVERIES_FIELD_BYTES = SafeEncoder.encode("deliveries");
+    private static final byte[] CONSUMER_GROUP_BYTES = SafeEncoder.encode(CONSUMER_GROUP);
+    private static final byte[] UNRECEIVED_ENTRY = SafeEncoder.encode(">");
+    private static final byte[] FIRST_ENTRY = SafeEncoder.encode("0-0");
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final VicinityPublisher publisher;
+    private final UnifiedJedis jedis;
+    private final RedisNodes nodes;
+    private final int timeout;
+    private final int batchSize;
+    private final int blockMillis;
+    private final long claimIdleMillis;
+    private final long maxLength;
+    private final long maxDeliveries;
+    private final long actorStreamTtlMillis;
+    private final String consumer = "consumer-" + UUID.randomUUID();
+    private final byte[] consumerBytes = SafeEncoder.encode(consumer);
+    private final Map<String, Consumer<VicinityDelivery>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, Runnable> brokenHandlers = new ConcurrentHashMap<>();
+    private final Map<HostAndPort, Reader> readers = new LinkedHashMap<>();
+
+    private volatile boolean isRunning = false;
+
+    /**
+     * Reads the subscribed streams owned by one Redis node
+     */
+    private class Reader {
+        private final HostAndPort node;
+        private final Thread thread;
+        private volatile boolean isConnected = false;
+        private long lastClaimTime = 0;
+
+        private Reader(HostAndPort node, String name) {
+            this.node = node;
+            this.thread = new Thread(this::run, name);
+            this.thread.setDaemon(true);
+        }
+
+        private List<String> streams() {
+            return handlers.keySet().stream()
+                    .filter(s -> nodes.nodeFor(s).equals(node))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Reads batches from the node's streams and reconnects when the connection breaks
+         */
+        private void run() {
+            long backoff = MIN_BACKOFF_MILLIS;
+
+            while (isRunning) {
+                try (Jedis reader = new Jedis(node.getHost(), node.getPort(), timeout)) {
+                    isConnected = true;
+                    while (isRunning) {
+                        read(reader, streams());
+                        lastClaimTime = claimIdleEntries(streams(), lastClaimTime);
+                    }
+                }
+                catch (Exception e) {
+                    boolean wasConnected = isConnected;
+                    isConnected = false;
+                    if (!isRunning) {
+                        break;
+                    }
+
+                    if (e instanceof JedisDataException && e.getMessage().startsWith("NOGROUP")) {
+                        // the streams were removed, such as after a Redis restart
+                        streams().forEach(StreamsTransport.this::createConsumerGroup);
+                        continue;
+                    }
+
+                    log.warn("Vicinity streams connection lost to " + node + ", retrying in " + backoff + "ms", e);
+                    if (wasConnected) {
+                        streams().forEach(stream -> {
+                            var onBroken = brokenHandlers.get(stream);
+                            if (onBroken != null) {
+                                onBroken.run();
+                            }
+                        });
+                    }
+
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(backoff);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                    continue;
+                }
+
+                backoff = MIN_BACKOFF_MILLIS;
+            }
+
+            isConnected = false;
+        }
+    }
+
+    public StreamsTransport(VicinityPublisher publisher, UnifiedJedis jedis, RedisNodes nodes, int timeout,
+                            int batchSize, int blockMillis, long claimIdleMillis, long maxLength,
+                            long maxDeliveries, long actorStreamTtlMillis) {
+        this.publisher = publisher;
+        this.jedis = jedis;
+        this.nodes = nodes;
+        this.timeout = timeout;
+        this.batchSize = batchSize;
+        this.blockMillis = blockMillis;
+        this.claimIdleMillis = claimIdleMillis;
+        this.maxLength = maxLength;
+        this.maxDeliveries = maxDeliveries;
+        this.actorStreamTtlMillis = actorStreamTtlMillis;
+
+        var all = nodes.all();
+        for (int i = 0; i < all.size(); i++) {
+            readers.put(all.get(i), new Reader(all.get(i), (nodes.isSharded()) ? "a1-vicinity-streams-" + i : "a1-vicinity-streams"));
+        }
+    }
+
+    /**
+     * Returns the stream for an Actor or group
+     * @param name
+     * @return stream name
+     */
+    public static String streamFor(String name) {
+        return "stream: " + name;
+    }
+
+    @Override
+    public void start() {
+        isRunning = true;
+        readers.values().forEach(r -> r.thread.start());
+    }
+
+    /**
+     * Determines if a stream belongs to one Actor rather than to a group.
+     * Actor names, unlike group names, contain dots
+     * @param stream
+     * @return true for the stream of an Actor
+     */
+    private static boolean isActorStream(String stream) {
+        return stream.contains(".");
+    }
+
+    @Override
+    public void shutdown() {
+        isRunning = false;
+        readers.values().forEach(r -> r.thread.interrupt());
+        readers.values().forEach(r -> {
+            try {
+                r.thread.join(2L * blockMillis);      // a blocked read returns after blockMillis
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        handlers.keySet().forEach(stream -> {
+            try {
+                if (isActorStream(stream)) {
+                    jedis.del(stream);
+                }
+                else {
+                    removeConsumer(stream);
+                }
+            }
+            catch (Exception e) {
+                log.warn("Unable to clean up stream: " + stream, e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> publish(String to, byte[] contents) {
+        return publisher.append(streamFor(to), contents, maxLength);
+    }
+
+    @Override
+    public CompletableFuture<Long> publishAll(Map<String, byte[]> contents, EventPriority priority) {
+        Map<String, byte[]> messages = new LinkedHashMap<>();
+        contents.forEach((to, message) -> messages.put(streamFor(to), message));
+        return publisher.appendAll(messages, maxLength, priority);
+    }
+
+    @Override
+    public boolean isBroadcast() {
+        return false;
+    }
+
+    @Override
+    public void subscribe(String target, Consumer<VicinityDelivery> handler, Runnable onBroken) {
+        var stream = streamFor(target);
+        createConsumerGroup(stream);
+        if (isActorStream(stream)) {
+            jedis.pexpire(stream, actorStreamTtlMillis);    // refreshed while claiming, in case the process stops abruptly
+        }
+        brokenHandlers.put(stream, onBroken);
+        handlers.put(stream, handler);
+    }
+
+    @Override
+    public void unsubscribe(String target) {
+        var stream = streamFor(target);
+        handlers.remove(stream);
+        brokenHandlers.remove(stream);
+        if (isActorStream(stream)) {
+            jedis.del(stream);      // no other process reads the stream of this Actor
+        }
+    }
+
+    @Override
+    public boolean isOk(String target, int numberOfConnections) {
+        var stream = streamFor(target);
+        int numConnected = (readers.get(nodes.nodeFor(stream)).isConnected && handlers.containsKey(stream)) ? 1 : 0;
+        return numConnected == numberOfConnections;
+    }
+
+    /**
+     * Creates the consumer group for a stream if it does not exist
+     * @param stream
+     */
+    private void createConsumerGroup(String stream) {
+        try {
+            jedis.xgroupCreate(stream, CONSUMER_GROUP, StreamEntryID.LAST_ENTRY, true);
+        }
+        catch (JedisDataException e) {
+            if (!e.getMessage().startsWith("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Reads new entries from streams of one node in one call
+     * @param reader
+     * @param subscribed - the streams to read
+     * @throws InterruptedException
+     */
+    private void read(Jedis reader, List<String> subscribed) throws InterruptedException {
+        if (subscribed.isEmpty()) {
+            TimeUnit.MILLISECONDS.sleep(blockMillis);
+            return;
+        }
+
+        Map.Entry<byte[], byte[]>[] streams = subscribed.stream()
+                .map(s -> new AbstractMap.SimpleEntry<>(SafeEncoder.encode(s), UNRECEIVED_ENTRY))
+                .toArray(Map.Entry[]::new);
+
+        List<?> results = reader.xreadGroup(CONSUMER_GROUP_BYTES, consumerBytes,
+                XReadGroupParams.xReadGroupParams().count(batchSize).block(blockMillis), streams);
+        if (results != null) {
+            results.forEach(r -> {
+                var streamResult = (List<?>) r;
+                var stream = SafeEncoder.encode((byte[]) streamResult.get(0));
+                deliverAll(stream, (List<?>) streamResult.get(1));
+            });
+        }
+    }
+
+    /**
+     * Claims entries that other consumers have held for longer than the claim idle time
+     * @param subscribed - the streams to claim from
+     * @param lastClaimTime - when entries were last claimed from the streams
+     * @return when entries were last claimed
+     */
+    private long claimIdleEntries(List<String> subscribed, long lastClaimTime) {
+        long now = System.currentTimeMillis();
+        if (now - lastClaimTime < claimIdleMillis / 2) {
+            return lastClaimTime;
+        }
+
+        subscribed.forEach(stream -> {
+            var poison = findPoisonEntries(stream);
+
+            byte[] start = FIRST_ENTRY;
+            do {
+                var claimed = jedis.xautoclaim(SafeEncoder.encode(stream), CONSUMER_GROUP_BYTES, consumerBytes,
+                        claimIdleMillis, start, XAutoClaimParams.xAutoClaimParams().count(batchSize));
+                deliverAll(stream, (List<?>) claimed.get(1), poison);
+                start = (byte[]) claimed.get(0);
+            } while (!Arrays.equals(start, FIRST_ENTRY));
+
+            // poison entries that were not claimed no longer exist, such as entries removed by trimming
+            poison.keySet().forEach(id -> jedis.xack(stream, CONSUMER_GROUP, new StreamEntryID(id)));
+
+            if (isActorStream(stream)) {
+                jedis.pexpire(stream, actorStreamTtlMillis);
+            }
+            else {
+                removeIdleConsumers(stream);
+            }
+        });
+        return now;
+    }
+
+    /**
+     * Finds the idle entries of a stream that have been delivered the maximum number of times
+     * @param stream
+     * @return the number of deliveries by entry id
+     */
+    private Map<String, Long> findPoisonEntries(String stream) {
+        Map<String, Long> poison = new ConcurrentHashMap<>();
+        jedis.xpending(stream, CONSUMER_GROUP, XPendingParams.xPendingParams().idle(claimIdleMillis).count(batchSize))
+                .forEach(p -> {
+                    if (p.getDeliveredTimes() >= maxDeliveries) {
+                        poison.put(p.getID().toString(), p.getDeliveredTimes());
+                    }
+                });
+        return poison;
+    }
+
+    /**
+     * Moves an entry that could not be processed to the dead letter stream and acknowledges it
+     * @param stream
+     * @param id
+     * @param message
+     * @param deliveries
+     */
+    private void deadLetter(String stream, byte[] id, byte[] message, long deliveries) {
+        log.error("Moving entry " + SafeEncoder.encode(id) + " on stream: " + stream + " to " + DEAD_LETTER_STREAM
+                + " after " + deliveries + " deliveries");
+        if (message != null) {
+            Map<byte[], byte[]> fields = new LinkedHashMap<>();
+            fields.put(VicinityPublisher.STREAM_MESSAGE_FIELD_BYTES, message);
+            fields.put(STREAM_FIELD_BYTES, SafeEncoder.encode(stream));
+            fields.put(ID_FIELD_BYTES, id);
+            fields.put(DELIVERIES_FIELD_BYTES, SafeEncoder.encode(String.valueOf(deliveries)));
+            jedis.xadd(DEAD_LETTER_STREAM_BYTES, XAddParams.xAddParams().maxLen(maxLength).approximateTrimming(), fields);
+        }
+        jedis.xack(SafeEncoder.encode(stream), CONSUMER_GROUP_BYTES, id);
+    }
+
+    /**
+     * Removes the consumers of a group stream that hold no pending entries and have been idle longer than the claim idle time.
+     * A consumer that reads again is created again by Redis
+     * @param stream
+     */
+    private void removeIdleConsumers(String stream) {
+        jedis.xinfoConsumers(stream, CONSUMER_GROUP).forEach(c -> {
+            if (!c.getName().equals(consumer) && c.getPending() == 0 && c.getIdle() > claimIdleMillis) {
+                jedis.xgroupDelConsumer(stream, CONSUMER_GROUP, c.getName());
+            }
+        });
+    }
+
+    /**
+     * Removes the consumer of this process from a group stream, unless it holds pending entries,
+     * which would be lost with it instead of being claimed by another replica
+     * @param stream
+     */
+    private void removeConsumer(String stream) {
+        jedis.xinfoConsumers(stream, CONSUMER_GROUP).stream()
+                .filter(c -> c.getName().equals(consumer) && c.getPending() == 0)
+                .findFirst()
+                .ifPresent(c -> jedis.xgroupDelConsumer(stream, CONSUMER_GROUP, consumer));
+    }
+
+    /**
+     * Passes raw stream entries, each a list of the entry id and its field/value pairs, to the stream's handler
+     * @param stream
+     * @param entries
+     */
+    private void deliverAll(String stream, List<?> entries) {
+        deliverAll(stream, entries, Map.of());
+    }
+
+    /**
+     * Passes raw stream entries to the stream's handler, except poison entries, which are moved to the dead letter stream
+     * @param stream
+     * @param entries
+     * @param poison - the number of deliveries of the entries that are not to be delivered again, by entry id
+     */
+    private void deliverAll(String stream, List<?> entries, Map<String, Long> poison) {
+        if (entries == null) {
+            return;
+        }
+
+        entries.forEach(e -> {
+            if (e == null) {
+                return;     // Redis 6.2 claims an entry removed by trimming as nil
+            }
+
+            var entry = (List<?>) e;
+            var id = (byte[]) entry.get(0);
+            var fields = (List<?>) entry.get(1);
+
+            byte[] message = null;
+            for (int i = 0; fields != null && i + 1 < fields.size(); i += 2) {
+                if (Arrays.equals((byte[]) fields.get(i), VicinityPublisher.STREAM_MESSAGE_FIELD_BYTES)) {
+                    message = (byte[]) fields.get(i + 1);
+                }
+            }
+
+            var deliveries = (!poison.isEmpty()) ? poison.remove(SafeEncoder.encode(id)) : null;
+            if (deliveries != null) {
+                deadLetter(stream, id, message, deliveries);
+                return;
+            }
+            deliver(stream, id, message);
+        });
+    }
+
+    /**
+     * Passes an entry to the stream's handler.
+     * The entry is acknowledged by the handler when it has been processed.
+     * @param stream
+     * @param id
+     * @param message
+     */
+    private void deliver(String stream, byte[] id, byte[] message) {
+        var handler = handlers.get(stream);
+        Runnable acknowledgement = () -> jedis.xack(SafeEncoder.encode(stream), CONSUMER_GROUP_BYTES, id);
+
+        if (handler == null || message == null) {
+            acknowledgement.run();      // nothing can process the entry, so don't deliver it again
+            return;
+        }
+
+        try {
+            handler.accept(new VicinityDelivery(message, acknowledgement));
+        }
+        catch (Exception e) {
+            log.error("Error handling entry on stream: " + stream, e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.architecture.first.framework.business.vicinity.transport;
+
+/**
+ * A message received from the Vicinity.
+ * The receiver acknowledges the message once it has been processed so that transports with delivery guarantees can release it.
+ */
+public class VicinityDelivery {
+    private static final Runnable NO_ACKNOWLEDGEMENT = () -> {};
+
+    private final byte[] message;
+    private final Runnable acknowledgement;
+
+    public VicinityDelivery(byte[] message, Runnable acknowledgement) {
+        this.message = message;
+        this.acknowledgement = acknowledgement;
+    }
+
+    /**
+     * Creates a delivery that does not need to be acknowledged
+     * @param message
+     * @return
+     */
+    public static VicinityDelivery of(byte[] message) {
+        return new VicinityDelivery(message, NO_ACKNOWLEDGEMENT);
+    }
+
+    public byte[] getMessage() {
+        return message;
+    }
+
+    /**
+     * Confirms the message was processed
+     */
+    public void acknowledge() {
+        acknowledgement.run();
+    }
+}
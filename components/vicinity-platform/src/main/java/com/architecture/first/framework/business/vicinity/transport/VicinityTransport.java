@@ -0,0 +1,70 @@
+package com.architecture.first.framework.business.vicinity.transport;
+
+import com.architecture.first.framework.technical.events.EventPriority;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * The mechanism the Vicinity uses to move messages between Actors.
+ * The transport is selected by the vicinity.transport setting.
+ */
+public interface VicinityTransport {
+    String PUBSUB = "pubsub";
+    String STREAMS = "streams";
+
+    /**
+     * Opens the transport's connections
+     */
+    void start();
+
+    /**
+     * Closes the transport's connections
+     */
+    void shutdown();
+
+    /**
+     * Sends a message to an Actor or a group of Actors
+     * @param to
+     * @param contents - a binary envelope or a legacy JSON message
+     * @return a future that completes when Redis has accepted the message
+     */
+    CompletableFuture<Long> publish(String to, byte[] contents);
+
+    /**
+     * Sends a message to several Actors or groups of Actors together
+     * @param contents - the message encoded for each target
+     * @param priority - the priority class of the message
+     * @return a future that completes when Redis has accepted all the messages
+     */
+    CompletableFuture<Long> publishAll(Map<String, byte[]> contents, EventPriority priority);
+
+    /**
+     * Determines if a message sent to a group reaches every member of the group
+     * @return true if group messages are broadcast, false if they are delivered to one member
+     */
+    boolean isBroadcast();
+
+    /**
+     * Receives messages sent to a target
+     * @param target - an Actor name or group
+     * @param handler - receives each message
+     * @param onBroken - called when the connection serving the target breaks
+     */
+    void subscribe(String target, Consumer<VicinityDelivery> handler, Runnable onBroken);
+
+    /**
+     * Stops receiving messages sent to a target
+     * @param target
+     */
+    void unsubscribe(String target);
+
+    /**
+     * Determines if messages sent to the target are being received
+     * @param target
+     * @param numberOfConnections - the number of connections expected to serve the target
+     * @return true if the target's connections are ok
+     */
+    boolean isOk(String target, int numberOfConnections);
+}
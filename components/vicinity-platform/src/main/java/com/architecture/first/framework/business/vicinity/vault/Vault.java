@@ -5,7 +5,7 @@ import com.architecture.first.framework.technical.util.DateUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 
 import javax.annotation.PostConstruct;
 import java.time.ZoneId;
@@ -22,7 +22,7 @@ public class Vault {
 
     public static final String VAULT = "Vault";
     @Autowired
-    private JedisPooled jedis;
+    private UnifiedJedis jedis;
 
     @Autowired
     private Lock lock;
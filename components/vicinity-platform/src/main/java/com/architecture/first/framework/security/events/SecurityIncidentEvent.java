@@ -3,13 +3,14 @@ package com.architecture.first.framework.security.events;
 import com.architecture.first.framework.business.vicinity.events.ErrorEvent;
 import com.architecture.first.framework.security.model.UserToken;
 import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.events.ControlEvent;
 
 import java.util.List;
 
 /**
  * Represents a security incident, such as an expired token
  */
-public class SecurityIncidentEvent extends ArchitectureFirstEvent implements ErrorEvent {
+public class SecurityIncidentEvent extends ArchitectureFirstEvent implements ErrorEvent, ControlEvent {
     public SecurityIncidentEvent(Object source, String from, List<String> to) {
         super(source, from, to);
     }
@@ -1,16 +1,19 @@
 package com.architecture.first.framework.security.model;
 
+import com.architecture.first.framework.technical.codegen.WireModel;
+
 import java.util.Date;
 
 /**
  * System-wide technical information
  */
+@WireModel      // the base of models carried in events
 public class SystemInfo {
-    private boolean hasErrors;
-    private String errorCode = "";
-    private String message = "";
-    private Date updateDate;
-    private String updatedBy;
+    boolean hasErrors;
+    String errorCode = "";
+    String message = "";
+    Date updateDate;
+    String updatedBy;
 
     public String getErrorCode() {
         return errorCode;
@@ -6,20 +6,21 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Request context for async requests
+ * Request context for async requests.
+ * Contexts are kept per thread id, since many requests may run at the same time
  */
 @Component()
 @Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class AsyncRequestContext {
 
     public static final long DEFAULT_CUSTOMER_ID = 99;
-    private final Map<String,RequestContext> requestContexts = new HashMap<>();
+    private final Map<Long,RequestContext> requestContexts = new ConcurrentHashMap<>();
 
-    protected RequestContext initContext(String name) {
+    protected RequestContext initContext(long threadId) {
         RequestContext context = new RequestContext();
         context.setRequestId(SecurityGuard.getRequestId());
 
@@ -32,25 +33,23 @@ public class AsyncRequestContext {
 
         context.setAsync(true);
 
-        requestContexts.put(name, context);
+        requestContexts.put(threadId, context);
 
         return context;
     }
 
-    public void addContext(String name, RequestContext context) {
-        requestContexts.put(name, context);
+    public void addContext(long threadId, RequestContext context) {
+        requestContexts.put(threadId, context);
     }
 
     public RequestContext clearContext() {
-        return requestContexts.remove(Thread.currentThread().getName());
+        return requestContexts.remove(Thread.currentThread().getId());
     }
 
     public RequestContext requestContext() {
-        String name = Thread.currentThread().getName();
-        if (!requestContexts.containsKey(name)) {
-            return initContext(name);
-        }
+        long threadId = Thread.currentThread().getId();
+        var context = requestContexts.get(threadId);
 
-        return requestContexts.get(name);
+        return (context != null) ? context : initContext(threadId);
     }
 }
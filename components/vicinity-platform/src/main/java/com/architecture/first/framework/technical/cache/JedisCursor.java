@@ -1,22 +1,23 @@
 package com.architecture.first.framework.technical.cache;
 
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 import redis.clients.jedis.params.ScanParams;
 
 import java.util.List;
 import java.util.function.Function;
 
 /**
- * Iterates through cache entries and allows actions
+ * Iterates through cache entries and allows actions.
+ * Scanning the whole keyspace is not available when the keys are sharded over several Redis nodes.
  */
 public class JedisCursor {
-    private final JedisPooled jedis;
+    private final UnifiedJedis jedis;
     private final int DEFAULT_CURSOR_START = 0;
     private final int DEFAULT_CHUNK_SIZE = 1000;
     private final String DEFAULT_MATCH_PARAMS = "*";
     private String cursor;
 
-    public JedisCursor(JedisPooled jedis) {this.jedis = jedis;}
+    public JedisCursor(UnifiedJedis jedis) {this.jedis = jedis;}
 
     /**
      * Iterates through entries
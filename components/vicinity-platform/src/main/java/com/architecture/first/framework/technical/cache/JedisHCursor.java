@@ -1,6 +1,6 @@
 package com.architecture.first.framework.technical.cache;
 
-import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.UnifiedJedis;
 import redis.clients.jedis.params.ScanParams;
 
 import java.util.Map;
@@ -11,13 +11,13 @@ import java.util.function.Function;
  * Iterates through cache hash set entries and allows actions
  */
 public class JedisHCursor {
-    private final JedisPooled jedis;
+    private final UnifiedJedis jedis;
     private final int DEFAULT_CURSOR_START = 0;
     private final int DEFAULT_CHUNK_SIZE = 1000;
     private final String DEFAULT_MATCH_PARAMS = "*";
     private String cursor;
 
-    public JedisHCursor(JedisPooled jedis) {this.jedis = jedis;}
+    public JedisHCursor(UnifiedJedis jedis) {this.jedis = jedis;}
 
     /**
      * Iterates through entries
@@ -0,0 +1,228 @@
+package com.architecture.first.framework.technical.cache;
+
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects Redis commands and sends them together, in one pipeline per Redis node that owns their keys.
+ *
+ *      Note:
+ *          Commands are sent in the order they were added, so a read added after a write of the same key sees the write.
+ *          A command redirected by a Redis Cluster is sent once more to the node Redis named.
+ *          A command that fails does not fail the others; its reply holds the error.
+ */
+public class RedisBatch {
+    private final RedisNodes nodes;
+    private final Function<HostAndPort, Jedis> connections;
+    private final List<Command<?>> commands = new ArrayList<>();
+    private Cost cost;
+
+    /**
+     * The reply to a command, available once the batch is sent
+     * @param <T>
+     */
+    public static class Reply<T> {
+        private T value;
+        private RuntimeException error;
+        private boolean isDone = false;
+
+        /**
+         * Returns the value
+         * @return value
+         * @throws IllegalStateException if the batch has not been sent, or the error of the command
+         */
+        public T get() {
+            if (!isDone) {
+                throw new IllegalStateException("The batch has not been sent");
+            }
+            if (error != null) {
+                throw error;
+            }
+            return value;
+        }
+
+        public boolean isOk() {
+            return isDone && error == null;
+        }
+
+        private void complete(T value) {
+            this.value = value;
+            this.isDone = true;
+        }
+
+        private void fail(RuntimeException error) {
+            this.error = error;
+            this.isDone = true;
+        }
+    }
+
+    /**
+     * The Redis work done to send a batch
+     */
+    public static class Cost {
+        private final int commands;
+        private final int roundTrips;
+        private final long micros;
+
+        public Cost(int commands, int roundTrips, long micros) {
+            this.commands = commands;
+            this.roundTrips = roundTrips;
+            this.micros = micros;
+        }
+
+        public int commands() {return commands;}
+
+        public int roundTrips() {return roundTrips;}
+
+        public long micros() {return micros;}
+
+        public String toString() {
+            return String.format("%d commands in %d round trips, %d us", commands, roundTrips, micros);
+        }
+    }
+
+    private static class Command<T> {
+        private final String key;
+        private final Function<Pipeline, Response<T>> fnCommand;
+        private final Reply<T> reply = new Reply<>();
+        private Response<T> response;
+
+        private Command(String key, Function<Pipeline, Response<T>> fnCommand) {
+            this.key = key;
+            this.fnCommand = fnCommand;
+        }
+
+        private void queue(Pipeline pipeline) {
+            response = fnCommand.apply(pipeline);
+        }
+
+        private void complete() {
+            reply.complete(response.get());
+        }
+    }
+
+    /**
+     * Creates an empty batch
+     * @param nodes - the Redis nodes that own the keys
+     * @param connections - returns a connection to a node, which is closed after use
+     */
+    public RedisBatch(RedisNodes nodes, Function<HostAndPort, Jedis> connections) {
+        this.nodes = nodes;
+        this.connections = connections;
+    }
+
+    /**
+     * Adds a command
+     * @param key - the key the command works on, which decides its node
+     * @param fnCommand - queues the command on a pipeline, such as p -> p.hgetAll(key)
+     * @return the reply, available once the batch is sent
+     */
+    public <T> Reply<T> add(String key, Function<Pipeline, Response<T>> fnCommand) {
+        if (cost != null) {
+            throw new IllegalStateException("The batch has already been sent");
+        }
+
+        var command = new Command<>(key, fnCommand);
+        commands.add(command);
+        return command.reply;
+    }
+
+    /**
+     * Sends the commands
+     * @return the Redis work done
+     */
+    public Cost send() {
+        if (cost != null) {
+            return cost;
+        }
+
+        long start = System.nanoTime();
+        int roundTrips = 0;
+        List<Command<?>> redirected = new ArrayList<>();
+        for (var part : byNode(commands).entrySet()) {
+            roundTrips++;
+            redirected.addAll(pipeline(part.getKey(), part.getValue(), true));
+        }
+        for (var part : byNode(redirected).entrySet()) {
+            roundTrips++;
+            pipeline(part.getKey(), part.getValue(), false);
+        }
+
+        cost = new Cost(commands.size() + redirected.size(), roundTrips,
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return cost;
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * Splits commands by the Redis node that owns their key
+     * @param batch
+     * @return the commands of each node, in their original order
+     */
+    private Map<HostAndPort, List<Command<?>>> byNode(List<Command<?>> batch) {
+        Map<HostAndPort, List<Command<?>>> parts = new LinkedHashMap<>();
+        if (batch.isEmpty()) {
+            return parts;
+        }
+        if (!nodes.isSharded()) {
+            parts.put(nodes.all().get(0), batch);
+            return parts;
+        }
+
+        batch.forEach(c -> parts.computeIfAbsent(nodes.nodeFor(c.key), n -> new ArrayList<>()).add(c));
+        return parts;
+    }
+
+    /**
+     * Sends commands to one node in a pipeline
+     * @param node
+     * @param batch
+     * @param canRedirect - true to return the commands Redis redirected instead of failing them
+     * @return the redirected commands
+     */
+    private List<Command<?>> pipeline(HostAndPort node, List<Command<?>> batch, boolean canRedirect) {
+        List<Command<?>> redirected = new ArrayList<>();
+        try (Jedis jedis = connections.apply(node)) {
+            Pipeline pipeline = jedis.pipelined();
+            batch.forEach(c -> c.queue(pipeline));
+            pipeline.sync();
+        }
+        catch (RuntimeException e) {
+            batch.forEach(c -> c.reply.fail(e));
+            return redirected;
+        }
+
+        batch.forEach(c -> {
+            try {
+                c.complete();
+            }
+            catch (JedisRedirectionException e) {
+                if (canRedirect) {
+                    nodes.moved(c.key, e.getTargetNode());
+                    redirected.add(c);
+                }
+                else {
+                    c.reply.fail(e);
+                }
+            }
+            catch (RuntimeException e) {
+                c.reply.fail(e);
+            }
+        });
+        return redirected;
+    }
+}
@@ -1,12 +1,27 @@
 package com.architecture.first.framework.technical.config;
 
+import com.architecture.first.framework.technical.sharding.RedisClusterNodes;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisPooled;
+import redis.clients.jedis.JedisSharding;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.UnifiedJedis;
+
+import java.util.HashSet;
 
 /**
  * Configuration to support Redis
+ *
+ *      Note:
+ *          By default the Vicinity uses the single node at redis.host and redis.port.
+ *          Setting redis.nodes, for example redis.nodes=redis-1:6379,redis-2:6379, spreads the keys and channels
+ *          over the nodes by consistent hashing.
+ *          Setting redis.cluster=true connects to a Redis Cluster instead, using redis.nodes, or redis.host and redis.port,
+ *          to discover it; the Vicinity then uses sharded pub/sub, which requires Redis 7.
  */
 @Configuration
 public class RedisConfig {
@@ -17,9 +32,26 @@ public class RedisConfig {
     @Value("${redis.port:6379}")
     private int port;
 
+    @Value("${redis.nodes:}")
+    private String nodes;
+
+    @Value("${redis.cluster:false}")
+    private boolean isCluster;
+
+    @Bean
+    public RedisNodes redisNodes() {
+        var parsed = RedisNodes.parse(nodes, host, port);
+        return (isCluster) ? new RedisClusterNodes(parsed.all(), Protocol.DEFAULT_TIMEOUT) : parsed;
+    }
+
     @Bean
-    public JedisPooled jedisPool() {
-        return new JedisPooled(host, port);
+    public UnifiedJedis jedisPool(RedisNodes redisNodes) {
+        if (redisNodes.isCluster()) {
+            return new JedisCluster(new HashSet<>(redisNodes.all()));
+        }
+        return (redisNodes.isSharded())
+                ? new JedisSharding(redisNodes.all())
+                : new JedisPooled(redisNodes.all().get(0).getHost(), redisNodes.all().get(0).getPort());
     }
 
 }
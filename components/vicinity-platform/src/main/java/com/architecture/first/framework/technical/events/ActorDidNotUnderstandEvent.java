@@ -4,7 +4,7 @@ package com.architecture.first.framework.technical.events;
  * An event sent when an Actor does not understand a received event
  */
 public class ActorDidNotUnderstandEvent extends ArchitectureFirstEvent {
-    private ArchitectureFirstEvent unansweredEvent;
+    ArchitectureFirstEvent unansweredEvent;
 
     public ActorDidNotUnderstandEvent(Object source, String from, String to) {
         super(source, from, to);
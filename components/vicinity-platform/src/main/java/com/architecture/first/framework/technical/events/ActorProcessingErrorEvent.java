@@ -10,9 +10,9 @@ import java.util.ArrayList;
  * Represents an error during processing of an event
  */
 public class ActorProcessingErrorEvent extends ArchitectureFirstEvent implements ErrorEvent {
-    private ArchitectureFirstEvent erroredEvent;
+    ArchitectureFirstEvent erroredEvent;
     private transient RuntimeException exception;
-    private String exceptionMessage;
+    String exceptionMessage;
 
     public ActorProcessingErrorEvent(Object source, String from, String to) {
         super(source, from, to);
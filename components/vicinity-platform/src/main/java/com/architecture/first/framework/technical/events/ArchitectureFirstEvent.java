@@ -3,20 +3,21 @@ package com.architecture.first.framework.technical.events;
 import com.architecture.first.framework.business.actors.Actor;
 import com.architecture.first.framework.business.vicinity.messages.VicinityMessage;
 import com.architecture.first.framework.security.SecurityGuard;
+import com.architecture.first.framework.technical.codegen.WireModel;
+import com.architecture.first.framework.technical.util.JsonUtils;
 import com.architecture.first.framework.technical.util.SimpleModel;
-import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationEvent;
 
-import java.lang.reflect.Type;
 import java.util.*;
 
 /**
  * The core event for communication in the Vicinity and in process
  */
 @Slf4j
-public class ArchitectureFirstEvent extends ApplicationEvent {
+@WireModel
+public class ArchitectureFirstEvent extends ApplicationEvent implements Cloneable {
     public static final String REQUEST_ID = "requestId";
     public static final String DEFAULT_PROJECT = "default";
     public static final String ORIGINAL_EVENT_NAME = "originalEventName";
@@ -29,26 +30,27 @@ public class ArchitectureFirstEvent extends ApplicationEvent {
     public static final String BOA_PROJECT = "boa-project";
     public static String EVENT_ALL_PARTICIPANTS = "all";
 
-    private SimpleModel header = new SimpleModel();
-    private SimpleModel payload = new SimpleModel();
-    private String message = "";
+    SimpleModel header = new SimpleModel();
+    SimpleModel payload = new SimpleModel();
+    String message = "";
     private transient Optional<Actor> target = Optional.empty();
-    private boolean isPropagatedFromVicinity = false;
-    private boolean isLocalEvent = false;
-    private boolean isAnnouncement = false;
-    private boolean wasHandled = false;
-    private boolean awaitResponse = false;
-    private long awaitTimeoutSeconds = 30;
-    private boolean isPipelineEvent = false;
-    private boolean hasErrors = false;
-    private boolean isReply = false;
-    private boolean requiresAcknowledgement = false;
-    private boolean isToDoTask = false;
-    private String toDoLink = "";
-    private boolean processLaterIfNoActorFound = true;
-    private String originalActorName = "";
-    private String tasklist = "";
-    private long index = 0;
+    boolean isPropagatedFromVicinity = false;
+    boolean isLocalEvent = false;
+    private transient boolean isIdempotent = false;
+    boolean isAnnouncement = false;
+    boolean wasHandled = false;
+    boolean awaitResponse = false;
+    long awaitTimeoutSeconds = 30;
+    boolean isPipelineEvent = false;
+    boolean hasErrors = false;
+    boolean isReply = false;
+    boolean requiresAcknowledgement = false;
+    boolean isToDoTask = false;
+    String toDoLink = "";
+    boolean processLaterIfNoActorFound = true;
+    String originalActorName = "";
+    String tasklist = "";
+    long index = 0;
 
     /**
      * Create an event
@@ -199,6 +201,16 @@ public class ArchitectureFirstEvent extends ApplicationEvent {
         return this;
     }
 
+    /**
+     * Sets the target names and/or groups
+     * @param names
+     * @return ArchitectureFirstEvent
+     */
+    public ArchitectureFirstEvent setTo(List<String> names) {
+        header.put(TO, new ArrayList<>(names));
+        return this;
+    }
+
     /**
      * Sets the source name
      * @param name
@@ -269,6 +281,30 @@ public class ArchitectureFirstEvent extends ApplicationEvent {
      */
     public boolean isLocal() {return isLocalEvent;}
 
+    /**
+     * Sets the event as one that can be processed more than once with the same result, so that it may be hedged
+     * @param status
+     * @return ArchitectureFirstEvent
+     */
+    public ArchitectureFirstEvent setAsIdempotent(boolean status) {
+        isIdempotent = status;
+        return this;
+    }
+
+    /**
+     * Returns if the event can be processed more than once with the same result
+     * @return
+     */
+    public boolean isIdempotent() {return isIdempotent;}
+
+    /**
+     * Returns the priority class of the event
+     * @return priority
+     */
+    public EventPriority priority() {
+        return EventPriority.of(getClass());
+    }
+
     /**
      * Sets the event as an announcement type that will be sent to a group of Actors
      * @param status
@@ -661,6 +697,58 @@ public class ArchitectureFirstEvent extends ApplicationEvent {
     }
     // Lifecycle events (end)
 
+    /**
+     * Returns a copy of the event for another Actor in this process.
+     * The header and payload, including nested maps and lists, are copied so the receiver can change them without affecting the sender.
+     * Other values in the header and payload are shared and are treated as read only.
+     * Derived events with mutable fields override this method to copy them.
+     * @return ArchitectureFirstEvent
+     */
+    public ArchitectureFirstEvent copy() {
+        try {
+            var copy = (ArchitectureFirstEvent) super.clone();
+            copy.header = (SimpleModel) copyValue(header());
+            copy.payload = (SimpleModel) copyValue(payload());
+            copy.target = Optional.empty();
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns a copy of a model held by a derived event, including nested maps and lists
+     * @param model
+     * @return SimpleModel, or null if the model is null
+     */
+    protected static SimpleModel copyOf(SimpleModel model) {
+        return (model != null) ? (SimpleModel) copyValue(model) : null;
+    }
+
+    /**
+     * Returns a deep copy of a value held by a derived event, such as a shopping cart
+     * @param value
+     * @param type
+     * @return a copy, or null if the value is null
+     */
+    protected static <T> T copyOf(T value, Class<T> type) {
+        return (value != null) ? JsonUtils.gson().fromJson(JsonUtils.gson().toJsonTree(value), type) : null;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof Map) {
+            var map = (value instanceof SimpleModel) ? new SimpleModel() : new LinkedHashMap<String, Object>();
+            ((Map<String, Object>) value).forEach((k, v) -> map.put(k, copyValue(v)));
+            return map;
+        }
+        if (value instanceof List) {
+            var list = new ArrayList<Object>();
+            ((List<Object>) value).forEach(v -> list.add(copyValue(v)));
+            return list;
+        }
+        return value;
+    }
+
     /**
      * Convert a Vicinity message to an ArchitectureFirstEvent
      * @param source
@@ -669,10 +757,8 @@ public class ArchitectureFirstEvent extends ApplicationEvent {
      */
     public static ArchitectureFirstEvent from(Object source, VicinityMessage message) {
         try {
-            var cls = Class.forName(message.getHeader().getEventType());
-            ArchitectureFirstEvent event = new Gson().fromJson(message.getJsonPayload(), (Type) cls);
-
-            return event;
+            return EventTypeRegistry.instance().codecFor(message.getHeader().getEventType())
+                    .fromJson(message.getJsonPayload());
         } catch (Exception e) {
             log.error("Invalid class definition: ", e);
         }
@@ -0,0 +1,8 @@
+package com.architecture.first.framework.technical.events;
+
+/**
+ * Represents an event that keeps the Vicinity working, such as a health check or an acknowledgement.
+ * Control events are delivered ahead of business events so a backlog of work does not delay them
+ */
+public interface ControlEvent {
+}
@@ -1,8 +1,11 @@
 package com.architecture.first.framework.technical.events;
 
+import com.architecture.first.framework.technical.codegen.WireModel;
+
 /**
  * An event used to start communication from an non-Actor
  */
+@WireModel(generate = false)   // never leaves the process
 public class DefaultLocalEvent extends ArchitectureFirstEvent implements LocalEvent {
 
     /**
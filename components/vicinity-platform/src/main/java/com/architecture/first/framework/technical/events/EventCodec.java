@@ -0,0 +1,79 @@
+package com.architecture.first.framework.technical.events;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/**
+ * Converts one type of event to and from JSON.
+ * An instance is created once per event type and reused by every thread.
+ * The output is the same as Gson.toJson for the event type.
+ * @param <T> the event type
+ */
+public class EventCodec<T extends ArchitectureFirstEvent> {
+    private final Class<T> type;
+    private final int typeId;
+    private final Gson gson;
+    private final TypeAdapter<T> adapter;
+
+    public EventCodec(Class<T> type, int typeId, Gson gson) {
+        this.type = type;
+        this.typeId = typeId;
+        this.gson = gson;
+        this.adapter = gson.getAdapter(type);
+    }
+
+    /**
+     * Returns the event class
+     * @return class
+     */
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * Returns the compact id of the event type or 0 if the event type is sent by name
+     * @return type id
+     */
+    public int typeId() {
+        return typeId;
+    }
+
+    /**
+     * Converts an event to JSON
+     * @param event
+     * @return JSON string
+     */
+    public String toJson(ArchitectureFirstEvent event) {
+        try {
+            StringWriter out = new StringWriter();
+            JsonWriter writer = gson.newJsonWriter(out);
+            writer.setLenient(true);
+            adapter.write(writer, type.cast(event));
+            return out.toString();
+        } catch (IOException e) {
+            throw new JsonParseException(e);
+        }
+    }
+
+    /**
+     * Converts JSON to an event
+     * @param json
+     * @return the event
+     */
+    public T fromJson(String json) {
+        try {
+            JsonReader reader = gson.newJsonReader(new StringReader(json));
+            reader.setLenient(true);
+            return adapter.read(reader);
+        } catch (IOException e) {
+            throw new JsonParseException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.architecture.first.framework.technical.events;
+
+import com.architecture.first.framework.business.vicinity.events.ErrorEvent;
+
+/**
+ * The priority class of an event, which decides the lane it is delivered on
+ */
+public enum EventPriority {
+    CONTROL,
+    HIGH,
+    NORMAL;
+
+    /**
+     * Returns the priority of a type of event.
+     * Health checks and other control events have their own lane, and errors are ahead of other business events
+     * @param type
+     * @return priority
+     */
+    public static EventPriority of(Class<?> type) {
+        if (ControlEvent.class.isAssignableFrom(type) || CheckupEvent.class.isAssignableFrom(type)) {
+            return CONTROL;
+        }
+        return (ErrorEvent.class.isAssignableFrom(type)) ? HIGH : NORMAL;
+    }
+}
@@ -0,0 +1,171 @@
+package com.architecture.first.framework.technical.events;
+
+import com.architecture.first.framework.technical.util.JsonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of event types that can travel through the Vicinity.
+ *
+ *      Note:
+ *          The registry is built once by scanning the ArchitectureFirstEvent subclasses on the classpath.
+ *          Each type gets a compact numeric id derived from its class name, so every process computes the same id
+ *          without coordination.  Types whose ids collide are sent by name instead.
+ *          Types that were not found by the scan, such as those loaded later, are registered on first use.
+ */
+@Slf4j
+public class EventTypeRegistry {
+    public static final String BASE_PACKAGE = "com.architecture.first";
+    public static final int UNREGISTERED_TYPE_ID = 0;
+
+    private final Map<String, EventCodec<?>> codecsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, EventCodec<?>> codecsById = new ConcurrentHashMap<>();
+    private final Set<Integer> collidingIds = new HashSet<>();
+
+    private static class Holder {
+        private static final EventTypeRegistry instance = new EventTypeRegistry(BASE_PACKAGE);
+    }
+
+    /**
+     * Returns the registry for the application's events
+     * @return the registry
+     */
+    public static EventTypeRegistry instance() {
+        return Holder.instance;
+    }
+
+    /**
+     * Creates a registry of the events in a package
+     * @param basePackage
+     */
+    protected EventTypeRegistry(String basePackage) {
+        var scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(ArchitectureFirstEvent.class));
+
+        Map<Integer, String> namesById = new ConcurrentHashMap<>();
+        scanner.findCandidateComponents(basePackage).forEach(definition -> {
+            var name = definition.getBeanClassName();
+            int id = typeIdOf(name);
+            if (namesById.containsKey(id) && !namesById.get(id).equals(name)) {
+                log.warn(String.format("Event type id collision between %s and %s, sending both by name", namesById.get(id), name));
+                collidingIds.add(id);
+            }
+            namesById.putIfAbsent(id, name);
+        });
+        collidingIds.forEach(namesById::remove);
+
+        namesById.values().forEach(name -> {
+            try {
+                register(ClassUtils.forName(name, ClassUtils.getDefaultClassLoader()), true);
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.warn("Event type could not be loaded: " + name, e);
+            }
+        });
+        log.info("Registered event types: " + codecsByName.size());
+    }
+
+    /**
+     * Returns the stable type id for an event class name
+     * @param className
+     * @return type id
+     */
+    public static int typeIdOf(String className) {
+        int id = className.hashCode();     // String.hashCode is defined by the language, so it is the same in every process
+        return (id == UNREGISTERED_TYPE_ID) ? 1 : id;
+    }
+
+    /**
+     * Returns the codec for an event class name
+     * @param className
+     * @return codec
+     * @throws ClassNotFoundException if the class does not exist
+     */
+    public EventCodec<?> codecFor(String className) throws ClassNotFoundException {
+        var codec = codecsByName.get(className);
+        if (codec != null) {
+            return codec;
+        }
+
+        var cls = ClassUtils.forName(className, ClassUtils.getDefaultClassLoader());
+        if (!ArchitectureFirstEvent.class.isAssignableFrom(cls)) {
+            throw new ClassNotFoundException("Not an ArchitectureFirstEvent: " + className);
+        }
+        return register(cls, false);
+    }
+
+    /**
+     * Returns the codec for an event class
+     * @param cls
+     * @return codec
+     */
+    public <T extends ArchitectureFirstEvent> EventCodec<T> codecFor(Class<T> cls) {
+        var codec = codecsByName.get(cls.getName());
+        return (EventCodec<T>) ((codec != null) ? codec : register(cls, false));
+    }
+
+    /**
+     * Returns the codec for a type id
+     * @param typeId
+     * @return codec or null if the id is not registered
+     */
+    public EventCodec<?> codecFor(int typeId) {
+        return codecsById.get(typeId);
+    }
+
+    /**
+     * Returns the type id to send for an event class name
+     * @param className
+     * @return type id or UNREGISTERED_TYPE_ID if the type must be sent by name
+     */
+    public int typeIdFor(String className) {
+        var codec = codecsByName.get(className);
+        return (codec != null) ? codec.typeId() : UNREGISTERED_TYPE_ID;
+    }
+
+    /**
+     * Returns the registered event types
+     * @return event classes
+     */
+    public List<Class<? extends ArchitectureFirstEvent>> types() {
+        return codecsByName.values().stream().<Class<? extends ArchitectureFirstEvent>>map(EventCodec::type).toList();
+    }
+
+    /**
+     * Returns the number of registered event types
+     * @return count
+     */
+    public int size() {
+        return codecsByName.size();
+    }
+
+    /**
+     * Registers an event type
+     * @param cls
+     * @param isScanned - only types found by the scan get an id, because every receiving process must know the id
+     * @return codec
+     */
+    private synchronized EventCodec<?> register(Class<?> cls, boolean isScanned) {
+        var existing = codecsByName.get(cls.getName());
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = isScanned ? typeIdOf(cls.getName()) : UNREGISTERED_TYPE_ID;
+        var codec = new EventCodec<>((Class<? extends ArchitectureFirstEvent>) cls, id, JsonUtils.gson());
+
+        codecsByName.put(cls.getName(), codec);
+        if (isScanned) {
+            codecsById.put(id, codec);
+        }
+
+        return codec;
+    }
+}
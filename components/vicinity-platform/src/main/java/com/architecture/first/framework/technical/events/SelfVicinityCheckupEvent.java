@@ -10,4 +10,8 @@ public class SelfVicinityCheckupEvent extends ArchitectureFirstEvent implements
     public SelfVicinityCheckupEvent(Actor actor) {
         super(actor, actor.name(), actor.name());
     }
+
+    public SelfVicinityCheckupEvent(Object source, String from, String to) {
+        super(source, from, to);
+    }
 }
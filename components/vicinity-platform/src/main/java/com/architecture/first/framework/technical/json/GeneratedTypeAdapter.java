@@ -0,0 +1,165 @@
+package com.architecture.first.framework.technical.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+
+/**
+ * The base of the streaming adapters generated for Vicinity events and models.
+ *
+ *      Note:
+ *          The generated subclass creates the instances and reads and writes the fields in Gson's order.
+ *          The fields of a superclass with an adapter of its own are delegated to that adapter.
+ *          This class holds the behavior that must match Gson's reflective adapter:
+ *          how the object is framed, how strings and numbers are read and how the runtime type of a field is chosen.
+ * @param <T> the adapted type
+ */
+public abstract class GeneratedTypeAdapter<T> extends TypeAdapter<T> {
+    private final Gson gson;
+
+    protected GeneratedTypeAdapter(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Creates an empty instance to read the fields into
+     * @return instance
+     */
+    protected abstract T newInstance();
+
+    /**
+     * Writes the fields of a value, without the enclosing object
+     * @param out
+     * @param value
+     * @throws IOException
+     */
+    public abstract void writeFields(JsonWriter out, T value) throws IOException;
+
+    /**
+     * Reads a field into a value
+     * @param name
+     * @param in
+     * @param value
+     * @return true if the field is known and was read
+     * @throws IOException
+     */
+    public abstract boolean readField(String name, JsonReader in, T value) throws IOException;
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        writeFields(out, value);
+        out.endObject();
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        T value = newInstance();
+        try {
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!readField(in.nextName(), in, value)) {
+                    in.skipValue();
+                }
+            }
+        }
+        catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+        in.endObject();
+        return value;
+    }
+
+    /**
+     * Returns the Gson adapter for a field type
+     * @param type
+     * @return adapter
+     */
+    @SuppressWarnings("unchecked")
+    protected TypeAdapter<Object> adapter(Type type) {
+        return (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(type));
+    }
+
+    /**
+     * Writes a field value with the adapter for its runtime type when the declared type does not say enough
+     *
+     *      Note:
+     *          Gson's reflective adapter also keeps the declared adapter when it is a custom one and the runtime
+     *          type has none; telling them apart needs Gson's internal classes, so the runtime adapter is always used.
+     *          None of the field types in the Vicinity are affected.
+     * @param out
+     * @param declaredAdapter
+     * @param declaredType
+     * @param value
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    protected void write(JsonWriter out, TypeAdapter<Object> declaredAdapter, Type declaredType, Object value) throws IOException {
+        TypeAdapter<Object> chosen = declaredAdapter;
+        if (value != null && value.getClass() != declaredType
+                && (declaredType == Object.class || declaredType instanceof TypeVariable<?> || declaredType instanceof Class<?>)) {
+            chosen = (TypeAdapter<Object>) gson.getAdapter(value.getClass());
+        }
+        chosen.write(out, value);
+    }
+
+    protected static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return (token == JsonToken.BOOLEAN) ? Boolean.toString(in.nextBoolean()) : in.nextString();
+    }
+
+    protected static Boolean readBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return (token == JsonToken.STRING) ? Boolean.parseBoolean(in.nextString()) : in.nextBoolean();
+    }
+
+    protected static Integer readInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    protected static Long readLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.architecture.first.framework.technical.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Supplies the adapters generated at build time in place of Gson's reflective adapter.
+ *
+ *      Note:
+ *          An adapter is generated next to each event and model class with the ADAPTER_SUFFIX.
+ *          Types without a generated adapter, or whose adapter cannot be created, use Gson's default adapters.
+ */
+@Slf4j
+public class GeneratedTypeAdapterFactory implements TypeAdapterFactory {
+    public static final String ADAPTER_SUFFIX = "_GsonAdapter";
+
+    private final Map<Class<?>, Optional<Constructor<?>>> constructors = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!(type.getType() instanceof Class<?>)) {
+            return null;    // adapters are only generated for classes without type parameters
+        }
+
+        Class<?> cls = type.getRawType();
+        if (cls.isPrimitive() || cls.isArray() || cls.getName().startsWith("java.")) {
+            return null;
+        }
+
+        var constructor = constructors.computeIfAbsent(cls, this::findAdapter);
+        if (constructor.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return (TypeAdapter<T>) constructor.get().newInstance(gson);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            log.warn("Generated adapter not usable, using reflection for: " + cls.getName(), e);
+            constructors.put(cls, Optional.empty());
+            return null;
+        }
+    }
+
+    private Optional<Constructor<?>> findAdapter(Class<?> cls) {
+        try {
+            var adapter = Class.forName(cls.getName() + ADAPTER_SUFFIX, false, cls.getClassLoader());
+            return (GeneratedTypeAdapter.class.isAssignableFrom(adapter))
+                    ? Optional.of(adapter.getConstructor(Gson.class))
+                    : Optional.empty();
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.architecture.first.framework.technical.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free latency histogram with power of two buckets in microseconds.
+ * It is cheap enough to be updated on every message and accurate enough for tuning (within a factor of 2).
+ */
+public class LatencyHistogram {
+    private static final int NUM_BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private volatile long maxMicros = 0;
+
+    /**
+     * Records a duration in nanoseconds
+     * @param nanos
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Records a duration in microseconds
+     * @param micros
+     */
+    public void recordMicros(long micros) {
+        long value = Math.max(0, micros);
+        buckets.incrementAndGet(bucketFor(value));
+        count.increment();
+        totalMicros.add(value);
+        if (value > maxMicros) {
+            maxMicros = value;
+        }
+    }
+
+    /**
+     * Returns the number of recorded values
+     * @return count
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the average in microseconds
+     * @return average
+     */
+    public long averageMicros() {
+        long n = count.sum();
+        return (n > 0) ? totalMicros.sum() / n : 0;
+    }
+
+    /**
+     * Returns the maximum in microseconds
+     * @return maximum
+     */
+    public long maxMicros() {
+        return maxMicros;
+    }
+
+    /**
+     * Returns the upper bound of the bucket containing the percentile
+     * @param percentile - 0.0 to 100.0
+     * @return the percentile in microseconds
+     */
+    public long percentileMicros(double percentile) {
+        long n = 0;
+        long[] snapshot = new long[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil((percentile / 100.0) * n);
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxMicros);
+            }
+        }
+
+        return maxMicros;
+    }
+
+    /**
+     * Clears all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalMicros.reset();
+        maxMicros = 0;
+    }
+
+    private static int bucketFor(long micros) {
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, NUM_BUCKETS - 1);
+    }
+
+    private static long upperBoundOf(int bucket) {
+        return (bucket == 0) ? 0 : (1L << bucket) - 1;
+    }
+
+    public String toString() {
+        return String.format("count=%d avg=%dus p50=%dus p99=%dus max=%dus",
+                count(), averageMicros(), percentileMicros(50), percentileMicros(99), maxMicros());
+    }
+}
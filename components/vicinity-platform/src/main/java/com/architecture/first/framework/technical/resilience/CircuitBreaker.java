@@ -0,0 +1,143 @@
+package com.architecture.first.framework.technical.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A circuit breaker driven by the failure rate of the most recent calls.
+ * It is closed while the rate is below the threshold, opens when the threshold is reached,
+ * and after the open duration lets one probe call through (half-open) to decide whether to close again.
+ *
+ *      Note:
+ *          The rate is only judged once the window holds the minimum number of calls.
+ *          A probe whose outcome is never recorded does not keep the breaker half-open forever;
+ *          another probe is allowed after the open duration.
+ *          Closing starts a new window, so failures from before the breaker opened are not counted again.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final double failureRatePercent;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private final boolean[] outcomes;      // true if the call failed
+    private int next = 0;
+    private int calls = 0;
+    private int failures = 0;
+    private State state = State.CLOSED;
+    private long changedAt;
+    private long rejections = 0;
+
+    /**
+     * Creates a closed breaker
+     * @param windowSize - the number of recent calls the rate is judged on
+     * @param minimumCalls - the number of calls needed before the breaker can open
+     * @param failureRatePercent - the failure rate that opens the breaker
+     * @param openMillis - how long the breaker stays open before a probe
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRatePercent, long openMillis) {
+        this(windowSize, minimumCalls, failureRatePercent, openMillis, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRatePercent, long openMillis, LongSupplier clock) {
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.failureRatePercent = failureRatePercent;
+        this.openMillis = openMillis;
+        this.clock = clock;
+        this.changedAt = clock.getAsLong();
+    }
+
+    /**
+     * Determines if a call may proceed
+     * @return false if the breaker is open
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+
+        long now = clock.getAsLong();
+        if (now - changedAt >= openMillis) {
+            state = State.HALF_OPEN;    // let one probe through
+            changedAt = now;
+            return true;
+        }
+
+        rejections++;
+        return false;
+    }
+
+    /**
+     * Records a call that succeeded
+     */
+    public synchronized void recordSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        }
+        else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * Records a call that failed or timed out
+     */
+    public synchronized void recordFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        }
+        else if (state == State.CLOSED) {
+            record(true);
+            if (calls >= minimumCalls && failures * 100.0 >= failureRatePercent * calls) {
+                open();
+            }
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Returns the number of calls rejected while open
+     * @return
+     */
+    public synchronized long rejections() {
+        return rejections;
+    }
+
+    private void record(boolean isFailure) {
+        if (calls == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        }
+        else {
+            calls++;
+        }
+
+        outcomes[next] = isFailure;
+        if (isFailure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        changedAt = clock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        changedAt = clock.getAsLong();
+        next = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,157 @@
+package com.architecture.first.framework.technical.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The primary nodes of a Redis Cluster and the hash slots each of them owns.
+ *
+ *      Note:
+ *          A name is assigned to the node that owns its hash slot, so a hash tag such as {Merchant.1} keeps
+ *          the keys and shard channels that share the tag on the same node.
+ *          The slot table is loaded with CLUSTER SLOTS from any known node, and is reloaded when Redis reports
+ *          that a slot has moved; a MOVED redirection updates the slot at once.
+ */
+@Slf4j
+public class RedisClusterNodes extends RedisNodes {
+    public static final int SLOTS = 16384;
+    private static final long MIN_REFRESH_INTERVAL_MILLIS = 100;
+
+    private final List<HostAndPort> seeds;
+    private final int timeout;
+    private volatile HostAndPort[] slots = new HostAndPort[SLOTS];
+    private volatile List<HostAndPort> primaries = List.of();
+    private long refreshedAt = 0;
+
+    /**
+     * Loads the slot table of a cluster
+     * @param seeds - nodes used to discover the cluster
+     * @param timeout
+     */
+    public RedisClusterNodes(List<HostAndPort> seeds, int timeout) {
+        if (seeds == null || seeds.isEmpty()) {
+            throw new IllegalArgumentException("At least one Redis node is required");
+        }
+
+        this.seeds = List.copyOf(seeds);
+        this.timeout = timeout;
+        refresh();
+        if (primaries.isEmpty()) {
+            throw new IllegalStateException("Unable to load the slots of the Redis cluster from: " + seeds);
+        }
+    }
+
+    /**
+     * Creates the nodes from a CLUSTER SLOTS reply, without connecting to the cluster
+     * @param clusterSlots
+     * @param source - the node that sent the reply
+     */
+    RedisClusterNodes(List<Object> clusterSlots, HostAndPort source) {
+        this.seeds = List.of(source);
+        this.timeout = 0;
+        update(clusterSlots, source);
+    }
+
+    @Override
+    public List<HostAndPort> all() {
+        return primaries;
+    }
+
+    @Override
+    public boolean isSharded() {
+        return true;
+    }
+
+    @Override
+    public boolean isCluster() {
+        return true;
+    }
+
+    /**
+     * Reloads the slot table from the first node that answers.
+     * Reloads requested within a short interval of the last one are ignored, as a migration reports many names at once
+     */
+    @Override
+    public synchronized void refresh() {
+        if (System.currentTimeMillis() - refreshedAt < MIN_REFRESH_INTERVAL_MILLIS) {
+            return;
+        }
+
+        Set<HostAndPort> candidates = new LinkedHashSet<>(primaries);
+        candidates.addAll(seeds);
+        for (HostAndPort node : candidates) {
+            try (Jedis jedis = new Jedis(node, DefaultJedisClientConfig.builder().timeoutMillis(timeout).build())) {
+                update(jedis.clusterSlots(), node);
+                refreshedAt = System.currentTimeMillis();
+                return;
+            }
+            catch (Exception e) {
+                log.warn("Unable to load the cluster slots from: " + node, e);
+            }
+        }
+    }
+
+    @Override
+    public void moved(String name, HostAndPort node) {
+        slots[JedisClusterCRC16.getSlot(name)] = node;
+    }
+
+    @Override
+    public HostAndPort nodeFor(String name) {
+        var node = slots[JedisClusterCRC16.getSlot(name)];
+        return (node != null) ? node : primaries.get(0);    // the slot is not covered, so any node answers with a redirection
+    }
+
+    @Override
+    public int indexOf(HostAndPort node) {
+        return primaries.indexOf(node);
+    }
+
+    /**
+     * Returns the hash slot of a name
+     * @param name
+     * @return slot
+     */
+    public static int slotOf(String name) {
+        return JedisClusterCRC16.getSlot(name);
+    }
+
+    /**
+     * Replaces the slot table
+     * @param clusterSlots - entries of the first slot, the last slot, the primary and its replicas
+     * @param source - the node that sent the reply, which reports its own host as empty when it does not know it
+     */
+    private void update(List<Object> clusterSlots, HostAndPort source) {
+        var table = new HostAndPort[SLOTS];
+        Set<HostAndPort> nodes = new LinkedHashSet<>();
+
+        for (Object e : clusterSlots) {
+            var entry = (List<?>) e;
+            int first = ((Long) entry.get(0)).intValue();
+            int last = ((Long) entry.get(1)).intValue();
+            var primary = (List<?>) entry.get(2);
+            var host = SafeEncoder.encode((byte[]) primary.get(0));
+            var node = new HostAndPort((host.isEmpty()) ? source.getHost() : host, ((Long) primary.get(1)).intValue());
+
+            nodes.add(node);
+            for (int slot = first; slot <= last; slot++) {
+                table[slot] = node;
+            }
+        }
+
+        slots = table;
+        primaries = List.copyOf(nodes);
+    }
+
+    public String toString() {
+        return "cluster" + primaries;
+    }
+}
@@ -0,0 +1,147 @@
+package com.architecture.first.framework.technical.sharding;
+
+import org.apache.commons.lang3.StringUtils;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisSharding;
+import redis.clients.jedis.util.Hashing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+
+/**
+ * The Redis nodes of the Vicinity and the consistent hash ring that assigns each key or channel to one of them.
+ *
+ *      Note:
+ *          The ring is the same as the one JedisSharding uses, so commands sent through the shared client
+ *          and connections opened for a channel or stream agree on the node that owns a name.
+ *          A node's place on the ring depends on its position in the list, so new nodes are added at the end;
+ *          only the keys that now belong to the new nodes have to be moved, see RedisRebalancer.
+ *          A key tag such as {requestId} routes a key by the tag alone, so related keys can be kept on the same node.
+ */
+public class RedisNodes {
+    private static final int VIRTUAL_NODES_PER_NODE = 160;
+    private static final Hashing HASHING = Hashing.MURMUR_HASH;
+
+    private final List<HostAndPort> nodes;
+    private final TreeMap<Long, HostAndPort> ring = new TreeMap<>();
+
+    /**
+     * Creates the ring for a list of nodes
+     * @param nodes - in the order they were added
+     */
+    public RedisNodes(List<HostAndPort> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one Redis node is required");
+        }
+
+        this.nodes = List.copyOf(nodes);
+        for (int i = 0; i < this.nodes.size(); i++) {
+            for (int n = 0; n < VIRTUAL_NODES_PER_NODE; n++) {
+                ring.put(HASHING.hash("SHARD-" + i + "-NODE-" + n), this.nodes.get(i));
+            }
+        }
+    }
+
+    /**
+     * Creates nodes that assign names without the ring, see RedisClusterNodes
+     */
+    protected RedisNodes() {
+        this.nodes = List.of();
+    }
+
+    /**
+     * Parses a list of nodes
+     * @param nodes - comma separated host:port pairs, or empty for the default node
+     * @param defaultHost
+     * @param defaultPort - the port of the default node and of nodes without a port
+     * @return nodes
+     */
+    public static RedisNodes parse(String nodes, String defaultHost, int defaultPort) {
+        if (StringUtils.isBlank(nodes)) {
+            return new RedisNodes(List.of(new HostAndPort(defaultHost, defaultPort)));
+        }
+
+        List<HostAndPort> parsed = new ArrayList<>();
+        for (String node : nodes.split(",")) {
+            node = node.trim();
+            if (!node.isEmpty()) {
+                parsed.add((node.contains(":")) ? HostAndPort.from(node) : new HostAndPort(node, defaultPort));
+            }
+        }
+        return new RedisNodes(parsed);
+    }
+
+    /**
+     * Returns the nodes in the order they were added
+     * @return nodes
+     */
+    public List<HostAndPort> all() {
+        return nodes;
+    }
+
+    /**
+     * Determines if the keyspace is spread over more than one node
+     * @return true if there is more than one node
+     */
+    public boolean isSharded() {
+        return nodes.size() > 1;
+    }
+
+    /**
+     * Determines if the nodes form a Redis Cluster, which uses sharded pub/sub
+     * @return true for a Redis Cluster
+     */
+    public boolean isCluster() {
+        return false;
+    }
+
+    /**
+     * Reloads the assignment of names to nodes.
+     * The ring only changes with the configuration, so there is nothing to reload
+     */
+    public void refresh() {
+    }
+
+    /**
+     * Records that Redis redirected a name to another node
+     * @param name
+     * @param node - the node Redis named as the owner
+     */
+    public void moved(String name, HostAndPort node) {
+    }
+
+    /**
+     * Returns the node that owns a key or channel
+     * @param name
+     * @return node
+     */
+    public HostAndPort nodeFor(String name) {
+        var entry = ring.ceilingEntry(HASHING.hash(keyTagOf(name)));
+        return (entry != null) ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * Returns the position of a node in the list
+     * @param node
+     * @return index, or -1 if the node is not in the list
+     */
+    public int indexOf(HostAndPort node) {
+        return nodes.indexOf(node);
+    }
+
+    /**
+     * Returns the part of a name that decides its node
+     * @param name
+     * @return the key tag, or the name if it has none
+     */
+    public static String keyTagOf(String name) {
+        Matcher matcher = JedisSharding.DEFAULT_KEY_TAG_PATTERN.matcher(name);
+        return (matcher.find()) ? matcher.group(1) : name;
+    }
+
+    public String toString() {
+        return nodes.toString();
+    }
+}
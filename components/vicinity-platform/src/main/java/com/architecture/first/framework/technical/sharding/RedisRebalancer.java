@@ -0,0 +1,100 @@
+package com.architecture.first.framework.technical.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.params.MigrateParams;
+import redis.clients.jedis.params.ScanParams;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves keys to the node that owns them after the list of Redis nodes has changed.
+ *
+ *      Note:
+ *          Every node of the old list is scanned, and the keys that the new ring assigns to another node are moved with MIGRATE,
+ *          which keeps their value, consumer groups and time to live. Channels hold no state, so nothing else has to move.
+ *          Start the new nodes, run the rebalancer, then restart the Actors with the new list, for example:
+ *              java -cp vicinity-platform.jar com.architecture.first.framework.technical.sharding.RedisRebalancer \
+ *                  localhost:6379,localhost:6380 localhost:6379,localhost:6380,localhost:6381
+ *          Keys written to an old owner while the rebalancer runs are picked up by running it again.
+ */
+@Slf4j
+public class RedisRebalancer {
+    private static final int SCAN_COUNT = 1000;
+    private static final int DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    private final int timeoutMillis;
+
+    /**
+     * Creates a rebalancer
+     * @param timeoutMillis - the connection and MIGRATE timeout
+     */
+    public RedisRebalancer(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Moves the keys of the old nodes that belong elsewhere on the new ring
+     * @param from - the nodes the keys are on
+     * @param to - the nodes the keys should be on
+     * @return the number of keys moved
+     */
+    public long rebalance(RedisNodes from, RedisNodes to) {
+        long moved = 0;
+        for (var node : from.all()) {
+            moved += rebalance(node, to);
+        }
+        log.info("Rebalanced " + moved + " keys from " + from + " to " + to);
+        return moved;
+    }
+
+    private long rebalance(HostAndPort node, RedisNodes to) {
+        long moved = 0;
+        try (Jedis jedis = new Jedis(node.getHost(), node.getPort(), timeoutMillis)) {
+            var params = new ScanParams().count(SCAN_COUNT);
+            String cursor = ScanParams.SCAN_POINTER_START;
+            do {
+                var result = jedis.scan(cursor, params);
+                Map<HostAndPort, List<String>> keysByOwner = new HashMap<>();
+                result.getResult().forEach(key -> {
+                    var owner = to.nodeFor(key);
+                    if (!owner.equals(node)) {
+                        keysByOwner.computeIfAbsent(owner, o -> new ArrayList<>()).add(key);
+                    }
+                });
+
+                for (var entry : keysByOwner.entrySet()) {
+                    var owner = entry.getKey();
+                    var keys = entry.getValue();
+                    jedis.migrate(owner.getHost(), owner.getPort(), 0, timeoutMillis,
+                            MigrateParams.migrateParams().replace(), keys.toArray(new String[0]));
+                    moved += keys.size();
+                }
+                cursor = result.getCursor();
+            } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+        }
+
+        log.info("Moved " + moved + " keys from " + node);
+        return moved;
+    }
+
+    /**
+     * Rebalances from the command line
+     * @param args - the old node list, the new node list and optionally the timeout in milliseconds
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: RedisRebalancer <old host:port,...> <new host:port,...> [timeoutMillis]");
+            System.exit(1);
+        }
+
+        int timeout = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_TIMEOUT_MILLIS;
+        long moved = new RedisRebalancer(timeout).rebalance(
+                RedisNodes.parse(args[0], null, 6379), RedisNodes.parse(args[1], null, 6379));
+        System.out.println("Moved " + moved + " keys");
+    }
+}
@@ -0,0 +1,19 @@
+package com.architecture.first.framework.technical.sharding;
+
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * The sharded pub/sub commands of Redis 7, which the Jedis client does not provide yet.
+ * A shard channel lives on the node that owns its hash slot, so a message is not broadcast to the whole cluster
+ */
+public enum ShardedPubSubCommand implements ProtocolCommand {
+    SPUBLISH, SSUBSCRIBE, SUNSUBSCRIBE;
+
+    private final byte[] raw = SafeEncoder.encode(name());
+
+    @Override
+    public byte[] getRaw() {
+        return raw;
+    }
+}
@@ -0,0 +1,72 @@
+package com.architecture.first.framework.technical.threading;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent calls, so that only the first caller for a key does the work
+ * and the callers that arrive while it is in flight share its result.
+ *
+ *      Note:
+ *          The key is released as soon as the call completes, so results are not cached;
+ *          a caller that arrives afterwards starts a new call.
+ *          A failure is shared the same way as a result.
+ * @param <K> - the key that identifies identical calls
+ * @param <V> - the result of a call
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Performs a call, or waits for the identical call that is already in flight
+     * @param key
+     * @param call - performed on the thread of the first caller
+     * @return the result of the call
+     */
+    public V execute(K key, Supplier<V> call) {
+        var flight = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        }
+        catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Returns the number of calls in flight
+     * @return
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
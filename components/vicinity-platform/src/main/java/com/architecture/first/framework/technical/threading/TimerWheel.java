@@ -0,0 +1,164 @@
+package com.architecture.first.framework.technical.threading;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A hashed timer wheel for large numbers of timeouts that are usually cancelled before they expire.
+ * Scheduling and cancelling are constant time and no thread is parked per timeout.
+ *
+ *      Note:
+ *          A timeout expires on the first tick at or after its deadline, so it may run up to one tick late.
+ *          A deadline further away than one turn of the wheel stays in its slot until the turn it is due.
+ *          Expired tasks run on the thread that advances the wheel, so they should only complete or hand off work.
+ */
+@Slf4j
+public class TimerWheel {
+    private static final long DEFAULT_TICK_MILLIS = 100;
+    private static final int DEFAULT_SLOTS = 512;
+
+    private final long tickMillis;
+    private final Set<Timeout>[] slots;
+    private final int mask;
+    private final AtomicLong ticks = new AtomicLong(0);
+    private final AtomicInteger pending = new AtomicInteger(0);
+
+    /**
+     * Holds the shared wheel, created on first use
+     */
+    private static class Shared {
+        private static final TimerWheel INSTANCE = new TimerWheel(DEFAULT_TICK_MILLIS, DEFAULT_SLOTS, VicinityThreads.timer());
+    }
+
+    /**
+     * Creates a wheel
+     * @param tickMillis - the resolution of the timeouts
+     * @param numberOfSlots - rounded up to a power of two
+     * @param driver - advances the wheel every tick, or null if it is advanced by calling tick()
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, int numberOfSlots, ScheduledExecutorService driver) {
+        this.tickMillis = Math.max(1, tickMillis);
+        int size = Integer.highestOneBit(Math.max(1, numberOfSlots - 1)) << 1;
+        this.slots = new Set[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.mask = size - 1;
+
+        if (driver != null) {
+            driver.scheduleAtFixedRate(this::tick, this.tickMillis, this.tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the wheel shared by the Vicinity, which is advanced by the Vicinity timer
+     * @return timer wheel
+     */
+    public static TimerWheel shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Schedules a task to run once after a delay unless it is cancelled first
+     * @param task
+     * @param delay
+     * @param unit
+     * @return the timeout
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long delayTicks = Math.max(1, (unit.toMillis(delay) + tickMillis - 1) / tickMillis);
+        var timeout = new Timeout(task, ticks.get() + delayTicks);
+        slots[(int) (timeout.deadline & mask)].add(timeout);
+        pending.incrementAndGet();
+
+        if (ticks.get() >= timeout.deadline) {
+            // the wheel passed the slot while the timeout was being added
+            timeout.expire();
+        }
+        return timeout;
+    }
+
+    /**
+     * Returns the number of timeouts that have neither expired nor been cancelled
+     * @return
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the tasks that are due
+     */
+    public void tick() {
+        long tick = ticks.incrementAndGet();
+        for (var timeout : slots[(int) (tick & mask)]) {
+            if (timeout.deadline <= tick) {
+                timeout.expire();
+            }
+        }
+    }
+
+    /**
+     * A scheduled task
+     */
+    public class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout
+         * @return true if it was pending
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                remove();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Determines if the task has run
+         * @return true if expired
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) {
+                return;
+            }
+
+            remove();
+            try {
+                task.run();
+            }
+            catch (RuntimeException e) {
+                log.error("Timeout task failed: ", e);
+            }
+        }
+
+        private void remove() {
+            slots[(int) (deadline & mask)].remove(this);
+            pending.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.architecture.first.framework.technical.threading;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the threads used by the Vicinity
+ */
+public class VicinityThreads {
+
+    private VicinityThreads() {}
+
+    /**
+     * Holds the shared timer, created on first use
+     */
+    private static class Timer {
+        private static final ScheduledExecutorService INSTANCE = createTimer();
+    }
+
+    /**
+     * Creates a thread factory
+     * @param prefix - prefix of the thread names
+     * @return thread factory
+     */
+    public static ThreadFactory factory(String prefix) {
+        var threadIndex = new AtomicLong(0);
+        return r -> new Thread(r, prefix + threadIndex.getAndIncrement());
+    }
+
+    /**
+     * Creates a fixed pool of threads
+     * @param prefix - prefix of the thread names
+     * @param numberOfThreads - the size of the pool
+     * @return executor
+     */
+    public static ExecutorService newExecutor(String prefix, int numberOfThreads) {
+        return new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), factory(prefix));
+    }
+
+    /**
+     * Returns the timer shared by the Vicinity for timeouts and delayed work.
+     * Scheduled tasks should only complete or hand off work, since they all run on one thread
+     * @return scheduler
+     */
+    public static ScheduledExecutorService timer() {
+        return Timer.INSTANCE;
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        var timer = new ScheduledThreadPoolExecutor(1, r -> {
+            var thread = new Thread(r, "a1-vicinity-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);    // most timeouts are cancelled by a response
+        return timer;
+    }
+}
@@ -0,0 +1,33 @@
+package com.architecture.first.framework.technical.util;
+
+import com.architecture.first.framework.technical.json.GeneratedTypeAdapterFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Utility JSON methods based on a shared Gson instance.
+ * Gson is thread safe and caches its type adapters, so one instance is reused instead of creating one per call.
+ * The instance uses the streaming adapters generated for events and models, which produce the same JSON as plain Gson.
+ */
+public class JsonUtils {
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new GeneratedTypeAdapterFactory())
+            .create();
+
+    /**
+     * Returns the shared Gson instance
+     * @return Gson
+     */
+    public static Gson gson() {
+        return gson;
+    }
+
+    /**
+     * Converts an object to JSON
+     * @param value
+     * @return JSON string
+     */
+    public static String toJson(Object value) {
+        return gson.toJson(value);
+    }
+}
@@ -0,0 +1,39 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.business.vicinity.events.ActorEnteredEvent;
+import com.architecture.first.framework.business.vicinity.events.DynamicActorEvent;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BehaviorTableTests {
+
+    @Test
+    void behaviorsAreFoundByEventClass() {
+        var table = new BehaviorTable(List.of(ActorEnteredEvent.class));
+        Function<ArchitectureFirstEvent, Actor> entered = event -> null;
+        Function<ArchitectureFirstEvent, Actor> dynamic = event -> null;
+        table.register("ActorEntered", entered);
+        table.register("DynamicActor", dynamic);
+
+        assertSame(entered, table.find(new ActorEnteredEvent(this, "Merchant.1", "Merchant.2")));
+        assertSame(dynamic, table.find(new DynamicActorEvent(this, "Merchant.1", "Merchant.2")));    // not a known type
+        assertNull(table.find(new ArchitectureFirstEvent(this, "Merchant.1", "Merchant.2")));
+    }
+
+    @Test
+    void aLaterRegistrationReplacesAResolvedBehavior() {
+        var table = new BehaviorTable(List.of());
+        var event = new DynamicActorEvent(this, "Merchant.1", "Merchant.2");
+        assertNull(table.find(event));
+
+        Function<ArchitectureFirstEvent, Actor> dynamic = e -> null;
+        table.register("DynamicActor", dynamic);
+
+        assertSame(dynamic, table.find(event));
+    }
+}
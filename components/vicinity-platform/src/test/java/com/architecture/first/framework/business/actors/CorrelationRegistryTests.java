@@ -0,0 +1,91 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.business.actors.exceptions.ActorException;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.threading.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorrelationRegistryTests {
+    private final TimerWheel wheel = new TimerWheel(100, 8, null);     // advanced by the test
+    private final List<CorrelationRegistry.Correlation> expired = new ArrayList<>();
+    private final CorrelationRegistry registry = new CorrelationRegistry(null, wheel, expired::add);
+
+    private ArchitectureFirstEvent event(String requestId) {
+        return new ArchitectureFirstEvent(this, "Customer.1", "Merchant.1").setRequestId(requestId);
+    }
+
+    @Test
+    void aResponseCompletesItsCorrelation() throws Exception {
+        var request = event("request-1");
+        List<ArchitectureFirstEvent> replies = new ArrayList<>();
+        var correlation = registry.register(request, replies::add, null,
+                CorrelationRegistry.Await.BLOCKING, 1, TimeUnit.SECONDS);
+        registry.register(event("request-2"), r -> true, null, CorrelationRegistry.Await.NONE, 1, TimeUnit.SECONDS);
+
+        var reply = event("request-1");
+        var found = registry.find(reply);
+        assertSame(correlation, found);
+        assertTrue(found.replyHandler().apply(reply));
+        assertTrue(registry.complete(found));
+
+        assertTrue(correlation.await(0, TimeUnit.SECONDS));
+        assertEquals(List.of(reply), replies);
+        assertNull(registry.find(reply));
+        assertEquals(1, registry.size());
+        assertEquals(1, wheel.pending());
+    }
+
+    @Test
+    void anUnansweredCorrelationExpires() throws Exception {
+        List<ActorException> errors = new ArrayList<>();
+        var correlation = registry.register(event("request-1"), r -> true, errors::add,
+                CorrelationRegistry.Await.BLOCKING, 250, TimeUnit.MILLISECONDS);
+
+        wheel.tick();
+        wheel.tick();
+        assertFalse(correlation.isFinished());
+        wheel.tick();
+
+        assertTrue(correlation.await(0, TimeUnit.SECONDS));
+        assertEquals("AWAIT_TIMED_OUT", errors.get(0).getMessage());
+        assertEquals(List.of(correlation), expired);
+        assertEquals(1, registry.expirations());
+        assertEquals(0, registry.size());
+        assertEquals(0, wheel.pending());
+        assertFalse(registry.complete(correlation));    // a late response is ignored
+    }
+
+    @Test
+    void correlationsOfOneRequestAreKeptByEventName() {
+        var first = registry.register(event("request-1"), r -> true, null, CorrelationRegistry.Await.NONE, 1, TimeUnit.SECONDS);
+        var reply = event("request-1");
+        reply.setOriginalEventName("ViewProductsEvent");
+        var second = registry.register(reply, r -> true, null, CorrelationRegistry.Await.NONE, 1, TimeUnit.SECONDS);
+
+        assertSame(first, registry.find(event("request-1")));
+        assertSame(second, registry.find(reply));
+
+        registry.complete(first);
+        assertNull(registry.find(event("request-1")));
+        assertSame(second, registry.find(reply));
+    }
+
+    @Test
+    void aDeadlineBeyondOneTurnOfTheWheelWaitsForItsTurn() {
+        var correlation = registry.register(event("request-1"), null, null, CorrelationRegistry.Await.ASYNC, 1, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 9; i++) {
+            wheel.tick();
+        }
+        assertFalse(correlation.isFinished());
+        wheel.tick();
+        assertTrue(correlation.isFinished());
+        assertEquals(1, registry.expirations());
+    }
+}
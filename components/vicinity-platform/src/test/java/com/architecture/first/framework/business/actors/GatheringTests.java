@@ -0,0 +1,76 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.business.actors.exceptions.ActorException;
+import com.architecture.first.framework.business.actors.exceptions.ActorNotFoundException;
+import com.architecture.first.framework.technical.events.ActorProcessingErrorEvent;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatheringTests {
+
+    private ArchitectureFirstEvent replyFrom(String name) {
+        return new ArchitectureFirstEvent(this, name, "Customer.1");
+    }
+
+    @Test
+    void theGatheringIsDoneWhenAllTargetsAnswered() {
+        var gathering = new Gathering(3, 0);
+
+        assertFalse(gathering.addReply(replyFrom("Merchant.1")));
+        assertFalse(gathering.addReply(replyFrom("Merchant.1")));     // a second reply from the same Actor is ignored
+        assertFalse(gathering.addReply(replyFrom("Merchant.2")));
+        assertTrue(gathering.addError(new ActorException(null, new ActorProcessingErrorEvent(this, "Cashier.1", "Customer.1"))));
+
+        var result = gathering.result().join();
+        assertTrue(result.isComplete());
+        assertFalse(result.hasQuorum());
+        assertEquals(Set.of("Merchant.1", "Merchant.2"), result.replies().keySet());
+        assertEquals(Set.of("Cashier.1"), result.errors().keySet());
+        assertEquals(Set.of("Merchant.1", "Merchant.2", "Cashier.1"), result.latencyMicros().keySet());
+    }
+
+    @Test
+    void aQuorumEndsTheGatheringEarly() {
+        var gathering = new Gathering(3, 2);
+
+        gathering.addReply(replyFrom("Merchant.1"));
+        assertFalse(gathering.result().isDone());
+        gathering.addReply(replyFrom("Merchant.2"));
+
+        var result = gathering.result().join();
+        assertTrue(result.hasQuorum());
+        assertFalse(result.isComplete());
+        assertTrue(gathering.addReply(replyFrom("Merchant.3")));
+        assertEquals(2, result.replies().size());
+    }
+
+    @Test
+    void anUnreachableQuorumEndsTheGathering() {
+        var gathering = new Gathering(3, 2);
+
+        gathering.addError(new ActorNotFoundException("ACTOR_NOT_FOUND: Merchant"));
+        assertFalse(gathering.result().isDone());
+        gathering.addError(new ActorException(null, new ActorProcessingErrorEvent(this, "Merchant.2", "Customer.1")));
+
+        var result = gathering.result().join();
+        assertFalse(result.hasQuorum());
+        assertEquals(2, result.errors().size());
+    }
+
+    @Test
+    void theDeadlineReturnsAPartialResult() {
+        var gathering = new Gathering(2, 0);
+
+        gathering.addReply(replyFrom("Merchant.1"));
+        gathering.timeOut();
+
+        var result = gathering.result().join();
+        assertTrue(result.isTimedOut());
+        assertFalse(result.isComplete());
+        assertEquals(Set.of("Merchant.1"), result.replies().keySet());
+    }
+}
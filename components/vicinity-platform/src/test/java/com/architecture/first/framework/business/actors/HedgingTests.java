@@ -0,0 +1,55 @@
+package com.architecture.first.framework.business.actors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingTests {
+
+    @Test
+    void theDelayFollowsThePercentileOfTheResponseTimes() {
+        var hedging = new Hedging(95, 10, 250);
+        assertEquals(250, hedging.delayMillis("Merchant"));
+
+        for (int i = 0; i < 100; i++) {
+            hedging.recordResponse("Merchant", TimeUnit.MILLISECONDS.toNanos((i < 95) ? 20 : 900));
+        }
+
+        long delay = hedging.delayMillis("Merchant");
+        assertTrue(delay >= 20 && delay < 900, "delay " + delay);    // the histogram is accurate within a factor of 2
+        assertEquals(250, hedging.delayMillis("Cashier"));
+    }
+
+    @Test
+    void theDelayIsKeptAcrossARoll() {
+        var hedging = new Hedging(95, 10, 250);
+        for (int i = 0; i < 100; i++) {
+            hedging.recordResponse("Merchant", TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        long delay = hedging.delayMillis("Merchant");
+
+        hedging.roll();
+        assertEquals(delay, hedging.delayMillis("Merchant"));
+        assertEquals(10, delay);    // never less than the minimum
+
+        hedging.roll();
+        assertEquals(250, hedging.delayMillis("Merchant"));
+    }
+
+    @Test
+    void theHedgeRateIsTheShareOfRequestsHedged() {
+        var hedging = new Hedging(95, 10, 250);
+        assertEquals(0.0, hedging.hedgeRate());
+
+        for (int i = 0; i < 4; i++) {
+            hedging.recordRequest();
+        }
+        hedging.recordHedge();
+        hedging.recordHedgeWin();
+
+        assertEquals(0.25, hedging.hedgeRate());
+        assertEquals(1, hedging.hedgeWins());
+    }
+}
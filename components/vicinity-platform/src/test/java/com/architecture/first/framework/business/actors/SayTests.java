@@ -0,0 +1,95 @@
+package com.architecture.first.framework.business.actors;
+
+import com.architecture.first.framework.business.vicinity.Vicinity;
+import com.architecture.first.framework.business.vicinity.conversation.Conversation;
+import com.architecture.first.framework.business.vicinity.events.AnonymousOkEvent;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SayTests {
+
+    private static class CheckoutEvent extends ArchitectureFirstEvent implements AnonymousOkEvent {
+        CheckoutEvent(Object source, String from, List<String> to) {
+            super(source, from, to);
+        }
+    }
+
+    /**
+     * Records what is published instead of handing it to Spring
+     */
+    private static class PublishingActor extends Actor {
+        private final List<List<String>> published = new CopyOnWriteArrayList<>();
+
+        PublishingActor(Map<String, String> actors) {
+            ReflectionTestUtils.setField(this, "vicinity", new Vicinity() {
+                @Override
+                public String findActor(String type, String project) {
+                    return actors.get(type);
+                }
+
+                @Override
+                public List<String> findActors(String type, String project) {
+                    return actors.values().stream().filter(name -> name.startsWith(type + ".")).sorted().toList();
+                }
+
+                @Override
+                public boolean actorIsAvailable(String name) {
+                    return actors.containsValue(name);
+                }
+            });
+            ReflectionTestUtils.setField(this, "convo", new Conversation() {
+                @Override
+                public String record(ArchitectureFirstEvent event, String to, Status status) {
+                    return "OK";
+                }
+            });
+            ReflectionTestUtils.setField(this, "breakers", new CircuitBreakers(10, 5, 50, 1000));
+            ReflectionTestUtils.setField(this, "hedging", new Hedging(95, 1, 1));
+        }
+
+        @Override
+        protected void publishEvent(ArchitectureFirstEvent event) {
+            published.add(List.copyOf(event.to()));
+        }
+    }
+
+    @Test
+    void anEventToSeveralGroupsIsPublishedOnceToEveryActorFound() {
+        var actor = new PublishingActor(Map.of("Merchant", "Merchant.default.1.m1", "Cashier", "Cashier.default.1.c1"));
+
+        actor.say(new CheckoutEvent(this, "Customer.default.1.c1", List.of("Merchant", "Cashier")), null, null);
+
+        assertEquals(List.of(List.of("Merchant.default.1.m1", "Cashier.default.1.c1")), actor.published);
+    }
+
+    @Test
+    void anUnavailableActorIsReplacedAndDuplicatesAreSentOnce() {
+        var actor = new PublishingActor(Map.of("Merchant", "Merchant.default.1.m2"));
+
+        actor.say(new CheckoutEvent(this, "Customer.default.1.c1",
+                List.of("Merchant.default.1.m1", "Merchant", "Merchant.default.1.m2")), null, null);
+
+        assertEquals(List.of(List.of("Merchant.default.1.m2")), actor.published);
+    }
+
+    @Test
+    void aHedgeIsACopySentToAnotherActorOfTheGroup() throws InterruptedException {
+        var actor = new PublishingActor(Map.of("Merchant", "Merchant.default.1.m1", "Merchant.2", "Merchant.default.1.m2"));
+        var event = new CheckoutEvent(this, "Customer.default.1.c1", List.of("Merchant")).setAsIdempotent(true);
+
+        actor.ask(event);
+        for (int i = 0; i < 200 && actor.published.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(List.of(List.of("Merchant.default.1.m1"), List.of("Merchant.default.1.m2")), actor.published);
+        assertEquals(List.of("Merchant.default.1.m1"), event.to());     // the caller's event is not changed by the hedge
+    }
+}
@@ -0,0 +1,210 @@
+package com.architecture.first.framework.business.vicinity;
+
+import com.architecture.first.framework.business.actors.Actor;
+import com.architecture.first.framework.business.vicinity.conversation.Conversation;
+import com.architecture.first.framework.business.vicinity.events.AnonymousOkEvent;
+import com.architecture.first.framework.business.vicinity.mailbox.PostOffice;
+import com.architecture.first.framework.business.vicinity.messages.VicinityEnvelope;
+import com.architecture.first.framework.business.vicinity.transport.VicinityDelivery;
+import com.architecture.first.framework.business.vicinity.transport.VicinityTransport;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.events.EventPriority;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VicinityDeliveryTests {
+
+    private static class AnonymousEvent extends ArchitectureFirstEvent implements AnonymousOkEvent {
+        AnonymousEvent(Object source, String from, String to) {
+            super(source, from, to);
+        }
+    }
+
+    /**
+     * Records the subscriptions instead of using Redis
+     */
+    private static class RecordingTransport implements VicinityTransport {
+        private final Map<String, Consumer<VicinityDelivery>> handlers = new ConcurrentHashMap<>();
+        private final List<String> subscribed = new CopyOnWriteArrayList<>();
+        private final List<String> unsubscribed = new CopyOnWriteArrayList<>();
+        private final List<String> published = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void start() {}
+
+        @Override
+        public void shutdown() {}
+
+        @Override
+        public CompletableFuture<Long> publish(String to, byte[] contents) {
+            published.add(to);
+            return CompletableFuture.completedFuture(0L);
+        }
+
+        @Override
+        public CompletableFuture<Long> publishAll(Map<String, byte[]> contents, EventPriority priority) {
+            published.addAll(contents.keySet());
+            return CompletableFuture.completedFuture(0L);
+        }
+
+        @Override
+        public boolean isBroadcast() {
+            return true;
+        }
+
+        @Override
+        public void subscribe(String target, Consumer<VicinityDelivery> handler, Runnable onBroken) {
+            subscribed.add(target);
+            handlers.put(target, handler);
+        }
+
+        @Override
+        public void unsubscribe(String target) {
+            unsubscribed.add(target);
+            handlers.remove(target);
+        }
+
+        @Override
+        public boolean isOk(String target, int numberOfConnections) {
+            return handlers.containsKey(target);
+        }
+    }
+
+    /**
+     * Records the events it hears instead of performing behaviors
+     */
+    private static class ListeningActor extends Actor {
+        private final List<String> heard = new CopyOnWriteArrayList<>();
+
+        ListeningActor(String id) {
+            ReflectionTestUtils.setField(this, "actorId", id);
+        }
+
+        @Override
+        public void onApplicationEvent(ArchitectureFirstEvent event) {
+            heard.add(event.getRequestId());
+        }
+    }
+
+    private final RecordingTransport transport = new RecordingTransport();
+    private final Vicinity vicinity = new Vicinity();
+
+    VicinityDeliveryTests() {
+        var postOffice = new PostOffice() {
+            @Override
+            public void close(String name) {}     // the overflow streams are in Redis
+        };
+        ReflectionTestUtils.setField(postOffice, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(postOffice, "numberOfThreads", 2);
+        ReflectionTestUtils.setField(postOffice, "numberOfControlThreads", 1);
+        ReflectionTestUtils.setField(postOffice, "numberOfReplyThreads", 1);
+        ReflectionTestUtils.setField(postOffice, "capacity", 100);
+        ReflectionTestUtils.setField(postOffice, "controlCapacity", 10);
+        ReflectionTestUtils.setField(postOffice, "concurrency", 1);
+        ReflectionTestUtils.setField(postOffice, "overflow", "shed");
+        ReflectionTestUtils.invokeMethod(postOffice, "init");
+
+        ReflectionTestUtils.setField(vicinity, "postOffice", postOffice);
+        ReflectionTestUtils.setField(vicinity, "transport", transport);
+        ReflectionTestUtils.setField(vicinity, "isLocalDeliveryEnabled", true);
+        ReflectionTestUtils.setField(vicinity, "envelopeFormat", "binary");
+        ReflectionTestUtils.setField(vicinity, "convo", new Conversation() {
+            @Override
+            public String record(ArchitectureFirstEvent event, String to, Status status) {
+                return "OK";
+            }
+        });
+    }
+
+    private void deliver(String target, String requestId, AtomicInteger acknowledgements) {
+        var event = new AnonymousEvent(this, "Customer.default.1.c1", target).setRequestId(requestId);
+        var bytes = VicinityEnvelope.encode(vicinity.generateMessage(event, target));
+        transport.handlers.get(target).accept(new VicinityDelivery(bytes, acknowledgements::incrementAndGet));
+    }
+
+    private static void awaitHeard(List<ListeningActor> actors, int count) throws InterruptedException {
+        for (int i = 0; i < 200 && actors.stream().anyMatch(a -> a.heard.size() < count); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void eachMemberOfAGatheringHearsTheEventOnce() {
+        var members = List.of("Merchant.default.1.m1", "Merchant.default.1.m2", "Merchant.default.1.m3");
+        var event = new ArchitectureFirstEvent(this, "Customer.default.1.c1", members).setRequestId("request-1");
+
+        var message = vicinity.generateMessage(event, event.toFirst());
+        Map<String, Integer> deliveries = new LinkedHashMap<>();
+        VicinityEnvelope.encode(message, members).forEach(bytes -> {
+            var received = vicinity.receive(VicinityEnvelope.decode(bytes));
+            received.to().forEach(to -> deliveries.merge(to, 1, Integer::sum));   // an Actor hears each event listing its name
+            assertTrue(received.isPropagatedFromVicinity());
+        });
+
+        assertEquals(Map.of("Merchant.default.1.m1", 1, "Merchant.default.1.m2", 1, "Merchant.default.1.m3", 1), deliveries);
+    }
+
+    @Test
+    void everyActorOfAGroupInTheProcessHearsAGroupMessageOnce() throws InterruptedException {
+        var first = new ListeningActor("1");
+        var second = new ListeningActor("2");
+        vicinity.subscribe(first, first.group());
+        vicinity.subscribe(second, second.group());
+        assertEquals(List.of("ListeningActor"), transport.subscribed);    // the group's subscription is shared
+
+        var acknowledgements = new AtomicInteger();
+        deliver("ListeningActor", "request-1", acknowledgements);
+        awaitHeard(List.of(first, second), 1);
+
+        assertEquals(List.of("request-1"), first.heard);
+        assertEquals(List.of("request-1"), second.heard);
+        assertEquals(1, acknowledgements.get());    // once both have processed it
+    }
+
+    @Test
+    void theGroupStaysSubscribedUntilItsLastActorLeaves() throws InterruptedException {
+        var first = new ListeningActor("1");
+        var second = new ListeningActor("2");
+        vicinity.subscribe(first, first.group());
+        vicinity.subscribe(second, second.group());
+
+        vicinity.unsubscribe(first, first.group());
+        assertEquals(List.of(), transport.unsubscribed);
+        assertTrue(vicinity.areConnectionsOk("ListeningActor", 1));
+
+        deliver("ListeningActor", "request-1", new AtomicInteger());
+        awaitHeard(List.of(second), 1);
+        assertEquals(List.of("request-1"), second.heard);
+        assertEquals(List.of(), first.heard);
+
+        vicinity.unsubscribe(second, second.group());
+        assertEquals(List.of("ListeningActor"), transport.unsubscribed);
+    }
+
+    @Test
+    void aGroupEventSentInTheProcessReachesEveryLocalActorOfTheGroup() throws InterruptedException {
+        var first = new ListeningActor("1");
+        var second = new ListeningActor("2");
+        vicinity.subscribe(first, first.group());
+        vicinity.subscribe(second, second.group());
+
+        vicinity.onApplicationEvent(new AnonymousEvent(this, "Customer.default.1.c1", "ListeningActor").setRequestId("request-1"));
+        awaitHeard(List.of(first, second), 1);
+
+        assertEquals(List.of("request-1"), first.heard);
+        assertEquals(List.of("request-1"), second.heard);
+        assertEquals(List.of("ListeningActor"), transport.published);     // remote members still need it, the echo is dropped
+    }
+}
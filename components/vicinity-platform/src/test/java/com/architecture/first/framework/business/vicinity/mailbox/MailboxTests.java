@@ -0,0 +1,329 @@
+package com.architecture.first.framework.business.vicinity.mailbox;
+
+import com.architecture.first.framework.business.vicinity.events.AcknowledgementEvent;
+import com.architecture.first.framework.business.vicinity.messages.VicinityMessage;
+import com.architecture.first.framework.business.vicinity.transport.VicinityDelivery;
+import com.architecture.first.framework.technical.events.ActorProcessingErrorEvent;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailboxTests {
+
+    /**
+     * Runs workers only when asked so the tests control when letters are processed
+     */
+    private static class ManualExecutor implements java.util.concurrent.Executor {
+        private final LinkedList<Runnable> tasks = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+
+    private static class MemoryOverflowStore implements OverflowStore {
+        private final Map<String, LinkedList<byte[]>> streams = new ConcurrentHashMap<>();
+        private final int maxLength;
+
+        MemoryOverflowStore() {
+            this(Integer.MAX_VALUE);
+        }
+
+        MemoryOverflowStore(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public CompletableFuture<Long> spill(String owner, byte[] message) {
+            var stream = streams.computeIfAbsent(owner, o -> new LinkedList<>());
+            stream.add(message);
+            while (stream.size() > maxLength) {
+                stream.poll();
+            }
+            return CompletableFuture.completedFuture((long) stream.size());
+        }
+
+        @Override
+        public long size(String owner) {
+            return streams.getOrDefault(owner, new LinkedList<>()).size();
+        }
+
+        @Override
+        public List<byte[]> reclaim(String owner, int max) {
+            var stream = streams.getOrDefault(owner, new LinkedList<>());
+            List<byte[]> messages = new ArrayList<>();
+            while (!stream.isEmpty() && messages.size() < max) {
+                messages.add(stream.poll());
+            }
+            return messages;
+        }
+    }
+
+    private Letter letter(ArchitectureFirstEvent event, AtomicInteger acknowledgements) {
+        return letter(event, acknowledgements, null);
+    }
+
+    private Letter letter(ArchitectureFirstEvent event, AtomicInteger acknowledgements, String sequence) {
+        var message = new VicinityMessage(event.from(), event.toFirst());
+        message.getHeader().setRequestId(event.getRequestId());
+        if (sequence != null) {
+            message.setAttribute("sequence", sequence);
+        }
+        message.setPayload(event, event.getClass());
+        var delivery = new VicinityDelivery(message.toBytes(), acknowledgements::incrementAndGet);
+        return new Letter(message, delivery, MailboxPriority.of(message));
+    }
+
+    private Letter letter(AtomicInteger acknowledgements) {
+        return letter(new ArchitectureFirstEvent(this, "Customer.1", "Merchant.1"), acknowledgements);
+    }
+
+    @Test
+    void highPriorityLettersAreProcessedFirst() {
+        var executor = new ManualExecutor();
+        List<MailboxPriority> processed = new ArrayList<>();
+        var mailbox = new Mailbox("Merchant.1", 10, 1, OverflowPolicy.SHED, 0, executor, null,
+                l -> processed.add(l.getPriority()));
+        var acknowledgements = new AtomicInteger();
+
+        mailbox.post(letter(acknowledgements));
+        mailbox.post(letter(acknowledgements));
+        mailbox.post(letter(new ActorProcessingErrorEvent(this, "Customer.1", "Merchant.1"), acknowledgements));
+        executor.runAll();
+
+        assertEquals(List.of(MailboxPriority.HIGH, MailboxPriority.NORMAL, MailboxPriority.NORMAL), processed);
+        assertEquals(3, mailbox.getMetrics().getProcessed());
+    }
+
+    @Test
+    void controlLettersAreNotQueuedBehindABacklog() {
+        var executor = new ManualExecutor();
+        var controlExecutor = new ManualExecutor();
+        List<MailboxPriority> processed = new ArrayList<>();
+        var mailbox = new Mailbox("Merchant.1", 10, 1, OverflowPolicy.SHED, 0, executor, 2, controlExecutor, null,
+                l -> processed.add(l.getPriority()));
+        var acknowledgements = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(mailbox.post(letter(acknowledgements)));
+        }
+        assertTrue(mailbox.post(letter(new AcknowledgementEvent(this, "Customer.1", "Merchant.1"), acknowledgements)));
+        controlExecutor.runAll();
+
+        assertEquals(List.of(MailboxPriority.CONTROL), processed);
+        assertEquals(10, mailbox.depth(MailboxPriority.NORMAL));
+        assertFalse(mailbox.post(letter(acknowledgements)));     // the business letters are full, control letters still have room
+        assertTrue(mailbox.post(letter(new AcknowledgementEvent(this, "Customer.1", "Merchant.1"), acknowledgements)));
+    }
+
+    @Test
+    void fullMailboxShedsAndAcknowledges() {
+        var executor = new ManualExecutor();
+        var mailbox = new Mailbox("Merchant.1", 2, 1, OverflowPolicy.SHED, 0, executor, null, l -> {});
+        var acknowledgements = new AtomicInteger();
+
+        assertTrue(mailbox.post(letter(acknowledgements)));
+        assertTrue(mailbox.post(letter(acknowledgements)));
+        assertFalse(mailbox.post(letter(acknowledgements)));
+
+        assertEquals(1, mailbox.getMetrics().getShed());
+        assertEquals(1, acknowledgements.get());
+        assertEquals(2, mailbox.depth());
+    }
+
+    @Test
+    void localLettersShareTheLanesOfTheirRequestAndAreRefusedWhenFull() {
+        var executor = new ManualExecutor();
+        var store = new MemoryOverflowStore();
+        List<String> processed = new ArrayList<>();
+        var mailbox = new Mailbox("Merchant.1", 2, 1, OverflowPolicy.SPILL, 0, executor, store,
+                l -> processed.add(l.getRequestId()));
+        var acknowledgements = new AtomicInteger();
+
+        var event = new ArchitectureFirstEvent(this, "Customer.1", "Merchant.1");
+        assertTrue(mailbox.post(letter(event, acknowledgements)));
+        assertTrue(mailbox.post(new Letter(event.copy())));
+        assertFalse(mailbox.post(new Letter(event.copy())));     // the sender publishes it through the Vicinity instead
+
+        assertEquals(1, mailbox.getMetrics().getRefused());
+        assertEquals(0, mailbox.getMetrics().getSpilled());
+        assertTrue(store.reclaim("Merchant.1", 10).isEmpty());
+
+        executor.runAll();
+        assertEquals(List.of(event.getRequestId(), event.getRequestId()), processed);
+    }
+
+    @Test
+    void spilledLettersAreReclaimedAfterTheMailboxDrains() {
+        var executor = new ManualExecutor();
+        List<String> processed = new ArrayList<>();
+        var mailbox = new Mailbox("Merchant.1", 2, 1, OverflowPolicy.SPILL, 0, executor, new MemoryOverflowStore(),
+                l -> processed.add(l.getMessage().getHeader().getRequestId()));
+        var acknowledgements = new AtomicInteger();
+
+        List<Letter> letters = List.of(letter(acknowledgements), letter(acknowledgements), letter(acknowledgements), letter(acknowledgements));
+        letters.forEach(l -> assertTrue(mailbox.post(l)));
+
+        assertEquals(2, mailbox.spilled());
+        assertEquals(2, acknowledgements.get());   // the spilled deliveries are released once stored
+
+        executor.runAll();
+
+        assertEquals(letters.stream().map(l -> l.getMessage().getHeader().getRequestId()).toList(), processed);
+        assertEquals(0, mailbox.spilled());
+        assertEquals(2, mailbox.getMetrics().getReclaimed());
+    }
+
+    @Test
+    void lettersOfARequestWithSpilledLettersAreSpilledBehindThem() {
+        var executor = new ManualExecutor();
+        List<String> processed = new ArrayList<>();
+        var mailbox = new Mailbox("Merchant.1", 1, 1, OverflowPolicy.SPILL, 0, executor, new MemoryOverflowStore(),
+                l -> processed.add((String) l.getMessage().attribute("sequence")));
+        var acknowledgements = new AtomicInteger();
+
+        var event = new ArchitectureFirstEvent(this, "Customer.1", "Merchant.1");
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(mailbox.post(letter(event, acknowledgements, String.valueOf(i))));
+        }
+        assertEquals(2, mailbox.spilled());     // the second letter did not fit and the third is kept behind it
+        assertFalse(mailbox.post(new Letter(event.copy())));    // a local letter of the request is refused
+
+        executor.runAll();
+        assertEquals(List.of("1", "2", "3"), processed);
+        assertEquals(0, mailbox.spilled());
+
+        assertTrue(mailbox.post(letter(event, acknowledgements, "4")));     // the request has no spilled letters left
+        assertEquals(0, mailbox.spilled());
+    }
+
+    @Test
+    void theSpilledCountIsTakenFromTheStore() {
+        var executor = new ManualExecutor();
+        var mailbox = new Mailbox("Merchant.1", 1, 1, OverflowPolicy.SPILL, 0, executor, new MemoryOverflowStore(2), l -> {});
+        var acknowledgements = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(mailbox.post(letter(acknowledgements)));
+        }
+
+        assertEquals(4, mailbox.getMetrics().getSpilled());
+        assertEquals(2, mailbox.spilled());     // the store trimmed the two oldest
+        executor.runAll();
+        assertEquals(0, mailbox.spilled());
+        assertEquals(2, mailbox.getMetrics().getReclaimed());
+    }
+
+    @Test
+    void lettersOfARequestAreProcessedInOrderUnderLoad() throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(8);
+        int requests = 50;
+        int lettersPerRequest = 200;
+        Map<String, Integer> lastSequence = new ConcurrentHashMap<>();
+        Set<String> inProgress = ConcurrentHashMap.newKeySet();
+        List<String> errors = new CopyOnWriteArrayList<>();
+        var done = new CountDownLatch(requests * lettersPerRequest);
+
+        var mailbox = new Mailbox("Merchant.1", 100_000, 4, OverflowPolicy.SLOW_DOWN, 1000, executor, null, l -> {
+            var requestId = l.getMessage().getHeader().getRequestId();
+            int sequence = Integer.parseInt(String.valueOf(l.getMessage().attribute("sequence")));
+            if (!inProgress.add(requestId)) {
+                errors.add("processed concurrently: " + requestId);
+            }
+            var previous = lastSequence.put(requestId, sequence);
+            if (previous != null && previous != sequence - 1) {
+                errors.add(requestId + " " + previous + " before " + sequence);
+            }
+            inProgress.remove(requestId);
+            done.countDown();
+        });
+
+        var acknowledgements = new AtomicInteger();
+        for (int sequence = 0; sequence < lettersPerRequest; sequence++) {
+            for (int r = 0; r < requests; r++) {
+                var letter = letter(new ArchitectureFirstEvent(this, "Customer.1", "Merchant.1").setRequestId("request-" + r), acknowledgements);
+                letter.getMessage().setAttribute("sequence", String.valueOf(sequence));
+                assertTrue(mailbox.post(letter));
+            }
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(List.of(), errors);
+        assertEquals(requests, lastSequence.size());
+    }
+
+    @Test
+    void aHandlerAwaitingAReplyOfItsRequestReceivesIt() throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(2);
+        var replyExecutor = Executors.newSingleThreadExecutor();
+        Set<String> awaiting = ConcurrentHashMap.newKeySet();
+        var replied = new CountDownLatch(1);
+        List<String> errors = new CopyOnWriteArrayList<>();
+        var acknowledgements = new AtomicInteger();
+        var event = new ArchitectureFirstEvent(this, "Customer.1", "Merchant.1");
+        var mailbox = new AtomicReference<Mailbox>();
+
+        mailbox.set(new Mailbox("Merchant.1", 10, 1, OverflowPolicy.SHED, 0, executor, 10, executor,
+                replyExecutor, awaiting::contains, null, l -> {
+            if ("request".equals(l.getMessage().attribute("sequence"))) {
+                awaiting.add(l.getRequestId());     // the behavior asks another Actor and blocks for the reply
+                mailbox.get().post(letter(event, acknowledgements, "reply"));
+                try {
+                    if (!replied.await(5, TimeUnit.SECONDS)) {
+                        errors.add("the reply was queued behind the handler awaiting it");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                awaiting.remove(l.getRequestId());
+            }
+            else {
+                replied.countDown();
+            }
+        }));
+
+        assertTrue(mailbox.get().post(letter(event, acknowledgements, "request")));
+        assertTrue(replied.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        replyExecutor.shutdown();
+        assertEquals(List.of(), errors);
+    }
+
+    @Test
+    void concurrencyLimitsTheNumberOfWorkers() {
+        var executor = new ManualExecutor();
+        var mailbox = new Mailbox("Merchant.1", 100, 2, OverflowPolicy.SHED, 0, executor, null, l -> {});
+        var acknowledgements = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            mailbox.post(letter(acknowledgements));
+        }
+
+        assertEquals(2, executor.tasks.size());
+        executor.runAll();
+        assertEquals(0, mailbox.depth());
+    }
+}
@@ -0,0 +1,102 @@
+package com.architecture.first.framework.business.vicinity.messages;
+
+import com.architecture.first.framework.business.vicinity.events.AcknowledgementEvent;
+import com.architecture.first.framework.technical.events.ArchitectureFirstEvent;
+import com.architecture.first.framework.technical.events.EventPriority;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VicinityEnvelopeTests {
+
+    private VicinityMessage createMessage() {
+        var event = new ArchitectureFirstEvent(this, "Customer.1", "Merchant.1");
+        event.setMessage("quoted \"text\" and ünïcödé");
+        var message = new VicinityMessage("Customer.1", "Merchant.1");
+        message.setPayload(event, event.getClass());
+        message.getHeader().setRequestId(event.getRequestId());
+        message.setAttribute("localOrigin", "process-1");
+        return message;
+    }
+
+    @Test
+    void binaryEnvelopeRoundTrips() {
+        var message = createMessage();
+
+        byte[] bytes = message.toBytes();
+        var decoded = VicinityMessage.from(bytes);
+
+        assertTrue(VicinityEnvelope.isEnvelope(bytes));
+        assertEquals(message.getHeader(), decoded.getHeader());
+        assertEquals(message.getJsonPayload(), decoded.getJsonPayload());
+        assertNull(decoded.token());
+        assertEquals("process-1", decoded.attribute("localOrigin"));
+    }
+
+    @Test
+    void fanOutEnvelopesDifferOnlyInTheRecipient() {
+        var message = createMessage();
+
+        var envelopes = VicinityEnvelope.encode(message, List.of("Merchant", "Cashier"));
+        var merchant = VicinityMessage.from(envelopes.get(0));
+        var cashier = VicinityMessage.from(envelopes.get(1));
+
+        assertEquals("Merchant", merchant.to());
+        assertEquals("Cashier", cashier.to());
+        assertEquals(message.getJsonPayload(), merchant.getJsonPayload());
+        assertEquals(message.getJsonPayload(), cashier.getJsonPayload());
+        assertEquals(message.getHeader().getRequestId(), cashier.getHeader().getRequestId());
+        assertEquals("process-1", cashier.attribute("localOrigin"));
+
+        message.getHeader().setTo("Cashier");
+        assertArrayEquals(message.toBytes(), envelopes.get(1));
+    }
+
+    @Test
+    void priorityTravelsWithTheMessage() {
+        var event = new AcknowledgementEvent(this, "Customer.1", "Merchant.1");
+        var message = new VicinityMessage("Customer.1", "Merchant.1").setPayload(event, event.getClass());
+
+        assertEquals(EventPriority.CONTROL, message.getHeader().getPriority());
+        assertEquals(EventPriority.CONTROL, VicinityMessage.from(message.toBytes()).getHeader().getPriority());
+        assertEquals(EventPriority.NORMAL, VicinityMessage.from(createMessage().toBytes()).getHeader().getPriority());
+    }
+
+    @Test
+    void binaryEnvelopeIsSmallerThanLegacyJson() {
+        var message = createMessage();
+
+        assertTrue(message.toBytes().length < message.toString().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void legacyJsonIsStillReadable() {
+        var message = createMessage();
+
+        var decoded = VicinityMessage.from(message.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(message.getHeader(), decoded.getHeader());
+        assertEquals(message.getJsonPayload(), decoded.getJsonPayload());
+        assertNotNull(ArchitectureFirstEvent.from(this, decoded));
+    }
+
+    @Test
+    void truncatedEnvelopeIsRejected() {
+        byte[] bytes = createMessage().toBytes();
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+        assertNull(VicinityMessage.from(truncated));
+    }
+
+    @Test
+    void anEnvelopeOfAnotherVersionIsRejected() {
+        byte[] bytes = createMessage().toBytes();
+        bytes[1] = VicinityEnvelope.VERSION + 1;
+
+        assertNull(VicinityEnvelope.decode(bytes));
+    }
+}
@@ -0,0 +1,50 @@
+package com.architecture.first.framework.business.vicinity.publisher;
+
+import com.architecture.first.framework.technical.events.EventPriority;
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VicinityPublisherTests {
+
+    private static VicinityPublisher closedPublisher() {
+        var publisher = new VicinityPublisher();
+        ReflectionTestUtils.setField(publisher, "nodes", RedisNodes.parse("", "localhost", 6379));   // pools connect on first use
+        ReflectionTestUtils.setField(publisher, "poolSize", 2);
+        ReflectionTestUtils.setField(publisher, "numberOfLanes", 2);
+        ReflectionTestUtils.setField(publisher, "batchSize", 16);
+        ReflectionTestUtils.setField(publisher, "lingerMicros", 200L);
+        ReflectionTestUtils.setField(publisher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(publisher, "offerTimeoutMillis", 100L);
+        publisher.init();
+        publisher.shutdown();
+        return publisher;
+    }
+
+    @Test
+    void aPublishAfterCloseIsRejected() {
+        var publisher = closedPublisher();
+
+        var exception = assertThrows(CompletionException.class,
+                () -> publisher.publish("channel: Merchant", new byte[]{1}).join());
+
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+    }
+
+    @Test
+    void aFanOutAfterCloseIsRejected() {
+        var publisher = closedPublisher();
+
+        var future = publisher.publishAll(Map.of("channel: Merchant", new byte[]{1}, "channel: Cashier", new byte[]{2}),
+                EventPriority.CONTROL);
+
+        var exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+    }
+}
@@ -0,0 +1,56 @@
+package com.architecture.first.framework.business.vicinity.roster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityCacheTests {
+    private static final String CUSTOMER = "Customer.default.1.0.0.a";
+    private static final String MISSING = "Customer.default.1.0.0.b";
+
+    @Test
+    void resultsAreRememberedUntilTheyExpire() {
+        var lookups = new AtomicInteger();
+        var cache = new AvailabilityCache(60_000, 0, name -> {
+            lookups.incrementAndGet();
+            return Set.of(CUSTOMER).contains(name);
+        });
+
+        assertTrue(cache.isAvailable(CUSTOMER));
+        assertTrue(cache.isAvailable(CUSTOMER));
+        assertEquals(1, lookups.get());
+
+        assertFalse(cache.isAvailable(MISSING));
+        assertFalse(cache.isAvailable(MISSING));     // unavailable entries expire immediately here
+        assertEquals(3, lookups.get());
+    }
+
+    @Test
+    void unavailableActorsAreRemembered() {
+        var lookups = new AtomicInteger();
+        var cache = new AvailabilityCache(60_000, 60_000, name -> {
+            lookups.incrementAndGet();
+            return false;
+        });
+
+        for (int i = 0; i < 10; i++) {
+            assertFalse(cache.isAvailable(MISSING));
+        }
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void statusChangesReplaceRememberedResults() {
+        var cache = new AvailabilityCache(60_000, 60_000, name -> true);
+
+        assertTrue(cache.isAvailable(CUSTOMER));
+        cache.update(CUSTOMER, false);
+        assertFalse(cache.isAvailable(CUSTOMER));
+
+        cache.update(MISSING, false);   // not talked to, so not remembered
+        assertEquals(1, cache.size());
+    }
+}
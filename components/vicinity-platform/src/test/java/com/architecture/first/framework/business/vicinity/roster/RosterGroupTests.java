@@ -0,0 +1,49 @@
+package com.architecture.first.framework.business.vicinity.roster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RosterGroupTests {
+
+    @Test
+    void picksMembersOfTheProjectInTurn() {
+        var group = new RosterGroup("Merchant");
+        group.replace(List.of("Merchant.default.1.0.0.a", "Merchant.default.1.0.0.b", "Merchant.retail.1.0.0.c"));
+
+        Set<String> picked = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            picked.add(group.pick("default"));
+        }
+
+        assertEquals(Set.of("Merchant.default.1.0.0.a", "Merchant.default.1.0.0.b"), picked);
+        assertEquals("Merchant.retail.1.0.0.c", group.pick("retail"));
+        assertEquals("", group.pick("other"));
+    }
+
+    @Test
+    void statusChangesUpdateTheMembers() {
+        var group = new RosterGroup("Merchant");
+        group.add("Merchant.default.1.0.0.a");
+        group.add("Merchant.default.1.0.0.b");
+        group.remove("Merchant.default.1.0.0.a");
+
+        assertFalse(group.contains("Merchant.default.1.0.0.a"));
+        assertTrue(group.contains("Merchant.default.1.0.0.b"));
+        assertEquals("Merchant.default.1.0.0.b", group.pick("default"));
+
+        group.replace(List.of());
+        assertEquals(0, group.size());
+        assertEquals("", group.pick("default"));
+    }
+
+    @Test
+    void projectIsTheSecondPartOfTheName() {
+        assertEquals("default", RosterGroup.projectOf("Merchant.default.1.0.0.a"));
+        assertEquals("", RosterGroup.projectOf("Merchant"));
+    }
+}
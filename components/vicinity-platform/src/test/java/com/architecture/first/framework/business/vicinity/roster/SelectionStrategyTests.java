@@ -0,0 +1,57 @@
+package com.architecture.first.framework.business.vicinity.roster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectionStrategyTests {
+    private static final String FAST = "Merchant.default.1.0.0.fast";
+    private static final String SLOW = "Merchant.default.1.0.0.slow";
+
+    private RosterGroup group(String strategy) {
+        var group = new RosterGroup("Merchant", SelectionStrategy.from(strategy));
+        group.replace(List.of(FAST, SLOW));
+        group.updateLoad(FAST, 1, 0, 5_000, "t1");
+        group.updateLoad(SLOW, 1, 20, 500_000, "t1");
+        return group;
+    }
+
+    @Test
+    void loadAwareStrategiesAvoidTheBusyActor() {
+        for (var strategy : List.of(SelectionStrategy.LEAST_OUTSTANDING, SelectionStrategy.POWER_OF_TWO)) {
+            var group = group(strategy);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(FAST, group.pick("default"), strategy);
+            }
+        }
+    }
+
+    @Test
+    void picksSinceTheLastReportCountAsLoad() {
+        var group = group(SelectionStrategy.LEAST_OUTSTANDING);
+        int slow = 0;
+        for (int i = 0; i < 30; i++) {
+            slow += SLOW.equals(group.pick("default")) ? 1 : 0;
+        }
+
+        assertTrue(slow > 0 && slow < 15, "slow picks: " + slow);   // once the fast Actor has as many events
+
+        group.updateLoad(FAST, 0, 0, 5_000, "t2");    // a new report replaces the estimate
+        assertEquals(FAST, group.pick("default"));
+    }
+
+    @Test
+    void latencyWeightedPrefersTheFastActor() {
+        var group = group(SelectionStrategy.LATENCY_WEIGHTED);
+        int fast = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (FAST.equals(group.pick("default"))) {
+                fast++;
+            }
+        }
+
+        assertTrue(fast > 850, "fast picks: " + fast);
+    }
+}
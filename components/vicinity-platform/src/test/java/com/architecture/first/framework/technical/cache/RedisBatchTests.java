@@ -0,0 +1,65 @@
+package com.architecture.first.framework.technical.cache;
+
+import com.architecture.first.framework.technical.sharding.RedisNodes;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisBatchTests {
+    private static final HostAndPort NODE_1 = new HostAndPort("localhost", 7000);
+    private static final HostAndPort NODE_2 = new HostAndPort("localhost", 7001);
+
+    @Test
+    void commandsAreSentInOneRoundTripPerNode() {
+        var nodes = new RedisNodes(List.of(NODE_1, NODE_2));
+        List<HostAndPort> connected = new ArrayList<>();
+        var batch = new RedisBatch(nodes, node -> {
+            connected.add(node);
+            throw new JedisConnectionException("unreachable");    // no Redis in unit tests
+        });
+
+        List<RedisBatch.Reply<Long>> replies = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            var key = "key-" + i;
+            replies.add(batch.add(key, p -> p.hset(key, "name", "value")));
+        }
+
+        var cost = batch.send();
+        assertEquals(50, cost.commands());
+        assertEquals(2, cost.roundTrips());
+        assertEquals(2, connected.size());
+        assertTrue(connected.containsAll(List.of(NODE_1, NODE_2)));
+
+        replies.forEach(reply -> {
+            assertFalse(reply.isOk());
+            assertThrows(JedisConnectionException.class, reply::get);
+        });
+        assertSame(cost, batch.send());     // sent once
+        assertEquals(2, connected.size());
+    }
+
+    @Test
+    void aReplyIsOnlyAvailableOnceTheBatchIsSent() {
+        var batch = new RedisBatch(new RedisNodes(List.of(NODE_1)), node -> {
+            throw new JedisConnectionException("unreachable");
+        });
+
+        var reply = batch.add("key", p -> p.hgetAll("key"));
+        assertFalse(reply.isOk());
+        assertThrows(IllegalStateException.class, reply::get);
+
+        batch.send();
+        assertThrows(IllegalStateException.class, () -> batch.add("key", p -> p.hgetAll("key")));
+    }
+
+    @Test
+    void anEmptyBatchMakesNoRoundTrips() {
+        var batch = new RedisBatch(new RedisNodes(List.of(NODE_1)), node -> fail("no connection is needed"));
+        assertEquals(0, batch.send().roundTrips());
+    }
+}
@@ -0,0 +1,33 @@
+package com.architecture.first.framework.technical.events;
+
+import com.architecture.first.framework.technical.util.SimpleModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchitectureFirstEventTests {
+
+    @Test
+    void copyDoesNotShareHeaderOrPayload() {
+        var event = new ArchitectureFirstEvent(this, "Customer.1", new ArrayList<>(List.of("Merchant.1", "Cashier.1")));
+        var nested = new SimpleModel();
+        nested.put("token", "abc");
+        event.payload().put("token", nested);
+
+        var copy = event.copy().setTo("Merchant.1");
+        copy.setPropagatedFromVicinity(true);
+        ((Map<String, Object>) copy.payload().get("token")).put("token", "changed");
+
+        assertEquals(List.of("Merchant.1", "Cashier.1"), event.to());
+        assertEquals(List.of("Merchant.1"), copy.to());
+        assertEquals("abc", ((Map<String, Object>) event.payload().get("token")).get("token"));
+        assertFalse(event.isPropagatedFromVicinity());
+        assertEquals(event.getRequestId(), copy.getRequestId());
+        assertSame(event.getSource(), copy.getSource());
+        assertInstanceOf(SimpleModel.class, copy.payload().get("token"));
+    }
+}
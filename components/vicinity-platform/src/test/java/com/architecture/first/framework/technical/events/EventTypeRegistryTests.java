@@ -0,0 +1,47 @@
+package com.architecture.first.framework.technical.events;
+
+import com.architecture.first.framework.business.vicinity.events.AcknowledgementEvent;
+import com.architecture.first.framework.business.vicinity.messages.VicinityMessage;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventTypeRegistryTests {
+
+    @Test
+    void scannedTypesHaveStableIds() {
+        var registry = EventTypeRegistry.instance();
+        var name = AcknowledgementEvent.class.getName();
+
+        assertTrue(registry.size() > 1);
+        assertEquals(EventTypeRegistry.typeIdOf(name), registry.typeIdFor(name));
+        assertSame(AcknowledgementEvent.class, registry.codecFor(registry.typeIdFor(name)).type());
+        assertSame(registry.codecFor(AcknowledgementEvent.class), registry.codecFor(AcknowledgementEvent.class));
+    }
+
+    @Test
+    void codecMatchesGson() {
+        var event = new AcknowledgementEvent(this, "Customer.1", "Merchant.1")
+                .setAcknowledgedEventName("ViewProductEvent");
+        event.payload().put("count", 3);
+
+        var codec = EventTypeRegistry.instance().codecFor(AcknowledgementEvent.class);
+        assertEquals(new Gson().toJson(event), codec.toJson(event));
+
+        var copy = codec.fromJson(codec.toJson(event));
+        assertEquals(event.getRequestId(), copy.getRequestId());
+        assertEquals("ViewProductEvent", copy.getAcknowledgedEventName());
+    }
+
+    @Test
+    void eventIsReadFromEnvelopeByTypeId() {
+        var event = new AcknowledgementEvent(this, "Customer.1", "Merchant.1");
+        var message = new VicinityMessage("Customer.1", "Merchant.1").setPayload(event, event.getClass());
+
+        var received = ArchitectureFirstEvent.from(this, VicinityMessage.from(message.toBytes()));
+
+        assertInstanceOf(AcknowledgementEvent.class, received);
+        assertEquals(event.getRequestId(), received.getRequestId());
+    }
+}
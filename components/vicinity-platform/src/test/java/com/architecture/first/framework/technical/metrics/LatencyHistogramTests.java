@@ -0,0 +1,35 @@
+package com.architecture.first.framework.technical.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTests {
+
+    @Test
+    void percentilesAreWithinTheirBucket() {
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.recordMicros(i);
+        }
+
+        assertEquals(100, histogram.count());
+        assertEquals(50, histogram.averageMicros());
+        assertEquals(100, histogram.maxMicros());
+
+        long p50 = histogram.percentileMicros(50);
+        assertTrue(p50 >= 50 && p50 < 100, "p50 was " + p50);
+        assertEquals(100, histogram.percentileMicros(99));
+    }
+
+    @Test
+    void resetClearsValues() {
+        var histogram = new LatencyHistogram();
+        histogram.recordNanos(5_000);
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentileMicros(99));
+    }
+}
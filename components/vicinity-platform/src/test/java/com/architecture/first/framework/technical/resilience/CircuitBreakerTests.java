@@ -0,0 +1,67 @@
+package com.architecture.first.framework.technical.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTests {
+
+    @Test
+    void opensWhenTheFailureRateIsReached() {
+        var now = new AtomicLong(0);
+        var breaker = new CircuitBreaker(10, 4, 50, 1000, now::get);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());    // not enough calls yet
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2, breaker.rejections());
+    }
+
+    @Test
+    void staysClosedBelowTheFailureRate() {
+        var breaker = new CircuitBreaker(10, 4, 50, 1000, () -> 0);
+        for (int i = 0; i < 20; i++) {
+            breaker.recordSuccess();
+            breaker.recordSuccess();
+            breaker.recordFailure();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void aProbeClosesOrReopensTheBreaker() {
+        var now = new AtomicLong(0);
+        var breaker = new CircuitBreaker(4, 2, 50, 1000, now::get);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        now.set(1000);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());      // only one probe at a time
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        now.set(2000);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        breaker.recordFailure();                // a new window after closing
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+}
@@ -0,0 +1,69 @@
+package com.architecture.first.framework.technical.sharding;
+
+import com.architecture.first.framework.business.vicinity.Vicinity;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisClusterNodesTests {
+    private static final HostAndPort NODE_1 = new HostAndPort("localhost", 7000);
+    private static final HostAndPort NODE_2 = new HostAndPort("localhost", 7001);
+    private static final HostAndPort NODE_3 = new HostAndPort("localhost", 7002);
+
+    /**
+     * A CLUSTER SLOTS reply for three primaries without replicas, as the first node reports it
+     */
+    private static List<Object> clusterSlots() {
+        return List.of(
+                entry(0, 5460, ""),     // the node that answers may not know its own host
+                entry(5461, 10922, "localhost", 7001),
+                entry(10923, 16383, "localhost", 7002));
+    }
+
+    private static List<Object> entry(long first, long last, String host) {
+        return entry(first, last, host, 7000);
+    }
+
+    private static List<Object> entry(long first, long last, String host, long port) {
+        return List.of(first, last, List.of(SafeEncoder.encode(host), port, SafeEncoder.encode("id-" + port)));
+    }
+
+    @Test
+    void namesAreAssignedByHashSlot() {
+        var nodes = new RedisClusterNodes(clusterSlots(), NODE_1);
+
+        assertEquals(List.of(NODE_1, NODE_2, NODE_3), nodes.all());
+        for (int i = 0; i < 1000; i++) {
+            var channel = Vicinity.shardChannelFor("Merchant." + i);
+            int slot = JedisClusterCRC16.getSlot(channel);
+            var expected = (slot <= 5460) ? NODE_1 : (slot <= 10922) ? NODE_2 : NODE_3;
+            assertEquals(expected, nodes.nodeFor(channel), channel);
+        }
+    }
+
+    @Test
+    void shardChannelsShareTheSlotOfTheirName() {
+        var channel = Vicinity.shardChannelFor("Merchant.1");
+
+        assertEquals(RedisClusterNodes.slotOf("Merchant.1"), RedisClusterNodes.slotOf(channel));
+        assertEquals(RedisClusterNodes.slotOf(channel), RedisClusterNodes.slotOf("{Merchant.1}/Convo"));
+    }
+
+    @Test
+    void aRedirectionMovesTheSlot() {
+        var nodes = new RedisClusterNodes(clusterSlots(), NODE_1);
+        var channel = Vicinity.shardChannelFor("Merchant.1");
+        var owner = nodes.nodeFor(channel);
+        var other = (owner.equals(NODE_1)) ? NODE_2 : NODE_1;
+
+        nodes.moved(channel, other);
+
+        assertEquals(other, nodes.nodeFor(channel));
+        assertEquals(other, nodes.nodeFor("{Merchant.1}/Convo"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.architecture.first.framework.technical.sharding;
+
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.providers.ShardedConnectionProvider;
+import redis.clients.jedis.util.Hashing;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisNodesTests {
+    private static final List<HostAndPort> TWO_NODES = List.of(new HostAndPort("localhost", 6379), new HostAndPort("localhost", 6380));
+    private static final List<HostAndPort> THREE_NODES = List.of(new HostAndPort("localhost", 6379), new HostAndPort("localhost", 6380),
+            new HostAndPort("localhost", 6381));
+
+    @Test
+    void nodesAgreeWithJedisSharding() {
+        var nodes = new RedisNodes(THREE_NODES);
+        var provider = new ShardedConnectionProvider(THREE_NODES);    // pools connect lazily, so no Redis is needed
+
+        try {
+            for (int i = 0; i < 1000; i++) {
+                var key = "ToDo:Merchant." + i;
+                assertEquals(provider.getNode(Hashing.MURMUR_HASH.hash(key)), nodes.nodeFor(key));
+            }
+        }
+        finally {
+            provider.close();
+        }
+    }
+
+    @Test
+    void addingANodeOnlyMovesKeysToTheNewNode() {
+        var before = new RedisNodes(TWO_NODES);
+        var after = new RedisNodes(THREE_NODES);
+        int keys = 10_000;
+        int moved = 0;
+
+        for (int i = 0; i < keys; i++) {
+            var key = "request-" + i + "/Convo";
+            if (!before.nodeFor(key).equals(after.nodeFor(key))) {
+                assertEquals(THREE_NODES.get(2), after.nodeFor(key));
+                moved++;
+            }
+        }
+
+        assertTrue(moved > keys / 5 && moved < keys / 2, "moved " + moved);   // about a third
+    }
+
+    @Test
+    void keyTagsKeepRelatedKeysTogether() {
+        var nodes = new RedisNodes(THREE_NODES);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(nodes.nodeFor("{request-" + i + "}/Convo"), nodes.nodeFor("{request-" + i + "}/Ack"));
+        }
+        assertEquals("request-1", RedisNodes.keyTagOf("{request-1}/Ack"));
+        assertEquals("Storefront", RedisNodes.keyTagOf("Storefront"));
+    }
+
+    @Test
+    void nodesAreParsedFromTheConfiguration() {
+        var nodes = RedisNodes.parse("redis-1:6379, redis-2", "localhost", 6380);
+
+        assertEquals(List.of(new HostAndPort("redis-1", 6379), new HostAndPort("redis-2", 6380)), nodes.all());
+        assertTrue(nodes.isSharded());
+        assertEquals(List.of(new HostAndPort("localhost", 6380)), RedisNodes.parse("", "localhost", 6380).all());
+        assertFalse(RedisNodes.parse(null, "localhost", 6380).isSharded());
+    }
+}
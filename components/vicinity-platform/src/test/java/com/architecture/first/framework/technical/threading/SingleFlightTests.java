@@ -0,0 +1,76 @@
+package com.architecture.first.framework.technical.threading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTests {
+
+    @Test
+    void identicalConcurrentCallsShareOneCall() throws Exception {
+        var singleFlight = new SingleFlight<String, Integer>();
+        var calls = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        int callers = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> singleFlight.execute("{\"type\":\"shoes\"}", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return 42;
+            }), executor));
+        }
+        while (calls.get() == 0) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        TimeUnit.MILLISECONDS.sleep(100);    // let the other callers join the call in flight
+        release.countDown();
+
+        for (var result : results) {
+            assertEquals(42, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlight());
+        executor.shutdown();
+    }
+
+    @Test
+    void aFailureIsSharedAndTheKeyIsReleased() throws Exception {
+        var singleFlight = new SingleFlight<String, Integer>();
+        var release = new CountDownLatch(1);
+        var leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            await(release);
+            throw new IllegalStateException("warehouse unavailable");
+        }));
+        while (singleFlight.inFlight() == 0) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        var follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> 0));
+        TimeUnit.MILLISECONDS.sleep(50);
+        release.countDown();
+
+        var e = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertEquals(7, singleFlight.execute("key", () -> 7));     // a later call is not coalesced with the failed one
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
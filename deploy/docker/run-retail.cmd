@@ -5,6 +5,11 @@ echo JAVA_HOME = $JAVA_HOME
 # Note: path to mvn and JAVA_HOME need to be defined
 
 # change directory to components
+echo "build vicinity-codegen"
+cd ..\..\components\vicinity-codegen
+call mvn -DskipTests clean install
+cd ..\..\deploy\docker
+
 echo "build vicinity-platform"
 cd ..\..\components\vicinity-platform
 call mvn -DskipTests clean install
@@ -6,6 +6,11 @@ MODE=${1:-"build"}
 echo MODE=$MODE
 
 # change directory to components
+echo "build vicinity-codegen"
+pushd ../../components/vicinity-codegen
+mvn -DskipTests clean install
+popd
+
 echo "build vicinity-platform"
 pushd ../../components/vicinity-platform
 mvn -DskipTests clean install